@@ -0,0 +1,4 @@
+#!/bin/bash
+# レプリカ（compose.yml の postgres-replica）からのストリーミングレプリケーション接続を許可する
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,23 @@
+package com.yusay.user.api.application.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 署名を検証済みのアクセストークンの内容
+ *
+ * @param subject ユーザー名
+ * @param authorities 発行時点の権限（ROLE_接頭辞付きのロールと権限名）
+ * @param issuedAt 発行日時
+ * @param expiresAt 有効期限
+ */
+public record AccessTokenClaims(
+    String subject,
+    List<String> authorities,
+    Instant issuedAt,
+    Instant expiresAt
+) {
+    public AccessTokenClaims {
+        authorities = List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,46 @@
+package com.yusay.user.api.application.dto;
+
+import com.yusay.user.api.domain.entity.User;
+
+/**
+ * 一括登録における1件分の登録結果
+ * 
+ * @param index リクエスト内での位置（0始まり）
+ * @param user 登録されたユーザー（登録されなかった場合はnull）
+ * @param duplicateField 重複したフィールド名（重複以外の場合はnull）
+ * @param busy パスワードのハッシュ化を受け付けられず、登録を試みなかった場合true
+ */
+public record BatchCreateItemResult(
+    int index,
+    User user,
+    String duplicateField,
+    boolean busy
+) {
+    public BatchCreateItemResult(int index, User user, String duplicateField) {
+        this(index, user, duplicateField, false);
+    }
+
+    /**
+     * パスワードのハッシュ化を受け付けられなかった要素の結果
+     *
+     * @param index リクエスト内での位置（0始まり）
+     * @return 登録を試みなかったことを表す結果
+     */
+    public static BatchCreateItemResult ofBusy(int index) {
+        return new BatchCreateItemResult(index, null, null, true);
+    }
+
+    /**
+     * リクエスト内での位置を置き換えた結果を返す
+     *
+     * @param newIndex リクエスト内での位置（0始まり）
+     * @return 位置のみを置き換えた結果
+     */
+    public BatchCreateItemResult withIndex(int newIndex) {
+        return new BatchCreateItemResult(newIndex, user, duplicateField, busy);
+    }
+
+    public boolean isCreated() {
+        return user != null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.yusay.user.api.application.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 全件削除ジョブの状態
+ * 
+ * @param jobId ジョブID
+ * @param state 実行状態
+ * @param targetCount 開始時点の削除対象ユーザー数
+ * @param deletedCount 削除済みのユーザー数
+ * @param startedAt 開始日時
+ * @param finishedAt 終了日時（実行中の場合はnull）
+ * @param environment 実行環境
+ */
+public record DeleteAllJobStatus(
+    String jobId,
+    State state,
+    long targetCount,
+    long deletedCount,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    String environment
+) {
+    /**
+     * 全件削除ジョブの実行状態
+     */
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,25 @@
+package com.yusay.user.api.application.dto;
+
+import java.time.Duration;
+
+/**
+ * 発行したアクセストークンとリフレッシュトークン
+ *
+ * @param accessToken アクセストークン（署名付きJWT）
+ * @param accessTokenTtl アクセストークンの有効期間
+ * @param refreshToken リフレッシュトークン（平文。保存するのはハッシュのみのため、再取得はできない）
+ */
+public record IssuedTokens(
+    String accessToken,
+    Duration accessTokenTtl,
+    String refreshToken
+) {
+    @Override
+    public String toString() {
+        return "IssuedTokens[" +
+                "accessToken='****'" +
+                ", accessTokenTtl=" + accessTokenTtl +
+                ", refreshToken='****'" +
+                ']';
+    }
+}
@@ -0,0 +1,23 @@
+package com.yusay.user.api.application.dto;
+
+import com.yusay.user.api.domain.repository.UserDumpFormat;
+
+/**
+ * ファイルへ出力したダンプの情報
+ *
+ * @param fileName ファイル名
+ * @param format 出力形式
+ * @param rowCount 出力したユーザー数
+ * @param sizeBytes ファイルサイズ（バイト）
+ * @param parallelism 出力に使用したコネクション数
+ * @param elapsedMillis 処理時間（ミリ秒）
+ */
+public record UserDumpFile(
+    String fileName,
+    UserDumpFormat format,
+    long rowCount,
+    long sizeBytes,
+    int parallelism,
+    long elapsedMillis
+) {
+}
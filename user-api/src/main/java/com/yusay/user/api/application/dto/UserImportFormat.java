@@ -0,0 +1,16 @@
+package com.yusay.user.api.application.dto;
+
+/**
+ * 一括取り込みの入力形式
+ */
+public enum UserImportFormat {
+    /**
+     * CSV形式（1行目はヘッダー行 username,email,password_hash）
+     */
+    CSV,
+
+    /**
+     * NDJSON形式（1行に1つの {"username", "email", "passwordHash"} オブジェクト）
+     */
+    NDJSON
+}
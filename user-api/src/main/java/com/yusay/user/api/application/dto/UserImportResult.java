@@ -0,0 +1,21 @@
+package com.yusay.user.api.application.dto;
+
+/**
+ * 一括取り込みの結果
+ *
+ * @param totalRows 読み込んだ行数（ヘッダー行、空行を除く）
+ * @param insertedCount 登録した件数
+ * @param duplicateCount メールアドレスまたはユーザー名の重複によりスキップした件数
+ * @param rejectedCount 入力値が不正なためスキップした件数
+ * @param failedCount 取り込み処理のエラーにより登録できなかった件数
+ * @param elapsedMillis 処理時間（ミリ秒）
+ */
+public record UserImportResult(
+    long totalRows,
+    long insertedCount,
+    long duplicateCount,
+    long rejectedCount,
+    long failedCount,
+    long elapsedMillis
+) {
+}
@@ -0,0 +1,20 @@
+package com.yusay.user.api.application.dto;
+
+import com.yusay.user.api.domain.entity.User;
+
+import java.util.List;
+
+/**
+ * ユーザー一覧の1ページ分の取得結果
+ *
+ * @param users ページ内のユーザー（作成日時、ID昇順）
+ * @param nextCursor 次ページ取得用の不透明なカーソル（次ページが無い場合はnull）
+ */
+public record UserPage(
+    List<User> users,
+    String nextCursor
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
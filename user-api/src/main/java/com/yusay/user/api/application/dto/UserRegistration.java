@@ -0,0 +1,23 @@
+package com.yusay.user.api.application.dto;
+
+/**
+ * 一括登録における1件分の登録内容
+ * 
+ * @param username ユーザー名
+ * @param email メールアドレス
+ * @param passwordHash パスワードハッシュ
+ */
+public record UserRegistration(
+    String username,
+    String email,
+    String passwordHash
+) {
+    @Override
+    public String toString() {
+        return "UserRegistration[" +
+                "username='" + username + '\'' +
+                ", email='" + email + '\'' +
+                ", passwordHash='****'" +
+                ']';
+    }
+}
@@ -0,0 +1,170 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.application.dto.AccessTokenClaims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * アクセストークン（HS256で署名したJWT）を発行・検証するアプリケーションサービス
+ *
+ * 検証は署名と有効期限の確認のみで完結し、データベースを参照しない。
+ * そのため権限の変更やアカウントの無効化は、発行済みのトークンの有効期限が切れるまで反映されない
+ */
+@Service
+public class AccessTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenService.class);
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final Base64.Encoder BASE64URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64URL_DECODER = Base64.getUrlDecoder();
+
+    // ヘッダーは固定のため事前にエンコードしておき、検証時は完全に一致するもののみ受け付ける
+    // （alg を none や別のアルゴリズムに書き換えたトークンを受け付けない）
+    private static final String HEADER = BASE64URL_ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.US_ASCII));
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Duration accessTokenTtl;
+    private final SecretKeySpec key;
+    private final Mac prototype;
+
+    /**
+     * @param objectMapper クレームのシリアライズに使用するObjectMapper
+     * @param clock 発行日時と有効期限の判定に使用するClock
+     * @param secret 署名鍵（Base64、32バイト以上。未指定の場合は起動ごとに生成する）
+     * @param accessTokenTtl アクセストークンの有効期間
+     */
+    public AccessTokenService(
+            ObjectMapper objectMapper,
+            Clock clock,
+            @Value("${user.token.secret:}") String secret,
+            @Value("${user.token.access-ttl:5m}") Duration accessTokenTtl) {
+        if (accessTokenTtl.isNegative() || accessTokenTtl.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("accessTokenTtl must be positive, but was: %s", accessTokenTtl));
+        }
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.accessTokenTtl = accessTokenTtl;
+        this.key = new SecretKeySpec(resolveSecret(secret), MAC_ALGORITHM);
+        this.prototype = initMac(key);
+    }
+
+    /**
+     * アクセストークンを発行する
+     *
+     * @param subject ユーザー名
+     * @param authorities 権限
+     * @return 署名付きのアクセストークン
+     */
+    public String issue(String subject, Collection<String> authorities) {
+        long issuedAt = clock.instant().getEpochSecond();
+        Payload payload = new Payload(subject, List.copyOf(authorities), issuedAt, issuedAt + accessTokenTtl.toSeconds());
+        String signingInput = HEADER + '.' + BASE64URL_ENCODER.encodeToString(objectMapper.writeValueAsBytes(payload));
+        return signingInput + '.' + BASE64URL_ENCODER.encodeToString(sign(signingInput));
+    }
+
+    /**
+     * アクセストークンの署名と有効期限を検証する
+     *
+     * @param token アクセストークン
+     * @return 検証済みのクレーム（形式・署名が不正か、有効期限切れの場合は空）
+     */
+    public Optional<AccessTokenClaims> verify(String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (headerEnd != HEADER.length() || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0
+                || !token.startsWith(HEADER)) {
+            return Optional.empty();
+        }
+        String signingInput = token.substring(0, payloadEnd);
+        Payload payload;
+        try {
+            byte[] signature = BASE64URL_DECODER.decode(token.substring(payloadEnd + 1));
+            // 一致するまでの比較時間から署名を推測されないよう、一定時間で比較する
+            if (!MessageDigest.isEqual(sign(signingInput), signature)) {
+                return Optional.empty();
+            }
+            payload = objectMapper.readValue(BASE64URL_DECODER.decode(token.substring(headerEnd + 1, payloadEnd)), Payload.class);
+        } catch (IllegalArgumentException | JacksonException e) {
+            return Optional.empty();
+        }
+        if (payload.sub() == null || payload.exp() <= clock.instant().getEpochSecond()) {
+            return Optional.empty();
+        }
+        return Optional.of(new AccessTokenClaims(
+                payload.sub(),
+                payload.authorities() == null ? List.of() : payload.authorities(),
+                Instant.ofEpochSecond(payload.iat()),
+                Instant.ofEpochSecond(payload.exp())));
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    private byte[] sign(String signingInput) {
+        Mac mac;
+        try {
+            // Macはスレッドセーフではないため、初期化済みのインスタンスを複製して鍵の初期化を省く
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            mac = initMac(key);
+        }
+        return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Mac initMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static byte[] resolveSecret(String secret) {
+        if (secret == null || secret.isBlank()) {
+            logger.warn("user.token.secret が未設定のため、署名鍵を生成しました。"
+                    + "再起動後や他のインスタンスでは発行済みのアクセストークンを検証できません");
+            byte[] generated = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(generated);
+            return generated;
+        }
+        byte[] decoded = Base64.getDecoder().decode(secret.trim());
+        if (decoded.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException(
+                String.format("secret must be at least %d bytes, but was: %d", MIN_SECRET_BYTES, decoded.length));
+        }
+        return decoded;
+    }
+
+    /**
+     * JWTのペイロード（クレーム名はRFC 7519に合わせる）
+     */
+    record Payload(String sub, List<String> authorities, long iat, long exp) {
+    }
+}
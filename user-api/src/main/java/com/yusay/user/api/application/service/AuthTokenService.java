@@ -0,0 +1,163 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.application.dto.IssuedTokens;
+import com.yusay.user.api.domain.entity.RefreshToken;
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.exception.InvalidRefreshTokenException;
+import com.yusay.user.api.domain.repository.RefreshTokenRepository;
+import com.yusay.user.api.domain.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HexFormat;
+
+/**
+ * ログインとトークンの更新を行うアプリケーションサービス
+ *
+ * リフレッシュトークンは推測できない乱数とし、refresh_tokens にはSHA-256ハッシュのみを保存する。
+ * 更新時は使用したリフレッシュトークンを削除して新しいトークンを発行する（ローテーション）ため、
+ * 各リフレッシュトークンは1度しか使用できない
+ */
+@Service
+public class AuthTokenService {
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+    private static final String INVALID_REFRESH_TOKEN_MESSAGE = "Refresh token is invalid or expired";
+
+    private final AuthenticationManager authenticationManager;
+    private final UserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AccessTokenService accessTokenService;
+    private final Clock clock;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final UserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+
+    public AuthTokenService(
+            AuthenticationManager authenticationManager,
+            UserDetailsService userDetailsService,
+            UserRepository userRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            AccessTokenService accessTokenService,
+            Clock clock,
+            @Value("${user.token.refresh-ttl:14d}") Duration refreshTokenTtl) {
+        if (refreshTokenTtl.isNegative() || refreshTokenTtl.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("refreshTokenTtl must be positive, but was: %s", refreshTokenTtl));
+        }
+        this.authenticationManager = authenticationManager;
+        this.userDetailsService = userDetailsService;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accessTokenService = accessTokenService;
+        this.clock = clock;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    /**
+     * ユーザー名とパスワードで認証し、アクセストークンとリフレッシュトークンを発行する
+     *
+     * パスワードの照合（BCrypt）の間に接続を保持しないよう、トランザクションは開始しない
+     *
+     * @param username ユーザー名
+     * @param password パスワード
+     * @return 発行したトークン
+     * @throws org.springframework.security.core.AuthenticationException 認証に失敗した場合
+     */
+    public IssuedTokens login(String username, String password) {
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+        User user = userRepository.findByUsername(authentication.getName())
+                // 認証後に削除された場合は、存在しないユーザーと同様に認証失敗とする
+                .orElseThrow(() -> new BadCredentialsException("User not found: " + authentication.getName()));
+        return issue(user.id(), authentication.getName(), authentication.getAuthorities());
+    }
+
+    /**
+     * リフレッシュトークンを使用済みにし、新しいアクセストークンとリフレッシュトークンを発行する
+     *
+     * 使用済みにする削除と新しいトークンの登録は1文で行い、同じ時間帯に更新が集中しても
+     * 行ロックを文の実行を超えて保持しないよう、トランザクションは開始しない。
+     * 権限とアカウントの状態は更新時点の値を読み込み直す
+     *
+     * @param refreshToken リフレッシュトークン
+     * @return 発行したトークン
+     * @throws InvalidRefreshTokenException リフレッシュトークンが存在しないか、有効期限切れの場合
+     * @throws org.springframework.security.authentication.AccountStatusException アカウントが無効・ロック等の場合
+     */
+    public IssuedTokens refresh(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        String newRefreshToken = newRefreshToken();
+        RefreshToken rotated = refreshTokenRepository.rotate(
+                        hash(refreshToken), hash(newRefreshToken), now, now.plus(refreshTokenTtl))
+                .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN_MESSAGE));
+        try {
+            User user = userRepository.findById(rotated.userId())
+                    .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN_MESSAGE));
+            UserDetails userDetails = userDetailsService.loadUserByUsername(user.username());
+            accountStatusChecker.check(userDetails);
+            return new IssuedTokens(
+                    issueAccessToken(userDetails.getUsername(), userDetails.getAuthorities()),
+                    accessTokenService.getAccessTokenTtl(),
+                    newRefreshToken);
+        } catch (RuntimeException e) {
+            // 返却できなかったリフレッシュトークンは残さない
+            refreshTokenRepository.deleteByTokenHash(rotated.tokenHash());
+            throw e;
+        }
+    }
+
+    private IssuedTokens issue(String userId, String username, Collection<? extends GrantedAuthority> authorities) {
+        String accessToken = issueAccessToken(username, authorities);
+
+        String refreshToken = newRefreshToken();
+        LocalDateTime now = LocalDateTime.now(clock);
+        refreshTokenRepository.insert(new RefreshToken(null, userId, hash(refreshToken), now.plus(refreshTokenTtl), now));
+
+        return new IssuedTokens(accessToken, accessTokenService.getAccessTokenTtl(), refreshToken);
+    }
+
+    private String issueAccessToken(String username, Collection<? extends GrantedAuthority> authorities) {
+        return accessTokenService.issue(username, authorities.stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    private String newRefreshToken() {
+        byte[] random = new byte[REFRESH_TOKEN_BYTES];
+        secureRandom.nextBytes(random);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+    }
+
+    /**
+     * リフレッシュトークンのハッシュを求める
+     *
+     * トークンは十分な長さの乱数で総当たりが現実的でないため、BCryptのような低速なハッシュは使用せず、
+     * 一意制約のインデックスで検索できる決定的なハッシュとする
+     */
+    static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
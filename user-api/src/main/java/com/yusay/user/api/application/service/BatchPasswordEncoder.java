@@ -0,0 +1,22 @@
+package com.yusay.user.api.application.service;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+
+/**
+ * 複数のパスワードをまとめてハッシュ化できるPasswordEncoder
+ */
+public interface BatchPasswordEncoder extends PasswordEncoder {
+
+    /**
+     * 複数のパスワードをまとめてハッシュ化する
+     *
+     * 全件のハッシュ化を受け付けてから完了を待つ。待ち行列が上限に達して受け付けられなかった要素は
+     * 失敗とせずnullとし、受け付けた要素のハッシュ化は完了させる
+     *
+     * @param rawPasswords ハッシュ化するパスワード
+     * @return 入力と同じ順序のハッシュ（受け付けられなかった要素はnull）
+     */
+    List<String> encodeAll(List<? extends CharSequence> rawPasswords);
+}
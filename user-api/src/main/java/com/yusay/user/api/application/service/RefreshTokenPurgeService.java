@@ -0,0 +1,82 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.domain.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * 有効期限切れのリフレッシュトークンを定期的に削除するアプリケーションサービス
+ *
+ * アプリケーションロジック:
+ * - 削除は最大件数ごとのバッチに分割し、バッチごとにコミットする
+ *   （1トランザクションでのロック保持時間とWALの増加を抑えるため）
+ * - バッチごとにアドバイザリーロックを取得し、複数のノードで同時に削除しない
+ *   （他のノードが削除中の場合は今回の実行を終了する）
+ * - ローテーション中のトークンの行ロックは待たずに読み飛ばす
+ */
+@Service
+public class RefreshTokenPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurgeService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+
+    public RefreshTokenPurgeService(
+            RefreshTokenRepository refreshTokenRepository,
+            TransactionTemplate transactionTemplate,
+            Clock clock,
+            @Value("${user.token.purge.batch-size:1000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(
+                String.format("batchSize must be positive, but was: %d", batchSize));
+        }
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 有効期限切れのリフレッシュトークンを削除する
+     *
+     * 起動直後の負荷と重ならないよう、初回も実行間隔が経過してから実行する
+     *
+     * @return 削除した件数
+     */
+    @Scheduled(
+            initialDelayString = "${user.token.purge.interval:1h}",
+            fixedDelayString = "${user.token.purge.interval:1h}")
+    public long purgeExpired() {
+        // 実行中に期限切れとなったトークンまで追いかけ続けないよう、基準日時は開始時点で固定する
+        LocalDateTime now = LocalDateTime.now(clock);
+        long deletedCount = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    refreshTokenRepository.tryLockExpiredPurge()
+                            ? refreshTokenRepository.deleteExpired(now, batchSize)
+                            : null);
+            if (deleted == null) {
+                logger.debug("他のノードが有効期限切れのリフレッシュトークンを削除中のため、削除を終了します");
+                break;
+            }
+            deletedCount += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        if (deletedCount > 0) {
+            logger.info("有効期限切れのリフレッシュトークンを削除しました。削除件数: {}", deletedCount);
+        }
+        return deletedCount;
+    }
+}
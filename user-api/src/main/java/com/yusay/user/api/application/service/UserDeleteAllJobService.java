@@ -0,0 +1,254 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.application.dto.DeleteAllJobStatus;
+import com.yusay.user.api.domain.exception.DeleteAllJobNotFoundException;
+import com.yusay.user.api.domain.exception.DeleteAllNotAllowedException;
+import com.yusay.user.api.domain.repository.UserDeleteChunkResult;
+import com.yusay.user.api.domain.repository.UserRepository;
+import com.yusay.user.api.domain.service.UserDomainService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 全ユーザーの削除をバックグラウンドジョブとして実行するアプリケーションサービス
+ * 
+ * アプリケーションロジック:
+ * - 本番環境では実行を拒否
+ * - 削除はID範囲ごとのチャンクに分割し、チャンクごとにコミットする
+ *   （1トランザクションでのロック保持時間とWALの増加を抑えるため）
+ * - 同時に実行できるジョブは1つまで
+ * - 削除前後の監査ログを記録
+ * 
+ * ドメインルール:
+ * - 削除対象が上限を超える場合は拒否
+ */
+@Service
+public class UserDeleteAllJobService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserDeleteAllJobService.class);
+    
+    // 状態を参照できるよう保持する終了済みジョブの最大数
+    private static final int MAX_RETAINED_JOBS = 20;
+    
+    private final UserRepository userRepository;
+    private final UserDomainService userDomainService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final String activeProfile;
+    private final int maxAllowedDeletions;
+    private final int chunkSize;
+    
+    private final Map<String, DeleteAllJob> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, DeleteAllJob> eldest) {
+                    return size() > MAX_RETAINED_JOBS;
+                }
+            });
+    private DeleteAllJob runningJob;
+
+    public UserDeleteAllJobService(
+            UserRepository userRepository,
+            UserDomainService userDomainService,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${spring.profiles.active:default}") String activeProfile,
+            @Value("${user.delete-all.max-allowed-deletions:1000}") int maxAllowedDeletions,
+            @Value("${user.delete-all.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userDomainService = userDomainService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.activeProfile = activeProfile;
+        
+        // maxAllowedDeletionsの妥当性検証
+        if (maxAllowedDeletions <= 0) {
+            throw new IllegalArgumentException(
+                String.format("maxAllowedDeletions must be positive, but was: %d", maxAllowedDeletions));
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(
+                String.format("chunkSize must be positive, but was: %d", chunkSize));
+        }
+        this.maxAllowedDeletions = maxAllowedDeletions;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 全件削除ジョブを開始する
+     * 
+     * 既に実行中のジョブがある場合は新たなジョブを開始せず、実行中のジョブの状態を返す
+     * 
+     * @return 開始したジョブの状態
+     * @throws DeleteAllNotAllowedException 本番環境での実行または削除件数が上限を超える場合
+     */
+    public synchronized DeleteAllJobStatus start() {
+        // アプリケーションロジック: 本番環境チェック
+        if (isProductionEnvironment()) {
+            logger.error("本番環境での全件削除が試行されました。環境: {}", activeProfile);
+            throw new DeleteAllNotAllowedException("本番環境では全件削除を実行できません。");
+        }
+        
+        if (runningJob != null) {
+            logger.info("全件削除ジョブが実行中のため、新たなジョブは開始しません。ジョブID: {}", runningJob.jobId);
+            return runningJob.toStatus();
+        }
+        
+        // 削除前の検証（監査ログは検証成功後に記録）
+        long userCount = userRepository.count();
+        
+        // ドメインルール: 削除件数の事前検証
+        try {
+            userDomainService.validateDeleteAll(userCount, maxAllowedDeletions);
+        } catch (DeleteAllNotAllowedException e) {
+            logger.error("全件削除の事前検証で失敗しました。対象ユーザー数: {}, 上限: {}, 環境: {}",
+                userCount, maxAllowedDeletions, activeProfile);
+            throw e;
+        }
+        
+        DeleteAllJob job = new DeleteAllJob(
+                UUID.randomUUID().toString(), userCount, userDomainService.getCurrentTime());
+        jobs.put(job.jobId, job);
+        runningJob = job;
+        
+        // 検証成功後の監査ログ
+        logger.warn("全件削除ジョブを開始します。ジョブID: {}, 対象ユーザー数: {}, 環境: {}",
+            job.jobId, userCount, activeProfile);
+        
+        try {
+            taskExecutor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            finish(job, DeleteAllJobStatus.State.FAILED);
+            throw e;
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * 全件削除ジョブの状態を取得する
+     * 
+     * @param jobId ジョブID
+     * @return ジョブの状態
+     * @throws DeleteAllJobNotFoundException ジョブが存在しない場合
+     */
+    public DeleteAllJobStatus getStatus(String jobId) {
+        DeleteAllJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new DeleteAllJobNotFoundException(jobId);
+        }
+        return job.toStatus();
+    }
+
+    private void run(DeleteAllJob job) {
+        try {
+            String afterId = null;
+            while (true) {
+                // 開始後に追加されたユーザーを含めて上限を超えて削除しないよう、チャンクの件数を制限する
+                long remainingAllowance = maxAllowedDeletions - job.deletedCount;
+                if (remainingAllowance <= 0) {
+                    long remainingUsers = userRepository.count();
+                    if (remainingUsers > 0) {
+                        throw new DeleteAllNotAllowedException(
+                            String.format("削除件数が上限（%d件）に達しましたが、%d件のユーザーが残っているため、全件削除を中断しました。",
+                                maxAllowedDeletions, remainingUsers));
+                    }
+                    break;
+                }
+                
+                int limit = (int) Math.min(chunkSize, remainingAllowance);
+                String chunkAfterId = afterId;
+                UserDeleteChunkResult chunk = transactionTemplate.execute(status ->
+                        userRepository.deleteChunk(chunkAfterId, limit));
+                
+                job.deletedCount += chunk.deletedCount();
+                logger.info("全件削除ジョブ進捗: ジョブID: {}, 削除済み: {}/{}件",
+                    job.jobId, job.deletedCount, job.targetCount);
+                
+                // 件数が上限に満たないチャンクでは終了しない（並行して削除された行は削除件数に含まれないため、
+                // 後ろに行が残っていてもlimit件未満となる）。後ろに削除対象が無くなった場合は、カーソルより前に
+                // 追加された行を含めて先頭から確認し直し、先頭からのチャンクが0件となった時点で完了とする
+                if (chunk.deletedCount() == 0) {
+                    if (afterId == null) {
+                        break;
+                    }
+                    afterId = null;
+                    continue;
+                }
+                afterId = chunk.lastId();
+            }
+            
+            finish(job, DeleteAllJobStatus.State.COMPLETED);
+            // 削除後の監査ログ
+            logger.warn("全件削除が完了しました。ジョブID: {}, 削除件数: {}, 実行日時: {}, 環境: {}",
+                job.jobId, job.deletedCount, job.startedAt, activeProfile);
+        } catch (RuntimeException e) {
+            finish(job, DeleteAllJobStatus.State.FAILED);
+            logger.error("全件削除ジョブが失敗しました。ジョブID: {}, 削除済み: {}件, 環境: {}",
+                job.jobId, job.deletedCount, activeProfile, e);
+        }
+    }
+
+    private synchronized void finish(DeleteAllJob job, DeleteAllJobStatus.State state) {
+        job.finishedAt = userDomainService.getCurrentTime();
+        job.state = state;
+        if (runningJob == job) {
+            runningJob = null;
+        }
+    }
+
+    /**
+     * 現在の環境が本番環境かどうかを判定
+     * 複数プロファイルのカンマ区切りにも対応
+     * 
+     * @return 本番環境の場合true
+     */
+    private boolean isProductionEnvironment() {
+        if (activeProfile == null || activeProfile.isBlank()) {
+            return false;
+        }
+
+        String[] profiles = activeProfile.split(",");
+        for (String profile : profiles) {
+            String trimmed = profile.trim();
+            if ("prod".equalsIgnoreCase(trimmed) || "production".equalsIgnoreCase(trimmed)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 実行中に更新される全件削除ジョブの状態
+     */
+    private final class DeleteAllJob {
+        private final String jobId;
+        private final long targetCount;
+        private final LocalDateTime startedAt;
+        private volatile long deletedCount;
+        private volatile LocalDateTime finishedAt;
+        private volatile DeleteAllJobStatus.State state = DeleteAllJobStatus.State.RUNNING;
+
+        private DeleteAllJob(String jobId, long targetCount, LocalDateTime startedAt) {
+            this.jobId = jobId;
+            this.targetCount = targetCount;
+            this.startedAt = startedAt;
+        }
+
+        private DeleteAllJobStatus toStatus() {
+            return new DeleteAllJobStatus(
+                    jobId, state, targetCount, deletedCount, startedAt, finishedAt, activeProfile);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.application.dto.UserDumpFile;
+import com.yusay.user.api.domain.exception.DumpNotFoundException;
+import com.yusay.user.api.domain.exception.InvalidDumpRequestException;
+import com.yusay.user.api.domain.repository.UserDumpFormat;
+import com.yusay.user.api.domain.repository.UserDumpRepository;
+import com.yusay.user.api.domain.repository.UserIdRange;
+import com.yusay.user.api.domain.service.UserDomainService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 全ユーザーのダンプを行うアプリケーションサービス
+ * 
+ * 単一コネクションでレスポンスへ直接書き出すほか、ID範囲ごとに複数コネクションで並列に
+ * ファイルへ書き出すことができる。並列出力では全コネクションが同一のスナップショットを
+ * 共有するため、出力結果は単一トランザクションで読んだ場合と同じ一貫性を持つ
+ * 
+ * ファイルへ書き出したダンプは保持期間を過ぎると定期的に削除する
+ */
+@Service
+public class UserDumpService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserDumpService.class);
+    
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final Pattern FILE_NAME_PATTERN = Pattern.compile("users-\\d{14}-[0-9a-f]{8}\\.(csv|bin)");
+    
+    private final UserDumpRepository userDumpRepository;
+    private final UserDomainService userDomainService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate snapshotTransaction;
+    private final Path dumpDirectory;
+    private final int maxParallelism;
+    private final ThreadFactory workerThreadFactory;
+    private final Duration retention;
+
+    public UserDumpService(
+            UserDumpRepository userDumpRepository,
+            UserDomainService userDomainService,
+            PlatformTransactionManager transactionManager,
+            @Value("${user.dump.directory:${java.io.tmpdir}/user-dumps}") String dumpDirectory,
+            @Value("${user.dump.max-parallelism:4}") int maxParallelism,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${user.dump.retention:1h}") Duration retention) {
+        this.userDumpRepository = userDumpRepository;
+        this.userDomainService = userDomainService;
+        
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        
+        // スナップショットのエクスポート・インポートには REPEATABLE READ が必要
+        // 読み書き分離時にコーディネーターとワーカーが同一サーバーへ接続するよう、
+        // 読み取り専用にはせずプライマリで実行する
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        
+        if (maxParallelism <= 0) {
+            throw new IllegalArgumentException(
+                String.format("maxParallelism must be positive, but was: %d", maxParallelism));
+        }
+        this.dumpDirectory = Path.of(dumpDirectory);
+        this.maxParallelism = maxParallelism;
+        // 各ワーカーはCOPYの送受信で待機している時間が大半のため、仮想スレッドで実行する場合は
+        // ワーカーも仮想スレッドとする
+        this.workerThreadFactory = virtualThreads
+                ? Thread.ofVirtual().name("user-dump-", 0).factory()
+                : Thread.ofPlatform().name("user-dump-", 0).factory();
+        
+        if (retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("retention must be positive, but was: %s", retention));
+        }
+        this.retention = retention;
+    }
+
+    /**
+     * 全ユーザーを単一のコネクションで出力先へ直接書き出す
+     * 
+     * @param format 出力形式
+     * @param out 出力先
+     * @return 出力した行数
+     */
+    public long dump(UserDumpFormat format, OutputStream out) {
+        return readOnlyTransaction.execute(status ->
+                userDumpRepository.copyOut(format, UserIdRange.ALL, true, out));
+    }
+
+    /**
+     * 全ユーザーをダンプディレクトリ内のファイルへ書き出す
+     * 
+     * parallelism が2以上の場合はID範囲を分割し、同一スナップショットを共有する
+     * 複数のコネクションで並列に書き出した後、1つのファイルに連結する
+     * 
+     * @param format 出力形式（並列出力はCSV形式のみ）
+     * @param parallelism 使用するコネクション数
+     * @return 出力したファイルの情報
+     * @throws InvalidDumpRequestException 並列数が範囲外、またはバイナリ形式で並列出力を指定した場合
+     * @throws IOException ファイルの書き込みに失敗した場合
+     */
+    public UserDumpFile dumpToFile(UserDumpFormat format, int parallelism) throws IOException {
+        if (parallelism < 1 || parallelism > maxParallelism) {
+            throw new InvalidDumpRequestException(
+                String.format("parallelism must be between 1 and %d", maxParallelism));
+        }
+        if (format == UserDumpFormat.BINARY && parallelism > 1) {
+            // バイナリCOPYはファイルごとにヘッダーとトレーラーを持つため、単純に連結できない
+            throw new InvalidDumpRequestException("parallel dump supports only CSV format");
+        }
+        
+        long startedAt = System.nanoTime();
+        Files.createDirectories(dumpDirectory);
+        Path target = dumpDirectory.resolve(newFileName(format));
+        
+        long rowCount;
+        try {
+            rowCount = parallelism == 1
+                    ? dumpSingle(format, target)
+                    : dumpInParallel(target, parallelism);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        UserDumpFile dumpFile = new UserDumpFile(
+                target.getFileName().toString(),
+                format,
+                rowCount,
+                Files.size(target),
+                parallelism,
+                elapsedMillis);
+        logger.info("ユーザーのダンプを出力しました: ファイル={}, 行数={}, サイズ={}bytes, 並列数={}, 処理時間={}ms",
+                dumpFile.fileName(), dumpFile.rowCount(), dumpFile.sizeBytes(),
+                dumpFile.parallelism(), dumpFile.elapsedMillis());
+        return dumpFile;
+    }
+
+    /**
+     * 出力済みのダンプファイルのパスを返す
+     * 
+     * @param fileName {@link #dumpToFile} が返したファイル名
+     * @return ダンプファイルのパス
+     * @throws DumpNotFoundException ファイル名が不正、またはファイルが存在しない場合
+     */
+    public Path resolveDumpFile(String fileName) {
+        // ダンプディレクトリ外のファイルを参照させないよう、生成したファイル名の形式のみを許可
+        if (!FILE_NAME_PATTERN.matcher(fileName).matches()) {
+            throw new DumpNotFoundException(fileName);
+        }
+        Path file = dumpDirectory.resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new DumpNotFoundException(fileName);
+        }
+        return file;
+    }
+
+    /**
+     * 保持期間を過ぎたダンプファイルを削除する
+     * 
+     * ダウンロード中のファイルを削除しないよう、ダウンロード後に即時削除するのではなく
+     * 最終更新から保持期間が経過したファイルのみを削除する。ダンプディレクトリ内の
+     * {@link #dumpToFile} が生成した形式のファイルのみを対象とする
+     * 
+     * @return 削除したファイル数
+     */
+    @Scheduled(
+            initialDelayString = "${user.dump.purge-interval:10m}",
+            fixedDelayString = "${user.dump.purge-interval:10m}")
+    public int purgeExpiredDumps() {
+        if (!Files.isDirectory(dumpDirectory)) {
+            return 0;
+        }
+        Instant expiredBefore = Instant.now().minus(retention);
+        int deletedCount = 0;
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (FILE_NAME_PATTERN.matcher(file.getFileName().toString()).matches()
+                        && Files.getLastModifiedTime(file).toInstant().isBefore(expiredBefore)
+                        && Files.deleteIfExists(file)) {
+                    deletedCount++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to purge expired dump files in {}", dumpDirectory, e);
+        }
+        if (deletedCount > 0) {
+            logger.info("保持期間を過ぎたダンプファイルを削除しました。削除件数: {}", deletedCount);
+        }
+        return deletedCount;
+    }
+
+    private long dumpSingle(UserDumpFormat format, Path target) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(
+                Files.newOutputStream(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            return dump(format, out);
+        }
+    }
+
+    private long dumpInParallel(Path target, int parallelism) throws IOException {
+        List<Path> parts = new ArrayList<>(parallelism);
+        try {
+            // スナップショットをエクスポートしたトランザクションが終了するまで各ワーカーが参照できるよう、
+            // 全ワーカーの完了までトランザクションを維持する
+            long rowCount = snapshotTransaction.execute(status -> {
+                String snapshotId = userDumpRepository.exportSnapshot();
+                List<UserIdRange> ranges = userDumpRepository.splitIdRanges(parallelism);
+                
+                try (ExecutorService executor = Executors.newFixedThreadPool(ranges.size(), workerThreadFactory)) {
+                    List<Future<Long>> futures = new ArrayList<>(ranges.size());
+                    for (int i = 0; i < ranges.size(); i++) {
+                        Path part = target.resolveSibling(target.getFileName() + ".part" + i);
+                        parts.add(part);
+                        UserIdRange range = ranges.get(i);
+                        boolean header = i == 0;
+                        futures.add(executor.submit(() -> dumpPart(snapshotId, range, header, part)));
+                    }
+                    
+                    long total = 0;
+                    for (Future<Long> future : futures) {
+                        total += await(future);
+                    }
+                    return total;
+                }
+            });
+            concatenate(parts, target);
+            return rowCount;
+        } finally {
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    private long dumpPart(String snapshotId, UserIdRange range, boolean header, Path part) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(
+                Files.newOutputStream(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            return snapshotTransaction.execute(status -> {
+                userDumpRepository.useSnapshot(snapshotId);
+                return userDumpRepository.copyOut(UserDumpFormat.CSV, range, header, out);
+            });
+        }
+    }
+
+    private static long await(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for dump workers", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            throw new IllegalStateException("Dump worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * 分割出力したファイルを順に連結する（カーネル内でコピーされるよう FileChannel.transferTo を使用）
+     */
+    private static void concatenate(List<Path> parts, Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (Path part : parts) {
+                try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private String newFileName(UserDumpFormat format) {
+        String timestamp = userDomainService.getCurrentTime().format(FILE_TIMESTAMP);
+        String suffix = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+        String extension = format == UserDumpFormat.CSV ? "csv" : "bin";
+        return "users-" + timestamp + "-" + suffix + "." + extension;
+    }
+}
@@ -0,0 +1,316 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.application.dto.UserImportFormat;
+import com.yusay.user.api.application.dto.UserImportResult;
+import com.yusay.user.api.domain.repository.UserImportChunkResult;
+import com.yusay.user.api.domain.repository.UserImportRepository;
+import com.yusay.user.api.domain.service.UserDomainService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 大量ユーザーの一括取り込みを行うアプリケーションサービス
+ * 
+ * 入力をストリームのまま一定行数のチャンクに分割し、チャンクごとに独立したトランザクションで
+ * 並列に取り込む。パスワードはハッシュ化済みの値を受け取り、取り込み時にはハッシュ化しない
+ */
+@Service
+public class UserImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    
+    private final UserImportRepository userImportRepository;
+    private final UserDomainService userDomainService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int workers;
+
+    public UserImportService(
+            UserImportRepository userImportRepository,
+            UserDomainService userDomainService,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${user.import.chunk-size:10000}") int chunkSize,
+            @Value("${user.import.workers:4}") int workers) {
+        this.userImportRepository = userImportRepository;
+        this.userDomainService = userDomainService;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(
+                String.format("chunkSize must be positive, but was: %d", chunkSize));
+        }
+        if (workers <= 0) {
+            throw new IllegalArgumentException(
+                String.format("workers must be positive, but was: %d", workers));
+        }
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+    }
+
+    /**
+     * ユーザーを一括で取り込む
+     * 
+     * メールアドレスまたはユーザー名が既存ユーザーと重複する行はスキップする。
+     * チャンク単位でコミットするため、途中でエラーが発生しても完了済みのチャンクは取り消されない
+     * 
+     * @param input 取り込むデータ（UTF-8）
+     * @param format 入力形式
+     * @return 取り込み結果
+     * @throws IOException 入力の読み込みに失敗した場合
+     */
+    public UserImportResult importUsers(InputStream input, UserImportFormat format) throws IOException {
+        return importUsers(input, format, progress -> { });
+    }
+
+    /**
+     * ユーザーを一括で取り込み、チャンクの取り込みが完了するごとに途中までの集計を通知する
+     * 
+     * 通知はワーカーのスレッドから、集計の順序どおりに1件ずつ行う。
+     * 通知に失敗しても取り込みは継続する
+     * 
+     * @param input 取り込むデータ（UTF-8）
+     * @param format 入力形式
+     * @param progressListener 途中までの集計を受け取るリスナー
+     * @return 取り込み結果
+     * @throws IOException 入力の読み込みに失敗した場合
+     */
+    public UserImportResult importUsers(
+            InputStream input, UserImportFormat format, Consumer<UserImportResult> progressListener)
+            throws IOException {
+        long startedAt = System.nanoTime();
+        LocalDateTime importedAt = userDomainService.getCurrentTime();
+        ImportProgress progress = new ImportProgress(startedAt, progressListener);
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             ExecutorService executor = newWorkerPool()) {
+            if (format == UserImportFormat.CSV) {
+                // ヘッダー行を読み飛ばす
+                reader.readLine();
+            }
+            
+            StringBuilder chunk = new StringBuilder();
+            int chunkRows = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String csvRow = format == UserImportFormat.CSV
+                        ? readCsvRecord(reader, line, progress)
+                        : toCsvRow(line, progress);
+                if (csvRow == null) {
+                    continue;
+                }
+                chunk.append(csvRow).append('\n');
+                chunkRows++;
+                
+                if (chunkRows == chunkSize) {
+                    submitChunk(executor, chunk.toString(), chunkRows, importedAt, progress);
+                    chunk = new StringBuilder();
+                    chunkRows = 0;
+                }
+            }
+            if (chunkRows > 0) {
+                submitChunk(executor, chunk.toString(), chunkRows, importedAt, progress);
+            }
+        }
+        
+        UserImportResult result = progress.toResult();
+        logger.info("ユーザーの一括取り込みが完了しました: 読込={}件, 登録={}件, 重複={}件, 不正={}件, 失敗={}件, 処理時間={}ms",
+                result.totalRows(), result.insertedCount(), result.duplicateCount(),
+                result.rejectedCount(), result.failedCount(), result.elapsedMillis());
+        return result;
+    }
+
+    /**
+     * チャンク取り込み用のワーカープールを生成する
+     * 
+     * キューが埋まった場合は読み込み側のスレッドでチャンクを処理させ、
+     * 未処理のチャンクがメモリに溜まり続けないようにする
+     */
+    private ExecutorService newWorkerPool() {
+        return new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                Thread.ofPlatform().name("user-import-", 0).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private void submitChunk(ExecutorService executor, String csvRows, int rowCount,
+                             LocalDateTime importedAt, ImportProgress progress) {
+        executor.execute(() -> {
+            try {
+                UserImportChunkResult chunkResult = transactionTemplate.execute(status ->
+                        userImportRepository.importCsv(new StringReader(csvRows), importedAt));
+                progress.record(chunkResult);
+            } catch (RuntimeException e) {
+                progress.recordFailure(rowCount);
+                logger.error("チャンクの取り込みに失敗しました: 行数={}", rowCount, e);
+            }
+            logger.info("ユーザー取り込み進捗: 処理済み={}件, 登録={}件",
+                    progress.processedRows(), progress.insertedCount.get());
+            progress.publish();
+        });
+    }
+
+    /**
+     * CSVの1レコードを読み込む
+     * 
+     * 引用符で囲まれたフィールド内の改行はレコードの区切りとせず、引用符が閉じるまで
+     * 後続の行を連結する（エスケープされた引用符 "" は2文字として数えるため、引用符の数の偶奇で判定できる）。
+     * チャンクはレコードの境界で分割するため、複数行のフィールドがチャンクをまたぐことはない
+     * 
+     * @param reader 入力
+     * @param firstLine レコードの最初の行
+     * @return CSVの1レコード（引用符が閉じないまま入力が終わった場合はnull）
+     */
+    private static String readCsvRecord(BufferedReader reader, String firstLine, ImportProgress progress)
+            throws IOException {
+        int quotes = countQuotes(firstLine);
+        if (quotes % 2 == 0) {
+            return firstLine;
+        }
+        StringBuilder record = new StringBuilder(firstLine);
+        while (quotes % 2 != 0) {
+            String line = reader.readLine();
+            if (line == null) {
+                progress.recordMalformed();
+                return null;
+            }
+            record.append('\n').append(line);
+            quotes += countQuotes(line);
+        }
+        return record.toString();
+    }
+
+    private static int countQuotes(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * NDJSONの1行をCSVの1行へ変換する
+     * 
+     * @return CSVの1行（JSONとして不正な場合はnull）
+     */
+    private String toCsvRow(String json, ImportProgress progress) {
+        try {
+            ImportedUser user = objectMapper.readValue(json, ImportedUser.class);
+            return csvField(user.username()) + "," + csvField(user.email()) + "," + csvField(user.passwordHash());
+        } catch (JacksonException e) {
+            progress.recordMalformed();
+            return null;
+        }
+    }
+
+    /**
+     * CSVのフィールド値へ変換する（nullはCOPYでNULLとして扱われる空の非引用値とする）
+     */
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * NDJSONの1行に対応する取り込みデータ
+     */
+    private record ImportedUser(
+        String username,
+        String email,
+        String passwordHash
+    ) {
+    }
+
+    /**
+     * 並列に処理されるチャンクの取り込み結果を集計する
+     */
+    private static final class ImportProgress {
+        private final long startedAt;
+        private final Consumer<UserImportResult> listener;
+        private final AtomicLong totalRows = new AtomicLong();
+        private final AtomicLong insertedCount = new AtomicLong();
+        private final AtomicLong duplicateCount = new AtomicLong();
+        private final AtomicLong rejectedCount = new AtomicLong();
+        private final AtomicLong failedCount = new AtomicLong();
+
+        ImportProgress(long startedAt, Consumer<UserImportResult> listener) {
+            this.startedAt = startedAt;
+            this.listener = listener;
+        }
+
+        void record(UserImportChunkResult chunkResult) {
+            totalRows.addAndGet(chunkResult.rowCount());
+            insertedCount.addAndGet(chunkResult.insertedCount());
+            duplicateCount.addAndGet(chunkResult.validCount() - chunkResult.insertedCount());
+            rejectedCount.addAndGet(chunkResult.rowCount() - chunkResult.validCount());
+        }
+
+        void recordFailure(long rowCount) {
+            totalRows.addAndGet(rowCount);
+            failedCount.addAndGet(rowCount);
+        }
+
+        void recordMalformed() {
+            totalRows.incrementAndGet();
+            rejectedCount.incrementAndGet();
+        }
+
+        long processedRows() {
+            return totalRows.get();
+        }
+
+        /**
+         * 途中までの集計をリスナーへ通知する
+         * 
+         * 集計と通知をまとめて排他し、後から集計した値が先に通知されないようにする
+         */
+        synchronized void publish() {
+            try {
+                listener.accept(toResult());
+            } catch (RuntimeException e) {
+                logger.warn("ユーザー取り込みの進捗を通知できませんでした", e);
+            }
+        }
+
+        UserImportResult toResult() {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            return new UserImportResult(
+                    totalRows.get(),
+                    insertedCount.get(),
+                    duplicateCount.get(),
+                    rejectedCount.get(),
+                    failedCount.get(),
+                    elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.domain.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 認証に成功したユーザーのパスワードハッシュを現在のアルゴリズム・コストで保存し直すアプリケーションサービス
+ *
+ * PasswordEncoderが保存済みのハッシュを古い形式（旧アルゴリズム、現在より低いコスト）と判定した場合に、
+ * 認証処理から平文のパスワードを再ハッシュ化した値とともに呼び出される。
+ * これにより、コストの変更後もパスワードの一斉リセットを行わずに、ログインしたユーザーから順に移行する
+ */
+@Service
+@Transactional
+public class UserPasswordUpgradeService implements UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPasswordUpgradeService.class);
+
+    private final UserRepository userRepository;
+
+    public UserPasswordUpgradeService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * パスワードハッシュを置き換える
+     *
+     * 認証中に他のリクエストでパスワードが変更されていた場合は、変更後のパスワードを上書きしない
+     *
+     * @param user 認証に成功したユーザー（パスワードは保存済みのハッシュ）
+     * @param newPassword 再ハッシュ化したパスワード
+     * @return 置き換え後のハッシュを持つユーザー（置き換えなかった場合は元のユーザー）
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        boolean updated = userRepository.findByUsername(user.getUsername())
+                .map(found -> userRepository.updatePasswordHash(found.id(), user.getPassword(), newPassword))
+                .orElse(false);
+        if (!updated) {
+            logger.debug("パスワードハッシュを置き換えませんでした（ユーザーの削除またはパスワードの変更）: {}", user.getUsername());
+            return user;
+        }
+        logger.debug("パスワードハッシュを現在の設定で再ハッシュ化しました: {}", user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.repository.UserAuthorities;
+import com.yusay.user.api.domain.repository.UserAuthorityRepository;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 認証対象のユーザー（プリンシパル）を users テーブルから読み込むアプリケーションサービス
+ *
+ * アカウントの状態（有効、期限切れ、ロック、資格情報の期限切れ）はユーザーの各フラグから、
+ * 権限は割り当てられたロール（ROLE_接頭辞付き）とそのロールが持つ権限名から構成する
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserPrincipalService implements UserDetailsService {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final UserAuthorityRepository userAuthorityRepository;
+
+    public UserPrincipalService(UserAuthorityRepository userAuthorityRepository) {
+        this.userAuthorityRepository = userAuthorityRepository;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        UserAuthorities found = userAuthorityRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        User user = found.user();
+        return org.springframework.security.core.userdetails.User.withUsername(user.username())
+                .password(user.passwordHash())
+                .disabled(!Boolean.TRUE.equals(user.enabled()))
+                .accountExpired(!Boolean.TRUE.equals(user.accountNonExpired()))
+                .accountLocked(!Boolean.TRUE.equals(user.accountNonLocked()))
+                .credentialsExpired(!Boolean.TRUE.equals(user.credentialsNonExpired()))
+                .authorities(toAuthorities(found))
+                .build();
+    }
+
+    private static List<GrantedAuthority> toAuthorities(UserAuthorities found) {
+        List<GrantedAuthority> authorities = new ArrayList<>(found.roles().size() + found.permissions().size());
+        for (String role : found.roles()) {
+            // hasRole() はROLE_接頭辞付きの権限と照合するため、接頭辞の無いロール名には付与する
+            authorities.add(new SimpleGrantedAuthority(role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role));
+        }
+        for (String permission : found.permissions()) {
+            authorities.add(new SimpleGrantedAuthority(permission));
+        }
+        return authorities;
+    }
+}
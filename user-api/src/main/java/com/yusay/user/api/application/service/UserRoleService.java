@@ -0,0 +1,70 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.exception.RoleNotFoundException;
+import com.yusay.user.api.domain.exception.UserNotFoundException;
+import com.yusay.user.api.domain.repository.UserAuthorityRepository;
+import com.yusay.user.api.domain.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ユーザーへのロールの割り当てを管理するアプリケーションサービス
+ *
+ * 割り当ての変更時は、キャッシュ済みのロール・権限を全ノードで破棄する
+ */
+@Service
+@Transactional
+public class UserRoleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRoleService.class);
+
+    private final UserRepository userRepository;
+    private final UserAuthorityRepository userAuthorityRepository;
+
+    public UserRoleService(UserRepository userRepository, UserAuthorityRepository userAuthorityRepository) {
+        this.userRepository = userRepository;
+        this.userAuthorityRepository = userAuthorityRepository;
+    }
+
+    /**
+     * ユーザーにロールを割り当てる（割り当て済みの場合は何もしない）
+     *
+     * @param userId ユーザーID
+     * @param roleName ロール名
+     * @throws UserNotFoundException ユーザーが存在しない場合
+     * @throws RoleNotFoundException ロールが存在しない場合
+     */
+    public void assignRole(String userId, String roleName) {
+        if (!User.isWellFormedId(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+        if (userAuthorityRepository.assignRole(userId, roleName)) {
+            logger.info("ロールを割り当てました。ユーザーID: {}, ロール: {}", userId, roleName);
+            return;
+        }
+        if (!userAuthorityRepository.existsRole(roleName)) {
+            throw new RoleNotFoundException(roleName);
+        }
+    }
+
+    /**
+     * ユーザーからロールの割り当てを外す（割り当てられていない場合は何もしない）
+     *
+     * @param userId ユーザーID
+     * @param roleName ロール名
+     * @throws UserNotFoundException ユーザーが存在しない場合
+     */
+    public void revokeRole(String userId, String roleName) {
+        if (!User.isWellFormedId(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+        if (userAuthorityRepository.revokeRole(userId, roleName)) {
+            logger.info("ロールの割り当てを外しました。ユーザーID: {}, ロール: {}", userId, roleName);
+        }
+    }
+}
@@ -1,23 +1,35 @@
 package com.yusay.user.api.application.service;
 
-import com.yusay.user.api.application.dto.DeleteAllResult;
+import com.yusay.user.api.application.dto.BatchCreateItemResult;
+import com.yusay.user.api.application.dto.UserPage;
+import com.yusay.user.api.application.dto.UserRegistration;
 import com.yusay.user.api.domain.entity.User;
-import com.yusay.user.api.domain.exception.DeleteAllNotAllowedException;
+import com.yusay.user.api.domain.exception.ConcurrentUserUpdateException;
 import com.yusay.user.api.domain.exception.DuplicateUserException;
+import com.yusay.user.api.domain.exception.InvalidPageRequestException;
 import com.yusay.user.api.domain.exception.UserNotFoundException;
+import com.yusay.user.api.domain.exception.UserVersionMismatchException;
+import com.yusay.user.api.domain.repository.UserCursor;
+import com.yusay.user.api.domain.repository.UserPatch;
 import com.yusay.user.api.domain.repository.UserRepository;
+import com.yusay.user.api.domain.repository.UserVersion;
 import com.yusay.user.api.domain.service.UserDomainService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -25,26 +37,32 @@ public class UserService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     
+    private static final String CURSOR_DELIMITER = "|";
+    
+    // バージョン未指定の更新が他の更新と競合した場合の最大試行回数
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+    
     private final UserRepository userRepository;
     private final UserDomainService userDomainService;
-    private final String activeProfile;
-    private final int maxAllowedDeletions;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public UserService(
             UserRepository userRepository, 
             UserDomainService userDomainService,
-            @Value("${spring.profiles.active:default}") String activeProfile,
-            @Value("${user.delete-all.max-allowed-deletions:1000}") int maxAllowedDeletions) {
+            @Value("${user.list.default-page-size:100}") int defaultPageSize,
+            @Value("${user.list.max-page-size:1000}") int maxPageSize) {
         this.userRepository = userRepository;
         this.userDomainService = userDomainService;
-        this.activeProfile = activeProfile;
         
-        // maxAllowedDeletionsの妥当性検証
-        if (maxAllowedDeletions <= 0) {
+        // ページサイズ設定の妥当性検証
+        if (defaultPageSize <= 0 || maxPageSize < defaultPageSize) {
             throw new IllegalArgumentException(
-                String.format("maxAllowedDeletions must be positive, but was: %d", maxAllowedDeletions));
+                String.format("page size must satisfy 0 < default <= max, but was: default=%d, max=%d",
+                    defaultPageSize, maxPageSize));
         }
-        this.maxAllowedDeletions = maxAllowedDeletions;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
@@ -57,16 +75,6 @@ public class UserService {
      * @throws DuplicateUserException メールアドレスまたはユーザー名が既に存在する場合
      */
     public User create(String username, String email, String passwordHash) {
-        // メールアドレスの重複チェック
-        if (userRepository.findByEmail(email).isPresent()) {
-            throw new DuplicateUserException("メールアドレス");
-        }
-        
-        // ユーザー名の重複チェック
-        if (userRepository.findByUsername(username).isPresent()) {
-            throw new DuplicateUserException("ユーザー名");
-        }
-        
         // ドメインサービスを使用してユーザーを作成
         User newUser = userDomainService.createUser(
                 null,  // IDはリポジトリ層で生成される
@@ -80,35 +88,140 @@ public class UserService {
         );
         
         // リポジトリに保存
-        // 競合状態（race condition）に対処するため、UNIQUE制約違反を捕捉
-        try {
-            return userRepository.save(newUser);
-        } catch (DataIntegrityViolationException e) {
-            // 同時リクエストにより重複チェック後にデータが挿入された場合
-            // データベースのUNIQUE制約により例外が発生するため、適切な例外に変換
-            if (userRepository.findByEmail(email).isPresent()) {
-                throw new DuplicateUserException("メールアドレス");
+        // 重複はデータベースのUNIQUE制約で検出し、リポジトリ層でDuplicateUserExceptionに変換される
+        // （事前のSELECTによる重複チェックは行わないため、競合状態でも追加のクエリは発生しない）
+        return userRepository.insert(newUser);
+    }
+
+    /**
+     * 複数の新規ユーザーを一括で作成する
+     * 
+     * 全件を1回の複数行INSERTで登録し、重複する要素があってもバッチ全体は失敗させずに
+     * 要素ごとの結果として返す
+     * 
+     * @param registrations 登録内容（パスワードはハッシュ化済み）
+     * @return 入力と同じ順序の要素ごとの登録結果
+     */
+    public List<BatchCreateItemResult> createAll(List<UserRegistration> registrations) {
+        List<User> newUsers = registrations.stream()
+                .map(registration -> userDomainService.createUser(
+                        null,  // IDはリポジトリ層で生成される
+                        registration.username(),
+                        registration.email(),
+                        registration.passwordHash(),
+                        true,  // enabled
+                        true,  // accountNonExpired
+                        true,  // accountNonLocked
+                        true   // credentialsNonExpired
+                ))
+                .toList();
+        
+        List<Optional<User>> insertedUsers = userRepository.insertAll(newUsers);
+        
+        // 重複した要素のフィールド判定は、スキップされた要素がある場合のみ1クエリで行う
+        List<String> skippedEmails = new ArrayList<>();
+        for (int i = 0; i < insertedUsers.size(); i++) {
+            if (insertedUsers.get(i).isEmpty()) {
+                skippedEmails.add(registrations.get(i).email());
             }
-            if (userRepository.findByUsername(username).isPresent()) {
-                throw new DuplicateUserException("ユーザー名");
+        }
+        Set<String> existingEmails = skippedEmails.isEmpty()
+                ? Set.of()
+                : userRepository.findExistingEmails(skippedEmails);
+        
+        List<BatchCreateItemResult> results = new ArrayList<>(insertedUsers.size());
+        for (int i = 0; i < insertedUsers.size(); i++) {
+            Optional<User> insertedUser = insertedUsers.get(i);
+            if (insertedUser.isPresent()) {
+                results.add(new BatchCreateItemResult(i, insertedUser.get(), null));
+            } else {
+                String duplicateField = existingEmails.contains(registrations.get(i).email())
+                        ? "メールアドレス"
+                        : "ユーザー名";
+                results.add(new BatchCreateItemResult(i, null, duplicateField));
             }
-            // 他のデータ整合性エラーの場合は元の例外を再スロー
-            throw e;
         }
+        
+        logger.info("ユーザーの一括作成が完了しました。要求件数: {}, 作成件数: {}",
+            registrations.size(), results.stream().filter(BatchCreateItemResult::isCreated).count());
+        return results;
     }
 
+    @Transactional(readOnly = true)
     public User lookup(String id) {
+        requireWellFormedId(id);
         return userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
     }
 
+    /**
+     * ユーザーのバージョンと更新日時を取得する
+     * 
+     * 条件付きGETで、ユーザー全体を取得せずに変更の有無を判定するために使用する
+     * 
+     * @param id ユーザーID
+     * @return バージョンと更新日時
+     * @throws UserNotFoundException ユーザーが見つからない場合
+     */
+    @Transactional(readOnly = true)
+    public UserVersion lookupVersion(String id) {
+        requireWellFormedId(id);
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+    }
+
+    @Transactional(readOnly = true)
     public List<User> list() {
         return userRepository.findAll();
     }
 
+    /**
+     * ユーザー一覧をキーセットページネーションで取得する
+     * 
+     * 次ページの有無を判定するため、limit + 1件を取得する
+     * 
+     * @param cursor 前ページの取得結果で返された不透明なカーソル（nullの場合は先頭ページ）
+     * @param requestedLimit 1ページあたりの最大件数（nullの場合はデフォルト値、上限を超える場合は上限値に丸める）
+     * @return ページ内のユーザーと次ページ取得用カーソル
+     * @throws InvalidPageRequestException カーソルが不正、または取得件数に0以下が指定された場合
+     */
+    @Transactional(readOnly = true)
+    public UserPage listPage(String cursor, Integer requestedLimit) {
+        if (requestedLimit != null && requestedLimit <= 0) {
+            throw new InvalidPageRequestException(
+                String.format("limit must be positive, but was: %d", requestedLimit));
+        }
+        int limit = requestedLimit == null ? defaultPageSize : Math.min(requestedLimit, maxPageSize);
+        
+        UserCursor after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+        List<User> users = userRepository.findPage(after, limit + 1);
+        
+        if (users.size() <= limit) {
+            return new UserPage(users, null);
+        }
+        
+        List<User> pageUsers = users.subList(0, limit);
+        User last = pageUsers.getLast();
+        return new UserPage(List.copyOf(pageUsers), encodeCursor(new UserCursor(last.createdAt(), last.id())));
+    }
+
+    /**
+     * 全ユーザーを読み取り専用トランザクション内で1件ずつconsumerへ渡す
+     * 
+     * 全件をリストとして保持しないため、件数に関わらずメモリ使用量は一定
+     * 
+     * @param consumer 各ユーザーの出力処理
+     */
+    @Transactional(readOnly = true)
+    public void export(Consumer<User> consumer) {
+        userRepository.forEach(consumer);
+    }
+
     /**
      * 既存ユーザーの情報を更新する
      * 
+     * バージョンを指定しない場合は、他の更新と競合した際に最新の状態を取得し直して再試行する
+     * 
      * @param id ユーザーID
      * @param username 新しいユーザー名（nullの場合は既存値を保持）
      * @param email 新しいメールアドレス（nullの場合は既存値を保持）
@@ -120,6 +233,7 @@ public class UserService {
      * @return 更新されたユーザー
      * @throws UserNotFoundException ユーザーが見つからない場合
      * @throws DuplicateUserException メールアドレスまたはユーザー名が他のユーザーと重複する場合
+     * @throws ConcurrentUserUpdateException 再試行しても他の更新との競合が解消しない場合
      */
     public User update(
             String id,
@@ -130,38 +244,116 @@ public class UserService {
             Boolean accountNonExpired,
             Boolean accountNonLocked,
             Boolean credentialsNonExpired) {
+        return update(id, null, username, email, passwordHash,
+                enabled, accountNonExpired, accountNonLocked, credentialsNonExpired);
+    }
+
+    /**
+     * 既存ユーザーの情報を、指定したバージョンである場合のみ更新する
+     * 
+     * 行ロックは取得せず、バージョンを条件とした1文のUPDATEで取得後の他の更新を検出する
+     * 
+     * @param id ユーザーID
+     * @param expectedVersion 更新の前提とするバージョン（nullの場合は現在のバージョンに対して更新し、競合時は再試行する）
+     * @param username 新しいユーザー名（nullの場合は既存値を保持）
+     * @param email 新しいメールアドレス（nullの場合は既存値を保持）
+     * @param passwordHash 新しいパスワードハッシュ（nullの場合は既存値を保持）
+     * @param enabled 新しい有効フラグ（nullの場合は既存値を保持）
+     * @param accountNonExpired 新しいアカウント有効期限切れフラグ（nullの場合は既存値を保持）
+     * @param accountNonLocked 新しいアカウントロックフラグ（nullの場合は既存値を保持）
+     * @param credentialsNonExpired 新しい認証情報有効期限切れフラグ（nullの場合は既存値を保持）
+     * @return 更新されたユーザー
+     * @throws UserNotFoundException ユーザーが見つからない場合
+     * @throws UserVersionMismatchException 現在のバージョンがexpectedVersionと一致しない場合
+     * @throws DuplicateUserException メールアドレスまたはユーザー名が他のユーザーと重複する場合
+     * @throws ConcurrentUserUpdateException 再試行しても他の更新との競合が解消しない場合
+     */
+    public User update(
+            String id,
+            Long expectedVersion,
+            String username,
+            String email,
+            String passwordHash,
+            Boolean enabled,
+            Boolean accountNonExpired,
+            Boolean accountNonLocked,
+            Boolean credentialsNonExpired) {
         
-        // 更新対象のユーザーを取得
-        User existingUser = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException(id));
-        
-        // メールアドレスの重複チェック（変更される場合のみ）
-        if (email != null && !email.equals(existingUser.email())) {
-            Optional<User> userWithEmail = userRepository.findByEmail(email);
-            if (userWithEmail.isPresent()) {
-                User foundUser = userWithEmail.get();
-                if (!foundUser.id().equals(id)) {
-                    // 自分自身以外のユーザーがそのメールアドレスを使用している場合は例外
-                    throw new DuplicateUserException("メールアドレス");
-                }
+        requireWellFormedId(id);
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            // 更新対象のユーザーを取得
+            User existingUser = userRepository.findById(id)
+                    .orElseThrow(() -> new UserNotFoundException(id));
+            if (expectedVersion != null && !expectedVersion.equals(existingUser.version())) {
+                throw new UserVersionMismatchException(id);
             }
-        }
-        
-        // ユーザー名の重複チェック（変更される場合のみ）
-        if (username != null && !username.equals(existingUser.username())) {
-            Optional<User> userWithUsername = userRepository.findByUsername(username);
-            if (userWithUsername.isPresent()) {
-                User foundUser = userWithUsername.get();
-                if (!foundUser.id().equals(id)) {
-                    // 自分自身以外のユーザーがそのユーザー名を使用している場合は例外
-                    throw new DuplicateUserException("ユーザー名");
-                }
+            
+            // ドメインサービスを使用してユーザーを更新
+            User updatedUser = userDomainService.updateUser(
+                    existingUser,
+                    username,
+                    email,
+                    passwordHash,
+                    enabled,
+                    accountNonExpired,
+                    accountNonLocked,
+                    credentialsNonExpired
+            );
+            
+            // リポジトリに保存（取得時のバージョンと一致する場合のみ更新される）
+            // メールアドレス・ユーザー名の重複はデータベースのUNIQUE制約で検出し、
+            // リポジトリ層でDuplicateUserExceptionに変換される
+            Optional<User> savedUser = userRepository.update(updatedUser);
+            if (savedUser.isPresent()) {
+                return savedUser.get();
             }
+            
+            // 取得後に他のリクエストで削除された場合は更新対象が存在しない
+            if (userRepository.findVersionById(id).isEmpty()) {
+                throw new UserNotFoundException(id);
+            }
+            // 取得後に他のリクエストで更新された場合、バージョン指定時は前提が崩れたため失敗とする
+            if (expectedVersion != null) {
+                throw new UserVersionMismatchException(id);
+            }
+            logger.debug("ユーザーの更新が競合したため再試行します。ID: {}, 試行回数: {}", id, attempt);
         }
+        throw new ConcurrentUserUpdateException(id);
+    }
+
+    /**
+     * 既存ユーザーの指定されたフィールドのみを更新する
+     * 
+     * 指定された列のみを1文のUPDATEで書き換え、値が全て現在の値と同じ場合は書き込みを行わずに
+     * 現在のユーザーを返す
+     * 
+     * @param id ユーザーID
+     * @param expectedVersion 更新の前提とするバージョン（nullの場合はバージョンを確認しない）
+     * @param username 新しいユーザー名（nullの場合は変更しない）
+     * @param email 新しいメールアドレス（nullの場合は変更しない）
+     * @param passwordHash 新しいパスワードハッシュ（nullの場合は変更しない）
+     * @param enabled 新しい有効フラグ（nullの場合は変更しない）
+     * @param accountNonExpired 新しいアカウント有効期限切れフラグ（nullの場合は変更しない）
+     * @param accountNonLocked 新しいアカウントロックフラグ（nullの場合は変更しない）
+     * @param credentialsNonExpired 新しい認証情報有効期限切れフラグ（nullの場合は変更しない）
+     * @return 更新後のユーザー（値が変わらない場合は現在のユーザー）
+     * @throws UserNotFoundException ユーザーが見つからない場合
+     * @throws UserVersionMismatchException 現在のバージョンがexpectedVersionと一致しない場合
+     * @throws DuplicateUserException メールアドレスまたはユーザー名が他のユーザーと重複する場合
+     */
+    public User patch(
+            String id,
+            Long expectedVersion,
+            String username,
+            String email,
+            String passwordHash,
+            Boolean enabled,
+            Boolean accountNonExpired,
+            Boolean accountNonLocked,
+            Boolean credentialsNonExpired) {
         
-        // ドメインサービスを使用してユーザーを更新
-        User updatedUser = userDomainService.updateUser(
-                existingUser,
+        requireWellFormedId(id);
+        UserPatch patch = userDomainService.patchUser(
                 username,
                 email,
                 passwordHash,
@@ -170,124 +362,76 @@ public class UserService {
                 accountNonLocked,
                 credentialsNonExpired
         );
-        
-        // リポジトリに保存
-        // 競合状態（race condition）に対処するため、UNIQUE制約違反を捕捉
-        try {
-            return userRepository.save(updatedUser);
-        } catch (DataIntegrityViolationException e) {
-            // 同時リクエストにより重複チェック後にデータが変更された場合
-            // データベースのUNIQUE制約により例外が発生するため、適切な例外に変換
-            if (email != null) {
-                Optional<User> userWithEmail = userRepository.findByEmail(email);
-                if (userWithEmail.isPresent()) {
-                    User foundUser = userWithEmail.get();
-                    if (!foundUser.id().equals(id)) {
-                        throw new DuplicateUserException("メールアドレス");
-                    }
-                }
+        if (!patch.isEmpty()) {
+            Optional<User> patchedUser = userRepository.patch(id, expectedVersion, patch);
+            if (patchedUser.isPresent()) {
+                return patchedUser.get();
             }
-            if (username != null) {
-                Optional<User> userWithUsername = userRepository.findByUsername(username);
-                if (userWithUsername.isPresent()) {
-                    User foundUser = userWithUsername.get();
-                    if (!foundUser.id().equals(id)) {
-                        throw new DuplicateUserException("ユーザー名");
-                    }
-                }
-            }
-            // 他のデータ整合性エラーの場合は元の例外を再スロー
-            throw e;
         }
+        
+        // 更新されなかった場合は、存在しない・バージョン不一致・値の変更なしのいずれかを判定する
+        User currentUser = userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+        if (expectedVersion != null && !expectedVersion.equals(currentUser.version())) {
+            throw new UserVersionMismatchException(id);
+        }
+        return currentUser;
     }
 
     public void delete(String id) {
+        requireWellFormedId(id);
         int deletedCount = userRepository.deleteById(id);
         if (deletedCount == 0) {
             throw new UserNotFoundException(id);
         }
     }
 
+    
     /**
-     * 全ユーザーを削除する（環境制限と検証付き）
-     * 
-     * アプリケーションロジック:
-     * - 本番環境では実行を拒否
-     * - 削除前後の監査ログを記録
+     * カーソルをクライアントに内部構造を意識させない不透明な文字列へ変換
      * 
-     * ドメインルール:
-     * - 削除対象が上限を超える場合は拒否
-     * 
-     * @return 削除結果（削除件数、実行日時、環境）
-     * @throws DeleteAllNotAllowedException 本番環境での実行または削除件数が上限を超える場合
+     * @param cursor カーソル
+     * @return URLセーフなBase64文字列
      */
-    public DeleteAllResult deleteAll() {
-        // アプリケーションロジック: 本番環境チェック
-        if (isProductionEnvironment()) {
-            logger.error("本番環境での全件削除が試行されました。環境: {}", activeProfile);
-            throw new DeleteAllNotAllowedException("本番環境では全件削除を実行できません。");
-        }
-        
-        // 削除前の検証（監査ログは検証成功後に記録）
-        List<User> usersToDelete = userRepository.findAll();
-        
-        // ドメインルール: 削除件数の事前検証
-        try {
-            userDomainService.validateDeleteAll(usersToDelete, maxAllowedDeletions);
-        } catch (DeleteAllNotAllowedException e) {
-            logger.error("全件削除の事前検証で失敗しました。対象ユーザー数: {}, 上限: {}, 環境: {}",
-                usersToDelete.size(), maxAllowedDeletions, activeProfile);
-            throw e;
-        }
-        
-        // 検証成功後の監査ログ
-        logger.warn("全件削除を開始します。対象ユーザー数: {}, 環境: {}", 
-            usersToDelete.size(), activeProfile);
-        
-        // 削除実行
-        LocalDateTime executedAt = userDomainService.getCurrentTime();
-        int deletedCount = userRepository.deleteAll();
-        
-        // ドメインルール: 削除後の実際の削除件数を再検証し、競合状態を検出
-        // 注意: この検証は、事前検証と削除実行の間にデータが追加された場合（競合状態）や、
-        // deleteAll()の実装がfindAll()と異なる挙動をする場合（実装バグ）を検出するためのものです。
-        // 通常の競合状態では、事前検証で上限以下と判定されたデータが削除されるため、
-        // この検証で上限を超えることはほぼありませんが、安全性のために実装しています。
-        if (deletedCount > maxAllowedDeletions) {
-            logger.error("全件削除で削除件数が上限を超えました。削除件数: {}, 上限: {}, 環境: {}",
-                deletedCount, maxAllowedDeletions, activeProfile);
-            // @Transactional により、この例外で deleteAll の削除はロールバックされる
-            throw new DeleteAllNotAllowedException(
-                String.format("削除件数（%d件）が上限（%d件）を超えているため、全件削除をロールバックしました。",
-                    deletedCount, maxAllowedDeletions));
-        }
-        
-        // 削除後の監査ログ
-        logger.warn("全件削除が完了しました。削除件数: {}, 実行日時: {}, 環境: {}", 
-            deletedCount, executedAt, activeProfile);
-        
-        return new DeleteAllResult(deletedCount, executedAt, activeProfile);
+    private String encodeCursor(UserCursor cursor) {
+        String raw = cursor.createdAt() + CURSOR_DELIMITER + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
     
     /**
-     * 現在の環境が本番環境かどうかを判定
-     * 複数プロファイルのカンマ区切りにも対応
+     * 不透明な文字列からカーソルを復元
      * 
-     * @return 本番環境の場合true
+     * @param encoded encodeCursor()で生成した文字列
+     * @return カーソル
+     * @throws InvalidPageRequestException 形式が不正な場合
      */
-    private boolean isProductionEnvironment() {
-        if (activeProfile == null || activeProfile.isBlank()) {
-            return false;
-        }
-
-        String[] profiles = activeProfile.split(",");
-        for (String profile : profiles) {
-            String trimmed = profile.trim();
-            if ("prod".equalsIgnoreCase(trimmed) || "production".equalsIgnoreCase(trimmed)) {
-                return true;
+    private UserCursor decodeCursor(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int delimiterIndex = raw.indexOf(CURSOR_DELIMITER);
+            if (delimiterIndex <= 0 || delimiterIndex == raw.length() - 1) {
+                throw new InvalidPageRequestException("cursor is malformed");
+            }
+            String id = raw.substring(delimiterIndex + 1);
+            // 改ざんされたIDをそのまま比較条件に使用しない（uuid型の列ではデータベースのエラーとなるため）
+            if (!User.isWellFormedId(id)) {
+                throw new InvalidPageRequestException("cursor is malformed");
             }
+            return new UserCursor(LocalDateTime.parse(raw.substring(0, delimiterIndex)), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageRequestException("cursor is malformed");
         }
+    }
 
-        return false;
+    /**
+     * IDがUUIDの文字列表現でない場合は、問い合わせずに該当なしとする
+     * 
+     * @param id ユーザーID
+     * @throws UserNotFoundException IDの形式が不正な場合
+     */
+    private static void requireWellFormedId(String id) {
+        if (!User.isWellFormedId(id)) {
+            throw new UserNotFoundException(id);
+        }
     }
 }
@@ -0,0 +1,41 @@
+package com.yusay.user.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 接続プールのバルクヘッドの設定
+ *
+ * 仮想スレッド（spring.threads.virtual.enabled=true）で実行する場合に有効となり、
+ * 接続プールごとに最大接続数と同数までしか同時に接続を取得させない
+ * （user.datasource.bulkhead.enabled=false で無効化できる）
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnBooleanProperty(name = "user.datasource.bulkhead.enabled", matchIfMissing = true)
+public class ConnectionBulkheadConfig {
+
+    /**
+     * 接続プールをバルクヘッドで包むBeanPostProcessor
+     *
+     * 他のBeanより先に生成されるため、staticメソッドで定義する
+     *
+     * @param maxWait 許可の取得を待つ最大時間（超えた場合は接続の取得を失敗させる）
+     * @return BeanPostProcessor
+     */
+    @Bean
+    public static ConnectionBulkheadPostProcessor connectionBulkheadPostProcessor(
+            @Value("${user.datasource.bulkhead.max-wait:5s}") Duration maxWait) {
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException(
+                String.format("maxWait must not be negative, but was: %s", maxWait));
+        }
+        return new ConnectionBulkheadPostProcessor(maxWait);
+    }
+}
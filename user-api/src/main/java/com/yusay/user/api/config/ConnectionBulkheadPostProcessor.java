@@ -0,0 +1,76 @@
+package com.yusay.user.api.config;
+
+import com.yusay.user.api.infrastructure.ConnectionBulkheadDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 接続プールを {@link ConnectionBulkheadDataSource} で包むBeanPostProcessor
+ *
+ * Beanとして登録された接続プールに加え、{@link #wrap(String, HikariDataSource)} で
+ * Bean以外の接続プール（レプリカ）も同じ設定で包み、それぞれの使用状況をメトリクスとして公開する
+ */
+public class ConnectionBulkheadPostProcessor implements BeanPostProcessor, MeterBinder {
+
+    private final Duration maxWait;
+    private final Map<String, ConnectionBulkheadDataSource> bulkheads = new ConcurrentHashMap<>();
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    public ConnectionBulkheadPostProcessor(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            return wrap(beanName, dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * 接続プールの最大接続数を同時実行数の上限としたバルクヘッドで包む
+     *
+     * @param name メトリクスのタグに使用する名前
+     * @param dataSource 接続プール
+     * @return バルクヘッドで包んだDataSource
+     */
+    public ConnectionBulkheadDataSource wrap(String name, HikariDataSource dataSource) {
+        ConnectionBulkheadDataSource bulkhead =
+                new ConnectionBulkheadDataSource(dataSource, dataSource.getMaximumPoolSize(), maxWait);
+        bulkheads.put(name, bulkhead);
+        registries.forEach(registry -> register(registry, name, bulkhead));
+        return bulkhead;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        bulkheads.forEach((name, bulkhead) -> register(registry, name, bulkhead));
+    }
+
+    private static void register(MeterRegistry registry, String name, ConnectionBulkheadDataSource bulkhead) {
+        Gauge.builder("user.datasource.bulkhead.available", bulkhead, ConnectionBulkheadDataSource::getAvailablePermits)
+                .description("Connection bulkhead permits currently available")
+                .tag("pool", name)
+                .register(registry);
+        Gauge.builder("user.datasource.bulkhead.waiting", bulkhead, ConnectionBulkheadDataSource::getWaitingThreads)
+                .description("Threads waiting for a connection bulkhead permit")
+                .tag("pool", name)
+                .register(registry);
+        FunctionCounter.builder("user.datasource.bulkhead.rejected", bulkhead, ConnectionBulkheadDataSource::getRejectedCount)
+                .description("Connection requests rejected because no permit became available in time")
+                .tag("pool", name)
+                .register(registry);
+    }
+}
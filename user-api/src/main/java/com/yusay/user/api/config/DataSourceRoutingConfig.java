@@ -0,0 +1,127 @@
+package com.yusay.user.api.config;
+
+import com.yusay.user.api.infrastructure.ReplicaRoutingDataSource;
+import com.yusay.user.api.infrastructure.WalPositionTransactionListener;
+import com.yusay.user.api.presentation.filter.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 読み書き分離の設定
+ *
+ * user.datasource.routing.enabled=true の場合のみ有効となり、
+ * 読み取り専用トランザクションをレプリカへ、それ以外をプライマリへ振り分ける
+ */
+@Configuration
+@ConditionalOnBooleanProperty("user.datasource.routing.enabled")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    /**
+     * プライマリの接続プール
+     * spring.datasource.* の設定をそのまま使用する
+     *
+     * @param properties spring.datasource.* の設定
+     * @return プライマリのDataSource
+     */
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    /**
+     * レプリカへの振り分けを行うDataSource
+     *
+     * @param primary プライマリのDataSource
+     * @param properties 読み書き分離の設定
+     * @param connectionBulkhead 接続プールのバルクヘッド（仮想スレッドで実行する場合のみ）
+     * @return レプリカ振り分け用のDataSource
+     */
+    @Bean(defaultCandidate = false, initMethod = "start", destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            DataSourceRoutingProperties properties,
+            ObjectProvider<ConnectionBulkheadPostProcessor> connectionBulkhead) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = properties.replicas().get(i);
+            String name = "replica-" + i;
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.url())
+                    .username(replica.username())
+                    .password(replica.password())
+                    .build();
+            dataSource.setPoolName(name);
+            dataSource.setReadOnly(true);
+            // プライマリ（spring.datasource.hikari.*）と同じくid列の型に依存しないよう文字列を型未指定で送信する
+            dataSource.addDataSourceProperty("stringtype", "unspecified");
+            // レプリカの接続プールはBeanではないため、バルクヘッドが有効な場合はここで包む
+            ConnectionBulkheadPostProcessor bulkhead = connectionBulkhead.getIfAvailable();
+            replicas.add(new ReplicaRoutingDataSource.Replica(
+                    name, bulkhead != null ? bulkhead.wrap(name, dataSource) : dataSource));
+        }
+        return new ReplicaRoutingDataSource(
+                primary, replicas, properties.maxLag(), properties.pollInterval());
+    }
+
+    /**
+     * アプリケーションが使用するDataSource
+     *
+     * トランザクションの読み取り専用フラグは実際の接続取得時に評価されるため、
+     * 接続の取得を最初のSQL実行まで遅延させて振り分け先を決定する
+     *
+     * @param primary プライマリのDataSource
+     * @param replicaRouting レプリカ振り分け用のDataSource
+     * @return 読み書きを振り分けるDataSource
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaRoutingDataSource") DataSource replicaRouting) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicaRouting);
+        return proxy;
+    }
+
+    /**
+     * 書き込みトランザクションのコミット後にWAL位置を記録するリスナー
+     * Spring Bootが自動構成するトランザクションマネージャーに登録される
+     *
+     * @param dataSource トランザクションマネージャーが使用するDataSource（コミットしたトランザクションの接続で問い合わせる）
+     * @return トランザクションリスナー
+     */
+    @Bean
+    public WalPositionTransactionListener walPositionTransactionListener(DataSource dataSource) {
+        return new WalPositionTransactionListener(dataSource);
+    }
+
+    /**
+     * クライアントごとの最小LSNを受け渡すフィルター
+     *
+     * @param properties 読み書き分離の設定
+     * @return read-your-writesフィルター
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(DataSourceRoutingProperties properties) {
+        return new ReadYourWritesFilter(properties.minLsnMaxAge());
+    }
+}
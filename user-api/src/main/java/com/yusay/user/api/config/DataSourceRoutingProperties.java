@@ -0,0 +1,40 @@
+package com.yusay.user.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 読み書き分離の設定
+ *
+ * @param enabled 読み取り専用トランザクションをレプリカへ振り分けるか
+ * @param replicas 振り分け先のレプリカ
+ * @param maxLag 振り分け対象とするレプリカの最大遅延
+ * @param pollInterval レプリカの状態を取得する間隔
+ * @param minLsnMaxAge クライアントへ返却する最小LSNのCookieの有効期間
+ */
+@ConfigurationProperties("user.datasource.routing")
+public record DataSourceRoutingProperties(
+    boolean enabled,
+    @DefaultValue List<Replica> replicas,
+    @DefaultValue("1s") Duration maxLag,
+    @DefaultValue("500ms") Duration pollInterval,
+    @DefaultValue("30s") Duration minLsnMaxAge
+) {
+
+    /**
+     * レプリカの接続設定
+     *
+     * @param url JDBC URL
+     * @param username ユーザー名
+     * @param password パスワード
+     */
+    public record Replica(
+        String url,
+        String username,
+        String password
+    ) {
+    }
+}
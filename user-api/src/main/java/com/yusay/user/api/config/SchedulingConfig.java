@@ -0,0 +1,12 @@
+package com.yusay.user.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定期実行の設定
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
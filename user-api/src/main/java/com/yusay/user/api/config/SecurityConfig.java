@@ -1,13 +1,37 @@
 package com.yusay.user.api.config;
 
+import com.yusay.user.api.application.service.AccessTokenService;
+import com.yusay.user.api.infrastructure.BCryptStrengthCalibrator;
+import com.yusay.user.api.infrastructure.BoundedPasswordEncoder;
+import com.yusay.user.api.infrastructure.CachingPasswordEncoder;
+import com.yusay.user.api.infrastructure.PermissionAuthorizationManager;
+import com.yusay.user.api.infrastructure.RolePermissionRegistry;
+import com.yusay.user.api.presentation.filter.BearerTokenAuthenticationFilter;
+import com.yusay.user.api.presentation.filter.ServiceUnavailableAuthenticationEntryPoint;
+import com.yusay.user.api.presentation.filter.ServiceUnavailableAuthenticationFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * セキュリティ設定
@@ -18,16 +42,49 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+    
+    private static final String BCRYPT_ID = "bcrypt";
+    private static final String PBKDF2_ID = "pbkdf2";
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            AccessTokenService accessTokenService,
+            RolePermissionRegistry rolePermissionRegistry,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) throws Exception {
+        BasicAuthenticationEntryPoint basicChallenge = new BasicAuthenticationEntryPoint();
+        basicChallenge.setRealmName("Realm");
+        
         http
             .authorizeHttpRequests(auth -> auth
                 // 全件削除エンドポイントは管理者ロール必須
                 .requestMatchers(HttpMethod.DELETE, "/users").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/users/delete-all-jobs/**").hasRole("ADMIN")
+                // 全件エクスポートは管理者ロール必須
+                .requestMatchers(HttpMethod.GET, "/users/export").hasRole("ADMIN")
+                // ロールの割り当て・解除はROLE_WRITE権限を持つロール必須（ロールと権限の対応で判定する）
+                .requestMatchers("/users/*/roles/**")
+                    .access(new PermissionAuthorizationManager<>(rolePermissionRegistry, "ROLE_WRITE"))
+                // 一括作成・一括取り込みは管理者ロール必須
+                .requestMatchers(HttpMethod.POST, "/users/batch").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/users/import").hasRole("ADMIN")
+                // ダンプは管理者ロール必須
+                .requestMatchers("/users/dump", "/users/dump/**").hasRole("ADMIN")
+                // メトリクス（キャッシュのヒット率等）は管理者ロール必須
+                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
                 .anyRequest().permitAll()
             )
             // 未認証アクセス時に401を返すためBasic認証を有効化
-            .httpBasic(httpBasic -> {})
+            // ユーザーの読み込み中に接続を取得できなかった場合は、認証の失敗（401）ではなく503を返す
+            .httpBasic(httpBasic -> httpBasic.authenticationEntryPoint(
+                new ServiceUnavailableAuthenticationEntryPoint(basicChallenge, handlerExceptionResolver)))
+            // /auth/token で発行したアクセストークン（Bearer）による認証（Basic認証より先に判定する）
+            // Beanとして登録するとサーブレットフィルターとしても登録されるため、ここで生成する
+            .addFilterBefore(new BearerTokenAuthenticationFilter(accessTokenService), BasicAuthenticationFilter.class)
+            // 認証フィルター内のパスワードの照合等で過負荷となった場合も、コントローラーと同じ503を返す
+            .addFilterBefore(
+                new ServiceUnavailableAuthenticationFilter(handlerExceptionResolver), BearerTokenAuthenticationFilter.class)
             // 開発・検証用にCSRF保護を無効化
             // 本番環境では必ず有効化すること
             .csrf(csrf -> csrf.disable());
@@ -35,8 +92,58 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * ログイン（/auth/token）でユーザー名とパスワードを認証するAuthenticationManager
+     *
+     * Basic認証と同じく、UserDetailsService・PasswordEncoder・UserDetailsPasswordServiceのBeanから構成される
+     *
+     * @param authenticationConfiguration 認証設定
+     * @return AuthenticationManager
+     */
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration)
+            throws Exception {
+        return authenticationConfiguration.getAuthenticationManager();
+    }
+
+    /**
+     * パスワードのハッシュ化を専用のスレッドプールで実行するPasswordEncoder
+     *
+     * 新規のハッシュはBCryptで、起動時に計測した1回あたりの所要時間が目標時間に収まる最大のコストで生成する。
+     * 照合は保存済みのハッシュの接頭辞（{bcrypt}、{pbkdf2}）に応じたアルゴリズムで行い、
+     * 接頭辞の無いハッシュ（導入前に保存したもの、取り込んだもの）はBCryptとして照合する。
+     * 旧アルゴリズムや現在より低いコストのハッシュは、認証成功時に {@link UserDetailsPasswordService} で置き換える。
+     * HTTP Basic認証ではリクエストごとに照合するため、照合に成功した組み合わせは短時間キャッシュして再照合を省略する
+     *
+     * @param threads ハッシュ化を実行するスレッド数（0以下の場合はCPUコア数）
+     * @param queueCapacity 実行を待てるハッシュ化の最大数（超えた場合は503を返す）
+     * @param strength BCryptのコスト（0以下の場合は起動時に計測して決める）
+     * @param targetDuration コストを計測で決める場合の1回のハッシュ化の目標時間
+     * @param minStrength コストを計測で決める場合の下限
+     * @param verifiedCacheSize 照合に成功した組み合わせを記録する最大数
+     * @param verifiedCacheTtl 照合に成功した組み合わせを記録する時間
+     * @return PasswordEncoder
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public CachingPasswordEncoder passwordEncoder(
+            @Value("${user.password-hashing.threads:0}") int threads,
+            @Value("${user.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${user.password-hashing.strength:0}") int strength,
+            @Value("${user.password-hashing.target-duration:250ms}") Duration targetDuration,
+            @Value("${user.password-hashing.min-strength:10}") int minStrength,
+            @Value("${user.password-hashing.verified-cache-size:10000}") long verifiedCacheSize,
+            @Value("${user.password-hashing.verified-cache-ttl:1m}") Duration verifiedCacheTtl) {
+        int bcryptStrength = strength > 0 ? strength : BCryptStrengthCalibrator.calibrate(targetDuration, minStrength);
+        logger.info("パスワードのハッシュ化にBCrypt（コスト: {}）を使用します", bcryptStrength);
+        
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(
+                BCRYPT_ID, bcrypt,
+                PBKDF2_ID, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new CachingPasswordEncoder(
+                new BoundedPasswordEncoder(delegating, workers, queueCapacity), verifiedCacheSize, verifiedCacheTtl);
     }
 }
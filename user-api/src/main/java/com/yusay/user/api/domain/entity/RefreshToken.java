@@ -0,0 +1,30 @@
+package com.yusay.user.api.domain.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * リフレッシュトークン
+ *
+ * トークン自体は保存せず、SHA-256ハッシュのみを保持する
+ *
+ * @param id トークンID（未登録の場合はnull）
+ * @param userId ユーザーID
+ * @param tokenHash トークンのハッシュ（16進数）
+ * @param expiryDate 有効期限
+ * @param createdAt 作成日時
+ */
+@Table("refresh_tokens")
+public record RefreshToken(
+    @Id
+    String id,
+    String userId,
+    @Column("token")
+    String tokenHash,
+    LocalDateTime expiryDate,
+    LocalDateTime createdAt
+) {
+}
@@ -19,6 +19,55 @@ public record User(
     Boolean accountNonLocked,
     Boolean credentialsNonExpired,
     LocalDateTime createdAt,
-    LocalDateTime updatedAt
+    LocalDateTime updatedAt,
+    // 楽観ロック用のバージョン（未登録のユーザーはnull）
+    // 外部へはETagとして公開するため、本文には含めない
+    @JsonIgnore
+    Long version
 ) {
+    /**
+     * バージョンを持たない（未登録の）ユーザーを生成する
+     */
+    public User(
+            String id,
+            String username,
+            String email,
+            String passwordHash,
+            Boolean enabled,
+            Boolean accountNonExpired,
+            Boolean accountNonLocked,
+            Boolean credentialsNonExpired,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt) {
+        this(id, username, email, passwordHash, enabled, accountNonExpired, accountNonLocked,
+                credentialsNonExpired, createdAt, updatedAt, null);
+    }
+
+    /**
+     * IDがUUIDの正規の文字列表現（ハイフン区切りの8-4-4-4-12桁の小文字の16進数）かを判定する
+     *
+     * IDは全てUUIDとして生成し、id列をuuid型へ移行した後はそれ以外の値を保持できない。
+     * 形式の異なるIDでuuid型の列を検索すると、データベースのエラーでトランザクション全体が中断されるため、
+     * 問い合わせる前にこの判定で該当なしとして扱う。
+     * uuid型の列は大文字のIDでも一致するが、キャッシュは文字列のIDをキーとし、変更通知も小文字のIDで届くため、
+     * 大文字を含むIDは受け付けない（別のキーでキャッシュされ、変更後も破棄されない値を返さないようにする）
+     *
+     * @param id ユーザーID
+     * @return UUIDの正規の文字列表現の場合true
+     */
+    public static boolean isWellFormedId(String id) {
+        if (id == null || id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean valid = i == 8 || i == 13 || i == 18 || i == 23
+                    ? c == '-'
+                    : (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,17 @@
+package com.yusay.user.api.domain.exception;
+
+/**
+ * 他のリクエストとの更新の競合が続き、再試行しても更新できなかった場合にスローされる例外
+ */
+public class ConcurrentUserUpdateException extends RuntimeException {
+    private final String id;
+
+    public ConcurrentUserUpdateException(String id) {
+        super("User was concurrently updated: " + id);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
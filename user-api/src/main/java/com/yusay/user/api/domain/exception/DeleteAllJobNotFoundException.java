@@ -0,0 +1,10 @@
+package com.yusay.user.api.domain.exception;
+
+/**
+ * 指定された全件削除ジョブが存在しない場合にスローされる例外
+ */
+public class DeleteAllJobNotFoundException extends RuntimeException {
+    public DeleteAllJobNotFoundException(String jobId) {
+        super("Delete all job not found: " + jobId);
+    }
+}
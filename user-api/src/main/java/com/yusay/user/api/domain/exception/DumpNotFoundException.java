@@ -0,0 +1,10 @@
+package com.yusay.user.api.domain.exception;
+
+/**
+ * 指定されたダンプファイルが存在しない場合にスローされる例外
+ */
+public class DumpNotFoundException extends RuntimeException {
+    public DumpNotFoundException(String fileName) {
+        super("Dump not found: " + fileName);
+    }
+}
@@ -0,0 +1,10 @@
+package com.yusay.user.api.domain.exception;
+
+/**
+ * ダンプの出力条件（形式、並列数）が不正な場合にスローされる例外
+ */
+public class InvalidDumpRequestException extends RuntimeException {
+    public InvalidDumpRequestException(String message) {
+        super(message);
+    }
+}
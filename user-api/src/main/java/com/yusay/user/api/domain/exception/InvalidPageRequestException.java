@@ -0,0 +1,10 @@
+package com.yusay.user.api.domain.exception;
+
+/**
+ * ページ取得条件（カーソル、取得件数）が不正な場合にスローされる例外
+ */
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
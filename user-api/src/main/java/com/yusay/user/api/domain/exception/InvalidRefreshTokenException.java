@@ -0,0 +1,10 @@
+package com.yusay.user.api.domain.exception;
+
+/**
+ * リフレッシュトークンが存在しない（使用済み・失効済みを含む）か、有効期限切れの場合にスローされる例外
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.yusay.user.api.domain.exception;
+
+/**
+ * パスワードのハッシュ化の待ち行列が上限に達し、処理を受け付けられない場合にスローされる例外
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
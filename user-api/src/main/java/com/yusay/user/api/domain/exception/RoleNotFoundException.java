@@ -0,0 +1,17 @@
+package com.yusay.user.api.domain.exception;
+
+/**
+ * ロールが見つからない場合にスローされる例外
+ */
+public class RoleNotFoundException extends RuntimeException {
+    private final String roleName;
+
+    public RoleNotFoundException(String roleName) {
+        super("Role not found: " + roleName);
+        this.roleName = roleName;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+}
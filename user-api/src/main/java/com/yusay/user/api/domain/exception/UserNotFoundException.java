@@ -1,7 +1,25 @@
 package com.yusay.user.api.domain.exception;
 
+/**
+ * ユーザーが見つからない場合にスローされる例外
+ *
+ * 存在しないIDへの大量のアクセスでも低コストで生成できるよう、スタックトレースを取得せず、
+ * メッセージも参照されるまで組み立てない（呼び出し元の特定には使用しない想定の例外であるため）
+ */
 public class UserNotFoundException extends RuntimeException {
+    private final String id;
+
     public UserNotFoundException(String id) {
-        super("User not found: " + id);
+        super(null, null, false, false);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return "User not found: " + id;
     }
 }
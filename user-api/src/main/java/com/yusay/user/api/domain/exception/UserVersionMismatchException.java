@@ -0,0 +1,19 @@
+package com.yusay.user.api.domain.exception;
+
+/**
+ * 更新の前提としたユーザーのバージョンが現在のバージョンと一致しない場合にスローされる例外
+ *
+ * 取得後に他のリクエストでユーザーが更新されたことを示す
+ */
+public class UserVersionMismatchException extends RuntimeException {
+    private final String id;
+
+    public UserVersionMismatchException(String id) {
+        super("User version mismatch: " + id);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
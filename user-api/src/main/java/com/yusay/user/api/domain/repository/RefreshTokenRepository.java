@@ -0,0 +1,59 @@
+package com.yusay.user.api.domain.repository;
+
+import com.yusay.user.api.domain.entity.RefreshToken;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository {
+
+    /**
+     * リフレッシュトークンを登録する
+     *
+     * @param token 登録するトークン（IDがnullまたは空の場合は生成する）
+     * @return 登録後のトークン
+     */
+    RefreshToken insert(RefreshToken token);
+
+    /**
+     * 有効期限内のリフレッシュトークンを削除し、同じユーザーの新しいトークンを登録する（ローテーション）
+     *
+     * 削除と登録を1文で行い、行ロックは文の実行中のみ保持する。
+     * 同じトークンで同時にローテーションされた場合も、一方のみが新しいトークンを登録できる
+     *
+     * @param currentTokenHash 使用するトークンのハッシュ
+     * @param newTokenHash 新しいトークンのハッシュ
+     * @param now 現在日時（有効期限の判定と新しいトークンの作成日時に使用する）
+     * @param newExpiryDate 新しいトークンの有効期限
+     * @return 登録した新しいトークン（使用するトークンが存在しないか、有効期限切れの場合は空）
+     */
+    Optional<RefreshToken> rotate(String currentTokenHash, String newTokenHash, LocalDateTime now, LocalDateTime newExpiryDate);
+
+    /**
+     * ハッシュが一致するリフレッシュトークンを削除する
+     *
+     * @param tokenHash トークンのハッシュ
+     * @return 削除した場合はtrue
+     */
+    boolean deleteByTokenHash(String tokenHash);
+
+    /**
+     * 有効期限切れのトークンの削除を、他のノードと同時に行わないためのロックを取得する
+     *
+     * ロックはトランザクションの終了時に解放されるため、{@link #deleteExpired} と同じトランザクション内で呼び出すこと
+     *
+     * @return 取得できた場合はtrue（他のノードが削除中の場合はfalse）
+     */
+    boolean tryLockExpiredPurge();
+
+    /**
+     * 有効期限切れのトークンを最大limit件削除する
+     *
+     * 他のトランザクションがロックしている行（ローテーション中のトークン）は待たずに読み飛ばす
+     *
+     * @param now 現在日時
+     * @param limit 削除する最大件数
+     * @return 削除した件数
+     */
+    int deleteExpired(LocalDateTime now, int limit);
+}
@@ -0,0 +1,22 @@
+package com.yusay.user.api.domain.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface RolePermissionRepository {
+
+    /**
+     * 全ての権限名を返す
+     *
+     * @return 権限名（名前の昇順）
+     */
+    List<String> findAllPermissionNames();
+
+    /**
+     * 全てのロールと、各ロールに割り当てられた権限名を返す
+     *
+     * @return ロール名ごとの権限名（権限が割り当てられていないロールは空のセット）
+     */
+    Map<String, Set<String>> findPermissionNamesByRole();
+}
@@ -0,0 +1,33 @@
+package com.yusay.user.api.domain.repository;
+
+import com.yusay.user.api.domain.entity.User;
+
+import java.util.Set;
+
+/**
+ * 認証・認可に使用するユーザーと、割り当てられたロール・権限
+ *
+ * @param user ユーザー
+ * @param roles 割り当てられたロール名（例: ROLE_ADMIN）
+ * @param permissions 割り当てられたロールが持つ権限名（例: USER_READ）
+ */
+public record UserAuthorities(
+    User user,
+    Set<String> roles,
+    Set<String> permissions
+) {
+    public UserAuthorities {
+        roles = Set.copyOf(roles);
+        permissions = Set.copyOf(permissions);
+    }
+
+    /**
+     * ロール・権限をそのままに、ユーザーを置き換える
+     *
+     * @param user ユーザー
+     * @return ユーザーを置き換えた値
+     */
+    public UserAuthorities withUser(User user) {
+        return new UserAuthorities(user, roles, permissions);
+    }
+}
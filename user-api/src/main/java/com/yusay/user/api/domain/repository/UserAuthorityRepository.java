@@ -0,0 +1,42 @@
+package com.yusay.user.api.domain.repository;
+
+import java.util.Optional;
+
+public interface UserAuthorityRepository {
+
+    /**
+     * ユーザー名でユーザーと、割り当てられたロール・権限を取得する
+     *
+     * users / user_roles / roles / role_permissions / permissions の結合を1回の問い合わせで行う
+     *
+     * @param username ユーザー名
+     * @return ユーザーとロール・権限（ユーザーが存在しない場合は空）
+     */
+    Optional<UserAuthorities> findByUsername(String username);
+
+    /**
+     * ロールが存在するかを返す
+     *
+     * @param roleName ロール名
+     * @return 存在する場合true
+     */
+    boolean existsRole(String roleName);
+
+    /**
+     * ユーザーにロールを割り当てる
+     *
+     * @param userId ユーザーID
+     * @param roleName ロール名
+     * @return 新たに割り当てた場合true（割り当て済み、またはロールが存在しない場合はfalse）
+     */
+    boolean assignRole(String userId, String roleName);
+
+    /**
+     * ユーザーからロールの割り当てを外す
+     *
+     * @param userId ユーザーID
+     * @param roleName ロール名
+     * @return 割り当てを外した場合true（割り当てられていなかった場合はfalse）
+     */
+    boolean revokeRole(String userId, String roleName);
+}
@@ -0,0 +1,17 @@
+package com.yusay.user.api.domain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * キーセットページネーションの位置を表す値
+ *
+ * (created_at, id) の組で一意に並び順を決定し、直前ページの最終行を指す
+ *
+ * @param createdAt 直前ページ最終行の作成日時
+ * @param id 直前ページ最終行のユーザーID
+ */
+public record UserCursor(
+    LocalDateTime createdAt,
+    String id
+) {
+}
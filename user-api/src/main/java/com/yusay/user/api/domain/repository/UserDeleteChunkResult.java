@@ -0,0 +1,13 @@
+package com.yusay.user.api.domain.repository;
+
+/**
+ * チャンク単位の削除結果
+ *
+ * @param deletedCount 削除した件数
+ * @param lastId 削除したユーザーのうちID順で最後のID（削除件数が0の場合はnull）
+ */
+public record UserDeleteChunkResult(
+    int deletedCount,
+    String lastId
+) {
+}
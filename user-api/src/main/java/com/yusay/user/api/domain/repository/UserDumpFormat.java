@@ -0,0 +1,16 @@
+package com.yusay.user.api.domain.repository;
+
+/**
+ * COPY TO STDOUT によるダンプの出力形式
+ */
+public enum UserDumpFormat {
+    /**
+     * CSV形式（1行目はヘッダー行）
+     */
+    CSV,
+
+    /**
+     * PostgreSQLのバイナリCOPY形式
+     */
+    BINARY
+}
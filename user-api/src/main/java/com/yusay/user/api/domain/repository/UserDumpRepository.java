@@ -0,0 +1,53 @@
+package com.yusay.user.api.domain.repository;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 全ユーザーのダンプ（COPY TO STDOUT）を担当するリポジトリ
+ * 
+ * パスワードハッシュは出力しない
+ */
+public interface UserDumpRepository {
+
+    /**
+     * 指定範囲のユーザーをCOPYで書き出す
+     * 
+     * トランザクション内で呼び出すこと
+     *
+     * @param format 出力形式
+     * @param range 出力するユーザーIDの範囲
+     * @param header CSV形式の場合にヘッダー行を出力するかどうか
+     * @param out 出力先
+     * @return 出力した行数
+     */
+    long copyOut(UserDumpFormat format, UserIdRange range, boolean header, OutputStream out);
+
+    /**
+     * 現在のトランザクションのスナップショットを他のトランザクションから参照できるようにエクスポートする
+     * 
+     * エクスポートしたスナップショットは、呼び出し元のトランザクションが終了するまで有効
+     *
+     * @return スナップショットID
+     */
+    String exportSnapshot();
+
+    /**
+     * エクスポート済みのスナップショットを現在のトランザクションに設定する
+     * 
+     * REPEATABLE READ のトランザクション内で、最初の問い合わせより前に呼び出すこと
+     *
+     * @param snapshotId {@link #exportSnapshot()} で取得したスナップショットID
+     */
+    void useSnapshot(String snapshotId);
+
+    /**
+     * ユーザーIDの範囲を件数がほぼ均等になるように分割する
+     *
+     * 境界は標本から求めるため各範囲の件数には偏りがありうるが、範囲は全てのIDを漏れなく重複なく覆う
+     *
+     * @param parts 分割数
+     * @return ID昇順に連続する範囲（ユーザー数が少ない場合は分割数より少なくなる）
+     */
+    List<UserIdRange> splitIdRanges(int parts);
+}
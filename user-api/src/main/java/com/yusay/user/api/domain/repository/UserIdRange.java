@@ -0,0 +1,17 @@
+package com.yusay.user.api.domain.repository;
+
+/**
+ * ユーザーIDの範囲 [fromInclusive, toExclusive)
+ *
+ * @param fromInclusive 範囲の下限（nullの場合は下限なし）
+ * @param toExclusive 範囲の上限（nullの場合は上限なし）
+ */
+public record UserIdRange(
+    String fromInclusive,
+    String toExclusive
+) {
+    /**
+     * 全ユーザーを表す範囲
+     */
+    public static final UserIdRange ALL = new UserIdRange(null, null);
+}
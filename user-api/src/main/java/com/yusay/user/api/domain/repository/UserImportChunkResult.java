@@ -0,0 +1,15 @@
+package com.yusay.user.api.domain.repository;
+
+/**
+ * 一括取り込みにおける1チャンク分の取り込み結果
+ *
+ * @param rowCount 読み込んだ行数
+ * @param validCount 入力値の制約を満たした行数
+ * @param insertedCount 登録した行数（validCount - insertedCount が重複によりスキップした行数）
+ */
+public record UserImportChunkResult(
+    long rowCount,
+    long validCount,
+    long insertedCount
+) {
+}
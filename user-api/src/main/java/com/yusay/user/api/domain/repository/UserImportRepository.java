@@ -0,0 +1,22 @@
+package com.yusay.user.api.domain.repository;
+
+import java.io.Reader;
+import java.time.LocalDateTime;
+
+/**
+ * 大量ユーザーの一括取り込みを担当するリポジトリ
+ */
+public interface UserImportRepository {
+
+    /**
+     * CSV形式のユーザー行（username,email,password_hash、ヘッダーなし）を取り込む
+     *
+     * メールアドレスまたはユーザー名が既存ユーザーと重複する行、および入力値の制約を満たさない行
+     * （password_hash が照合できるハッシュの形式でない行を含む）は登録せずにスキップする。トランザクション内で呼び出すこと
+     *
+     * @param csvRows CSV形式のユーザー行
+     * @param importedAt 作成日時・更新日時として設定する日時
+     * @return 取り込み結果
+     */
+    UserImportChunkResult importCsv(Reader csvRows, LocalDateTime importedAt);
+}
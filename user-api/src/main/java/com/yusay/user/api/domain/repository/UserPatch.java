@@ -0,0 +1,43 @@
+package com.yusay.user.api.domain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * ユーザーの部分更新の内容
+ *
+ * nullのフィールドは変更しない（更新対象の列に含めない）
+ *
+ * @param username 新しいユーザー名
+ * @param email 新しいメールアドレス
+ * @param passwordHash 新しいパスワードハッシュ
+ * @param enabled 新しい有効フラグ
+ * @param accountNonExpired 新しいアカウント有効期限切れフラグ
+ * @param accountNonLocked 新しいアカウントロックフラグ
+ * @param credentialsNonExpired 新しい認証情報有効期限切れフラグ
+ * @param updatedAt 値が変わる場合に設定する更新日時
+ */
+public record UserPatch(
+    String username,
+    String email,
+    String passwordHash,
+    Boolean enabled,
+    Boolean accountNonExpired,
+    Boolean accountNonLocked,
+    Boolean credentialsNonExpired,
+    LocalDateTime updatedAt
+) {
+    /**
+     * 変更するフィールドが1つも指定されていないかを返す
+     *
+     * @return 全てのフィールドがnullの場合true
+     */
+    public boolean isEmpty() {
+        return username == null
+                && email == null
+                && passwordHash == null
+                && enabled == null
+                && accountNonExpired == null
+                && accountNonLocked == null
+                && credentialsNonExpired == null;
+    }
+}
@@ -1,16 +1,137 @@
 package com.yusay.user.api.domain.repository;
 
 import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.exception.DuplicateUserException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface UserRepository {
     List<User> findAll();
+
+    /**
+     * (created_at, id) 順でカーソル位置より後ろのユーザーを最大limit件取得する
+     *
+     * @param after 直前ページの最終位置（nullの場合は先頭から）
+     * @param limit 取得する最大件数
+     * @return (created_at, id) 昇順のユーザーリスト
+     */
+    List<User> findPage(UserCursor after, int limit);
+
+    /**
+     * 全ユーザーを1件ずつ読み出してactionへ渡す
+     *
+     * 結果セットをメモリに保持せずに処理するため、読み取り専用トランザクション内で呼び出すこと
+     *
+     * @param action 各ユーザーに対する処理
+     */
+    void forEach(Consumer<User> action);
+
     Optional<User> findById(String id);
+
+    /**
+     * ユーザーのバージョンと更新日時のみを取得する
+     *
+     * 条件付きリクエストの判定など、行全体が不要な場合に使用する
+     *
+     * @param id ユーザーID
+     * @return バージョンと更新日時（ユーザーが存在しない場合は空）
+     */
+    Optional<UserVersion> findVersionById(String id);
+
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
-    User save(User user);
+
+    /**
+     * ユーザーを新規登録する
+     *
+     * @param user 登録するユーザー（IDがnullまたは空の場合は生成する）
+     * @return 登録後のユーザー
+     * @throws DuplicateUserException メールアドレスまたはユーザー名が既に存在する場合
+     */
+    User insert(User user);
+
+    /**
+     * 既存ユーザーの全カラムを更新する（作成日時を除く）
+     *
+     * user.version()が指定されている場合は、現在のバージョンと一致する場合のみ更新する。
+     * 更新時はバージョンを1増やす
+     *
+     * @param user 更新後のユーザー（versionには取得時のバージョンを指定する。nullの場合はバージョンを確認しない）
+     * @return 更新後のユーザー（対象が存在しないか、バージョンが一致しない場合は空）
+     * @throws DuplicateUserException メールアドレスまたはユーザー名が他のユーザーと重複する場合
+     */
+    Optional<User> update(User user);
+
+    /**
+     * 既存ユーザーの指定された列のみを更新する
+     *
+     * 指定された値が全て現在の値と同じ場合は書き込みを行わない。
+     * expectedVersionが指定されている場合は、現在のバージョンと一致する場合のみ更新する。
+     * 更新時はバージョンを1増やす
+     *
+     * @param id ユーザーID
+     * @param expectedVersion 更新の前提とするバージョン（nullの場合はバージョンを確認しない）
+     * @param patch 部分更新の内容（nullのフィールドは変更しない）
+     * @return 更新後のユーザー（対象が存在しない、バージョンが一致しない、または値が変わらない場合は空）
+     * @throws DuplicateUserException メールアドレスまたはユーザー名が他のユーザーと重複する場合
+     */
+    Optional<User> patch(String id, Long expectedVersion, UserPatch patch);
+
+    /**
+     * パスワードハッシュを、同じパスワードをより強いアルゴリズム・コストでハッシュ化した値に置き換える
+     *
+     * パスワード自体は変わらないため、バージョンと更新日時は変更しない。
+     * 読み込み後にパスワードが変更されていた場合に上書きしないよう、現在のハッシュが一致する場合のみ更新する
+     *
+     * @param id ユーザーID
+     * @param currentHash 置き換え前のパスワードハッシュ
+     * @param newHash 置き換え後のパスワードハッシュ
+     * @return 更新した場合はtrue（対象が存在しないか、ハッシュが一致しない場合はfalse）
+     */
+    boolean updatePasswordHash(String id, String currentHash, String newHash);
+
+    /**
+     * 複数のユーザーを1回の複数行INSERTで新規登録する
+     *
+     * メールアドレスまたはユーザー名が既存ユーザー（同一リスト内の先行要素を含む）と
+     * 重複する要素は登録せずにスキップする
+     *
+     * @param users 登録するユーザー（IDがnullまたは空の場合は生成する）
+     * @return 入力と同じ順序の登録結果（スキップした要素は空）
+     */
+    List<Optional<User>> insertAll(List<User> users);
+
+    /**
+     * 指定したメールアドレスのうち、登録済みのものを返す
+     *
+     * @param emails 確認するメールアドレス
+     * @return 登録済みのメールアドレス
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * 登録されているユーザー数を返す
+     *
+     * @return ユーザー数
+     */
+    long count();
+
     int deleteById(String id);
     int deleteAll();
+
+    /**
+     * ID順でafterIdより後ろのユーザーを最大limit件削除する
+     *
+     * 削除範囲を限定することで、1トランザクションあたりのロック保持時間と
+     * 関連テーブルへのカスケード削除量を抑える
+     *
+     * @param afterId 直前に削除したチャンクの最終ID（nullの場合は先頭から）
+     * @param limit 削除する最大件数
+     * @return 削除結果
+     */
+    UserDeleteChunkResult deleteChunk(String afterId, int limit);
 }
@@ -0,0 +1,17 @@
+package com.yusay.user.api.domain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * ユーザーの変更判定に使用する値
+ *
+ * 条件付きリクエストの判定など、ユーザー全体が不要な場合に使用する
+ *
+ * @param version 楽観ロック用のバージョン（更新のたびに1増える）
+ * @param updatedAt 更新日時
+ */
+public record UserVersion(
+    long version,
+    LocalDateTime updatedAt
+) {
+}
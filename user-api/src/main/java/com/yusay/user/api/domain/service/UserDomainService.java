@@ -2,11 +2,11 @@ package com.yusay.user.api.domain.service;
 
 import com.yusay.user.api.domain.entity.User;
 import com.yusay.user.api.domain.exception.DeleteAllNotAllowedException;
+import com.yusay.user.api.domain.repository.UserPatch;
 import org.springframework.stereotype.Service;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * ユーザーエンティティの生成・更新ロジックを担当するドメインサービス
@@ -91,7 +91,41 @@ public class UserDomainService {
                 accountNonLocked != null ? accountNonLocked : existingUser.accountNonLocked(),
                 credentialsNonExpired != null ? credentialsNonExpired : existingUser.credentialsNonExpired(),
                 existingUser.createdAt(),  // 作成日時は保持
-                LocalDateTime.now(clock)  // 更新日時を現在時刻に設定
+                LocalDateTime.now(clock),  // 更新日時を現在時刻に設定
+                existingUser.version()  // 取得時のバージョン（更新の前提条件として使用）
+        );
+    }
+
+    /**
+     * ユーザーの部分更新の内容を作成する際に更新日時を自動的に設定する
+     * 
+     * @param username 新しいユーザー名（nullの場合は変更しない）
+     * @param email 新しいメールアドレス（nullの場合は変更しない）
+     * @param passwordHash 新しいパスワードハッシュ（nullの場合は変更しない）
+     * @param enabled 新しい有効フラグ（nullの場合は変更しない）
+     * @param accountNonExpired 新しいアカウント有効期限切れフラグ（nullの場合は変更しない）
+     * @param accountNonLocked 新しいアカウントロックフラグ（nullの場合は変更しない）
+     * @param credentialsNonExpired 新しい認証情報有効期限切れフラグ（nullの場合は変更しない）
+     * @return 更新日時が設定された部分更新の内容
+     */
+    public UserPatch patchUser(
+            String username,
+            String email,
+            String passwordHash,
+            Boolean enabled,
+            Boolean accountNonExpired,
+            Boolean accountNonLocked,
+            Boolean credentialsNonExpired
+    ) {
+        return new UserPatch(
+                username,
+                email,
+                passwordHash,
+                enabled,
+                accountNonExpired,
+                accountNonLocked,
+                credentialsNonExpired,
+                LocalDateTime.now(clock)  // 値が変わる場合のみ更新日時として設定される
         );
     }
 
@@ -99,22 +133,20 @@ public class UserDomainService {
      * 全件削除の実行前検証を行う
      * ドメインルール: 削除対象が一定数を超える場合は安全性のために拒否する
      * 
-     * 注意: 空のリスト（0件）の削除は許可されます。これはデータが存在しない状態での
+     * 注意: 0件の削除は許可されます。これはデータが存在しない状態での
      * 全件削除操作を安全に実行できるようにするためです。
      * 
-     * @param users 削除対象のユーザーリスト
+     * @param userCount 削除対象のユーザー数
      * @param maxAllowedDeletions 一度に削除可能な最大件数（正の整数である必要があります）
      * @throws DeleteAllNotAllowedException 削除が許可されていない場合
      * @throws IllegalArgumentException maxAllowedDeletionsが0以下の場合
      */
-    public void validateDeleteAll(List<User> users, int maxAllowedDeletions) {
+    public void validateDeleteAll(long userCount, int maxAllowedDeletions) {
         if (maxAllowedDeletions <= 0) {
             throw new IllegalArgumentException(
                 String.format("maxAllowedDeletions must be positive, but was: %d", maxAllowedDeletions));
         }
         
-        int userCount = users.size();
-        
         if (userCount > maxAllowedDeletions) {
             throw new DeleteAllNotAllowedException(
                 String.format("削除対象ユーザー数（%d件）が上限（%d件）を超えています。安全のため削除を拒否します。",
@@ -0,0 +1,75 @@
+package com.yusay.user.api.infrastructure;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+/**
+ * 実行中のマシンで1回のハッシュ化が目標時間に収まる最大のBCryptのコスト（strength）を求める
+ *
+ * BCryptはコストが1増えるごとに計算量が2倍になるため、基準のコストで実測した時間から
+ * 目標時間に収まるコストを求める。デプロイ先のハードウェアごとにコストを手動で調整せずに済むよう、
+ * 起動時に1度だけ計測する
+ */
+public final class BCryptStrengthCalibrator {
+
+    // BCryptで指定できるコストの上限
+    static final int MAX_STRENGTH = 31;
+
+    // 計測のばらつき（JITコンパイル、他スレッドとの競合）を抑えるため、複数回計測した最小値を用いる
+    private static final int MEASUREMENTS = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private BCryptStrengthCalibrator() {
+        throw new AssertionError("BCryptStrengthCalibratorはインスタンス化できません");
+    }
+
+    /**
+     * 1回のハッシュ化が目標時間に収まる最大のコストを求める
+     *
+     * @param targetDuration 1回のハッシュ化の目標時間
+     * @param minStrength 下限のコスト（目標時間を超える場合もこの値を下回らない）。計測の基準にも用いる
+     * @return コスト（minStrength以上31以下）
+     */
+    public static int calibrate(Duration targetDuration, int minStrength) {
+        if (minStrength < 4 || minStrength > MAX_STRENGTH) {
+            throw new IllegalArgumentException(
+                String.format("minStrength must be between 4 and %d, but was: %d", MAX_STRENGTH, minStrength));
+        }
+        if (targetDuration.isNegative() || targetDuration.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("targetDuration must be positive, but was: %s", targetDuration));
+        }
+
+        String salt = BCrypt.gensalt(minStrength);
+        // 初回はJITコンパイル前のため計測に含めない
+        BCrypt.hashpw(SAMPLE_PASSWORD, salt);
+        long fastestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            long startedAt = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, salt);
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - startedAt);
+        }
+        return strengthFor(targetDuration, minStrength, Duration.ofNanos(fastestNanos));
+    }
+
+    /**
+     * 基準のコストでの所要時間から、目標時間に収まる最大のコストを求める
+     *
+     * @param targetDuration 1回のハッシュ化の目標時間
+     * @param baseStrength 計測したコスト
+     * @param measured baseStrengthでの所要時間
+     * @return コスト（baseStrength以上31以下）
+     */
+    static int strengthFor(Duration targetDuration, int baseStrength, Duration measured) {
+        long measuredNanos = Math.max(measured.toNanos(), 1);
+        long targetNanos = targetDuration.toNanos();
+        int strength = baseStrength;
+        // コストを1上げると所要時間は2倍になる
+        while (strength < MAX_STRENGTH && measuredNanos <= targetNanos / 2) {
+            measuredNanos *= 2;
+            strength++;
+        }
+        return strength;
+    }
+}
@@ -0,0 +1,185 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.application.service.BatchPasswordEncoder;
+import com.yusay.user.api.domain.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * パスワードのハッシュ化と照合を専用のスレッドプールで実行するPasswordEncoder
+ *
+ * BCryptはCPU負荷が高いため、リクエストスレッドで直接実行すると登録の集中時に
+ * 全てのスレッドがハッシュ化で埋まり、軽い参照リクエストまで待たされる。
+ * ハッシュ化の同時実行数をスレッド数までに、待ち行列を上限までに制限し、
+ * 上限を超えた場合は待たせずに {@link PasswordHashingBusyException} で失敗させる
+ *
+ * 一括のハッシュ化（{@link #encodeAll}）は全件をこのスレッドプールへ直接投入し、
+ * 呼び出し元のスレッドは完了を待つのみとする
+ */
+public class BoundedPasswordEncoder implements BatchPasswordEncoder, MeterBinder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder totalTimeNanos = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException(
+                String.format("threads must be positive, but was: %d", threads));
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException(
+                String.format("queueCapacity must be positive, but was: %d", queueCapacity));
+        }
+        this.delegate = delegate;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (CharSequence rawPassword : rawPasswords) {
+            try {
+                futures.add(submit(() -> delegate.encode(rawPassword)));
+            } catch (PasswordHashingBusyException e) {
+                futures.add(null);
+            }
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        for (Future<String> future : futures) {
+            hashes.add(future != null ? await(future) : null);
+        }
+        return hashes;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // ハッシュの書式を確認するだけで計算を伴わないため、呼び出し元のスレッドで実行する
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return 実行を待っているハッシュ化の数
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return 実行中のハッシュ化の数
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return 待ち行列が上限に達していたため受け付けなかった回数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("user.password.hashing.queue", this, BoundedPasswordEncoder::getQueueDepth)
+                .description("Password hashing tasks waiting for a worker")
+                .register(registry);
+        Gauge.builder("user.password.hashing.active", this, BoundedPasswordEncoder::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(registry);
+        FunctionCounter.builder("user.password.hashing.rejected", this, BoundedPasswordEncoder::getRejectedCount)
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(registry);
+        FunctionTimer.builder("user.password.hashing.duration", this,
+                        encoder -> encoder.completedCount.sum(),
+                        encoder -> encoder.totalTimeNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time spent hashing or verifying passwords, excluding time in the queue")
+                .register(registry);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    totalTimeNanos.add(System.nanoTime() - startedAt);
+                    completedCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw new PasswordHashingBusyException(String.format(
+                "Password hashing queue is full (threads: %d, queue capacity: %d)",
+                executor.getMaximumPoolSize(), queueCapacity));
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
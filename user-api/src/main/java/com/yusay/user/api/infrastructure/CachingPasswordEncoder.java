@@ -0,0 +1,140 @@
+package com.yusay.user.api.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yusay.user.api.application.service.BatchPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 照合に成功したパスワードを短時間キャッシュし、同じ資格情報での再照合を省略するPasswordEncoder
+ *
+ * HTTP Basic認証ではリクエストごとにパスワードを照合するため、毎回BCryptを実行すると
+ * 1リクエストあたり数十ミリ秒のCPUを消費する。照合に成功した組み合わせを、保存済みのハッシュと
+ * パスワードのHMAC（プロセスごとに生成した鍵を使用）をキーとして記録し、有効期限内は照合を省略する。
+ * 平文のパスワードやパスワードと同等に扱える値は保持しない
+ *
+ * キーに保存済みのハッシュを含むため、パスワードの変更・再ハッシュ化後は古い組み合わせに一致しない。
+ * アカウントの状態と権限は認証のたびにユーザーの読み込みで確認されるため、照合の省略の影響を受けない
+ */
+public class CachingPasswordEncoder implements BatchPasswordEncoder, MeterBinder, AutoCloseable {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int KEY_BYTES = 32;
+
+    private final PasswordEncoder delegate;
+    private final SecretKeySpec key;
+    private final Cache<String, Boolean> verified;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, long maximumSize, Duration ttl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(
+                String.format("maximumSize must be positive, but was: %d", maximumSize));
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("ttl must be positive, but was: %s", ttl));
+        }
+        this.delegate = delegate;
+        byte[] secret = new byte[KEY_BYTES];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        if (delegate instanceof BatchPasswordEncoder batch) {
+            return batch.encodeAll(rawPasswords);
+        }
+        return rawPasswords.stream().map(delegate::encode).toList();
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        String cacheKey = cacheKey(rawPassword, encodedPassword);
+        if (verified.getIfPresent(cacheKey) != null) {
+            return true;
+        }
+        // 失敗した照合は記録しない（総当たりの試行ごとに照合のコストを課す）
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        if (matches) {
+            verified.put(cacheKey, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 記録した照合結果を全て破棄する
+     */
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verified, "verified-credentials");
+        if (delegate instanceof MeterBinder binder) {
+            binder.bindTo(registry);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * 保存済みのハッシュとパスワードのHMACを求める
+     *
+     * 長さを前置して連結し、区切り位置の異なる組み合わせが同じ入力とならないようにする
+     */
+    private String cacheKey(CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            byte[] encoded = encodedPassword.getBytes(StandardCharsets.UTF_8);
+            byte[] raw = rawPassword.toString().getBytes(StandardCharsets.UTF_8);
+            mac.update(lengthPrefix(encoded.length));
+            mac.update(encoded);
+            mac.update(raw);
+            return Base64.getEncoder().withoutPadding().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static byte[] lengthPrefix(int length) {
+        return new byte[] {(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length};
+    }
+}
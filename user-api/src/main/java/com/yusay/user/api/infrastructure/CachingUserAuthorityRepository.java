@@ -0,0 +1,172 @@
+package com.yusay.user.api.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.repository.UserAuthorities;
+import com.yusay.user.api.domain.repository.UserAuthorityRepository;
+import com.yusay.user.api.domain.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * ユーザーごとに解決したロール・権限をプロセス内にキャッシュする UserAuthorityRepository
+ *
+ * HTTP Basic認証ではリクエストごとにユーザーを読み込むため、毎回ユーザーとロールの結合を行わないよう、
+ * ロール・権限をユーザーIDごとにキャッシュする。ユーザー自体（パスワードハッシュ、アカウントの状態）は
+ * {@link CachingUserRepository} から取得し、その変更時の破棄に任せる
+ *
+ * ロールの割り当て・解除時は同じトランザクション内で変更を通知し、他のノードのキャッシュも破棄させる
+ * （{@link UserCacheInvalidationListener}）。ロールと権限の対応の変更は {@link RolePermissionRegistry} が
+ * 定期的な読み込みで検出し、その際にキャッシュ全体を破棄する。読み書き分離時は、変更を再生していない
+ * レプリカから読み込んだ値をキャッシュしない（{@link ReplicaReadFence}）
+ */
+@Repository
+@Primary
+public class CachingUserAuthorityRepository implements UserAuthorityRepository {
+
+    private final UserAuthorityRepository delegate;
+    private final UserRepository userRepository;
+    private final UserCacheInvalidationPublisher invalidationPublisher;
+    private final ReplicaReadFence readFence;
+    private final Cache<String, UserAuthorities> authoritiesByUserId;
+
+    public CachingUserAuthorityRepository(
+            JdbcUserAuthorityRepository delegate,
+            UserRepository userRepository,
+            UserCacheInvalidationPublisher invalidationPublisher,
+            ReplicaReadFence readFence,
+            MeterRegistry meterRegistry,
+            @Value("${user.cache.maximum-size:10000}") long maximumSize,
+            @Value("${user.cache.authority-ttl:5m}") Duration ttl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(
+                String.format("maximumSize must be positive, but was: %d", maximumSize));
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("ttl must be positive, but was: %s", ttl));
+        }
+        this.delegate = delegate;
+        this.userRepository = userRepository;
+        this.invalidationPublisher = invalidationPublisher;
+        this.readFence = readFence;
+        this.authoritiesByUserId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, authoritiesByUserId, "user-authorities");
+    }
+
+    @Override
+    public Optional<UserAuthorities> findByUsername(String username) {
+        if (!isCacheable()) {
+            return delegate.findByUsername(username);
+        }
+        Optional<User> user = userRepository.findByUsername(username);
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+        UserAuthorities cached = authoritiesByUserId.getIfPresent(user.get().id());
+        if (cached != null) {
+            return Optional.of(cached.withUser(user.get()));
+        }
+        // ユーザーとロール・権限を1回の結合で読み込み直す（ユーザーはキャッシュ済みの値より新しい場合がある）
+        boolean cacheable = readFence.allowsCaching(ReplicaReadFence.idKey(user.get().id()));
+        Optional<UserAuthorities> loaded = delegate.findByUsername(username);
+        if (!cacheable) {
+            return loaded;
+        }
+        loaded.ifPresent(authorities -> authoritiesByUserId.put(authorities.user().id(), authorities));
+        return loaded;
+    }
+
+    @Override
+    public boolean existsRole(String roleName) {
+        return delegate.existsRole(roleName);
+    }
+
+    @Override
+    public boolean assignRole(String userId, String roleName) {
+        invalidateAfterCompletion(() -> invalidate(userId));
+        boolean assigned = delegate.assignRole(userId, roleName);
+        if (assigned) {
+            invalidationPublisher.publish(userId);
+        }
+        return assigned;
+    }
+
+    @Override
+    public boolean revokeRole(String userId, String roleName) {
+        invalidateAfterCompletion(() -> invalidate(userId));
+        boolean revoked = delegate.revokeRole(userId, roleName);
+        if (revoked) {
+            invalidationPublisher.publish(userId);
+        }
+        return revoked;
+    }
+
+    /**
+     * 指定したユーザーのロール・権限のキャッシュを破棄する
+     *
+     * @param userId ユーザーID
+     */
+    public void invalidate(String userId) {
+        authoritiesByUserId.invalidate(userId);
+    }
+
+    /**
+     * 全てのロール・権限のキャッシュを破棄する
+     */
+    public void invalidateAll() {
+        authoritiesByUserId.invalidateAll();
+    }
+
+    /**
+     * ロールと権限の対応が変わった場合に、変更前の対応から解決した権限のキャッシュを破棄する
+     *
+     * @param event 変更イベント
+     */
+    @EventListener
+    public void onRolePermissionsChanged(RolePermissionsChangedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * 書き込み中のトランザクション内では、未コミットの値をキャッシュしないようデータベースを直接参照する
+     *
+     * @return キャッシュを使用できる場合true
+     */
+    private boolean isCacheable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * キャッシュを即座に破棄し、トランザクション内であれば完了後にも再度破棄する
+     *
+     * @param invalidation 破棄処理
+     */
+    private void invalidateAfterCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.yusay.user.api.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.repository.UserCursor;
+import com.yusay.user.api.domain.repository.UserDeleteChunkResult;
+import com.yusay.user.api.domain.repository.UserPatch;
+import com.yusay.user.api.domain.repository.UserRepository;
+import com.yusay.user.api.domain.repository.UserVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * ユーザーの参照結果をプロセス内にキャッシュする UserRepository
+ *
+ * IDをキーとするキャッシュに加え、メールアドレス・ユーザー名からIDへの索引を保持する。
+ * 索引から取得したユーザーはキーの値が一致することを確認してから返すため、
+ * 索引が古くなっても誤ったユーザーを返さない
+ *
+ * 同一キーの同時ミスはキャッシュが1回の読み込みにまとめるため、
+ * 参照の多いキーの期限切れで同じクエリが大量に発行されることはない
+ *
+ * 見つからなかったキーも短い期間「存在しない」としてキャッシュし、存在しないIDへの繰り返しの
+ * アクセスでデータベースを参照しないようにする。登録・更新で新しいキーが追加された場合は、
+ * 追加されたキーのみを破棄する（他のノードへも追加されたキーのみを通知する）
+ *
+ * 書き込み時は同じトランザクション内で変更を通知し、他のノードのキャッシュも破棄させる
+ * （{@link UserCacheInvalidationListener}）。読み書き分離時は、変更を再生していないレプリカから
+ * 読み込んだ値をキャッシュしない（{@link ReplicaReadFence}）
+ */
+@Repository
+@Primary
+public class CachingUserRepository implements UserRepository {
+
+    private final UserRepository delegate;
+    private final UserCacheInvalidationPublisher invalidationPublisher;
+    private final ReplicaReadFence readFence;
+    private final Cache<String, User> usersById;
+    private final Cache<String, String> idsByEmail;
+    private final Cache<String, String> idsByUsername;
+    private final Cache<String, Boolean> missingIds;
+    private final Cache<String, Boolean> missingEmails;
+    private final Cache<String, Boolean> missingUsernames;
+
+    public CachingUserRepository(
+            JdbcUserRepository delegate,
+            UserCacheInvalidationPublisher invalidationPublisher,
+            ReplicaReadFence readFence,
+            MeterRegistry meterRegistry,
+            @Value("${user.cache.maximum-size:10000}") long maximumSize,
+            @Value("${user.cache.ttl:5m}") Duration ttl,
+            @Value("${user.cache.negative-ttl:30s}") Duration negativeTtl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(
+                String.format("maximumSize must be positive, but was: %d", maximumSize));
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("ttl must be positive, but was: %s", ttl));
+        }
+        if (negativeTtl.isNegative() || negativeTtl.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("negativeTtl must be positive, but was: %s", negativeTtl));
+        }
+        this.delegate = delegate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.readFence = readFence;
+        this.usersById = buildCache(maximumSize, ttl);
+        this.idsByEmail = buildCache(maximumSize, ttl);
+        this.idsByUsername = buildCache(maximumSize, ttl);
+        this.missingIds = buildCache(maximumSize, negativeTtl);
+        this.missingEmails = buildCache(maximumSize, negativeTtl);
+        this.missingUsernames = buildCache(maximumSize, negativeTtl);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users-by-email");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "users-by-username");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingIds, "users-missing");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingEmails, "users-missing-by-email");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingUsernames, "users-missing-by-username");
+    }
+
+    private static <V> Cache<String, V> buildCache(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<User> findPage(UserCursor after, int limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        if (!isCacheable()) {
+            return delegate.findById(id);
+        }
+        if (missingIds.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (!readFence.allowsCaching(ReplicaReadFence.idKey(id))) {
+            return delegate.findById(id);
+        }
+        // 見つからなかった場合はnullとなり、ユーザーのキャッシュではなく「存在しない」キャッシュに記録する
+        return Optional.ofNullable(usersById.get(id, key -> delegate.findById(key).orElseGet(() -> {
+            missingIds.put(key, Boolean.TRUE);
+            return null;
+        })));
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionById(String id) {
+        if (!isCacheable()) {
+            return delegate.findVersionById(id);
+        }
+        if (missingIds.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+        // キャッシュ済みであれば、変更時に破棄されるためキャッシュの値が最新のバージョンとなる
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(new UserVersion(cached.version(), cached.updatedAt()));
+        }
+        return delegate.findVersionById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        if (!isCacheable()) {
+            return delegate.findByEmail(email);
+        }
+        return findBySecondaryKey(idsByEmail, missingEmails, email, ReplicaReadFence.emailKey(email),
+                User::email, delegate::findByEmail);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (!isCacheable()) {
+            return delegate.findByUsername(username);
+        }
+        return findBySecondaryKey(idsByUsername, missingUsernames, username, ReplicaReadFence.usernameKey(username),
+                User::username, delegate::findByUsername);
+    }
+
+    /**
+     * 索引からIDを引いてユーザーを取得する
+     *
+     * 索引が指すユーザーがキャッシュに無いか、キーの値が変わっている場合は索引を破棄して読み込み直す
+     *
+     * @param index キーからIDへの索引
+     * @param missing 存在しないキーのキャッシュ
+     * @param key 検索キー
+     * @param fenceKey 検索キーに対するフェンスのキー
+     * @param keyOf ユーザーから検索キーの値を取り出す関数
+     * @param loader データベースからの読み込み
+     * @return ユーザー
+     */
+    private Optional<User> findBySecondaryKey(
+            Cache<String, String> index,
+            Cache<String, Boolean> missing,
+            String key,
+            String fenceKey,
+            Function<User, String> keyOf,
+            Function<String, Optional<User>> loader) {
+        if (missing.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+        String cachedId = index.getIfPresent(key);
+        User cached = cachedId != null ? usersById.getIfPresent(cachedId) : null;
+        if (cached != null && key.equals(keyOf.apply(cached))) {
+            return Optional.of(cached);
+        }
+        if (!readFence.allowsCaching(fenceKey)) {
+            return loader.apply(key);
+        }
+        // 変更前のキーでは最近変更されたユーザーを遅延しているレプリカから読み込みうるため、
+        // 読み込んだユーザーのIDにフェンスがある場合はキャッシュせずに返す
+        User[] uncached = new User[1];
+        for (int attempt = 0; attempt < 2; attempt++) {
+            String id = index.get(key, k -> {
+                Optional<User> loaded = loader.apply(k);
+                if (loaded.isEmpty()) {
+                    missing.put(k, Boolean.TRUE);
+                    return null;
+                }
+                User user = loaded.get();
+                if (readFence.isFenced(ReplicaReadFence.idKey(user.id()))) {
+                    uncached[0] = user;
+                    return null;
+                }
+                usersById.put(user.id(), user);
+                return user.id();
+            });
+            if (uncached[0] != null) {
+                return Optional.of(uncached[0]);
+            }
+            if (id == null) {
+                return Optional.empty();
+            }
+            User user = usersById.getIfPresent(id);
+            if (user != null && key.equals(keyOf.apply(user))) {
+                return Optional.of(user);
+            }
+            index.invalidate(key);
+        }
+        return loader.apply(key);
+    }
+
+    @Override
+    public User insert(User user) {
+        User inserted = delegate.insert(user);
+        invalidateAfterCompletion(() -> invalidateMissing(inserted));
+        invalidationPublisher.publishNewKeys(List.of(inserted));
+        return inserted;
+    }
+
+    @Override
+    public Optional<User> update(User user) {
+        // 変更前の値がキャッシュにあれば、メールアドレス・ユーザー名が変わった場合のみ新しいキーとして通知する
+        User previous = usersById.getIfPresent(user.id());
+        String newEmail = previous == null || !previous.email().equals(user.email()) ? user.email() : null;
+        String newUsername = previous == null || !previous.username().equals(user.username()) ? user.username() : null;
+        invalidateAfterCompletion(() -> {
+            invalidate(user.id());
+            idsByEmail.invalidate(user.email());
+            idsByUsername.invalidate(user.username());
+            // メールアドレス・ユーザー名の変更により新しいキーで見つかるようになる
+            invalidateMissing(user);
+        });
+        Optional<User> updated = delegate.update(user);
+        if (updated.isPresent()) {
+            invalidationPublisher.publish(user.id(), newEmail, newUsername);
+        }
+        return updated;
+    }
+
+    @Override
+    public Optional<User> patch(String id, Long expectedVersion, UserPatch patch) {
+        invalidateAfterCompletion(() -> {
+            invalidate(id);
+            // メールアドレス・ユーザー名の変更により新しいキーで見つかるようになる
+            if (patch.email() != null) {
+                missingEmails.invalidate(patch.email());
+            }
+            if (patch.username() != null) {
+                missingUsernames.invalidate(patch.username());
+            }
+        });
+        Optional<User> patched = delegate.patch(id, expectedVersion, patch);
+        if (patched.isPresent()) {
+            invalidationPublisher.publish(id, patch.email(), patch.username());
+        }
+        return patched;
+    }
+
+    @Override
+    public boolean updatePasswordHash(String id, String currentHash, String newHash) {
+        invalidateAfterCompletion(() -> invalidate(id));
+        boolean updated = delegate.updatePasswordHash(id, currentHash, newHash);
+        if (updated) {
+            invalidationPublisher.publish(id);
+        }
+        return updated;
+    }
+
+    @Override
+    public List<Optional<User>> insertAll(List<User> users) {
+        List<Optional<User>> results = delegate.insertAll(users);
+        List<User> inserted = results.stream().flatMap(Optional::stream).toList();
+        if (!inserted.isEmpty()) {
+            invalidateAfterCompletion(() -> inserted.forEach(this::invalidateMissing));
+            invalidationPublisher.publishNewKeys(inserted);
+        }
+        return results;
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return delegate.findExistingEmails(emails);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public int deleteById(String id) {
+        invalidateAfterCompletion(() -> invalidate(id));
+        int deletedCount = delegate.deleteById(id);
+        if (deletedCount > 0) {
+            invalidationPublisher.publish(id);
+        }
+        return deletedCount;
+    }
+
+    @Override
+    public int deleteAll() {
+        invalidateAfterCompletion(this::invalidateAll);
+        int deletedCount = delegate.deleteAll();
+        if (deletedCount > 0) {
+            invalidationPublisher.publishAll();
+        }
+        return deletedCount;
+    }
+
+    @Override
+    public UserDeleteChunkResult deleteChunk(String afterId, int limit) {
+        invalidateAfterCompletion(this::invalidateAll);
+        UserDeleteChunkResult result = delegate.deleteChunk(afterId, limit);
+        if (result.deletedCount() > 0) {
+            invalidationPublisher.publishAll();
+        }
+        return result;
+    }
+
+    /**
+     * 指定したユーザーのキャッシュと索引を破棄する
+     *
+     * @param id ユーザーID
+     */
+    public void invalidate(String id) {
+        User cached = usersById.getIfPresent(id);
+        usersById.invalidate(id);
+        if (cached != null) {
+            idsByEmail.invalidate(cached.email());
+            idsByUsername.invalidate(cached.username());
+        }
+    }
+
+    /**
+     * 全てのキャッシュと索引を破棄する
+     */
+    public void invalidateAll() {
+        usersById.invalidateAll();
+        idsByEmail.invalidateAll();
+        idsByUsername.invalidateAll();
+        invalidateMissing();
+    }
+
+    /**
+     * 全ての「存在しない」キャッシュを破棄する
+     */
+    public void invalidateMissing() {
+        missingIds.invalidateAll();
+        missingEmails.invalidateAll();
+        missingUsernames.invalidateAll();
+    }
+
+    /**
+     * 指定したメールアドレスの「存在しない」キャッシュを破棄する
+     *
+     * @param email 新しく検索できるようになったメールアドレス
+     */
+    public void invalidateMissingEmail(String email) {
+        missingEmails.invalidate(email);
+    }
+
+    /**
+     * 指定したユーザー名の「存在しない」キャッシュを破棄する
+     *
+     * @param username 新しく検索できるようになったユーザー名
+     */
+    public void invalidateMissingUsername(String username) {
+        missingUsernames.invalidate(username);
+    }
+
+    private void invalidateMissing(User user) {
+        missingIds.invalidate(user.id());
+        missingEmails.invalidate(user.email());
+        missingUsernames.invalidate(user.username());
+    }
+
+    /**
+     * 書き込み中のトランザクション内では、未コミットの値をキャッシュしないようデータベースを直接参照する
+     *
+     * @return キャッシュを使用できる場合true
+     */
+    private boolean isCacheable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * キャッシュを即座に破棄し、トランザクション内であれば完了後にも再度破棄する
+     *
+     * コミット前に他のスレッドが古い値を読み込み直した場合でも、完了後の破棄により取り除かれる
+     *
+     * @param invalidation 破棄処理
+     */
+    private void invalidateAfterCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
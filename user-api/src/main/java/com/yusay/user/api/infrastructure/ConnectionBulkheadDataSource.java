@@ -0,0 +1,125 @@
+package com.yusay.user.api.infrastructure;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 同時に使用できる接続数をセマフォで制限するDataSource（バルクヘッド）
+ *
+ * 仮想スレッドではリクエスト数に応じてスレッドが際限なく生成されるため、接続プールの待ち行列に
+ * 大量のスレッドが滞留し、全てが接続タイムアウトまで待たされる。接続の取得前に接続プールと同数の
+ * 許可を取得させ、maxWait以内に取得できない場合は接続プールへ到達させずに失敗させる。
+ * 許可は取得した接続のクローズ時に返却する
+ *
+ * 接続プールの接続タイムアウト（spring.datasource.hikari.connection-timeout）は下限が250msで、
+ * 待機中のスレッド数や拒否数を公開しないため、同時実行数の制限はこのクラスで行い、
+ * 待機時間（maxWait、0で即座に失敗）と使用状況のメトリクスを独立して設定・監視できるようにする
+ */
+public class ConnectionBulkheadDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final Duration maxWait;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public ConnectionBulkheadDataSource(DataSource targetDataSource, int maxConcurrency, Duration maxWait) {
+        super(targetDataSource);
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException(
+                String.format("maxConcurrency must be positive, but was: %d", maxConcurrency));
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException(
+                String.format("maxWait must not be negative, but was: %s", maxWait));
+        }
+        // 先着順に許可を与え、長く待っているスレッドが後から来たスレッドに追い越され続けないようにする
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return withPermit(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return withPermit(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 接続プールを閉じる（アプリケーション終了時に接続プールが閉じられるよう、クローズを委譲する）
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return 現在取得可能な許可の数
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * @return 許可の取得を待っているスレッドの概数
+     */
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * @return maxWait以内に許可を取得できずに失敗した回数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejectedCount.incrementAndGet();
+                throw new SQLTransientConnectionException(String.format(
+                    "Connection bulkhead is full (max concurrency: %d, waited: %s)", maxConcurrency, maxWait));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for connection bulkhead", e);
+        }
+    }
+
+    /**
+     * クローズ時に許可を1度だけ返却する接続を返す
+     */
+    private Connection withPermit(Connection target) {
+        return new PermitReleasingConnection(target, permits);
+    }
+}
@@ -0,0 +1,108 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.entity.RefreshToken;
+import com.yusay.user.api.domain.repository.RefreshTokenRepository;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class JdbcRefreshTokenRepository implements RefreshTokenRepository {
+
+    private static final RowMapper<RefreshToken> REFRESH_TOKEN_MAPPER = (rs, rowNum) -> new RefreshToken(
+            rs.getString("id"),
+            rs.getString("user_id"),
+            rs.getString("token"),
+            rs.getTimestamp("expiry_date").toLocalDateTime(),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    // 有効期限切れのトークンの削除を1ノードに限定するアドバイザリーロックの名前
+    private static final String EXPIRED_PURGE_LOCK_NAME = "refresh_tokens.expired_purge";
+
+    private final JdbcClient jdbcClient;
+
+    public JdbcRefreshTokenRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public RefreshToken insert(RefreshToken token) {
+        String id = token.id() == null || token.id().isBlank()
+                ? UuidV7Generator.INSTANCE.generateString()
+                : token.id();
+        return jdbcClient.sql("""
+                    INSERT INTO refresh_tokens (id, user_id, token, expiry_date, created_at)
+                    VALUES (:id, :userId, :token, :expiryDate, :createdAt)
+                    RETURNING id, user_id, token, expiry_date, created_at
+                """)
+                .param("id", id)
+                .param("userId", token.userId())
+                .param("token", token.tokenHash())
+                .param("expiryDate", token.expiryDate())
+                .param("createdAt", token.createdAt())
+                .query(REFRESH_TOKEN_MAPPER)
+                .single();
+    }
+
+    @Override
+    public Optional<RefreshToken> rotate(
+            String currentTokenHash, String newTokenHash, LocalDateTime now, LocalDateTime newExpiryDate) {
+        // 削除した行のユーザーIDで新しいトークンを登録する。同じトークンで同時に実行された場合、
+        // 後続の文は先行する文の完了を待ってから削除済みの行を読み飛ばすため、何も登録しない
+        return jdbcClient.sql("""
+                    WITH consumed AS (
+                        DELETE FROM refresh_tokens
+                        WHERE token = :currentToken AND expiry_date > :now
+                        RETURNING user_id
+                    )
+                    INSERT INTO refresh_tokens (id, user_id, token, expiry_date, created_at)
+                    SELECT :id, user_id, :newToken, :expiryDate, :now
+                    FROM consumed
+                    RETURNING id, user_id, token, expiry_date, created_at
+                """)
+                .param("currentToken", currentTokenHash)
+                .param("newToken", newTokenHash)
+                .param("now", now)
+                .param("expiryDate", newExpiryDate)
+                .param("id", UuidV7Generator.INSTANCE.generateString())
+                .query(REFRESH_TOKEN_MAPPER)
+                .optional();
+    }
+
+    @Override
+    public boolean deleteByTokenHash(String tokenHash) {
+        return jdbcClient.sql("DELETE FROM refresh_tokens WHERE token = :token")
+                .param("token", tokenHash)
+                .update() > 0;
+    }
+
+    @Override
+    public boolean tryLockExpiredPurge() {
+        return jdbcClient.sql("SELECT pg_try_advisory_xact_lock(hashtext(:name))")
+                .param("name", EXPIRED_PURGE_LOCK_NAME)
+                .query(Boolean.class)
+                .single();
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime now, int limit) {
+        // idx_refresh_tokens_expiry_date で対象を最大limit件に絞り、物理位置（ctid）の配列で削除する
+        // （配列との比較にすることで、削除側は表全体を走査せずTIDスキャンで行を特定する）
+        return jdbcClient.sql("""
+                    DELETE FROM refresh_tokens
+                    WHERE ctid = ANY(ARRAY(
+                        SELECT ctid
+                        FROM refresh_tokens
+                        WHERE expiry_date <= :now
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED
+                    ))
+                """)
+                .param("now", now)
+                .param("limit", limit)
+                .update();
+    }
+}
@@ -0,0 +1,51 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.repository.RolePermissionRepository;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Repository
+public class JdbcRolePermissionRepository implements RolePermissionRepository {
+
+    private final JdbcClient jdbcClient;
+
+    public JdbcRolePermissionRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public List<String> findAllPermissionNames() {
+        return jdbcClient.sql("SELECT name FROM permissions ORDER BY name")
+                .query(String.class)
+                .list();
+    }
+
+    @Override
+    public Map<String, Set<String>> findPermissionNamesByRole() {
+        // 権限の無いロールも返すよう外部結合し、ロール単位で配列に集約して1行で返す
+        Map<String, Set<String>> permissionsByRole = new HashMap<>();
+        jdbcClient.sql("""
+                    SELECT r.name,
+                           COALESCE(array_agg(p.name) FILTER (WHERE p.name IS NOT NULL), '{}') AS permissions
+                    FROM roles r
+                    LEFT JOIN role_permissions rp ON rp.role_id = r.id
+                    LEFT JOIN permissions p ON p.id = rp.permission_id
+                    GROUP BY r.id
+                """)
+                .query(rs -> {
+                    Array array = rs.getArray("permissions");
+                    try {
+                        permissionsByRole.put(rs.getString("name"), Set.of((String[]) array.getArray()));
+                    } finally {
+                        array.free();
+                    }
+                });
+        return permissionsByRole;
+    }
+}
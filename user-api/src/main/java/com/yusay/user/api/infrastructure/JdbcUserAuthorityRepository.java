@@ -0,0 +1,102 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.repository.UserAuthorities;
+import com.yusay.user.api.domain.repository.UserAuthorityRepository;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public class JdbcUserAuthorityRepository implements UserAuthorityRepository {
+
+    private final JdbcClient jdbcClient;
+    private final RolePermissionRegistry rolePermissionRegistry;
+
+    public JdbcUserAuthorityRepository(JdbcClient jdbcClient, RolePermissionRegistry rolePermissionRegistry) {
+        this.jdbcClient = jdbcClient;
+        this.rolePermissionRegistry = rolePermissionRegistry;
+    }
+
+    @Override
+    public Optional<UserAuthorities> findByUsername(String username) {
+        // ロールごとに行が増えないよう、ユーザー単位で配列に集約して1行で返す
+        // （usersは主キーで集約するため、ユーザーの他の列もそのまま選択できる）。
+        // ロールが持つ権限はデータベースで結合せず、プロセス内のスナップショットから解決する
+        return jdbcClient.sql("""
+                    SELECT u.id, u.username, u.email, u.password_hash, u.enabled,
+                           u.account_non_expired, u.account_non_locked, u.credentials_non_expired,
+                           u.created_at, u.updated_at, u.version,
+                           COALESCE(array_agg(r.name) FILTER (WHERE r.name IS NOT NULL), '{}') AS roles
+                    FROM users u
+                    LEFT JOIN user_roles ur ON ur.user_id = u.id
+                    LEFT JOIN roles r ON r.id = ur.role_id
+                    WHERE u.username = :username
+                    GROUP BY u.id
+                """)
+                .param("username", username)
+                .query((rs, rowNum) -> new UserRoles(UserRowMapper.INSTANCE.mapRow(rs, rowNum), toSet(rs, 12)))
+                .optional()
+                // 初回の読み込みで別の接続を使用するため、結果セットを閉じてから解決する
+                .map(userRoles -> new UserAuthorities(
+                        userRoles.user(),
+                        userRoles.roles(),
+                        rolePermissionRegistry.current().permissionsOf(userRoles.roles())));
+    }
+
+    @Override
+    public boolean existsRole(String roleName) {
+        return jdbcClient.sql("SELECT EXISTS (SELECT 1 FROM roles WHERE name = :name)")
+                .param("name", roleName)
+                .query(Boolean.class)
+                .single();
+    }
+
+    @Override
+    public boolean assignRole(String userId, String roleName) {
+        return jdbcClient.sql("""
+                    INSERT INTO user_roles (user_id, role_id)
+                    SELECT :userId, r.id
+                    FROM roles r
+                    WHERE r.name = :roleName
+                    ON CONFLICT DO NOTHING
+                """)
+                .param("userId", userId)
+                .param("roleName", roleName)
+                .update() > 0;
+    }
+
+    @Override
+    public boolean revokeRole(String userId, String roleName) {
+        return jdbcClient.sql("""
+                    DELETE FROM user_roles ur
+                    USING roles r
+                    WHERE ur.role_id = r.id
+                      AND ur.user_id = :userId
+                      AND r.name = :roleName
+                """)
+                .param("userId", userId)
+                .param("roleName", roleName)
+                .update() > 0;
+    }
+
+    private static Set<String> toSet(ResultSet rs, int columnIndex) throws SQLException {
+        Array array = rs.getArray(columnIndex);
+        try {
+            return Set.of((String[]) array.getArray());
+        } finally {
+            array.free();
+        }
+    }
+
+    /**
+     * ユーザーの列（{@link UserRowMapper} の列順）と、続くロール名の配列
+     */
+    private record UserRoles(User user, Set<String> roles) {
+    }
+}
@@ -1,20 +1,46 @@
 package com.yusay.user.api.infrastructure;
 
 import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.exception.DuplicateUserException;
+import com.yusay.user.api.domain.repository.UserCursor;
+import com.yusay.user.api.domain.repository.UserDeleteChunkResult;
+import com.yusay.user.api.domain.repository.UserPatch;
 import com.yusay.user.api.domain.repository.UserRepository;
+import com.yusay.user.api.domain.repository.UserVersion;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.SqlArrayValue;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class JdbcUserRepository implements UserRepository {
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String EMAIL_UNIQUE_CONSTRAINT = "users_email_key";
+    private static final String USERNAME_UNIQUE_CONSTRAINT = "users_username_key";
+
     private final JdbcClient jdbcClient;
+    private final int streamFetchSize;
 
-    public JdbcUserRepository(JdbcClient jdbcClient) {
+    public JdbcUserRepository(
+            JdbcClient jdbcClient,
+            @Value("${user.export.fetch-size:1000}") int streamFetchSize) {
         this.jdbcClient = jdbcClient;
+        this.streamFetchSize = streamFetchSize;
     }
   
     @Override
@@ -22,24 +48,87 @@ public class JdbcUserRepository implements UserRepository {
         return jdbcClient.sql("""
                     SELECT id, username, email, password_hash, enabled,
                            account_non_expired, account_non_locked, credentials_non_expired,
-                           created_at, updated_at
+                           created_at, updated_at, version
+                    FROM users
+                """)
+                .query(UserRowMapper.INSTANCE)
+                .list();
+    }
+
+    @Override
+    public List<User> findPage(UserCursor after, int limit) {
+        if (after == null) {
+            return jdbcClient.sql("""
+                        SELECT id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at, version
+                        FROM users
+                        ORDER BY created_at, id
+                        LIMIT :limit
+                    """)
+                    .param("limit", limit)
+                    .query(UserRowMapper.INSTANCE)
+                    .list();
+        }
+
+        // 行値比較により idx_users_created_at_id の範囲スキャンで取得する（OFFSETは使用しない）
+        return jdbcClient.sql("""
+                    SELECT id, username, email, password_hash, enabled,
+                           account_non_expired, account_non_locked, credentials_non_expired,
+                           created_at, updated_at, version
                     FROM users
+                    WHERE (created_at, id) > (:createdAt, :id)
+                    ORDER BY created_at, id
+                    LIMIT :limit
                 """)
-                .query(User.class)
+                .param("createdAt", after.createdAt())
+                .param("id", after.id())
+                .param("limit", limit)
+                .query(UserRowMapper.INSTANCE)
                 .list();
     }
 
+    @Override
+    public void forEach(Consumer<User> action) {
+        // PostgreSQLドライバはトランザクション内（autocommit無効）かつfetchSize指定時のみ
+        // サーバーサイドカーソルを使用し、fetchSize件ずつ結果を取得する
+        try (Stream<User> users = jdbcClient.sql("""
+                    SELECT id, username, email, password_hash, enabled,
+                           account_non_expired, account_non_locked, credentials_non_expired,
+                           created_at, updated_at, version
+                    FROM users
+                    ORDER BY created_at, id
+                """)
+                .withFetchSize(streamFetchSize)
+                .query(UserRowMapper.INSTANCE)
+                .stream()) {
+            users.forEach(action);
+        }
+    }
+
     @Override
     public Optional<User> findById(String id) {
         return jdbcClient.sql("""
                     SELECT id, username, email, password_hash, enabled,
                            account_non_expired, account_non_locked, credentials_non_expired,
-                           created_at, updated_at
+                           created_at, updated_at, version
                     FROM users
                     WHERE id = :id
                 """)
                 .param("id", id)
-                .query(User.class)
+                .query(UserRowMapper.INSTANCE)
+                .optional();
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionById(String id) {
+        return jdbcClient.sql("""
+                    SELECT version, updated_at
+                    FROM users
+                    WHERE id = :id
+                """)
+                .param("id", id)
+                .query((rs, rowNum) -> new UserVersion(rs.getLong(1), rs.getObject(2, LocalDateTime.class)))
                 .optional();
     }
 
@@ -48,12 +137,12 @@ public class JdbcUserRepository implements UserRepository {
         return jdbcClient.sql("""
                     SELECT id, username, email, password_hash, enabled,
                            account_non_expired, account_non_locked, credentials_non_expired,
-                           created_at, updated_at
+                           created_at, updated_at, version
                     FROM users
                     WHERE email = :email
                 """)
                 .param("email", email)
-                .query(User.class)
+                .query(UserRowMapper.INSTANCE)
                 .optional();
     }
 
@@ -62,33 +151,63 @@ public class JdbcUserRepository implements UserRepository {
         return jdbcClient.sql("""
                     SELECT id, username, email, password_hash, enabled,
                            account_non_expired, account_non_locked, credentials_non_expired,
-                           created_at, updated_at
+                           created_at, updated_at, version
                     FROM users
                     WHERE username = :username
                 """)
                 .param("username", username)
-                .query(User.class)
+                .query(UserRowMapper.INSTANCE)
                 .optional();
     }
 
     @Override
-    public User save(User user) {
-        // IDが指定されているかチェック
+    public User insert(User user) {
+        // IDが未指定の場合は新規に生成する（時刻順のUUIDv7により主キーの右端へ追加される）
         String userId = user.id();
-        Optional<User> existingUser;
-        
         if (userId == null || userId.isBlank()) {
-            // IDが未指定の場合は新規ユーザーとして扱う
-            existingUser = Optional.empty();
-            userId = UUID.randomUUID().toString();
-        } else {
-            // データ保証のため、既存ユーザーかどうかを確認
-            existingUser = findById(userId);
+            userId = UuidV7Generator.INSTANCE.generateString();
         }
         
-        if (existingUser.isPresent()) {
-            // 既存ユーザーの場合はUPDATE
-            jdbcClient.sql("""
+        // RETURNINGにより書き込みと保存後の行の取得を1往復で行う
+        try {
+            return jdbcClient.sql("""
+                        INSERT INTO users (id, username, email, password_hash, enabled,
+                                          account_non_expired, account_non_locked, credentials_non_expired,
+                                          created_at, updated_at)
+                        VALUES (:id, :username, :email, :passwordHash, :enabled,
+                                :accountNonExpired, :accountNonLocked, :credentialsNonExpired,
+                                :createdAt, :updatedAt)
+                        RETURNING id, username, email, password_hash, enabled,
+                                  account_non_expired, account_non_locked, credentials_non_expired,
+                                  created_at, updated_at, version
+                    """)
+                    .param("id", userId)
+                    .param("username", user.username())
+                    .param("email", user.email())
+                    .param("passwordHash", user.passwordHash())
+                    .param("enabled", user.enabled())
+                    .param("accountNonExpired", user.accountNonExpired())
+                    .param("accountNonLocked", user.accountNonLocked())
+                    .param("credentialsNonExpired", user.credentialsNonExpired())
+                    .param("createdAt", user.createdAt())
+                    .param("updatedAt", user.updatedAt())
+                    .query(UserRowMapper.INSTANCE)
+                    .single();
+        } catch (DuplicateKeyException e) {
+            throw toDuplicateUserException(e);
+        }
+    }
+
+    @Override
+    public Optional<User> update(User user) {
+        // バージョン指定時は取得時のバージョンと一致する場合のみ更新する条件付きUPDATEとし、行ロックを事前に取得せずに
+        // 取得から書き込みまでの間の他の更新を検出する（バージョンの比較と更新は1文で原子的に行われる）
+        String versionCondition = user.version() == null ? "" : "AND version = :version";
+        
+        // RETURNINGにより書き込みと保存後の行の取得を1往復で行う
+        // 対象行が存在しないか、バージョンが一致しない場合は空のOptionalとなる
+        try {
+            return jdbcClient.sql("""
                         UPDATE users
                         SET username = :username,
                             email = :email,
@@ -97,9 +216,14 @@ public class JdbcUserRepository implements UserRepository {
                             account_non_expired = :accountNonExpired,
                             account_non_locked = :accountNonLocked,
                             credentials_non_expired = :credentialsNonExpired,
-                            updated_at = :updatedAt
+                            updated_at = :updatedAt,
+                            version = version + 1
                         WHERE id = :id
-                    """)
+                          %s
+                        RETURNING id, username, email, password_hash, enabled,
+                                  account_non_expired, account_non_locked, credentials_non_expired,
+                                  created_at, updated_at, version
+                    """.formatted(versionCondition))
                     .param("id", user.id())
                     .param("username", user.username())
                     .param("email", user.email())
@@ -109,40 +233,193 @@ public class JdbcUserRepository implements UserRepository {
                     .param("accountNonLocked", user.accountNonLocked())
                     .param("credentialsNonExpired", user.credentialsNonExpired())
                     .param("updatedAt", user.updatedAt())
-                    .update();
-        } else {
-            // 新規ユーザーの場合はINSERT
-            final String finalUserId = userId;
-            jdbcClient.sql("""
-                        INSERT INTO users (id, username, email, password_hash, enabled,
-                                          account_non_expired, account_non_locked, credentials_non_expired,
-                                          created_at, updated_at)
-                        VALUES (:id, :username, :email, :passwordHash, :enabled,
-                                :accountNonExpired, :accountNonLocked, :credentialsNonExpired,
-                                :createdAt, :updatedAt)
-                    """)
-                    .param("id", finalUserId)
-                    .param("username", user.username())
-                    .param("email", user.email())
-                    .param("passwordHash", user.passwordHash())
-                    .param("enabled", user.enabled())
-                    .param("accountNonExpired", user.accountNonExpired())
-                    .param("accountNonLocked", user.accountNonLocked())
-                    .param("credentialsNonExpired", user.credentialsNonExpired())
-                    .param("createdAt", user.createdAt())
-                    .param("updatedAt", user.updatedAt())
-                    .update();
-            
-            // IDが生成された場合は、そのIDで返す
-            return findById(finalUserId).orElseThrow(() -> 
-                    new IllegalStateException("Failed to retrieve user after insertion: " + finalUserId));
+                    .param("version", user.version())
+                    .query(UserRowMapper.INSTANCE)
+                    .optional();
+        } catch (DuplicateKeyException e) {
+            throw toDuplicateUserException(e);
         }
+    }
+    
+    @Override
+    public Optional<User> patch(String id, Long expectedVersion, UserPatch patch) {
+        // 指定された列のみをSET句に含め、password_hash等の未指定の列は書き換えない
+        List<String> assignments = new ArrayList<>();
+        List<String> changes = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        addPatchColumn("username", patch.username(), assignments, changes, params);
+        addPatchColumn("email", patch.email(), assignments, changes, params);
+        addPatchColumn("password_hash", patch.passwordHash(), assignments, changes, params);
+        addPatchColumn("enabled", patch.enabled(), assignments, changes, params);
+        addPatchColumn("account_non_expired", patch.accountNonExpired(), assignments, changes, params);
+        addPatchColumn("account_non_locked", patch.accountNonLocked(), assignments, changes, params);
+        addPatchColumn("credentials_non_expired", patch.credentialsNonExpired(), assignments, changes, params);
+        if (assignments.isEmpty()) {
+            return Optional.empty();
+        }
+        params.put("id", id);
+        params.put("updatedAt", patch.updatedAt());
+        params.put("version", expectedVersion);
+        String versionCondition = expectedVersion == null ? "" : "AND version = :version";
         
-        // 保存後のユーザーを取得して返す
-        return findById(user.id()).orElseThrow(() -> 
-                new IllegalStateException("Failed to retrieve user after save: " + user.id()));
+        // いずれかの値が現在の値と異なる行のみを対象とし、値が変わらない場合は行を書き換えない
+        // （新しい行バージョンとWALを生成せず、インデックス列を含まない更新はHOT更新の対象となる）
+        try {
+            return jdbcClient.sql("""
+                        UPDATE users
+                        SET %s,
+                            updated_at = :updatedAt,
+                            version = version + 1
+                        WHERE id = :id
+                          %s
+                          AND (%s)
+                        RETURNING id, username, email, password_hash, enabled,
+                                  account_non_expired, account_non_locked, credentials_non_expired,
+                                  created_at, updated_at, version
+                    """.formatted(
+                            String.join(", ", assignments),
+                            versionCondition,
+                            String.join(" OR ", changes)))
+                    .params(params)
+                    .query(UserRowMapper.INSTANCE)
+                    .optional();
+        } catch (DuplicateKeyException e) {
+            throw toDuplicateUserException(e);
+        }
+    }
+
+    @Override
+    public boolean updatePasswordHash(String id, String currentHash, String newHash) {
+        return jdbcClient.sql("""
+                    UPDATE users
+                    SET password_hash = :newHash
+                    WHERE id = :id
+                      AND password_hash = :currentHash
+                """)
+                .param("id", id)
+                .param("currentHash", currentHash)
+                .param("newHash", newHash)
+                .update() > 0;
+    }
+
+    /**
+     * 値が指定された列を部分更新のSET句と変更判定の条件に追加する
+     *
+     * パラメーター名には列名をそのまま使用する（列名は固定値のみを渡すこと）
+     */
+    private static void addPatchColumn(
+            String column,
+            Object value,
+            List<String> assignments,
+            List<String> changes,
+            Map<String, Object> params) {
+        if (value == null) {
+            return;
+        }
+        assignments.add(column + " = :" + column);
+        changes.add(column + " IS DISTINCT FROM :" + column);
+        params.put(column, value);
+    }
+
+    @Override
+    public List<Optional<User>> insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        
+        int size = users.size();
+        String[] ids = new String[size];
+        String[] usernames = new String[size];
+        String[] emails = new String[size];
+        String[] passwordHashes = new String[size];
+        Boolean[] enabled = new Boolean[size];
+        Boolean[] accountNonExpired = new Boolean[size];
+        Boolean[] accountNonLocked = new Boolean[size];
+        Boolean[] credentialsNonExpired = new Boolean[size];
+        Timestamp[] createdAt = new Timestamp[size];
+        Timestamp[] updatedAt = new Timestamp[size];
+        for (int i = 0; i < size; i++) {
+            User user = users.get(i);
+            // IDが未指定の場合は新規に生成する（時刻順のUUIDv7により主キーの右端へ追加される）
+            ids[i] = user.id() == null || user.id().isBlank() ? UuidV7Generator.INSTANCE.generateString() : user.id();
+            usernames[i] = user.username();
+            emails[i] = user.email();
+            passwordHashes[i] = user.passwordHash();
+            enabled[i] = user.enabled();
+            accountNonExpired[i] = user.accountNonExpired();
+            accountNonLocked[i] = user.accountNonLocked();
+            credentialsNonExpired[i] = user.credentialsNonExpired();
+            createdAt[i] = Timestamp.valueOf(user.createdAt());
+            updatedAt[i] = Timestamp.valueOf(user.updatedAt());
+        }
+        
+        // 列ごとの配列をunnestで行に展開し、全件を1文・1往復で登録する
+        // ON CONFLICT DO NOTHINGにより重複する行のみスキップし、登録できた行をRETURNINGで受け取る
+        // IDはuuid配列として渡す（uuidからVARCHARへは代入時に暗黙変換されるため、
+        // id列がVARCHAR(36)・uuidのどちらでも同じSQLで登録できる）
+        List<User> inserted = jdbcClient.sql("""
+                    INSERT INTO users (id, username, email, password_hash, enabled,
+                                      account_non_expired, account_non_locked, credentials_non_expired,
+                                      created_at, updated_at)
+                    SELECT * FROM unnest(:ids, :usernames, :emails, :passwordHashes, :enabled,
+                                         :accountNonExpired, :accountNonLocked, :credentialsNonExpired,
+                                         :createdAt, :updatedAt)
+                    ON CONFLICT DO NOTHING
+                    RETURNING id, username, email, password_hash, enabled,
+                              account_non_expired, account_non_locked, credentials_non_expired,
+                              created_at, updated_at, version
+                """)
+                .param("ids", new SqlArrayValue("uuid", (Object[]) ids))
+                .param("usernames", new SqlArrayValue("varchar", (Object[]) usernames))
+                .param("emails", new SqlArrayValue("varchar", (Object[]) emails))
+                .param("passwordHashes", new SqlArrayValue("varchar", (Object[]) passwordHashes))
+                .param("enabled", new SqlArrayValue("bool", (Object[]) enabled))
+                .param("accountNonExpired", new SqlArrayValue("bool", (Object[]) accountNonExpired))
+                .param("accountNonLocked", new SqlArrayValue("bool", (Object[]) accountNonLocked))
+                .param("credentialsNonExpired", new SqlArrayValue("bool", (Object[]) credentialsNonExpired))
+                .param("createdAt", new SqlArrayValue("timestamp", (Object[]) createdAt))
+                .param("updatedAt", new SqlArrayValue("timestamp", (Object[]) updatedAt))
+                .query(UserRowMapper.INSTANCE)
+                .list();
+        
+        // RETURNINGの順序は保証されないため、IDで入力順に対応付ける
+        Map<String, User> insertedById = new HashMap<>();
+        for (User user : inserted) {
+            insertedById.put(user.id(), user);
+        }
+        List<Optional<User>> results = new ArrayList<>(size);
+        for (String id : ids) {
+            results.add(Optional.ofNullable(insertedById.get(id)));
+        }
+        return results;
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        
+        return jdbcClient.sql("""
+                    SELECT email
+                    FROM users
+                    WHERE email = ANY(:emails)
+                """)
+                .param("emails", new SqlArrayValue("varchar", emails.toArray()))
+                .query(String.class)
+                .set();
     }
     
+    @Override
+    public long count() {
+        return jdbcClient.sql("""
+                    SELECT count(*) FROM users
+                """)
+                .query(Long.class)
+                .single();
+    }
+
+    @Override
     public int deleteById(String id) {
         return jdbcClient.sql("""
                     DELETE FROM users
@@ -159,4 +436,70 @@ public class JdbcUserRepository implements UserRepository {
                 """)
                 .update();
     }
+
+    @Override
+    public UserDeleteChunkResult deleteChunk(String afterId, int limit) {
+        // 主キーの範囲で削除対象を決めるため、削除済みの行を再走査しない
+        if (afterId == null) {
+            return deleteChunk("", Map.of("limit", limit));
+        }
+        return deleteChunk("WHERE id > :afterId", Map.of("afterId", afterId, "limit", limit));
+    }
+
+    /**
+     * 条件に一致するユーザーをID順に削除する
+     * 
+     * 先頭からの削除では比較条件を付けない（id列がuuidの場合、空文字等の番兵値と比較できないため）
+     * 
+     * @param condition 削除対象のWHERE句（条件が無い場合は空文字）
+     * @param params SQLパラメーター
+     * @return 削除結果
+     */
+    private UserDeleteChunkResult deleteChunk(String condition, Map<String, ?> params) {
+        return jdbcClient.sql("""
+                    WITH deleted AS (
+                        DELETE FROM users
+                        WHERE id IN (
+                            SELECT id FROM users
+                            %s
+                            ORDER BY id
+                            LIMIT :limit
+                        )
+                        RETURNING id
+                    )
+                    SELECT count(*) AS deleted_count,
+                           (SELECT id FROM deleted ORDER BY id DESC LIMIT 1) AS last_id
+                    FROM deleted
+                """.formatted(condition))
+                .params(params)
+                .query((rs, rowNum) -> new UserDeleteChunkResult(
+                        rs.getInt("deleted_count"),
+                        rs.getString("last_id")))
+                .single();
+    }
+
+    /**
+     * UNIQUE制約違反を違反した制約に対応するDuplicateUserExceptionに変換する
+     * 
+     * PostgreSQLのエラー応答に含まれる制約名（users_email_key / users_username_key）で
+     * 重複したフィールドを判定するため、重複確認のための追加クエリは発行しない
+     * 
+     * @param e UNIQUE制約違反（SQLState 23505）
+     * @return 対応するDuplicateUserException
+     * @throws DuplicateKeyException users テーブルのメールアドレス・ユーザー名以外の制約違反の場合
+     */
+    private DuplicateUserException toDuplicateUserException(DuplicateKeyException e) {
+        if (e.getMostSpecificCause() instanceof PSQLException psqlException
+                && UNIQUE_VIOLATION.equals(psqlException.getSQLState())) {
+            ServerErrorMessage serverError = psqlException.getServerErrorMessage();
+            String constraint = serverError != null ? serverError.getConstraint() : null;
+            if (EMAIL_UNIQUE_CONSTRAINT.equals(constraint)) {
+                return new DuplicateUserException("メールアドレス");
+            }
+            if (USERNAME_UNIQUE_CONSTRAINT.equals(constraint)) {
+                return new DuplicateUserException("ユーザー名");
+            }
+        }
+        throw e;
+    }
 }
@@ -0,0 +1,50 @@
+package com.yusay.user.api.infrastructure;
+
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * 認証済みユーザーのロールが指定した権限を持つかを、{@link RolePermissionRegistry} のスナップショットで判定する
+ *
+ * 判定はロールごとのビット集合の参照のみで行い、データベースへの問い合わせや判定結果の生成は行わない
+ *
+ * @param <T> 認可対象の型
+ */
+public class PermissionAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final RolePermissionRegistry rolePermissionRegistry;
+    private final String permission;
+
+    public PermissionAuthorizationManager(RolePermissionRegistry rolePermissionRegistry, String permission) {
+        if (permission == null || permission.isBlank()) {
+            throw new IllegalArgumentException("permission must not be blank");
+        }
+        this.rolePermissionRegistry = rolePermissionRegistry;
+        this.permission = permission;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<? extends Authentication> authentication, T object) {
+        Authentication current = authentication.get();
+        // 匿名ユーザーはスナップショットを参照せずに拒否する（認証を求める401となる）
+        if (!TRUST_RESOLVER.isAuthenticated(current)) {
+            return DENIED;
+        }
+        return rolePermissionRegistry.current().hasPermission(current.getAuthorities(), permission) ? GRANTED : DENIED;
+    }
+
+    @Override
+    public String toString() {
+        return "PermissionAuthorizationManager[permission=" + permission + "]";
+    }
+}
@@ -0,0 +1,140 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.repository.UserDumpFormat;
+import com.yusay.user.api.domain.repository.UserDumpRepository;
+import com.yusay.user.api.domain.repository.UserIdRange;
+import org.postgresql.PGConnection;
+import org.postgresql.core.Utils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PostgreSQLの COPY TO STDOUT を使用したダンプの実装
+ */
+@Repository
+public class PostgresUserDumpRepository implements UserDumpRepository {
+    private static final String DUMP_COLUMNS = """
+            id, username, email, enabled, account_non_expired, account_non_locked,
+            credentials_non_expired, created_at, updated_at""";
+    // 分割の境界を求めるために読み込むページ数の目安（行の大きさにより、数千件程度）
+    private static final long BOUNDARY_SAMPLE_PAGES = 100;
+
+    private final DataSource dataSource;
+    private final JdbcClient jdbcClient;
+
+    public PostgresUserDumpRepository(DataSource dataSource, JdbcClient jdbcClient) {
+        this.dataSource = dataSource;
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public long copyOut(UserDumpFormat format, UserIdRange range, boolean header, OutputStream out) {
+        String sql = buildCopySql(format, range, header);
+        // トランザクションに紐づいたコネクションを取得（スナップショットを設定したコネクションと同一）
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("COPY users TO STDOUT", sql, e);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to write rows from COPY", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @Override
+    public String exportSnapshot() {
+        return jdbcClient.sql("SELECT pg_export_snapshot()")
+                .query(String.class)
+                .single();
+    }
+
+    @Override
+    public void useSnapshot(String snapshotId) {
+        // SET TRANSACTION SNAPSHOT はバインドパラメータを受け付けないためリテラルとして埋め込む
+        jdbcClient.sql("SET TRANSACTION SNAPSHOT " + quoteLiteral(snapshotId))
+                .update();
+    }
+
+    @Override
+    public List<UserIdRange> splitIdRanges(int parts) {
+        if (parts <= 1) {
+            return List.of(UserIdRange.ALL);
+        }
+        
+        Double[] fractions = new Double[parts - 1];
+        for (int i = 1; i < parts; i++) {
+            fractions[i - 1] = (double) i / parts;
+        }
+        
+        // 全件をID順に並べると、スナップショットのトランザクション内で表全体の走査とソートが発生するため、
+        // ページ単位の標本（TABLESAMPLE SYSTEM）から境界を求める。標本による偏りは各範囲の件数の差となるのみで、
+        // 範囲は全体を漏れなく覆うため出力には影響しない。ページ数は統計情報の収集前でも取得できる
+        long pages = jdbcClient.sql("SELECT pg_relation_size('users') / current_setting('block_size')::bigint")
+                .query(Long.class)
+                .single();
+        double samplePercent = Math.min(100.0, 100.0 * BOUNDARY_SAMPLE_PAGES / Math.max(pages, 1));
+        
+        // 境界値はID順（比較演算子と同じ照合順序）で並べ、ユーザー数が少ない場合の重複を除く
+        List<String> boundaries = jdbcClient.sql("""
+                    SELECT DISTINCT boundary
+                    FROM unnest((
+                        SELECT percentile_disc(:fractions) WITHIN GROUP (ORDER BY id)
+                        FROM users TABLESAMPLE SYSTEM (CAST(:samplePercent AS real))
+                    )) AS boundary
+                    WHERE boundary IS NOT NULL
+                    ORDER BY boundary
+                """)
+                .param("fractions", new SqlArrayValue("float8", (Object[]) fractions))
+                .param("samplePercent", samplePercent)
+                .query(String.class)
+                .list();
+        
+        List<UserIdRange> ranges = new ArrayList<>(boundaries.size() + 1);
+        String from = null;
+        for (String boundary : boundaries) {
+            ranges.add(new UserIdRange(from, boundary));
+            from = boundary;
+        }
+        ranges.add(new UserIdRange(from, null));
+        return ranges;
+    }
+
+    private static String buildCopySql(UserDumpFormat format, UserIdRange range, boolean header) {
+        List<String> conditions = new ArrayList<>(2);
+        if (range.fromInclusive() != null) {
+            conditions.add("id >= " + quoteLiteral(range.fromInclusive()));
+        }
+        if (range.toExclusive() != null) {
+            conditions.add("id < " + quoteLiteral(range.toExclusive()));
+        }
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        String options = switch (format) {
+            case CSV -> "FORMAT csv, HEADER " + header;
+            case BINARY -> "FORMAT binary";
+        };
+        // COPY はバインドパラメータを受け付けないため、範囲の値はリテラルとして埋め込む
+        return "COPY (SELECT " + DUMP_COLUMNS + " FROM users" + where + ") TO STDOUT WITH (" + options + ")";
+    }
+
+    private static String quoteLiteral(String value) {
+        try {
+            return "'" + Utils.escapeLiteral(null, value, true) + "'";
+        } catch (SQLException e) {
+            throw new IllegalArgumentException("Value cannot be used as a SQL literal", e);
+        }
+    }
+}
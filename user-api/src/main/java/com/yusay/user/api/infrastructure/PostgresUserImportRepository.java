@@ -0,0 +1,121 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.repository.UserImportChunkResult;
+import com.yusay.user.api.domain.repository.UserImportRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * PostgreSQLのCOPYを使用した一括取り込みの実装
+ * 
+ * 行をステージング用の一時テーブルへCOPYで流し込み、集合演算で重複を解決して users へ登録する
+ */
+@Repository
+public class PostgresUserImportRepository implements UserImportRepository {
+    private static final String COPY_SQL =
+            "COPY users_import_staging (username, email, password_hash) FROM STDIN WITH (FORMAT csv)";
+    // 照合できるハッシュの形式（SecurityConfig の DelegatingPasswordEncoder が扱う形式）のみ受け付ける。
+    // 平文や未知の形式を登録すると、そのユーザーはログインできず、平文がそのまま保存されてしまう
+    private static final String PASSWORD_HASH_PATTERN =
+            "^(\\{bcrypt\\})?\\$2[aby]\\$\\d{2}\\$[./A-Za-z0-9]{53}$|^\\{pbkdf2\\}[0-9a-f]+$";
+
+    private final DataSource dataSource;
+    private final JdbcClient jdbcClient;
+    private final UserCacheInvalidationPublisher invalidationPublisher;
+
+    public PostgresUserImportRepository(
+            DataSource dataSource,
+            JdbcClient jdbcClient,
+            UserCacheInvalidationPublisher invalidationPublisher) {
+        this.dataSource = dataSource;
+        this.jdbcClient = jdbcClient;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public UserImportChunkResult importCsv(Reader csvRows, LocalDateTime importedAt) {
+        // トランザクションに紐づいたコネクションを取得（JdbcClientと同一のコネクション）
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            // コミット時に破棄される一時テーブルをステージングとして使用
+            // ordはCOPYした行の通し番号で、アプリケーションで採番したIDとの対応付けに使用する
+            jdbcClient.sql("""
+                        CREATE TEMP TABLE users_import_staging (
+                            ord BIGINT GENERATED ALWAYS AS IDENTITY,
+                            username TEXT,
+                            email TEXT,
+                            password_hash TEXT
+                        ) ON COMMIT DROP
+                    """)
+                    .update();
+            
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            long rowCount = copyManager.copyIn(COPY_SQL, csvRows);
+            
+            // IDは JdbcUserRepository と同じく時刻順のUUIDv7をアプリケーションで生成し、
+            // 配列として渡して行の通し番号で対応付ける（サーバー側の uuidv7() はPostgreSQL 18以降でのみ使用できる）
+            String[] ids = new String[Math.toIntExact(rowCount)];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = UuidV7Generator.INSTANCE.generateString();
+            }
+            
+            // 制約を満たし、パスワードがハッシュ化済みの行のみを対象とし、既存ユーザーおよびステージング内の重複は
+            // ON CONFLICT DO NOTHING により集合単位でスキップする
+            UserImportChunkResult result = jdbcClient.sql("""
+                        WITH valid AS (
+                            SELECT g.id, s.username, s.email, s.password_hash
+                            FROM users_import_staging s
+                            JOIN unnest(:ids) WITH ORDINALITY AS g(id, ord) ON g.ord = s.ord
+                            WHERE username IS NOT NULL
+                              AND email IS NOT NULL
+                              AND password_hash IS NOT NULL
+                              AND char_length(username) BETWEEN 3 AND 50
+                              AND char_length(email) <= 100
+                              AND char_length(password_hash) <= 255
+                              AND password_hash ~ :passwordHashPattern
+                        ), inserted AS (
+                            INSERT INTO users (id, username, email, password_hash, created_at, updated_at)
+                            SELECT id, username, email, password_hash, :importedAt, :importedAt
+                            FROM valid
+                            ON CONFLICT DO NOTHING
+                            RETURNING 1
+                        )
+                        SELECT (SELECT count(*) FROM valid) AS valid_count,
+                               (SELECT count(*) FROM inserted) AS inserted_count
+                    """)
+                    .param("ids", new SqlArrayValue("uuid", (Object[]) ids))
+                    .param("importedAt", importedAt)
+                    .param("passwordHashPattern", PASSWORD_HASH_PATTERN)
+                    .query((rs, rowNum) -> new UserImportChunkResult(
+                            rowCount,
+                            rs.getLong("valid_count"),
+                            rs.getLong("inserted_count")))
+                    .single();
+            
+            // 登録したユーザーが「存在しない」としてキャッシュされたままにならないよう各ノードへ通知する
+            if (result.insertedCount() > 0) {
+                invalidationPublisher.publishNewKeys();
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("COPY users_import_staging", COPY_SQL, e);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to read rows for COPY", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
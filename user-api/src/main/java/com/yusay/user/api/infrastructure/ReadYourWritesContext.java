@@ -0,0 +1,85 @@
+package com.yusay.user.api.infrastructure;
+
+import org.postgresql.replication.LogSequenceNumber;
+
+import java.util.function.Consumer;
+
+/**
+ * リクエスト単位の read-your-writes 状態を保持するコンテキスト
+ *
+ * クライアントが直前の書き込みで観測したWAL位置（LSN）を保持し、
+ * 読み取り専用トランザクションの接続先レプリカがその位置まで再生済みであることを保証するために使用する
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+        // ユーティリティクラスのためインスタンス化を禁止
+        throw new AssertionError("ReadYourWritesContextはインスタンス化できません");
+    }
+
+    /**
+     * 現在のスレッドにコンテキストを設定する
+     *
+     * @param requiredLsn クライアントが要求する最小LSN（要求が無い場合はnull）
+     * @param writeListener 書き込みがコミットされた際にコミット後のLSNを受け取るリスナー
+     */
+    public static void bind(LogSequenceNumber requiredLsn, Consumer<LogSequenceNumber> writeListener) {
+        CURRENT.set(new State(requiredLsn, writeListener));
+    }
+
+    /**
+     * 現在のスレッドのコンテキストを破棄する
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 現在のスレッドにコンテキストが設定されているかを返す
+     *
+     * @return 設定されている場合true
+     */
+    public static boolean isBound() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * 読み取りに必要な最小LSNを返す
+     *
+     * @return 最小LSN（要求が無い場合はnull）
+     */
+    public static LogSequenceNumber requiredLsn() {
+        State state = CURRENT.get();
+        return state != null ? state.requiredLsn : null;
+    }
+
+    /**
+     * 書き込みのコミットを記録する
+     *
+     * 以降の同一リクエスト内の読み取りにも同じLSNを要求し、リスナーへ通知する
+     *
+     * @param committedLsn コミット後のプライマリのLSN
+     */
+    public static void recordWrite(LogSequenceNumber committedLsn) {
+        State state = CURRENT.get();
+        if (state == null) {
+            return;
+        }
+        if (state.requiredLsn == null || committedLsn.compareTo(state.requiredLsn) > 0) {
+            state.requiredLsn = committedLsn;
+        }
+        state.writeListener.accept(state.requiredLsn);
+    }
+
+    private static final class State {
+        private LogSequenceNumber requiredLsn;
+        private final Consumer<LogSequenceNumber> writeListener;
+
+        private State(LogSequenceNumber requiredLsn, Consumer<LogSequenceNumber> writeListener) {
+            this.requiredLsn = requiredLsn;
+            this.writeListener = writeListener;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.yusay.user.api.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.postgresql.replication.LogSequenceNumber;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * レプリカから読み込んだ値をキャッシュしてよいかを判定する
+ *
+ * 読み書き分離時は、変更通知を受信してキャッシュを破棄した後も、遅延しているレプリカから
+ * 変更前の行を読み込み直してしまう場合がある。これをキャッシュすると有効期限まで古い値を返し続けるため、
+ * 変更通知を受信した時点のプライマリのLSNを、通知されたキー（ID・メールアドレス・ユーザー名）ごとの
+ * フェンスとして記録し、フェンスのあるキーは読み込み先のレプリカがフェンスまで再生済みの場合のみ
+ * キャッシュを許可する（{@link UserCacheInvalidationListener}）
+ *
+ * 振り分け先のレプリカの遅延は user.datasource.routing.max-lag 以内に保たれるため、フェンスは
+ * 一定時間（user.cache.read-fence.window）で破棄する。書き込まれていないキーは問い合わせずにキャッシュできる。
+ * 個々のキーを通知しない変更（全件の破棄・一括取り込み）は、全てのキーに対するフェンスとして記録する
+ *
+ * 自ノードの書き込みも変更通知として受信するため、同じフェンスで保護される
+ */
+@Component
+public class ReplicaReadFence {
+
+    private final JdbcClient jdbcClient;
+    private final boolean routingEnabled;
+    private final Cache<String, LogSequenceNumber> fencesByKey;
+    // 全てのキーに対するフェンスも同じ期間で破棄するため、同じ仕組みで1件のみ保持する
+    private final Cache<Boolean, LogSequenceNumber> fenceForAll;
+
+    @Autowired
+    public ReplicaReadFence(
+            JdbcClient jdbcClient,
+            @Value("${user.datasource.routing.enabled:false}") boolean routingEnabled,
+            @Value("${user.cache.read-fence.window:10s}") Duration window,
+            @Value("${user.cache.maximum-size:10000}") long maximumSize) {
+        this(jdbcClient, routingEnabled, window, maximumSize, Ticker.systemTicker());
+    }
+
+    ReplicaReadFence(
+            JdbcClient jdbcClient, boolean routingEnabled, Duration window, long maximumSize, Ticker ticker) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("window must be positive, but was: %s", window));
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(
+                String.format("maximumSize must be positive, but was: %d", maximumSize));
+        }
+        this.jdbcClient = jdbcClient;
+        this.routingEnabled = routingEnabled;
+        // フェンスが溢れて破棄されると古い値をキャッシュしうるため、キャッシュと同じ件数を上限とする
+        this.fencesByKey = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+        this.fenceForAll = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * IDに対するフェンスのキー
+     *
+     * @param id ユーザーID
+     * @return フェンスのキー（変更通知のペイロードと同じ形式）
+     */
+    static String idKey(String id) {
+        return id;
+    }
+
+    /**
+     * メールアドレスに対するフェンスのキー
+     *
+     * @param email メールアドレス
+     * @return フェンスのキー（変更通知のペイロードと同じ形式）
+     */
+    static String emailKey(String email) {
+        return UserCacheInvalidationPublisher.NEW_EMAIL_PREFIX + email;
+    }
+
+    /**
+     * ユーザー名に対するフェンスのキー
+     *
+     * @param username ユーザー名
+     * @return フェンスのキー（変更通知のペイロードと同じ形式）
+     */
+    static String usernameKey(String username) {
+        return UserCacheInvalidationPublisher.NEW_USERNAME_PREFIX + username;
+    }
+
+    /**
+     * 通知されたキーのフェンスを進める
+     *
+     * キャッシュを破棄する前に呼び出すこと（破棄から記録までの間にレプリカの古い値がキャッシュされないようにする）。
+     * 全件の破棄・一括取り込みの通知は全てのキーに対するフェンスとして記録する
+     *
+     * @param payloads 受信した変更通知のペイロード
+     * @param lsn 変更通知を受信した時点のプライマリのLSN
+     */
+    public void advance(Collection<String> payloads, LogSequenceNumber lsn) {
+        for (String payload : payloads) {
+            if (UserCacheInvalidationPublisher.ALL.equals(payload)
+                    || UserCacheInvalidationPublisher.NEW_KEYS.equals(payload)) {
+                advanceAll(lsn);
+            } else {
+                fencesByKey.asMap().merge(payload, lsn, ReplicaReadFence::max);
+            }
+        }
+    }
+
+    /**
+     * 全てのキーに対するフェンスを進める
+     *
+     * 切断中の通知を受信できなかった場合など、変更されたキーが分からない場合に使用する
+     *
+     * @param lsn プライマリのLSN
+     */
+    public void advanceAll(LogSequenceNumber lsn) {
+        fenceForAll.asMap().merge(Boolean.TRUE, lsn, ReplicaReadFence::max);
+    }
+
+    /**
+     * 指定したキーについて、これから同じトランザクションで読み込む値をキャッシュしてよいかを返す
+     *
+     * 読み込みの前に呼び出すこと。キーにフェンスがあり、読み取り専用トランザクション（レプリカへ振り分けられる）の
+     * 場合のみ、同じ接続でレプリカの再生済みLSNを問い合わせる。読み込みの前に取得した再生済みLSNがフェンス以上であれば、
+     * 後続の読み込みもフェンス以降の状態を参照する
+     *
+     * @param key フェンスのキー（{@link #idKey} / {@link #emailKey} / {@link #usernameKey}）
+     * @return キャッシュしてよい場合true
+     */
+    public boolean allowsCaching(String key) {
+        if (!routingEnabled || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return true;
+        }
+        LogSequenceNumber current = max(fencesByKey.getIfPresent(key), fenceForAll.getIfPresent(Boolean.TRUE));
+        if (current == null) {
+            return true;
+        }
+        // 振り分け先はクライアントが要求するLSNまで再生済みであるため、問い合わせを省略できる
+        LogSequenceNumber required = ReadYourWritesContext.requiredLsn();
+        if (required != null && required.compareTo(current) >= 0) {
+            return true;
+        }
+        // プライマリへフォールバックした場合はnullとなる
+        List<String> replayLsn = jdbcClient.sql("SELECT pg_last_wal_replay_lsn()::text")
+                .query((rs, rowNum) -> rs.getString(1))
+                .list();
+        return replayLsn.getFirst() == null || LogSequenceNumber.valueOf(replayLsn.getFirst()).compareTo(current) >= 0;
+    }
+
+    /**
+     * 指定したキーに、再生済みかを確認していないフェンスがあるかを返す
+     *
+     * メールアドレス・ユーザー名で読み込んだユーザーのIDが最近変更されていないかの確認に使用する
+     * （変更前のメールアドレスで遅延しているレプリカから読み込んだ場合、そのキーにはフェンスが無い）
+     *
+     * @param key フェンスのキー
+     * @return 読み書き分離が有効な読み取り専用トランザクションで、キーにフェンスがある場合true
+     */
+    public boolean isFenced(String key) {
+        if (!routingEnabled || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        return fencesByKey.getIfPresent(key) != null;
+    }
+
+    private static LogSequenceNumber max(LogSequenceNumber a, LogSequenceNumber b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
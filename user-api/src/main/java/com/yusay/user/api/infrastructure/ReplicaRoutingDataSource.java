@@ -0,0 +1,205 @@
+package com.yusay.user.api.infrastructure;
+
+import org.postgresql.replication.LogSequenceNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 読み取り専用の接続をレプリカへ振り分けるDataSource
+ *
+ * 各レプリカの再生済みLSNと遅延をバックグラウンドで定期的に取得し、
+ * 遅延が許容範囲内かつ {@link ReadYourWritesContext} が要求するLSNまで再生済みのレプリカを
+ * ラウンドロビンで選択する。条件を満たすレプリカが無い場合はプライマリへフォールバックする
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // 受信済みWALを全て再生済みであれば、最終再生時刻が古くても遅延は無いとみなす
+    private static final String REPLICATION_STATUS_SQL = """
+            SELECT pg_last_wal_replay_lsn()::text,
+                   CASE
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(
+                           (EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint, 0)
+                   END
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Duration pollInterval;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            List<Replica> replicas,
+            Duration maxLag,
+            Duration pollInterval) {
+        if (maxLag.isNegative()) {
+            throw new IllegalArgumentException(
+                String.format("maxLag must not be negative, but was: %s", maxLag));
+        }
+        if (pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("pollInterval must be positive, but was: %s", pollInterval));
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * レプリカの状態監視を開始する
+     */
+    public synchronized void start() {
+        if (scheduler != null || replicas.isEmpty()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-monitor")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(
+                this::refresh, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close replica datasource {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        LogSequenceNumber requiredLsn = ReadYourWritesContext.requiredLsn();
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = select(requiredLsn);
+            if (replica == null) {
+                break;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // 次回の監視で復旧を確認するまで振り分け対象から外す
+                replica.markUnavailable();
+                logger.warn("Replica {} is unavailable, trying next candidate", replica.name, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * 読み取りに使用可能なレプリカをラウンドロビンで選択する
+     *
+     * @param requiredLsn 再生済みであるべき最小LSN（要求が無い場合はnull）
+     * @return 選択したレプリカ（使用可能なレプリカが無い場合はnull）
+     */
+    Replica select(LogSequenceNumber requiredLsn) {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isEligible(maxLag, requiredLsn)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 全レプリカの再生済みLSNと遅延を取得する
+     */
+    void refresh() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(REPLICATION_STATUS_SQL)) {
+                rs.next();
+                String replayLsn = rs.getString(1);
+                if (replayLsn == null) {
+                    // リカバリ中でない（レプリカではない）サーバーには振り分けない
+                    replica.markUnavailable();
+                    logger.warn("Datasource {} is not a streaming replica", replica.name);
+                    continue;
+                }
+                replica.update(LogSequenceNumber.valueOf(replayLsn), Duration.ofMillis(rs.getLong(2)));
+            } catch (SQLException | RuntimeException e) {
+                replica.markUnavailable();
+                logger.warn("Failed to refresh replication status of {}", replica.name, e);
+            }
+        }
+    }
+
+    /**
+     * 振り分け先のレプリカと、最後に監視した時点の状態
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // LSNと遅延を同時に参照できるよう、1つの値としてまとめて差し替える
+        private volatile Status status;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        void update(LogSequenceNumber replayLsn, Duration lag) {
+            this.status = new Status(replayLsn, lag);
+        }
+
+        void markUnavailable() {
+            this.status = null;
+        }
+
+        boolean isEligible(Duration maxLag, LogSequenceNumber requiredLsn) {
+            Status current = status;
+            if (current == null || current.lag.compareTo(maxLag) > 0) {
+                return false;
+            }
+            return requiredLsn == null || current.replayLsn.compareTo(requiredLsn) >= 0;
+        }
+
+        private record Status(LogSequenceNumber replayLsn, Duration lag) {
+        }
+    }
+}
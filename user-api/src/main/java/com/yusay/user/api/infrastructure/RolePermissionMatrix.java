@@ -0,0 +1,184 @@
+package com.yusay.user.api.infrastructure;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * ロールと権限の対応を、ロールごとのビット集合で保持する不変のスナップショット
+ *
+ * 権限ごとにビット位置を割り当て、ロールが持つ権限を long[] のビット集合として保持する。
+ * 認可の判定はロール名での検索とビットの判定のみで行い、判定ごとのオブジェクト生成やデータベースへの問い合わせは行わない。
+ * ビット位置はスナップショットごとに割り当て直すため、判定に使用するビット位置は同じスナップショットから取得すること
+ */
+public final class RolePermissionMatrix {
+
+    private final Map<String, Integer> bitByPermission;
+    private final String[] permissionByBit;
+    private final Map<String, long[]> bitsByRole;
+
+    private RolePermissionMatrix(
+            Map<String, Integer> bitByPermission, String[] permissionByBit, Map<String, long[]> bitsByRole) {
+        this.bitByPermission = bitByPermission;
+        this.permissionByBit = permissionByBit;
+        this.bitsByRole = bitsByRole;
+    }
+
+    /**
+     * ロールと権限の対応からスナップショットを構築する
+     *
+     * 権限名の昇順にビット位置を割り当てる。permissionNamesに含まれない権限名がロールに割り当てられている場合も
+     * ビット位置を割り当てる（2回の読み込みの間に権限が追加された場合）
+     *
+     * @param permissionNames 全ての権限名
+     * @param permissionsByRole ロール名ごとの権限名
+     * @return スナップショット
+     */
+    public static RolePermissionMatrix of(
+            Collection<String> permissionNames, Map<String, ? extends Collection<String>> permissionsByRole) {
+        Set<String> names = new TreeSet<>(permissionNames);
+        permissionsByRole.values().forEach(names::addAll);
+
+        String[] permissionByBit = names.toArray(String[]::new);
+        Map<String, Integer> bitByPermission = new HashMap<>(permissionByBit.length * 2);
+        for (int bit = 0; bit < permissionByBit.length; bit++) {
+            bitByPermission.put(permissionByBit[bit], bit);
+        }
+
+        int words = (permissionByBit.length + Long.SIZE - 1) / Long.SIZE;
+        Map<String, long[]> bitsByRole = new HashMap<>(permissionsByRole.size() * 2);
+        permissionsByRole.forEach((role, permissions) -> {
+            long[] bits = new long[words];
+            for (String permission : permissions) {
+                int bit = bitByPermission.get(permission);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+            bitsByRole.put(role, bits);
+        });
+        return new RolePermissionMatrix(Map.copyOf(bitByPermission), permissionByBit, Map.copyOf(bitsByRole));
+    }
+
+    /**
+     * 権限のビット位置を返す
+     *
+     * @param permission 権限名
+     * @return ビット位置（存在しない権限の場合は-1）
+     */
+    public int bitOf(String permission) {
+        Integer bit = bitByPermission.get(permission);
+        return bit != null ? bit : -1;
+    }
+
+    /**
+     * ロールが権限を持つかを判定する
+     *
+     * @param role ロール名（例: ROLE_ADMIN）
+     * @param bit このスナップショットの {@link #bitOf(String)} で取得したビット位置
+     * @return 権限を持つ場合true（存在しないロール・権限の場合はfalse）
+     */
+    public boolean hasPermission(String role, int bit) {
+        if (bit < 0) {
+            return false;
+        }
+        long[] bits = bitsByRole.get(role);
+        return bits != null && (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * 権限（ロール名のGrantedAuthority）のいずれかが、指定した権限を持つかを判定する
+     *
+     * @param authorities 認証済みユーザーの権限
+     * @param permission 権限名
+     * @return いずれかのロールが権限を持つ場合true
+     */
+    public boolean hasPermission(Collection<? extends GrantedAuthority> authorities, String permission) {
+        int bit = bitOf(permission);
+        if (bit < 0) {
+            return false;
+        }
+        for (GrantedAuthority authority : authorities) {
+            if (hasPermission(authority.getAuthority(), bit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ロールが持つ権限名の和集合を返す
+     *
+     * @param roles ロール名
+     * @return 権限名（存在しないロールは無視する）
+     */
+    public Set<String> permissionsOf(Collection<String> roles) {
+        long[] union = new long[(permissionByBit.length + Long.SIZE - 1) / Long.SIZE];
+        for (String role : roles) {
+            long[] bits = bitsByRole.get(role);
+            if (bits != null) {
+                for (int i = 0; i < union.length; i++) {
+                    union[i] |= bits[i];
+                }
+            }
+        }
+        Set<String> permissions = new TreeSet<>();
+        for (int i = 0; i < union.length; i++) {
+            long word = union[i];
+            while (word != 0) {
+                permissions.add(permissionByBit[i * Long.SIZE + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        return permissions;
+    }
+
+    /**
+     * @return 権限の数
+     */
+    public int permissionCount() {
+        return permissionByBit.length;
+    }
+
+    /**
+     * @return ロールの数
+     */
+    public int roleCount() {
+        return bitsByRole.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RolePermissionMatrix other)
+                || !Arrays.equals(permissionByBit, other.permissionByBit)
+                || !bitsByRole.keySet().equals(other.bitsByRole.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, long[]> entry : bitsByRole.entrySet()) {
+            if (!Arrays.equals(entry.getValue(), other.bitsByRole.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(permissionByBit);
+        for (Map.Entry<String, long[]> entry : bitsByRole.entrySet()) {
+            hash += entry.getKey().hashCode() ^ Arrays.hashCode(entry.getValue());
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "RolePermissionMatrix[roles=" + bitsByRole.size() + ", permissions=" + permissionByBit.length + "]";
+    }
+}
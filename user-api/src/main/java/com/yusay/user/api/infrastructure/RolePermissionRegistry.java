@@ -0,0 +1,92 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.repository.RolePermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ロールと権限の対応（{@link RolePermissionMatrix}）をプロセス内に保持する
+ *
+ * ロールと権限の対応は変更が稀なため、全件を読み込んだ不変のスナップショットを保持し、
+ * 認証時の権限の解決と認可の判定をデータベースへ問い合わせずに行う。
+ * 定期的に読み込み直し、内容が変わっていた場合のみスナップショットを差し替えて
+ * {@link RolePermissionsChangedEvent} を発行する（読み込み中も判定は差し替え前のスナップショットで継続する）
+ */
+@Component
+public class RolePermissionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RolePermissionRegistry.class);
+
+    private final RolePermissionRepository rolePermissionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile RolePermissionMatrix matrix;
+
+    public RolePermissionRegistry(
+            RolePermissionRepository rolePermissionRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.rolePermissionRepository = rolePermissionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 現在のスナップショットを返す（未読み込みの場合は読み込む）
+     *
+     * @return スナップショット
+     */
+    public RolePermissionMatrix current() {
+        RolePermissionMatrix current = matrix;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (matrix == null) {
+                matrix = load();
+                logger.info("Loaded role permissions: {}", matrix);
+            }
+            return matrix;
+        }
+    }
+
+    /**
+     * ロールと権限の対応を読み込み直し、変わっていた場合はスナップショットを差し替える
+     *
+     * 初回は起動直後に実行し、最初のリクエストより前に読み込んでおく。
+     * 読み込みに失敗した場合は差し替え前のスナップショットを使い続け、次回の実行で再試行する
+     *
+     * @return スナップショットを差し替えた場合true
+     */
+    @Scheduled(fixedDelayString = "${user.authorization.reload-interval:1m}")
+    public boolean reload() {
+        RolePermissionMatrix loaded;
+        try {
+            loaded = load();
+        } catch (DataAccessException e) {
+            logger.warn("Failed to reload role permissions, keeping the current snapshot", e);
+            return false;
+        }
+        synchronized (this) {
+            RolePermissionMatrix previous = matrix;
+            if (loaded.equals(previous)) {
+                return false;
+            }
+            matrix = loaded;
+            if (previous == null) {
+                logger.info("Loaded role permissions: {}", loaded);
+                return true;
+            }
+        }
+        logger.info("Role permissions changed, replaced snapshot: {}", loaded);
+        eventPublisher.publishEvent(new RolePermissionsChangedEvent(loaded));
+        return true;
+    }
+
+    private RolePermissionMatrix load() {
+        return RolePermissionMatrix.of(
+                rolePermissionRepository.findAllPermissionNames(),
+                rolePermissionRepository.findPermissionNamesByRole());
+    }
+}
@@ -0,0 +1,9 @@
+package com.yusay.user.api.infrastructure;
+
+/**
+ * ロールと権限の対応の変更を検出し、{@link RolePermissionRegistry} のスナップショットを差し替えたことを表すイベント
+ *
+ * @param matrix 差し替え後のスナップショット
+ */
+public record RolePermissionsChangedEvent(RolePermissionMatrix matrix) {
+}
@@ -0,0 +1,230 @@
+package com.yusay.user.api.infrastructure;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.postgresql.replication.LogSequenceNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 他のノードからのユーザー変更通知を受信し、ローカルのキャッシュを破棄する
+ *
+ * 接続プールとは別の専用接続で LISTEN し続ける。接続が切れた場合は間隔を広げながら再接続し、
+ * 切断中の通知は受信できないため、再接続後にキャッシュ全体を破棄する
+ *
+ * キャッシュを破棄する前に、受信した時点のプライマリのLSNを通知されたキーのフェンスとして
+ * {@link ReplicaReadFence} へ記録し、破棄後に遅延しているレプリカから変更前の値がキャッシュされないようにする
+ */
+@Component
+@ConditionalOnBooleanProperty(name = "user.cache.invalidation.enabled", matchIfMissing = true)
+public class UserCacheInvalidationListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheInvalidationListener.class);
+
+    private final CachingUserRepository cachingUserRepository;
+    private final CachingUserAuthorityRepository cachingUserAuthorityRepository;
+    private final ReplicaReadFence readFence;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollTimeoutMillis;
+    private final Duration maxReconnectBackoff;
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public UserCacheInvalidationListener(
+            CachingUserRepository cachingUserRepository,
+            CachingUserAuthorityRepository cachingUserAuthorityRepository,
+            ReplicaReadFence readFence,
+            ObjectProvider<JdbcConnectionDetails> connectionDetails,
+            DataSourceProperties dataSourceProperties,
+            @Value("${user.cache.invalidation.poll-timeout:1s}") Duration pollTimeout,
+            @Value("${user.cache.invalidation.max-reconnect-backoff:30s}") Duration maxReconnectBackoff) {
+        if (pollTimeout.isNegative() || pollTimeout.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("pollTimeout must be positive, but was: %s", pollTimeout));
+        }
+        if (maxReconnectBackoff.isNegative() || maxReconnectBackoff.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("maxReconnectBackoff must be positive, but was: %s", maxReconnectBackoff));
+        }
+        this.cachingUserRepository = cachingUserRepository;
+        this.cachingUserAuthorityRepository = cachingUserAuthorityRepository;
+        this.readFence = readFence;
+        // 読み書き分離時もNOTIFYが発行されるプライマリへ接続する
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        this.url = details != null ? details.getJdbcUrl() : dataSourceProperties.determineUrl();
+        this.username = details != null ? details.getUsername() : dataSourceProperties.determineUsername();
+        this.password = details != null ? details.getPassword() : dataSourceProperties.determinePassword();
+        this.pollTimeoutMillis = Math.toIntExact(pollTimeout.toMillis());
+        this.maxReconnectBackoff = maxReconnectBackoff;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform()
+                .name("user-cache-invalidation")
+                .daemon(true)
+                .start(this::listen);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        closeConnection();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        Duration backoff = Duration.ofMillis(100);
+        while (running) {
+            try {
+                connection = connect();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + UserCacheInvalidationPublisher.CHANNEL);
+                }
+                // LISTEN開始前（初回起動時・切断中）の変更は受信できないため、全体を破棄して整合させる
+                readFence.advanceAll(currentWalLsn(connection));
+                invalidateAll();
+                backoff = Duration.ofMillis(100);
+                logger.info("Listening for user cache invalidations on {}", UserCacheInvalidationPublisher.CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications != null && notifications.length > 0) {
+                        List<String> payloads = new ArrayList<>(notifications.length);
+                        for (PGNotification notification : notifications) {
+                            payloads.add(notification.getParameter());
+                        }
+                        readFence.advance(payloads, currentWalLsn(connection));
+                    }
+                    handle(notifications);
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                invalidateAll();
+                logger.warn("User cache invalidation listener disconnected, reconnecting in {}", backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(maxReconnectBackoff) > 0
+                        ? maxReconnectBackoff
+                        : backoff.multipliedBy(2);
+            } finally {
+                closeConnection();
+            }
+        }
+    }
+
+    /**
+     * 受信した通知に対応するキャッシュを破棄する
+     *
+     * @param notifications 受信した通知（無い場合はnull）
+     */
+    void handle(PGNotification[] notifications) {
+        if (notifications == null) {
+            return;
+        }
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            if (UserCacheInvalidationPublisher.ALL.equals(payload)) {
+                invalidateAll();
+            } else if (UserCacheInvalidationPublisher.NEW_KEYS.equals(payload)) {
+                cachingUserRepository.invalidateMissing();
+            } else if (payload.startsWith(UserCacheInvalidationPublisher.NEW_EMAIL_PREFIX)) {
+                cachingUserRepository.invalidateMissingEmail(
+                        payload.substring(UserCacheInvalidationPublisher.NEW_EMAIL_PREFIX.length()));
+            } else if (payload.startsWith(UserCacheInvalidationPublisher.NEW_USERNAME_PREFIX)) {
+                cachingUserRepository.invalidateMissingUsername(
+                        payload.substring(UserCacheInvalidationPublisher.NEW_USERNAME_PREFIX.length()));
+            } else {
+                // ユーザー自体の変更とロールの割り当ての変更は同じ通知で届くため、両方を破棄する
+                cachingUserRepository.invalidate(payload);
+                cachingUserAuthorityRepository.invalidate(payload);
+            }
+        }
+    }
+
+    /**
+     * 通知を受信した時点のプライマリのLSNを取得する
+     *
+     * 通知はコミット後に配信されるため、このLSNは通知元のトランザクションのコミット位置以降となる
+     *
+     * @param connection LISTENしているプライマリへの接続
+     * @return プライマリの現在のLSN
+     */
+    private static LogSequenceNumber currentWalLsn(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+            rs.next();
+            return LogSequenceNumber.valueOf(rs.getString(1));
+        }
+    }
+
+    private void invalidateAll() {
+        cachingUserRepository.invalidateAll();
+        cachingUserAuthorityRepository.invalidateAll();
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (username != null) {
+            properties.setProperty("user", username);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        // 無通信の間に経路上で切断された場合も検出できるようにする
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("ApplicationName", "user-api-cache-invalidation");
+        return DriverManager.getConnection(url, properties);
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                logger.debug("Failed to close listener connection", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.entity.User;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ユーザーの変更を他のノードへ通知する
+ *
+ * NOTIFY は発行したトランザクションのコミット時にのみ配信されるため、
+ * ロールバックされた変更が通知されることはない。同一トランザクション内の同じ通知は1件にまとめられる
+ */
+@Component
+public class UserCacheInvalidationPublisher {
+
+    /**
+     * 通知チャネル名
+     */
+    public static final String CHANNEL = "user_cache_invalidation";
+
+    /**
+     * 全ユーザーの破棄を表すペイロード
+     */
+    public static final String ALL = "*";
+
+    /**
+     * 新しい検索キー（ID・メールアドレス・ユーザー名）が追加されたことを表すペイロード
+     * 受信したノードは「存在しない」キャッシュを全て破棄する（個々のキーを通知しない一括取り込みで使用する）
+     */
+    public static final String NEW_KEYS = "+";
+
+    /**
+     * 新しく検索できるようになったメールアドレスを表すペイロードの接頭辞（続けてメールアドレスを付与する）
+     */
+    public static final String NEW_EMAIL_PREFIX = "+email:";
+
+    /**
+     * 新しく検索できるようになったユーザー名を表すペイロードの接頭辞（続けてユーザー名を付与する）
+     */
+    public static final String NEW_USERNAME_PREFIX = "+username:";
+
+    private final JdbcClient jdbcClient;
+
+    public UserCacheInvalidationPublisher(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    /**
+     * 指定したユーザーの変更（ロールの割り当ての変更を含む）を通知する
+     *
+     * @param id 変更されたユーザーのID
+     */
+    public void publish(String id) {
+        notify(id);
+    }
+
+    /**
+     * ユーザーの変更と、新しく検索できるようになったキーをまとめて通知する
+     *
+     * 受信したノードは指定されたキーの「存在しない」キャッシュのみを破棄する。
+     * 複数の通知を1回の問い合わせで発行する
+     *
+     * @param id 変更されたユーザーのID（nullの場合は通知しない）
+     * @param newEmail 新しく検索できるようになったメールアドレス（nullの場合は通知しない）
+     * @param newUsername 新しく検索できるようになったユーザー名（nullの場合は通知しない）
+     */
+    public void publish(String id, String newEmail, String newUsername) {
+        List<String> payloads = new ArrayList<>(3);
+        if (id != null) {
+            payloads.add(id);
+        }
+        if (newEmail != null) {
+            payloads.add(NEW_EMAIL_PREFIX + newEmail);
+        }
+        if (newUsername != null) {
+            payloads.add(NEW_USERNAME_PREFIX + newUsername);
+        }
+        notifyEach(payloads);
+    }
+
+    /**
+     * 全ユーザーの変更を通知する
+     */
+    public void publishAll() {
+        notify(ALL);
+    }
+
+    /**
+     * 一括取り込み等により、個々に通知しきれない数の検索キーが追加されたことを通知する
+     *
+     * 受信したノードは「存在しない」キャッシュを全て破棄するため、個々のユーザーの登録では
+     * {@link #publishNewKeys(Collection)} を使用する
+     */
+    public void publishNewKeys() {
+        notify(NEW_KEYS);
+    }
+
+    /**
+     * 登録したユーザーのメールアドレス・ユーザー名が新しく検索できるようになったことを通知する
+     *
+     * IDはサーバーで生成するため、登録前に「存在しない」としてキャッシュされることは無く通知しない。
+     * 全ての通知を1回の問い合わせで発行する
+     *
+     * @param users 登録したユーザー
+     */
+    public void publishNewKeys(Collection<User> users) {
+        List<String> payloads = new ArrayList<>(users.size() * 2);
+        for (User user : users) {
+            payloads.add(NEW_EMAIL_PREFIX + user.email());
+            payloads.add(NEW_USERNAME_PREFIX + user.username());
+        }
+        notifyEach(payloads);
+    }
+
+    private void notifyEach(List<String> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        if (payloads.size() == 1) {
+            notify(payloads.get(0));
+            return;
+        }
+        jdbcClient.sql("SELECT pg_notify(:channel, payload) FROM unnest(:payloads) AS payload")
+                .param("channel", CHANNEL)
+                .param("payloads", new SqlArrayValue("text", payloads.toArray()))
+                .query()
+                .listOfRows();
+    }
+
+    private void notify(String payload) {
+        jdbcClient.sql("SELECT pg_notify(:channel, :payload)")
+                .param("channel", CHANNEL)
+                .param("payload", payload)
+                .query()
+                .listOfRows();
+    }
+}
@@ -0,0 +1,47 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.entity.User;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * users テーブルの行を {@link User} に変換する RowMapper
+ * 
+ * リフレクションによる列名解決・型変換を行わず、列の位置で値を読み出してレコードを生成する。
+ * SELECT / RETURNING の列は以下の順序で指定すること
+ * 
+ * id, username, email, password_hash, enabled, account_non_expired, account_non_locked,
+ * credentials_non_expired, created_at, updated_at, version
+ */
+final class UserRowMapper implements RowMapper<User> {
+
+    static final UserRowMapper INSTANCE = new UserRowMapper();
+
+    private UserRowMapper() {
+    }
+
+    @Override
+    public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new User(
+                rs.getString(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                getBoolean(rs, 5),
+                getBoolean(rs, 6),
+                getBoolean(rs, 7),
+                getBoolean(rs, 8),
+                rs.getObject(9, LocalDateTime.class),
+                rs.getObject(10, LocalDateTime.class),
+                rs.getLong(11)
+        );
+    }
+
+    private static Boolean getBoolean(ResultSet rs, int columnIndex) throws SQLException {
+        boolean value = rs.getBoolean(columnIndex);
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,73 @@
+package com.yusay.user.api.infrastructure;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * RFC 9562 の UUID バージョン7 を生成するジェネレーター
+ *
+ * 先頭48ビットをミリ秒単位のUNIX時刻、続く12ビット（rand_a）を同一ミリ秒内のカウンターとし、
+ * 同一インスタンスから生成したIDが文字列表現・バイト列の両方で単調増加することを保証する。
+ * 新しいIDは主キーB-treeの右端に追加されるため、ランダムなv4と比べてページ分割とキャッシュミスが減る
+ */
+final class UuidV7Generator {
+
+    static final UuidV7Generator INSTANCE = new UuidV7Generator(Clock.systemUTC(), new SecureRandom());
+
+    private static final int COUNTER_BITS = 12;
+    private static final int MAX_COUNTER = (1 << COUNTER_BITS) - 1;
+    // ミリ秒の切り替わり時にカウンターの初期値をランダムにしつつ、同一ミリ秒内で増加できる余地を残す
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+
+    private final Clock clock;
+    private final Random random;
+    private long lastMillis = -1;
+    private int counter;
+
+    UuidV7Generator(Clock clock, Random random) {
+        this.clock = clock;
+        this.random = random;
+    }
+
+    /**
+     * 新しいUUIDv7を生成する
+     *
+     * 時計が巻き戻った場合やカウンターが上限に達した場合は、直前のIDのタイムスタンプを引き継ぐか
+     * 1ミリ秒進めることで単調性を維持する
+     *
+     * @return 生成したUUID
+     */
+    UUID generate() {
+        long millis;
+        int sequence;
+        synchronized (this) {
+            long now = clock.millis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = random.nextInt(COUNTER_SEED_BOUND);
+            } else if (counter < MAX_COUNTER) {
+                counter++;
+            } else {
+                lastMillis++;
+                counter = random.nextInt(COUNTER_SEED_BOUND);
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+
+        long mostSigBits = (millis << 16) | (0x7L << 12) | sequence;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * 新しいUUIDv7を文字列表現で生成する
+     *
+     * @return 小文字16進数のUUID文字列
+     */
+    String generateString() {
+        return generate().toString();
+    }
+}
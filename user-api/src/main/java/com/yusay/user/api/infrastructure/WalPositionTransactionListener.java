@@ -0,0 +1,61 @@
+package com.yusay.user.api.infrastructure;
+
+import org.postgresql.replication.LogSequenceNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 書き込みトランザクションのコミット後にプライマリのWAL位置を記録するリスナー
+ *
+ * コミット完了後に取得した pg_current_wal_lsn() はコミットレコードより後ろを指すため、
+ * レプリカがこの位置まで再生済みであれば書き込み結果を読み取れることが保証される。
+ * リスナーはトランザクションの接続の解放前に呼ばれるため、コミットしたトランザクションの接続で問い合わせ、
+ * 接続プールから別の接続を取得しない（接続プールが枯渇していても書き込みを待たせない）
+ */
+public class WalPositionTransactionListener implements TransactionExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalPositionTransactionListener.class);
+
+    private final DataSource dataSource;
+
+    /**
+     * @param dataSource トランザクションマネージャーが使用するDataSource（トランザクションの接続の取得に使用する）
+     */
+    public WalPositionTransactionListener(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null
+                || !transaction.isNewTransaction()
+                || transaction.isReadOnly()
+                || !ReadYourWritesContext.isBound()
+                || !TransactionSynchronizationManager.hasResource(dataSource)) {
+            return;
+        }
+        // トランザクションに紐づいた接続が返される（コミット済みのため、問い合わせは接続の返却時に終了する）
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+            rs.next();
+            ReadYourWritesContext.recordWrite(LogSequenceNumber.valueOf(rs.getString(1)));
+        } catch (SQLException e) {
+            // 記録できない場合でもコミット済みの書き込みは失敗させない
+            // （以降の読み取りはクライアントが保持する直前のLSNに基づいて振り分けられる）
+            logger.warn("Failed to record WAL position after commit", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
@@ -1,14 +1,30 @@
 package com.yusay.user.api.presentation.advice;
 
+import com.yusay.user.api.domain.exception.ConcurrentUserUpdateException;
+import com.yusay.user.api.domain.exception.DeleteAllJobNotFoundException;
 import com.yusay.user.api.domain.exception.DeleteAllNotAllowedException;
+import com.yusay.user.api.domain.exception.DumpNotFoundException;
 import com.yusay.user.api.domain.exception.DuplicateUserException;
+import com.yusay.user.api.domain.exception.InvalidDumpRequestException;
+import com.yusay.user.api.domain.exception.InvalidPageRequestException;
+import com.yusay.user.api.domain.exception.InvalidRefreshTokenException;
+import com.yusay.user.api.domain.exception.PasswordHashingBusyException;
+import com.yusay.user.api.domain.exception.RoleNotFoundException;
 import com.yusay.user.api.domain.exception.UserNotFoundException;
+import com.yusay.user.api.domain.exception.UserVersionMismatchException;
 import com.yusay.user.api.presentation.constant.ErrorMessages;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -17,15 +33,65 @@ import org.springframework.web.context.request.WebRequest;
 import java.time.OffsetDateTime;
 import java.util.stream.Collectors;
 
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private static final String USER_NOT_FOUND_BODY_PREFIX =
+            "{\"type\":\"about:blank\",\"title\":\"User not found\",\"status\":404,\"detail\":";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final HttpHeaders PROBLEM_HEADERS = HttpHeaders.readOnlyHttpHeaders(problemHeaders());
+
+    private static HttpHeaders problemHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        return headers;
+    }
+
+    /**
+     * 存在しないIDへの大量のアクセスでも低コストで応答できるよう、ProblemDetailを組み立ててJSONへ変換せず、
+     * 事前に組み立てた固定部分へ変化する値（detail・timestamp・path）のみを連結した本文を返す。
+     * 本文の形式は他のハンドラーが返すProblemDetailと同じ
+     */
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<ProblemDetail> handleUserNotFound(UserNotFoundException ex, WebRequest request) {
+    public ResponseEntity<String> handleUserNotFound(UserNotFoundException ex, HttpServletRequest request) {
+        StringBuilder body = new StringBuilder(USER_NOT_FOUND_BODY_PREFIX.length() + 128)
+                .append(USER_NOT_FOUND_BODY_PREFIX);
+        appendJsonString(body, ex.getMessage());
+        body.append(",\"timestamp\":\"");
+        ISO_OFFSET_DATE_TIME.formatTo(OffsetDateTime.now(), body);
+        body.append("\",\"path\":");
+        appendJsonString(body, request.getRequestURI());
+        body.append('}');
+        return new ResponseEntity<>(body.toString(), PROBLEM_HEADERS, HttpStatus.NOT_FOUND);
+    }
+
+    private static void appendJsonString(StringBuilder body, String value) {
+        body.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> body.append("\\\"");
+                case '\\' -> body.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        body.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        body.append(c);
+                    }
+                }
+            }
+        }
+        body.append('"');
+    }
+
+    @ExceptionHandler(RoleNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleRoleNotFound(RoleNotFoundException ex, WebRequest request) {
         ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
-        problemDetail.setTitle("User not found");
+        problemDetail.setTitle("Role not found");
         problemDetail.setProperty("timestamp", OffsetDateTime.now());
         problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(problemDetail);
@@ -43,6 +109,114 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(problemDetail);
     }
 
+    @ExceptionHandler(UserVersionMismatchException.class)
+    public ResponseEntity<ProblemDetail> handleUserVersionMismatch(UserVersionMismatchException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.PRECONDITION_FAILED, "ユーザーは取得後に更新されています。最新の状態を取得してから再度更新してください");
+        problemDetail.setTitle("Precondition failed");
+        problemDetail.setProperty("timestamp", OffsetDateTime.now());
+        problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(problemDetail);
+    }
+
+    @ExceptionHandler(ConcurrentUserUpdateException.class)
+    public ResponseEntity<ProblemDetail> handleConcurrentUserUpdate(ConcurrentUserUpdateException ex, WebRequest request) {
+        logger.warn("ユーザーの更新が競合しました: {}", ex.getMessage());
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT, "他の更新と競合したため、ユーザーを更新できませんでした");
+        problemDetail.setTitle("Concurrent update");
+        problemDetail.setProperty("timestamp", OffsetDateTime.now());
+        problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problemDetail);
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidPageRequest(InvalidPageRequestException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        problemDetail.setTitle("Invalid page request");
+        problemDetail.setProperty("timestamp", OffsetDateTime.now());
+        problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problemDetail);
+    }
+
+    @ExceptionHandler(InvalidDumpRequestException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidDumpRequest(InvalidDumpRequestException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        problemDetail.setTitle("Invalid dump request");
+        problemDetail.setProperty("timestamp", OffsetDateTime.now());
+        problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problemDetail);
+    }
+
+    @ExceptionHandler(DumpNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleDumpNotFound(DumpNotFoundException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+        problemDetail.setTitle("Dump not found");
+        problemDetail.setProperty("timestamp", OffsetDateTime.now());
+        problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(problemDetail);
+    }
+
+    /**
+     * 接続プール（バルクヘッド）が飽和し、待機時間内に接続を取得できなかった場合は
+     * 時間をおいた再試行を促すため503を返す
+     */
+    @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<ProblemDetail> handleConnectionUnavailable(RuntimeException ex, WebRequest request) {
+        logger.warn("データベース接続を取得できませんでした: {}", ex.getMessage());
+        return serviceUnavailable(request);
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ProblemDetail> handlePasswordHashingBusy(PasswordHashingBusyException ex, WebRequest request) {
+        logger.warn("パスワードのハッシュ化を受け付けられませんでした: {}", ex.getMessage());
+        return serviceUnavailable(request);
+    }
+
+    private static ResponseEntity<ProblemDetail> serviceUnavailable(WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.SERVICE_UNAVAILABLE, ErrorMessages.SERVICE_BUSY);
+        problemDetail.setTitle("Service unavailable");
+        problemDetail.setProperty("timestamp", OffsetDateTime.now());
+        problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(problemDetail);
+    }
+
+    /**
+     * ログイン・トークン更新での認証の失敗
+     *
+     * セキュリティ: ユーザーの存在有無やアカウントの状態を推測されないよう、失敗理由によらず同じ応答を返す
+     */
+    @ExceptionHandler({AuthenticationException.class, InvalidRefreshTokenException.class})
+    public ResponseEntity<ProblemDetail> handleAuthenticationFailure(RuntimeException ex, WebRequest request) {
+        logger.debug("認証に失敗しました: {}", ex.getMessage());
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.UNAUTHORIZED, ErrorMessages.AUTHENTICATION_FAILED);
+        problemDetail.setTitle("Unauthorized");
+        problemDetail.setProperty("timestamp", OffsetDateTime.now());
+        problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(problemDetail);
+    }
+
+    /**
+     * ユーザーの読み込み中の障害は認証の失敗として扱わず、接続を取得できなかった場合・
+     * ハッシュ化を受け付けられなかった場合は503を返す
+     */
+    @ExceptionHandler(InternalAuthenticationServiceException.class)
+    public ResponseEntity<ProblemDetail> handleInternalAuthenticationFailure(
+            InternalAuthenticationServiceException ex, WebRequest request) {
+        if (ex.getCause() instanceof CannotGetJdbcConnectionException
+                || ex.getCause() instanceof CannotCreateTransactionException) {
+            return handleConnectionUnavailable((RuntimeException) ex.getCause(), request);
+        }
+        if (ex.getCause() instanceof PasswordHashingBusyException busy) {
+            return handlePasswordHashingBusy(busy, request);
+        }
+        throw ex;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ProblemDetail> handleValidationError(MethodArgumentNotValidException ex, WebRequest request) {
         String errors = ex.getBindingResult()
@@ -69,4 +243,13 @@ public class GlobalExceptionHandler {
         problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(problemDetail);
     }
+
+    @ExceptionHandler(DeleteAllJobNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleDeleteAllJobNotFound(DeleteAllJobNotFoundException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+        problemDetail.setTitle("Delete all job not found");
+        problemDetail.setProperty("timestamp", OffsetDateTime.now());
+        problemDetail.setProperty("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(problemDetail);
+    }
 }
@@ -12,6 +12,18 @@ public final class ErrorMessages {
      */
     public static final String DELETE_ALL_NOT_ALLOWED = "全件削除は許可されていません";
     
+    /**
+     * 処理能力の上限に達し、リクエストを受け付けられない場合のメッセージ
+     * 内部情報（接続プールの状態など）を含まない汎用的なメッセージ
+     */
+    public static final String SERVICE_BUSY = "混雑しているため処理できませんでした。しばらくしてから再度お試しください";
+    
+    /**
+     * 認証に失敗した場合のメッセージ
+     * ユーザーの存在有無やアカウントの状態を推測されないよう、失敗理由を区別しない
+     */
+    public static final String AUTHENTICATION_FAILED = "認証に失敗しました";
+    
     private ErrorMessages() {
         // ユーティリティクラスのためインスタンス化を禁止
         throw new AssertionError("ErrorMessagesはインスタンス化できません");
@@ -11,6 +11,11 @@ public final class HttpHeaders {
      */
     public static final String CONFIRM_DELETE_ALL = "X-Confirm-Delete-All";
     
+    /**
+     * read-your-writes用の最小WAL位置（LSN）ヘッダー
+     */
+    public static final String MIN_LSN = "X-Min-LSN";
+    
     private HttpHeaders() {
         // ユーティリティクラスのためインスタンス化を禁止
         throw new AssertionError("HttpHeadersはインスタンス化できません");
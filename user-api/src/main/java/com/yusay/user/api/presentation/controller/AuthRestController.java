@@ -0,0 +1,49 @@
+package com.yusay.user.api.presentation.controller;
+
+import com.yusay.user.api.application.service.AuthTokenService;
+import com.yusay.user.api.presentation.dto.RefreshTokenRequest;
+import com.yusay.user.api.presentation.dto.TokenRequest;
+import com.yusay.user.api.presentation.dto.TokenResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/auth")
+public class AuthRestController {
+
+    // トークンを含むレスポンスは保存させない
+    private static final CacheControl TOKEN_CACHE_CONTROL = CacheControl.noStore();
+
+    private final AuthTokenService authTokenService;
+
+    public AuthRestController(AuthTokenService authTokenService) {
+        this.authTokenService = authTokenService;
+    }
+
+    /**
+     * ユーザー名とパスワードで認証し、アクセストークンとリフレッシュトークンを発行する
+     */
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> issueToken(@Valid @RequestBody TokenRequest request) {
+        return ResponseEntity.ok()
+                .cacheControl(TOKEN_CACHE_CONTROL)
+                .body(TokenResponse.from(authTokenService.login(request.username(), request.password())));
+    }
+
+    /**
+     * リフレッシュトークンを新しいアクセストークンとリフレッシュトークンに交換する
+     *
+     * 使用したリフレッシュトークンは無効になるため、以降はレスポンスのリフレッシュトークンを使用する
+     */
+    @PostMapping("/token/refresh")
+    public ResponseEntity<TokenResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok()
+                .cacheControl(TOKEN_CACHE_CONTROL)
+                .body(TokenResponse.from(authTokenService.refresh(request.refreshToken())));
+    }
+}
@@ -1,48 +1,259 @@
 package com.yusay.user.api.presentation.controller;
 
-import com.yusay.user.api.application.dto.DeleteAllResult;
+import com.yusay.user.api.application.dto.BatchCreateItemResult;
+import com.yusay.user.api.application.dto.DeleteAllJobStatus;
+import com.yusay.user.api.application.dto.UserDumpFile;
+import com.yusay.user.api.application.dto.UserImportFormat;
+import com.yusay.user.api.application.dto.UserImportResult;
+import com.yusay.user.api.application.dto.UserPage;
+import com.yusay.user.api.application.dto.UserRegistration;
+import com.yusay.user.api.application.service.BatchPasswordEncoder;
+import com.yusay.user.api.application.service.UserDeleteAllJobService;
+import com.yusay.user.api.application.service.UserDumpService;
+import com.yusay.user.api.application.service.UserImportService;
+import com.yusay.user.api.application.service.UserRoleService;
 import com.yusay.user.api.application.service.UserService;
 import com.yusay.user.api.domain.entity.User;
 import com.yusay.user.api.domain.exception.DeleteAllNotAllowedException;
+import com.yusay.user.api.domain.exception.InvalidDumpRequestException;
+import com.yusay.user.api.domain.exception.PasswordHashingBusyException;
+import com.yusay.user.api.domain.exception.UserVersionMismatchException;
+import com.yusay.user.api.domain.repository.UserDumpFormat;
+import com.yusay.user.api.domain.repository.UserVersion;
 import com.yusay.user.api.presentation.constant.ErrorMessages;
 import com.yusay.user.api.presentation.constant.HttpHeaders;
+import com.yusay.user.api.presentation.dto.BatchCreateUsersRequest;
+import com.yusay.user.api.presentation.dto.BatchCreateUsersResponse;
 import com.yusay.user.api.presentation.dto.CreateUserRequest;
 import com.yusay.user.api.presentation.dto.UpdateUserRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/users")
 public class UserRestController {
     
     private static final String CONFIRM_VALUE = "true";
+    private static final int NDJSON_DELIMITER = '\n';
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    
+    // Tomcatのsendfile（カーネル内でのファイル送信）を要求するためのリクエスト属性
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+    
+    // 保存は許可するが、利用前に必ず条件付きGETで再検証させる
+    private static final CacheControl USER_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    
+    // 桁あふれせずにlongへ変換できる桁数（これを超える桁数のETagはバージョンとして解釈しない）
+    private static final int MAX_VERSION_DIGITS = 18;
     
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final UserImportService userImportService;
+    private final UserDumpService userDumpService;
+    private final UserDeleteAllJobService userDeleteAllJobService;
+    private final UserRoleService userRoleService;
+    private final BatchPasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
 
-    public UserRestController(UserService userService, PasswordEncoder passwordEncoder) {
+    public UserRestController(
+            UserService userService,
+            UserImportService userImportService,
+            UserDumpService userDumpService,
+            UserDeleteAllJobService userDeleteAllJobService,
+            UserRoleService userRoleService,
+            BatchPasswordEncoder passwordEncoder,
+            ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.userDumpService = userDumpService;
+        this.userDeleteAllJobService = userDeleteAllJobService;
+        this.userRoleService = userRoleService;
         this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * ユーザー一覧をキーセットページネーションで取得する
+     * 
+     * 次ページが存在する場合は Link ヘッダー（rel="next"）で次ページのURLを返す
+     * 
+     * @param cursor 前ページの Link ヘッダーに含まれるカーソル（省略時は先頭ページ）
+     * @param limit 1ページあたりの件数（省略時はデフォルト値、上限を超える場合は上限値に丸める）
+     * @return ページ内のユーザー
+     */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.list();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<User>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        UserPage page = userService.listPage(cursor, limit);
+        
+        if (!page.hasNext()) {
+            return ResponseEntity.ok(page.users());
+        }
+        
+        URI next = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("cursor", page.nextCursor())
+                .build()
+                .toUri();
+        return ResponseEntity.ok()
+                .header(org.springframework.http.HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page.users());
+    }
+
+    /**
+     * 全ユーザーをNDJSON形式でストリーミング出力する
+     * 
+     * DBカーソルから読み出した行をその都度レスポンスへ書き込むため、
+     * 件数に関わらずメモリ使用量は一定
+     * 
+     * @param response 出力先のレスポンス
+     * @throws IOException レスポンスへの書き込みに失敗した場合
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream outputStream = response.getOutputStream();
+        
+        userService.export(user -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(user));
+                outputStream.write(NDJSON_DELIMITER);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        outputStream.flush();
+    }
+
+    /**
+     * 全ユーザーを COPY TO STDOUT でレスポンスへ直接書き出す
+     * 
+     * @param format 出力形式（csv または binary）
+     * @param response 出力先のレスポンス
+     * @throws IOException レスポンスへの書き込みに失敗した場合
+     */
+    @GetMapping("/dump")
+    public void dumpUsers(
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        UserDumpFormat dumpFormat = parseDumpFormat(format);
+        response.setContentType(dumpContentType(dumpFormat));
+        response.setHeader(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("users." + dumpExtension(dumpFormat)).build().toString());
+        
+        OutputStream outputStream = response.getOutputStream();
+        userDumpService.dump(dumpFormat, outputStream);
+        outputStream.flush();
+    }
+
+    /**
+     * 全ユーザーをサーバー上のファイルへ書き出す
+     * 
+     * parallelism を2以上にすると、同一スナップショットを共有する複数コネクションで
+     * ID範囲ごとに並列に書き出す（CSV形式のみ）
+     * 
+     * @param format 出力形式（csv または binary）
+     * @param parallelism 使用するコネクション数
+     * @return 出力したファイルの情報
+     * @throws IOException ファイルの書き込みに失敗した場合
+     */
+    @PostMapping("/dump")
+    public ResponseEntity<UserDumpFile> createDumpFile(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "1") int parallelism) throws IOException {
+        UserDumpFile dumpFile = userDumpService.dumpToFile(parseDumpFormat(format), parallelism);
+        
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQuery(null)
+                .path("/{fileName}")
+                .buildAndExpand(dumpFile.fileName())
+                .toUri();
+        
+        return ResponseEntity.created(location).body(dumpFile);
+    }
+
+    /**
+     * 出力済みのダンプファイルを送信する
+     * 
+     * Tomcatのsendfileが利用できる場合はカーネル内で送信し、
+     * 利用できない場合は FileChannel.transferTo でレスポンスへ転送する
+     * 
+     * @param fileName ダンプファイル名
+     * @param request リクエスト
+     * @param response 出力先のレスポンス
+     * @throws IOException ファイルの読み込みまたはレスポンスへの書き込みに失敗した場合
+     */
+    @GetMapping("/dump/{fileName}")
+    public void downloadDumpFile(
+            @PathVariable String fileName,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Path file = userDumpService.resolveDumpFile(fileName);
+        long size = Files.size(file);
+        
+        UserDumpFormat dumpFormat = fileName.endsWith(".csv") ? UserDumpFormat.CSV : UserDumpFormat.BINARY;
+        response.setContentType(dumpContentType(dumpFormat));
+        response.setContentLengthLong(size);
+        response.setHeader(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, 0L);
+            request.setAttribute(SENDFILE_END_ATTR, size);
+            return;
+        }
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+        response.flushBuffer();
     }
 
     @PostMapping
@@ -67,14 +278,154 @@ public class UserRestController {
         return ResponseEntity.created(location).body(createdUser);
     }
 
+    /**
+     * 複数のユーザーを一括で作成する
+     * 
+     * パスワードのハッシュ化を並列に行い、全件を1回の複数行INSERTで登録する
+     * 重複する要素や、ハッシュ化の待ち行列が上限に達して受け付けられなかった要素（BUSY）があっても
+     * バッチ全体は失敗せず、要素ごとの結果を返す
+     * 
+     * @param request 作成するユーザー（最大1000件）
+     * @return 要素ごとの作成結果
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateUsersResponse> createUsers(@Valid @RequestBody BatchCreateUsersRequest request) {
+        // BCryptはCPU負荷が高いため、全件のハッシュ化をPasswordEncoderの専用スレッドプールへまとめて投入して並列に実行する。
+        // 待ち行列が上限に達して受け付けられなかった要素は、バッチ全体を失敗させずにBUSYとして返す
+        List<String> passwordHashes = passwordEncoder.encodeAll(
+                request.users().stream().map(CreateUserRequest::password).toList());
+        
+        List<UserRegistration> registrations = new ArrayList<>();
+        List<Integer> requestIndexes = new ArrayList<>();
+        for (int i = 0; i < passwordHashes.size(); i++) {
+            if (passwordHashes.get(i) != null) {
+                CreateUserRequest user = request.users().get(i);
+                registrations.add(new UserRegistration(user.username(), user.email(), passwordHashes.get(i)));
+                requestIndexes.add(i);
+            }
+        }
+        // 1件も受け付けられなかった場合は、一括作成自体を受け付けられない（503）
+        if (registrations.isEmpty()) {
+            throw new PasswordHashingBusyException("Password hashing queue is full");
+        }
+        
+        BatchCreateItemResult[] results = new BatchCreateItemResult[passwordHashes.size()];
+        for (BatchCreateItemResult result : userService.createAll(registrations)) {
+            int index = requestIndexes.get(result.index());
+            results[index] = result.withIndex(index);
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = BatchCreateItemResult.ofBusy(i);
+            }
+        }
+        return ResponseEntity.ok(BatchCreateUsersResponse.from(List.of(results)));
+    }
+
+    /**
+     * ユーザーを一括で取り込む
+     * 
+     * 既存システムからの移行など大量データの取り込みを想定し、リクエストボディを
+     * ストリームのまま読み込んでPostgreSQLのCOPYで登録する。
+     * パスワードはハッシュ化済みの値（password_hash）を受け取る
+     * 
+     * @param request text/csv（ヘッダー行 username,email,password_hash）または application/x-ndjson
+     * @return 取り込み結果
+     */
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<UserImportResult> importUsers(HttpServletRequest request) throws IOException {
+        UserImportFormat format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? UserImportFormat.NDJSON
+                : UserImportFormat.CSV;
+        
+        UserImportResult result = userImportService.importUsers(request.getInputStream(), format);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * ユーザーを一括で取り込み、進捗をNDJSON形式でストリーミング出力する
+     * 
+     * Accept: application/x-ndjson が指定された場合に使用する。チャンクの取り込みが完了するごとに
+     * その時点までの集計（取り込み結果と同じ形式）を1行ずつ出力し、最後の行を最終結果とする
+     * 
+     * @param request text/csv（ヘッダー行 username,email,password_hash）または application/x-ndjson
+     * @param response 出力先のレスポンス
+     * @throws IOException 入力の読み込み、またはレスポンスへの書き込みに失敗した場合
+     */
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsersWithProgress(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        UserImportFormat format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? UserImportFormat.NDJSON
+                : UserImportFormat.CSV;
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream outputStream = response.getOutputStream();
+        
+        UserImportResult result = userImportService.importUsers(request.getInputStream(), format, progress -> {
+            try {
+                writeNdjsonLine(outputStream, progress);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writeNdjsonLine(outputStream, result);
+    }
+
+    private void writeNdjsonLine(OutputStream outputStream, Object value) throws IOException {
+        outputStream.write(objectMapper.writeValueAsBytes(value));
+        outputStream.write(NDJSON_DELIMITER);
+        outputStream.flush();
+    }
+
+    /**
+     * ユーザーを取得する
+     * 
+     * ETag（バージョンから生成）とLast-Modifiedを返却し、If-None-Match / If-Modified-Since が
+     * 一致する場合はバージョンと更新日時のみを参照して304を返す（ユーザー全体の取得とシリアライズを行わない）。
+     * 条件付きリクエストでない場合は、バージョンを参照せずにユーザーを1回の問い合わせで取得する
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUser(@PathVariable String id) {
-        User user = userService.lookup(id);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<User> getUser(@PathVariable String id, WebRequest webRequest) {
+        if (webRequest.getHeader(org.springframework.http.HttpHeaders.IF_NONE_MATCH) == null
+                && webRequest.getHeader(org.springframework.http.HttpHeaders.IF_MODIFIED_SINCE) == null) {
+            return userResponse(userService.lookup(id));
+        }
+        UserVersion version = userService.lookupVersion(id);
+        if (webRequest.checkNotModified(userETag(version.version()), toEpochMilli(version.updatedAt()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(USER_CACHE_CONTROL)
+                    .build();
+        }
+        
+        // 判定後に更新された場合も本文と一致するよう、取得したユーザーのバージョンから生成し直す
+        return userResponse(userService.lookup(id));
+    }
+
+    private static ResponseEntity<User> userResponse(User user) {
+        return ResponseEntity.ok()
+                .eTag(userETag(user.version()))
+                .lastModified(toEpochMilli(user.updatedAt()))
+                .cacheControl(USER_CACHE_CONTROL)
+                .body(user);
     }
 
+    /**
+     * ユーザーを更新する
+     * 
+     * If-Matchが指定された場合は、そのETagが示すバージョンから変更されていない場合のみ更新し、
+     * 他のリクエストで更新済みの場合は412を返す（If-Match: * は存在確認のみ）
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable String id, @Valid @RequestBody UpdateUserRequest request) {
+    public ResponseEntity<User> updateUser(
+            @PathVariable String id,
+            @RequestHeader(value = org.springframework.http.HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateUserRequest request) {
+        // パスワードのハッシュ化より前に、前提条件の形式を検証する
+        Long expectedVersion = parseIfMatch(id, ifMatch);
+        
         // パスワードが指定されている場合はハッシュ化
         String passwordHash = null;
         if (request.password() != null) {
@@ -84,6 +435,7 @@ public class UserRestController {
         // ユーザーを更新
         User updatedUser = userService.update(
                 id,
+                expectedVersion,
                 request.username(),
                 request.email(),
                 passwordHash,
@@ -93,7 +445,49 @@ public class UserRestController {
                 request.credentialsNonExpired()
         );
         
-        return ResponseEntity.ok(updatedUser);
+        return ResponseEntity.ok()
+                .eTag(userETag(updatedUser.version()))
+                .lastModified(toEpochMilli(updatedUser.updatedAt()))
+                .body(updatedUser);
+    }
+
+    /**
+     * ユーザーを部分更新する（JSON Merge Patch）
+     * 
+     * 本文に含まれるフィールドの列のみを書き換え、値が変わらない場合は書き込みを行わない。
+     * 各フィールドは削除できないため、nullを指定したフィールドは変更しない。
+     * If-Matchの扱いはPUTと同じ
+     */
+    @PatchMapping(value = "/{id}", consumes = {APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<User> patchUser(
+            @PathVariable String id,
+            @RequestHeader(value = org.springframework.http.HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateUserRequest request) {
+        // パスワードのハッシュ化より前に、前提条件の形式を検証する
+        Long expectedVersion = parseIfMatch(id, ifMatch);
+        
+        // パスワードが指定されている場合はハッシュ化
+        String passwordHash = null;
+        if (request.password() != null) {
+            passwordHash = passwordEncoder.encode(request.password());
+        }
+        
+        User patchedUser = userService.patch(
+                id,
+                expectedVersion,
+                request.username(),
+                request.email(),
+                passwordHash,
+                request.enabled(),
+                request.accountNonExpired(),
+                request.accountNonLocked(),
+                request.credentialsNonExpired()
+        );
+        
+        return ResponseEntity.ok()
+                .eTag(userETag(patchedUser.version()))
+                .lastModified(toEpochMilli(patchedUser.updatedAt()))
+                .body(patchedUser);
     }
 
     @DeleteMapping("/{id}")
@@ -102,15 +496,130 @@ public class UserRestController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * ユーザーにロールを割り当てる（割り当て済みの場合も204を返す）
+     */
+    @PutMapping("/{id}/roles/{roleName}")
+    public ResponseEntity<Void> assignRole(@PathVariable String id, @PathVariable String roleName) {
+        userRoleService.assignRole(id, roleName);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * ユーザーからロールの割り当てを外す（割り当てられていない場合も204を返す）
+     */
+    @DeleteMapping("/{id}/roles/{roleName}")
+    public ResponseEntity<Void> revokeRole(@PathVariable String id, @PathVariable String roleName) {
+        userRoleService.revokeRole(id, roleName);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 全ユーザーを削除するジョブを開始する
+     * 
+     * 削除はバックグラウンドでチャンクごとに実行されるため、202 Accepted と
+     * ジョブ状態の取得先（Location）を返す
+     * 
+     * @param confirmHeader 確認ヘッダー（"true"のみ受け付ける）
+     * @return 開始したジョブの状態
+     */
     @DeleteMapping
-    public ResponseEntity<DeleteAllResult> deleteAllUsers(
+    public ResponseEntity<DeleteAllJobStatus> deleteAllUsers(
             @RequestHeader(value = HttpHeaders.CONFIRM_DELETE_ALL, required = false) String confirmHeader) {
         // 破壊的操作のため、確認ヘッダーを要求
         if (confirmHeader == null || !CONFIRM_VALUE.equalsIgnoreCase(confirmHeader)) {
             throw new DeleteAllNotAllowedException(ErrorMessages.DELETE_ALL_NOT_ALLOWED);
         }
         
-        DeleteAllResult result = userService.deleteAll();
-        return ResponseEntity.ok(result);
+        DeleteAllJobStatus job = userDeleteAllJobService.start();
+        
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/delete-all-jobs/{jobId}")
+                .buildAndExpand(job.jobId())
+                .toUri();
+        
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    /**
+     * 全件削除ジョブの進捗を取得する
+     * 
+     * @param jobId ジョブID
+     * @return ジョブの状態
+     */
+    @GetMapping("/delete-all-jobs/{jobId}")
+    public ResponseEntity<DeleteAllJobStatus> getDeleteAllJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(userDeleteAllJobService.getStatus(jobId));
+    }
+
+    private static UserDumpFormat parseDumpFormat(String format) {
+        try {
+            return UserDumpFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDumpRequestException("format must be csv or binary");
+        }
+    }
+
+    private static String dumpContentType(UserDumpFormat format) {
+        return format == UserDumpFormat.CSV ? TEXT_CSV_VALUE : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private static String dumpExtension(UserDumpFormat format) {
+        return format == UserDumpFormat.CSV ? "csv" : "bin";
+    }
+
+    /**
+     * ユーザーの強いETagを生成する
+     * 
+     * 更新のたびにバージョンが1増えるため、バージョンのみで表現が一意に定まる
+     * 
+     * @param version バージョン
+     * @return ETag（引用符なし）
+     */
+    private static String userETag(long version) {
+        return Long.toString(version);
+    }
+
+    /**
+     * If-Matchヘッダーから更新の前提とするバージョンを取得する
+     * 
+     * If-Matchは強い比較で判定するため、弱いETagやこのAPIが発行していない値は一致しないものとして扱う。
+     * 複数のETagが列挙された場合は、バージョンとして解釈できる最初の値を使用する
+     * 
+     * @param id ユーザーID
+     * @param ifMatch If-Matchヘッダーの値（未指定の場合はnull）
+     * @return バージョン（未指定または * の場合はnull）
+     * @throws UserVersionMismatchException バージョンとして解釈できるETagが含まれない場合
+     */
+    private static Long parseIfMatch(String id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        for (ETag eTag : ETag.parse(ifMatch)) {
+            if (eTag.isWildcard()) {
+                return null;
+            }
+            if (!eTag.weak() && isVersion(eTag.tag())) {
+                return Long.parseLong(eTag.tag());
+            }
+        }
+        throw new UserVersionMismatchException(id);
+    }
+
+    private static boolean isVersion(String tag) {
+        if (tag.isEmpty() || tag.length() > MAX_VERSION_DIGITS) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (!Character.isDigit(tag.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 }
@@ -0,0 +1,18 @@
+package com.yusay.user.api.presentation.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * ユーザー一括作成リクエスト用のDTO
+ */
+public record BatchCreateUsersRequest(
+    @NotEmpty(message = "作成するユーザーを1件以上指定してください")
+    @Size(max = 1000, message = "一度に作成できるユーザーは1000件までです")
+    List<@NotNull(message = "ユーザーを指定してください") @Valid CreateUserRequest> users
+) {
+}
@@ -0,0 +1,63 @@
+package com.yusay.user.api.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.yusay.user.api.application.dto.BatchCreateItemResult;
+import com.yusay.user.api.domain.entity.User;
+
+import java.util.List;
+
+/**
+ * ユーザー一括作成レスポンス用のDTO
+ * 
+ * @param createdCount 作成されたユーザー数
+ * @param duplicateCount 重複により作成されなかったユーザー数
+ * @param busyCount パスワードのハッシュ化を受け付けられず作成されなかったユーザー数（再送すれば作成できる）
+ * @param results リクエストと同じ順序の要素ごとの結果
+ */
+public record BatchCreateUsersResponse(
+    int createdCount,
+    int duplicateCount,
+    int busyCount,
+    List<Item> results
+) {
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_DUPLICATE = "DUPLICATE";
+    public static final String STATUS_BUSY = "BUSY";
+
+    /**
+     * 要素ごとの結果
+     * 
+     * @param index リクエスト内での位置（0始まり）
+     * @param status CREATED、DUPLICATE または BUSY
+     * @param user 作成されたユーザー（CREATED以外の場合は省略）
+     * @param field 重複したフィールド名（DUPLICATE以外の場合は省略）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(
+        int index,
+        String status,
+        User user,
+        String field
+    ) {
+    }
+
+    public static BatchCreateUsersResponse from(List<BatchCreateItemResult> results) {
+        List<Item> items = results.stream()
+                .map(BatchCreateUsersResponse::toItem)
+                .toList();
+        int createdCount = (int) results.stream().filter(BatchCreateItemResult::isCreated).count();
+        int busyCount = (int) results.stream().filter(BatchCreateItemResult::busy).count();
+        return new BatchCreateUsersResponse(
+                createdCount, results.size() - createdCount - busyCount, busyCount, items);
+    }
+
+    private static Item toItem(BatchCreateItemResult result) {
+        if (result.isCreated()) {
+            return new Item(result.index(), STATUS_CREATED, result.user(), null);
+        }
+        if (result.busy()) {
+            return new Item(result.index(), STATUS_BUSY, null, null);
+        }
+        return new Item(result.index(), STATUS_DUPLICATE, null, result.duplicateField());
+    }
+}
@@ -0,0 +1,16 @@
+package com.yusay.user.api.presentation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * トークン更新リクエスト用のDTO
+ */
+public record RefreshTokenRequest(
+    @NotBlank(message = "リフレッシュトークンは必須です")
+    String refreshToken
+) {
+    @Override
+    public String toString() {
+        return "RefreshTokenRequest[refreshToken='****']";
+    }
+}
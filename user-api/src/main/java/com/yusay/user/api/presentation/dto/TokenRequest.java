@@ -0,0 +1,22 @@
+package com.yusay.user.api.presentation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * ログイン（トークン発行）リクエスト用のDTO
+ */
+public record TokenRequest(
+    @NotBlank(message = "ユーザー名は必須です")
+    String username,
+    
+    @NotBlank(message = "パスワードは必須です")
+    String password
+) {
+    @Override
+    public String toString() {
+        return "TokenRequest[" +
+                "username='" + username + '\'' +
+                ", password='****'" +
+                ']';
+    }
+}
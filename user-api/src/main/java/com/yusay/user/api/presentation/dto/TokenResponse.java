@@ -0,0 +1,35 @@
+package com.yusay.user.api.presentation.dto;
+
+import com.yusay.user.api.application.dto.IssuedTokens;
+
+/**
+ * トークン発行・更新レスポンス用のDTO
+ *
+ * @param accessToken アクセストークン（Authorization: Bearer で送信する）
+ * @param tokenType トークンの種類（常に Bearer）
+ * @param expiresIn アクセストークンの有効期間（秒）
+ * @param refreshToken リフレッシュトークン（1度使用すると無効になる）
+ */
+public record TokenResponse(
+    String accessToken,
+    String tokenType,
+    long expiresIn,
+    String refreshToken
+) {
+    private static final String BEARER = "Bearer";
+
+    public static TokenResponse from(IssuedTokens tokens) {
+        return new TokenResponse(
+                tokens.accessToken(), BEARER, tokens.accessTokenTtl().toSeconds(), tokens.refreshToken());
+    }
+
+    @Override
+    public String toString() {
+        return "TokenResponse[" +
+                "accessToken='****'" +
+                ", tokenType='" + tokenType + '\'' +
+                ", expiresIn=" + expiresIn +
+                ", refreshToken='****'" +
+                ']';
+    }
+}
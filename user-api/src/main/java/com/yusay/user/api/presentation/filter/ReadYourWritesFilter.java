@@ -0,0 +1,92 @@
+package com.yusay.user.api.presentation.filter;
+
+import com.yusay.user.api.infrastructure.ReadYourWritesContext;
+import com.yusay.user.api.presentation.constant.HttpHeaders;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.postgresql.replication.LogSequenceNumber;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * クライアントごとの read-your-writes を実現するフィルター
+ *
+ * 書き込み後のWAL位置（LSN）をレスポンスヘッダーとCookieで返却し、
+ * 以降のリクエストで受け取ったLSNまで再生済みのレプリカにのみ読み取りを振り分けさせる
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /**
+     * 最小LSNを保持するCookie名
+     */
+    public static final String MIN_LSN_COOKIE = "min_lsn";
+
+    private final Duration cookieMaxAge;
+
+    public ReadYourWritesFilter(Duration cookieMaxAge) {
+        if (cookieMaxAge.isNegative() || cookieMaxAge.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("cookieMaxAge must be positive, but was: %s", cookieMaxAge));
+        }
+        this.cookieMaxAge = cookieMaxAge;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        // 書き込みのコミットはレスポンスのコミット前に行われるため、ヘッダーを追加できる
+        ReadYourWritesContext.bind(resolveRequiredLsn(request), lsn -> {
+            response.setHeader(HttpHeaders.MIN_LSN, lsn.asString());
+            response.addHeader(org.springframework.http.HttpHeaders.SET_COOKIE,
+                ResponseCookie.from(MIN_LSN_COOKIE, lsn.asString())
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .maxAge(cookieMaxAge)
+                    .build()
+                    .toString());
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+        }
+    }
+
+    /**
+     * リクエストが要求する最小LSNを取得する（ヘッダーを優先し、無ければCookieを参照する）
+     *
+     * @param request HTTPリクエスト
+     * @return 最小LSN（指定が無いか不正な場合はnull）
+     */
+    private LogSequenceNumber resolveRequiredLsn(HttpServletRequest request) {
+        String value = request.getHeader(HttpHeaders.MIN_LSN);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (MIN_LSN_COOKIE.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                    break;
+                }
+            }
+        }
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        LogSequenceNumber lsn;
+        try {
+            lsn = LogSequenceNumber.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            // 16進数として解釈できない値（改ざんされたCookie等）は指定が無いものとして扱う
+            return null;
+        }
+        return LogSequenceNumber.INVALID_LSN.equals(lsn) ? null : lsn;
+    }
+}
@@ -0,0 +1,44 @@
+package com.yusay.user.api.presentation.filter;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * ユーザーの読み込み中の過負荷による失敗を、認証の失敗（401）ではなく503として応答するエントリーポイント
+ *
+ * 接続を取得できなかった場合等は {@link InternalAuthenticationServiceException} に包まれて認証の失敗として届くため、
+ * 原因が過負荷の場合は {@link HandlerExceptionResolver} へ渡してコントローラーと同じ ProblemDetail を返す。
+ * それ以外は委譲先（Basic認証のチャレンジ）に委ねる
+ */
+public class ServiceUnavailableAuthenticationEntryPoint implements AuthenticationEntryPoint {
+
+    private final AuthenticationEntryPoint delegate;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public ServiceUnavailableAuthenticationEntryPoint(
+            AuthenticationEntryPoint delegate,
+            HandlerExceptionResolver handlerExceptionResolver) {
+        this.delegate = delegate;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    public void commence(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            AuthenticationException authException) throws IOException, ServletException {
+        if (authException instanceof InternalAuthenticationServiceException
+                && ServiceUnavailableAuthenticationFilter.isServiceUnavailable(authException.getCause())) {
+            handlerExceptionResolver.resolveException(request, response, null, (Exception) authException.getCause());
+            return;
+        }
+        delegate.commence(request, response, authException);
+    }
+}
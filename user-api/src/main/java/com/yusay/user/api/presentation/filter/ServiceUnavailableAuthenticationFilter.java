@@ -0,0 +1,56 @@
+package com.yusay.user.api.presentation.filter;
+
+import com.yusay.user.api.domain.exception.PasswordHashingBusyException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * 認証フィルターで発生した過負荷による失敗を、コントローラーと同じ503の応答に変換するフィルター
+ *
+ * Basic認証でのパスワードの照合・再ハッシュ化はフィルター内で実行されるため、ハッシュ化の待ち行列の飽和や
+ * 接続を取得できなかった例外は @RestControllerAdvice に届かず500となる。認証フィルターより前に配置し、
+ * これらの例外を {@link HandlerExceptionResolver} へ渡して同じ ProblemDetail（Retry-After 付き）を返す
+ */
+public class ServiceUnavailableAuthenticationFilter extends OncePerRequestFilter {
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public ServiceUnavailableAuthenticationFilter(HandlerExceptionResolver handlerExceptionResolver) {
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    /**
+     * 503として応答すべき過負荷による例外かを返す
+     *
+     * @param ex 例外
+     * @return ハッシュ化の待ち行列の飽和、または接続を取得できなかった場合true
+     */
+    static boolean isServiceUnavailable(Throwable ex) {
+        return ex instanceof PasswordHashingBusyException
+                || ex instanceof CannotGetJdbcConnectionException
+                || ex instanceof CannotCreateTransactionException;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (RuntimeException ex) {
+            if (!isServiceUnavailable(ex) || response.isCommitted()) {
+                throw ex;
+            }
+            handlerExceptionResolver.resolveException(request, response, null, ex);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+-- ID列を VARCHAR(36) から uuid 型へ移行するスクリプト
+--
+-- 前提:
+--   - アプリケーションが stringtype=unspecified で接続していること（application.yaml で設定済み）
+--     文字列パラメーターがサーバー側で列の型として解釈されるため、移行の前後で同じSQLが動作する
+--   - 全てのIDがUUIDとして解釈できる文字列であること（下記の事前確認で検証する）
+--   - psql で自動コミットのまま先頭から実行すること（CREATE INDEX CONCURRENTLY とバッチごとのコミットを含むため、
+--     全体を1つのトランザクションで実行できない）。各フェーズは個別に再実行できる
+--
+-- 停止時間:
+--   ALTER COLUMN ... TYPE によるテーブル全体の書き換え（書き換えの間 ACCESS EXCLUSIVE ロックで参照・更新とも
+--   停止する）は行わない。以下のフェーズで、長時間のロックなしに移行する
+--     1. 各ID列に uuid 型のシャドー列を追加し、トリガーで書き込みのたびに同期する（カタログの更新のみ）
+--     2. 既存の行のシャドー列をページ範囲ごとのバッチで埋める（バッチごとにコミットし、行ロックのみ）
+--     3. シャドー列のインデックスを CONCURRENTLY で作成し、NOT NULL を CHECK 制約で検証する（参照・更新をブロックしない）
+--     4. 短いトランザクションで列を入れ替える（カタログの更新のみ。ACCESS EXCLUSIVE ロックを保持するのは数ミリ秒程度）
+--   各フェーズのロックの取得は lock_timeout により、取得できない場合は書き込みを長時間ブロックせずに失敗させる
+--   （失敗した場合はそのフェーズを再実行する）
+--
+-- 注意:
+--   - 削除した VARCHAR(36) の列の領域は、行が更新されるまで再利用されない。すぐに回収する場合は
+--     書き込みの少ない時間帯に pg_repack 等でテーブルを書き換える
+--   - フェーズ4より前に中止する場合は、トリガーとシャドー列を削除すれば元の状態に戻る
+
+-- 事前確認: UUIDとして解釈できないIDが存在しないこと
+DO $$
+DECLARE
+    invalid_count BIGINT;
+BEGIN
+    SELECT (SELECT count(*) FROM users WHERE id !~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$')
+         + (SELECT count(*) FROM roles WHERE id !~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$')
+         + (SELECT count(*) FROM permissions WHERE id !~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$')
+         + (SELECT count(*) FROM refresh_tokens WHERE id !~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$')
+         + (SELECT count(*) FROM audit_logs WHERE id !~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$')
+      INTO invalid_count;
+    IF invalid_count > 0 THEN
+        RAISE EXCEPTION 'UUIDとして解釈できないIDが % 件存在します', invalid_count;
+    END IF;
+END
+$$;
+
+SET lock_timeout = '5s';
+
+-- フェーズ1: シャドー列の追加と同期
+-- デフォルト値のない列の追加はカタログの更新のみで完了する
+ALTER TABLE users ADD COLUMN IF NOT EXISTS id_uuid uuid;
+ALTER TABLE roles ADD COLUMN IF NOT EXISTS id_uuid uuid;
+ALTER TABLE permissions ADD COLUMN IF NOT EXISTS id_uuid uuid;
+ALTER TABLE user_roles
+    ADD COLUMN IF NOT EXISTS user_id_uuid uuid,
+    ADD COLUMN IF NOT EXISTS role_id_uuid uuid;
+ALTER TABLE role_permissions
+    ADD COLUMN IF NOT EXISTS role_id_uuid uuid,
+    ADD COLUMN IF NOT EXISTS permission_id_uuid uuid;
+ALTER TABLE refresh_tokens
+    ADD COLUMN IF NOT EXISTS id_uuid uuid,
+    ADD COLUMN IF NOT EXISTS user_id_uuid uuid;
+ALTER TABLE audit_logs
+    ADD COLUMN IF NOT EXISTS id_uuid uuid,
+    ADD COLUMN IF NOT EXISTS user_id_uuid uuid;
+
+-- 移行中にアプリケーションが書き込んだ行のシャドー列を設定する（PL/pgSQLはトリガーのテーブルごとに NEW の型を解決する）
+CREATE OR REPLACE FUNCTION sync_uuid_shadow_columns() RETURNS trigger AS $$
+BEGIN
+    CASE TG_TABLE_NAME
+        WHEN 'users', 'roles', 'permissions' THEN
+            NEW.id_uuid := NEW.id::uuid;
+        WHEN 'user_roles' THEN
+            NEW.user_id_uuid := NEW.user_id::uuid;
+            NEW.role_id_uuid := NEW.role_id::uuid;
+        WHEN 'role_permissions' THEN
+            NEW.role_id_uuid := NEW.role_id::uuid;
+            NEW.permission_id_uuid := NEW.permission_id::uuid;
+        WHEN 'refresh_tokens', 'audit_logs' THEN
+            NEW.id_uuid := NEW.id::uuid;
+            NEW.user_id_uuid := NEW.user_id::uuid;
+    END CASE;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER users_sync_uuid BEFORE INSERT OR UPDATE OF id ON users
+    FOR EACH ROW EXECUTE FUNCTION sync_uuid_shadow_columns();
+CREATE OR REPLACE TRIGGER roles_sync_uuid BEFORE INSERT OR UPDATE OF id ON roles
+    FOR EACH ROW EXECUTE FUNCTION sync_uuid_shadow_columns();
+CREATE OR REPLACE TRIGGER permissions_sync_uuid BEFORE INSERT OR UPDATE OF id ON permissions
+    FOR EACH ROW EXECUTE FUNCTION sync_uuid_shadow_columns();
+CREATE OR REPLACE TRIGGER user_roles_sync_uuid BEFORE INSERT OR UPDATE OF user_id, role_id ON user_roles
+    FOR EACH ROW EXECUTE FUNCTION sync_uuid_shadow_columns();
+CREATE OR REPLACE TRIGGER role_permissions_sync_uuid BEFORE INSERT OR UPDATE OF role_id, permission_id ON role_permissions
+    FOR EACH ROW EXECUTE FUNCTION sync_uuid_shadow_columns();
+CREATE OR REPLACE TRIGGER refresh_tokens_sync_uuid BEFORE INSERT OR UPDATE OF id, user_id ON refresh_tokens
+    FOR EACH ROW EXECUTE FUNCTION sync_uuid_shadow_columns();
+-- 参照先のユーザーの削除時（ON DELETE SET NULL）は user_id の更新として同期される
+CREATE OR REPLACE TRIGGER audit_logs_sync_uuid BEFORE INSERT OR UPDATE OF id, user_id ON audit_logs
+    FOR EACH ROW EXECUTE FUNCTION sync_uuid_shadow_columns();
+
+-- フェーズ2: 既存の行のシャドー列を埋める
+-- 物理位置（ctid）の範囲ごとに更新してコミットし、行ロックの保持とWALの生成を1バッチ分に抑える。
+-- ページ範囲の走査（TID Range Scan）のため、未設定の行を探すための表全体の走査を繰り返さない。
+-- 開始後に書き込まれた行はトリガーで設定済みのため、開始時点のページ数までを対象とする
+DO $$
+DECLARE
+    table_names CONSTANT TEXT[] := ARRAY[
+        'users', 'roles', 'permissions', 'user_roles', 'role_permissions', 'refresh_tokens', 'audit_logs'];
+    assignments CONSTANT TEXT[] := ARRAY[
+        'id_uuid = id::uuid',
+        'id_uuid = id::uuid',
+        'id_uuid = id::uuid',
+        'user_id_uuid = user_id::uuid, role_id_uuid = role_id::uuid',
+        'role_id_uuid = role_id::uuid, permission_id_uuid = permission_id::uuid',
+        'id_uuid = id::uuid, user_id_uuid = user_id::uuid',
+        'id_uuid = id::uuid, user_id_uuid = user_id::uuid'];
+    pending_conditions CONSTANT TEXT[] := ARRAY[
+        'id_uuid IS NULL',
+        'id_uuid IS NULL',
+        'id_uuid IS NULL',
+        'user_id_uuid IS NULL OR role_id_uuid IS NULL',
+        'role_id_uuid IS NULL OR permission_id_uuid IS NULL',
+        'id_uuid IS NULL OR user_id_uuid IS NULL',
+        'id_uuid IS NULL OR (user_id IS NOT NULL AND user_id_uuid IS NULL)'];
+    -- 1バッチで更新するページ数（8KBのページで約8MB）
+    batch_pages CONSTANT BIGINT := 1000;
+    total_pages BIGINT;
+    start_page BIGINT;
+BEGIN
+    FOR i IN 1 .. array_length(table_names, 1) LOOP
+        total_pages := pg_relation_size(table_names[i]::regclass) / current_setting('block_size')::BIGINT;
+        start_page := 0;
+        WHILE start_page <= total_pages LOOP
+            EXECUTE format(
+                'UPDATE %I SET %s WHERE ctid >= ''(%s,0)''::tid AND ctid < ''(%s,0)''::tid AND (%s)',
+                table_names[i], assignments[i], start_page, start_page + batch_pages, pending_conditions[i]);
+            COMMIT;
+            -- レプリカの再生が追いつくよう、バッチの間隔を空ける
+            PERFORM pg_sleep(0.05);
+            start_page := start_page + batch_pages;
+        END LOOP;
+        RAISE NOTICE '% のシャドー列を設定しました（% ページ）', table_names[i], total_pages;
+    END LOOP;
+END
+$$;
+
+-- フェーズ3: シャドー列のインデックスとNOT NULLの検証
+-- CONCURRENTLY による作成は参照・更新をブロックしない（失敗した場合は INVALID なインデックスを削除して再実行する）
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS users_id_uuid_key ON users(id_uuid);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at_id_uuid ON users(created_at, id_uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS roles_id_uuid_key ON roles(id_uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS permissions_id_uuid_key ON permissions(id_uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS user_roles_uuid_key ON user_roles(user_id_uuid, role_id_uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS role_permissions_uuid_key
+    ON role_permissions(role_id_uuid, permission_id_uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS refresh_tokens_id_uuid_key ON refresh_tokens(id_uuid);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user_id_uuid ON refresh_tokens(user_id_uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS audit_logs_id_uuid_key ON audit_logs(id_uuid);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_logs_user_id_uuid ON audit_logs(user_id_uuid);
+
+-- 検証済みの CHECK (... IS NOT NULL) があれば、フェーズ4の SET NOT NULL は表の走査を省略する。
+-- NOT VALID での追加は短時間のロックのみで、VALIDATE は SHARE UPDATE EXCLUSIVE ロックのため参照・更新をブロックしない
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_id_uuid_not_null,
+    ADD CONSTRAINT users_id_uuid_not_null CHECK (id_uuid IS NOT NULL) NOT VALID;
+ALTER TABLE roles DROP CONSTRAINT IF EXISTS roles_id_uuid_not_null,
+    ADD CONSTRAINT roles_id_uuid_not_null CHECK (id_uuid IS NOT NULL) NOT VALID;
+ALTER TABLE permissions DROP CONSTRAINT IF EXISTS permissions_id_uuid_not_null,
+    ADD CONSTRAINT permissions_id_uuid_not_null CHECK (id_uuid IS NOT NULL) NOT VALID;
+ALTER TABLE user_roles DROP CONSTRAINT IF EXISTS user_roles_uuid_not_null,
+    ADD CONSTRAINT user_roles_uuid_not_null CHECK (user_id_uuid IS NOT NULL AND role_id_uuid IS NOT NULL) NOT VALID;
+ALTER TABLE role_permissions DROP CONSTRAINT IF EXISTS role_permissions_uuid_not_null,
+    ADD CONSTRAINT role_permissions_uuid_not_null CHECK (role_id_uuid IS NOT NULL AND permission_id_uuid IS NOT NULL) NOT VALID;
+ALTER TABLE refresh_tokens DROP CONSTRAINT IF EXISTS refresh_tokens_uuid_not_null,
+    ADD CONSTRAINT refresh_tokens_uuid_not_null CHECK (id_uuid IS NOT NULL AND user_id_uuid IS NOT NULL) NOT VALID;
+ALTER TABLE audit_logs DROP CONSTRAINT IF EXISTS audit_logs_id_uuid_not_null,
+    ADD CONSTRAINT audit_logs_id_uuid_not_null CHECK (id_uuid IS NOT NULL) NOT VALID;
+
+-- フェーズ2で設定漏れがあれば、ここで失敗する
+ALTER TABLE users VALIDATE CONSTRAINT users_id_uuid_not_null;
+ALTER TABLE roles VALIDATE CONSTRAINT roles_id_uuid_not_null;
+ALTER TABLE permissions VALIDATE CONSTRAINT permissions_id_uuid_not_null;
+ALTER TABLE user_roles VALIDATE CONSTRAINT user_roles_uuid_not_null;
+ALTER TABLE role_permissions VALIDATE CONSTRAINT role_permissions_uuid_not_null;
+ALTER TABLE refresh_tokens VALIDATE CONSTRAINT refresh_tokens_uuid_not_null;
+ALTER TABLE audit_logs VALIDATE CONSTRAINT audit_logs_id_uuid_not_null;
+
+-- フェーズ4: 列の入れ替え
+-- 列の削除・名前の変更、作成済みのインデックスによる主キーの定義はいずれもカタログの更新のみで完了する
+BEGIN;
+
+SET LOCAL lock_timeout = '5s';
+
+-- 参照元と参照先の型が一致しない状態を避けるため、外部キーを一旦削除する
+ALTER TABLE user_roles
+    DROP CONSTRAINT user_roles_user_id_fkey,
+    DROP CONSTRAINT user_roles_role_id_fkey;
+ALTER TABLE role_permissions
+    DROP CONSTRAINT role_permissions_role_id_fkey,
+    DROP CONSTRAINT role_permissions_permission_id_fkey;
+ALTER TABLE refresh_tokens
+    DROP CONSTRAINT refresh_tokens_user_id_fkey;
+ALTER TABLE audit_logs
+    DROP CONSTRAINT audit_logs_user_id_fkey;
+
+DROP TRIGGER users_sync_uuid ON users;
+DROP TRIGGER roles_sync_uuid ON roles;
+DROP TRIGGER permissions_sync_uuid ON permissions;
+DROP TRIGGER user_roles_sync_uuid ON user_roles;
+DROP TRIGGER role_permissions_sync_uuid ON role_permissions;
+DROP TRIGGER refresh_tokens_sync_uuid ON refresh_tokens;
+DROP TRIGGER audit_logs_sync_uuid ON audit_logs;
+
+-- 元の列を削除すると、その列の主キー・インデックスも削除される
+ALTER TABLE users DROP COLUMN id;
+ALTER TABLE users RENAME COLUMN id_uuid TO id;
+ALTER TABLE users ALTER COLUMN id SET NOT NULL;
+ALTER TABLE users DROP CONSTRAINT users_id_uuid_not_null;
+ALTER TABLE users ADD CONSTRAINT users_pkey PRIMARY KEY USING INDEX users_id_uuid_key;
+ALTER INDEX idx_users_created_at_id_uuid RENAME TO idx_users_created_at_id;
+
+ALTER TABLE roles DROP COLUMN id;
+ALTER TABLE roles RENAME COLUMN id_uuid TO id;
+ALTER TABLE roles ALTER COLUMN id SET NOT NULL;
+ALTER TABLE roles DROP CONSTRAINT roles_id_uuid_not_null;
+ALTER TABLE roles ADD CONSTRAINT roles_pkey PRIMARY KEY USING INDEX roles_id_uuid_key;
+
+ALTER TABLE permissions DROP COLUMN id;
+ALTER TABLE permissions RENAME COLUMN id_uuid TO id;
+ALTER TABLE permissions ALTER COLUMN id SET NOT NULL;
+ALTER TABLE permissions DROP CONSTRAINT permissions_id_uuid_not_null;
+ALTER TABLE permissions ADD CONSTRAINT permissions_pkey PRIMARY KEY USING INDEX permissions_id_uuid_key;
+
+ALTER TABLE user_roles DROP COLUMN user_id, DROP COLUMN role_id;
+ALTER TABLE user_roles RENAME COLUMN user_id_uuid TO user_id;
+ALTER TABLE user_roles RENAME COLUMN role_id_uuid TO role_id;
+ALTER TABLE user_roles ALTER COLUMN user_id SET NOT NULL, ALTER COLUMN role_id SET NOT NULL;
+ALTER TABLE user_roles DROP CONSTRAINT user_roles_uuid_not_null;
+ALTER TABLE user_roles ADD CONSTRAINT user_roles_pkey PRIMARY KEY USING INDEX user_roles_uuid_key;
+
+ALTER TABLE role_permissions DROP COLUMN role_id, DROP COLUMN permission_id;
+ALTER TABLE role_permissions RENAME COLUMN role_id_uuid TO role_id;
+ALTER TABLE role_permissions RENAME COLUMN permission_id_uuid TO permission_id;
+ALTER TABLE role_permissions ALTER COLUMN role_id SET NOT NULL, ALTER COLUMN permission_id SET NOT NULL;
+ALTER TABLE role_permissions DROP CONSTRAINT role_permissions_uuid_not_null;
+ALTER TABLE role_permissions ADD CONSTRAINT role_permissions_pkey PRIMARY KEY USING INDEX role_permissions_uuid_key;
+
+ALTER TABLE refresh_tokens DROP COLUMN id, DROP COLUMN user_id;
+ALTER TABLE refresh_tokens RENAME COLUMN id_uuid TO id;
+ALTER TABLE refresh_tokens RENAME COLUMN user_id_uuid TO user_id;
+ALTER TABLE refresh_tokens ALTER COLUMN id SET NOT NULL, ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE refresh_tokens DROP CONSTRAINT refresh_tokens_uuid_not_null;
+ALTER TABLE refresh_tokens ADD CONSTRAINT refresh_tokens_pkey PRIMARY KEY USING INDEX refresh_tokens_id_uuid_key;
+ALTER INDEX idx_refresh_tokens_user_id_uuid RENAME TO idx_refresh_tokens_user_id;
+
+ALTER TABLE audit_logs DROP COLUMN id, DROP COLUMN user_id;
+ALTER TABLE audit_logs RENAME COLUMN id_uuid TO id;
+ALTER TABLE audit_logs RENAME COLUMN user_id_uuid TO user_id;
+ALTER TABLE audit_logs ALTER COLUMN id SET NOT NULL;
+ALTER TABLE audit_logs DROP CONSTRAINT audit_logs_id_uuid_not_null;
+ALTER TABLE audit_logs ADD CONSTRAINT audit_logs_pkey PRIMARY KEY USING INDEX audit_logs_id_uuid_key;
+ALTER INDEX idx_audit_logs_user_id_uuid RENAME TO idx_audit_logs_user_id;
+
+ALTER TABLE user_roles
+    ADD CONSTRAINT user_roles_user_id_fkey
+        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE NOT VALID,
+    ADD CONSTRAINT user_roles_role_id_fkey
+        FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE NOT VALID;
+ALTER TABLE role_permissions
+    ADD CONSTRAINT role_permissions_role_id_fkey
+        FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE NOT VALID,
+    ADD CONSTRAINT role_permissions_permission_id_fkey
+        FOREIGN KEY (permission_id) REFERENCES permissions(id) ON DELETE CASCADE NOT VALID;
+ALTER TABLE refresh_tokens
+    ADD CONSTRAINT refresh_tokens_user_id_fkey
+        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE NOT VALID;
+ALTER TABLE audit_logs
+    ADD CONSTRAINT audit_logs_user_id_fkey
+        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL NOT VALID;
+
+COMMIT;
+
+DROP FUNCTION sync_uuid_shadow_columns();
+
+-- 外部キーの検証（SHARE UPDATE EXCLUSIVE ロックのため、参照・更新をブロックしない）
+ALTER TABLE user_roles VALIDATE CONSTRAINT user_roles_user_id_fkey;
+ALTER TABLE user_roles VALIDATE CONSTRAINT user_roles_role_id_fkey;
+ALTER TABLE role_permissions VALIDATE CONSTRAINT role_permissions_role_id_fkey;
+ALTER TABLE role_permissions VALIDATE CONSTRAINT role_permissions_permission_id_fkey;
+ALTER TABLE refresh_tokens VALIDATE CONSTRAINT refresh_tokens_user_id_fkey;
+ALTER TABLE audit_logs VALIDATE CONSTRAINT audit_logs_user_id_fkey;
+
+-- 統計情報を更新し、新しい列の型に基づく実行計画を選択させる
+ANALYZE users, roles, permissions, user_roles, role_permissions, refresh_tokens, audit_logs;
@@ -0,0 +1,17 @@
+-- 既存の users テーブルに fillfactor を設定するスクリプト
+--
+-- 新規のデータベースは schema.sql の CREATE TABLE ... WITH (fillfactor = 90) で設定されるため、
+-- 設定前に作成したデータベースに対して1度だけ実行する
+--
+-- 注意:
+--   - 設定は以降に書き込まれるページから有効となり、既存のページには適用されない
+--     既存のページにも空き領域を確保する場合は、書き込みの少ない時間帯に VACUUM FULL（ACCESS EXCLUSIVE ロック）
+--     または pg_repack でテーブルを書き換える
+--   - ALTER TABLE ... SET は SHARE UPDATE EXCLUSIVE ロックのみを取得するため、参照・更新をブロックしない
+--     lock_timeout により、ロックを取得できない場合は長時間待たずに失敗させる
+
+SET lock_timeout = '5s';
+
+-- 有効フラグ等の頻繁な更新をHOT更新（インデックスを更新せず同一ページ内に新しい行を置く）とするため、
+-- ページに空き領域を残す
+ALTER TABLE users SET (fillfactor = 90);
@@ -13,11 +13,20 @@ CREATE TABLE IF NOT EXISTS users (
     account_non_locked BOOLEAN NOT NULL DEFAULT true,
     credentials_non_expired BOOLEAN NOT NULL DEFAULT true,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- 楽観ロック用のバージョン（更新のたびにアプリケーション側で1増やす）
+    version BIGINT NOT NULL DEFAULT 0
+) WITH (fillfactor = 90);
+
+-- 既存のデータベース向けのバージョン列の追加
+-- 定数のデフォルト値を持つ列の追加はカタログの更新のみで完了し、テーブルの書き換えは発生しない
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
 
 -- ユーザーテーブルのインデックス
 -- username / email の UNIQUE 制約により自動的にインデックスが作成されるため、明示的なインデックス定義は不要
+-- 注意: 重複エラーの判定に制約名（users_username_key / users_email_key）を使用しているため、制約名を変更しないこと
+-- 一覧取得のキーセットページネーション（created_at, id 順）用
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users(created_at, id);
 
 -- ロールテーブル
 -- システムで使用するロール（役割）を定義
@@ -83,6 +92,8 @@ CREATE TABLE IF NOT EXISTS refresh_tokens (
 
 -- リフレッシュトークンテーブルのインデックス
 CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_id ON refresh_tokens(user_id);
+-- 有効期限切れのトークンの定期削除で、対象を表全体の走査なしに絞り込む
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expiry_date ON refresh_tokens(expiry_date);
 
 -- 監査ログテーブル（オプション: ユーザーアクションを追跡する場合）
 -- セキュリティとコンプライアンスのための監査証跡
@@ -0,0 +1,178 @@
+package com.yusay.user.api;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * プラットフォームスレッドと仮想スレッドでのリクエスト処理のスループットとp99レイテンシを比較するベンチマーク
+ *
+ * それぞれの実行モードでアプリケーションを起動し、1,000 / 5,000 / 10,000 の同時クライアントから
+ * 一覧取得（接続プールを使用するブロッキングなJDBC呼び出し）を一定時間送り続ける。
+ * 仮想スレッドでは接続プールのバルクヘッドが有効となるため、待機時間内に接続を取得できなかった
+ * リクエストは503としてエラー数に計上する。バルクヘッドの効果とオーバーヘッドを確認するため、
+ * 仮想スレッドでバルクヘッドを無効化した（接続プールの接続タイムアウトのみで待機を制限する）場合も計測する
+ *
+ * 通常のテスト実行には含めず、{@code -Dbenchmark=true} を指定した場合のみ実行する
+ * （例: {@code mvn test -Dtest=ThreadingBenchmarkTest -Dbenchmark=true}）。
+ * 10,000クライアントではクライアント・サーバー双方で同数のソケットを使用するため、
+ * ファイルディスクリプタの上限（ulimit -n）を十分に大きくしておくこと
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("リクエスト処理のスレッドモデルのベンチマーク")
+class ThreadingBenchmarkTest {
+
+    private static final int[] CLIENTS = {1_000, 5_000, 10_000};
+    private static final int USERS = 1_000;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+
+    @Test
+    @DisplayName("プラットフォームスレッドと仮想スレッド（バルクヘッドの有無）のスループットとp99レイテンシを同時クライアント数ごとに比較する")
+    void compareThreadingModels() throws Exception {
+        List<Result> results = new ArrayList<>();
+        results.addAll(measureMode("platform", false, true));
+        results.addAll(measureMode("virtual", true, true));
+        results.addAll(measureMode("virtual-nb", true, false));
+
+        System.out.printf("%-10s %8s %12s %10s %10s%n", "mode", "clients", "req/s", "p99 ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %8d %12.0f %10.1f %10d%n",
+                    result.mode, result.clients, result.throughput(), result.p99Millis(), result.errors);
+        }
+
+        assertThat(results).allSatisfy(result -> assertThat(result.latenciesNanos).isNotEmpty());
+    }
+
+    private List<Result> measureMode(String mode, boolean virtualThreads, boolean bulkhead) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(
+                UserApiApplication.class, TestcontainersConfiguration.class)
+                .properties(
+                        "server.port=0",
+                        // スレッドモデル以外の条件を揃えるため、同時接続数の上限は両モードで同じにする
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=1000",
+                        "user.datasource.bulkhead.enabled=" + bulkhead);
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            context.getBean(JdbcClient.class).sql("""
+                        INSERT INTO users (id, username, email, password_hash)
+                        SELECT gen_random_uuid()::text, 'benchuser' || i, 'benchuser' || i || '@example.com', 'hash'
+                        FROM generate_series(1, :count) AS i
+                        ON CONFLICT DO NOTHING
+                    """)
+                    .param("count", USERS)
+                    .update();
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            URI uri = URI.create("http://localhost:" + port + "/users?limit=20");
+
+            List<Result> results = new ArrayList<>();
+            for (int clients : CLIENTS) {
+                run(uri, clients, WARMUP);
+                results.add(new Result(mode, clients, run(uri, clients, MEASUREMENT)));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * clients個のクライアントから、durationの間リクエストを送り続ける
+     *
+     * @return 成功したリクエストのレイテンシと失敗したリクエスト数
+     */
+    private Run run(URI uri, int clients, Duration duration) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+            long deadline = System.nanoTime() + duration.toNanos();
+
+            List<Future<long[]>> futures = new ArrayList<>(clients);
+            LongAdder errors = new LongAdder();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long startedAt = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response =
+                                    httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - startedAt;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            List<long[]> perClient = new ArrayList<>(clients);
+            for (Future<long[]> future : futures) {
+                perClient.add(future.get());
+            }
+            long[] latencies = new long[perClient.stream().mapToInt(values -> values.length).sum()];
+            int offset = 0;
+            for (long[] values : perClient) {
+                System.arraycopy(values, 0, latencies, offset, values.length);
+                offset += values.length;
+            }
+            return new Run(latencies, errors.sum(), duration);
+        }
+    }
+
+    private record Run(long[] latenciesNanos, long errors, Duration duration) {
+    }
+
+    private record Result(String mode, int clients, long[] latenciesNanos, long errors, Duration duration) {
+        Result(String mode, int clients, Run run) {
+            this(mode, clients, run.latenciesNanos, run.errors, run.duration);
+        }
+
+        double throughput() {
+            return latenciesNanos.length / (duration.toNanos() / 1_000_000_000.0);
+        }
+
+        double p99Millis() {
+            if (latenciesNanos.length == 0) {
+                return Double.NaN;
+            }
+            long[] sorted = latenciesNanos.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(sorted.length * 0.99) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.yusay.user.api;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 認証付きリクエストのスループットとp99レイテンシを、認証方式ごとに比較するベンチマーク
+ *
+ * - bearer: /auth/token で発行したアクセストークン（署名の検証のみで、データベースを参照しない）
+ * - basic: HTTP Basic認証（ユーザーと権限はキャッシュから読み込み、照合に成功したパスワードは短時間記録する）
+ * - basic-uncached: 照合の記録を無効にしたHTTP Basic認証（リクエストごとにBCryptで照合する）
+ *
+ * BCryptのコストは通常の起動と同じく計測で決める。
+ * 通常のテスト実行には含めず、{@code -Dbenchmark=true} を指定した場合のみ実行する
+ * （例: {@code mvn test -Dtest=TokenAuthenticationBenchmarkTest -Dbenchmark=true}）
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("認証方式ごとのリクエスト処理のベンチマーク")
+class TokenAuthenticationBenchmarkTest {
+
+    private static final int CLIENTS = 64;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+    private static final String USER_ID = "950e8400-e29b-41d4-a716-446655440001";
+    private static final String USERNAME = "benchauth";
+    private static final String PASSWORD = "bench-password";
+
+    @Test
+    @DisplayName("アクセストークンとHTTP Basic認証のスループットとp99レイテンシを比較する")
+    void compareAuthenticationMethods() throws Exception {
+        String basic = "Basic " + Base64.getEncoder().encodeToString(
+                (USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+
+        List<Result> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = start()) {
+            URI baseUri = baseUri(context);
+            results.add(measure("bearer", baseUri, "Bearer " + login(baseUri)));
+            results.add(measure("basic", baseUri, basic));
+        }
+        // 照合の記録を即座に失効させ、リクエストごとにBCryptで照合させる
+        try (ConfigurableApplicationContext context = start("user.password-hashing.verified-cache-ttl=1ns")) {
+            results.add(measure("basic-uncached", baseUri(context), basic));
+        }
+
+        System.out.printf("%-16s %8s %12s %10s %10s%n", "method", "clients", "req/s", "p99 ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-16s %8d %12.0f %10.1f %10d%n",
+                    result.method, CLIENTS, result.throughput(), result.p99Millis(), result.errors);
+        }
+
+        assertThat(results).allSatisfy(result -> assertThat(result.latenciesNanos).isNotEmpty());
+    }
+
+    private ConfigurableApplicationContext start(String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                UserApiApplication.class, TestcontainersConfiguration.class)
+                .properties("server.port=0")
+                .properties(properties)
+                .run();
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        context.getBean(JdbcClient.class).sql("""
+                    INSERT INTO users (id, username, email, password_hash)
+                    VALUES (:id, :username, :email, :passwordHash)
+                    ON CONFLICT (id) DO UPDATE SET password_hash = EXCLUDED.password_hash
+                """)
+                .param("id", USER_ID)
+                .param("username", USERNAME)
+                .param("email", USERNAME + "@example.com")
+                .param("passwordHash", passwordHash)
+                .update();
+        return context;
+    }
+
+    private static URI baseUri(ConfigurableApplicationContext context) {
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        return URI.create("http://localhost:" + port);
+    }
+
+    private static String login(URI baseUri) throws Exception {
+        try (HttpClient httpClient = HttpClient.newHttpClient()) {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(baseUri.resolve("/auth/token"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+            return JsonPath.read(response.body(), "$.accessToken");
+        }
+    }
+
+    private Result measure(String method, URI baseUri, String authorization) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/users/" + USER_ID))
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+        run(request, WARMUP);
+        return new Result(method, run(request, MEASUREMENT));
+    }
+
+    /**
+     * CLIENTS個のクライアントから、durationの間リクエストを送り続ける
+     *
+     * @return 成功したリクエストのレイテンシと失敗したリクエスト数
+     */
+    private Run run(HttpRequest request, Duration duration) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            long deadline = System.nanoTime() + duration.toNanos();
+
+            List<Future<long[]>> futures = new ArrayList<>(CLIENTS);
+            LongAdder errors = new LongAdder();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long startedAt = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response =
+                                    httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - startedAt;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            List<long[]> perClient = new ArrayList<>(CLIENTS);
+            for (Future<long[]> future : futures) {
+                perClient.add(future.get());
+            }
+            long[] latencies = new long[perClient.stream().mapToInt(values -> values.length).sum()];
+            int offset = 0;
+            for (long[] values : perClient) {
+                System.arraycopy(values, 0, latencies, offset, values.length);
+                offset += values.length;
+            }
+            return new Run(latencies, errors.sum(), duration);
+        }
+    }
+
+    private record Run(long[] latenciesNanos, long errors, Duration duration) {
+    }
+
+    private record Result(String method, long[] latenciesNanos, long errors, Duration duration) {
+        Result(String method, Run run) {
+            this(method, run.latenciesNanos, run.errors, run.duration);
+        }
+
+        double throughput() {
+            return latenciesNanos.length / (duration.toNanos() / 1_000_000_000.0);
+        }
+
+        double p99Millis() {
+            if (latenciesNanos.length == 0) {
+                return Double.NaN;
+            }
+            long[] sorted = latenciesNanos.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(sorted.length * 0.99) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
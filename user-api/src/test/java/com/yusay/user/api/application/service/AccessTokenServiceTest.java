@@ -0,0 +1,135 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.application.dto.AccessTokenClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessTokenServiceTest {
+
+    private static final Instant FIXED_INSTANT = Instant.parse("2024-01-01T10:00:00Z");
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private ObjectMapper objectMapper;
+    private AccessTokenService accessTokenService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        accessTokenService = serviceAt(FIXED_INSTANT, SECRET);
+    }
+
+    private AccessTokenService serviceAt(Instant instant, String secret) {
+        return new AccessTokenService(objectMapper, Clock.fixed(instant, ZoneOffset.UTC), secret, TTL);
+    }
+
+    @Test
+    @DisplayName("issue()で発行したトークンをverify()で検証でき、ユーザー名・権限・有効期限が復元される")
+    void issueAndVerify_RoundTrip() {
+        // Act
+        String token = accessTokenService.issue("testuser", List.of("ROLE_ADMIN", "USER_READ"));
+        Optional<AccessTokenClaims> claims = accessTokenService.verify(token);
+
+        // Assert
+        assertThat(claims).hasValueSatisfying(value -> {
+            assertThat(value.subject()).isEqualTo("testuser");
+            assertThat(value.authorities()).containsExactly("ROLE_ADMIN", "USER_READ");
+            assertThat(value.issuedAt()).isEqualTo(FIXED_INSTANT);
+            assertThat(value.expiresAt()).isEqualTo(FIXED_INSTANT.plus(TTL));
+        });
+    }
+
+    @Test
+    @DisplayName("verify()はペイロードを改ざんしたトークンを拒否する")
+    void verify_WhenPayloadTampered_ReturnsEmpty() {
+        // Arrange: 署名はそのままに、権限を書き換えたペイロードに差し替える
+        String[] parts = accessTokenService.issue("testuser", List.of("ROLE_USER")).split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("{\"sub\":\"testuser\",\"authorities\":[\"ROLE_ADMIN\"],\"iat\":1704103200,\"exp\":1704103500}")
+                        .getBytes());
+
+        // Act & Assert
+        assertThat(accessTokenService.verify(parts[0] + "." + forgedPayload + "." + parts[2])).isEmpty();
+    }
+
+    @Test
+    @DisplayName("verify()は署名アルゴリズムをnoneに書き換えたトークンを拒否する")
+    void verify_WhenAlgorithmIsNone_ReturnsEmpty() {
+        // Arrange
+        String[] parts = accessTokenService.issue("testuser", List.of("ROLE_USER")).split("\\.");
+        String noneHeader = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes());
+
+        // Act & Assert
+        assertThat(accessTokenService.verify(noneHeader + "." + parts[1] + ".")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("verify()は別の鍵で署名されたトークンを拒否する")
+    void verify_WhenSignedWithDifferentKey_ReturnsEmpty() {
+        // Arrange
+        byte[] otherKey = new byte[32];
+        otherKey[0] = 1;
+        String token = serviceAt(FIXED_INSTANT, Base64.getEncoder().encodeToString(otherKey))
+                .issue("testuser", List.of("ROLE_USER"));
+
+        // Act & Assert
+        assertThat(accessTokenService.verify(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("verify()は有効期限を過ぎたトークンを拒否する")
+    void verify_WhenExpired_ReturnsEmpty() {
+        // Arrange
+        String token = accessTokenService.issue("testuser", List.of("ROLE_USER"));
+
+        // Act & Assert
+        assertThat(serviceAt(FIXED_INSTANT.plus(TTL).minusSeconds(1), SECRET).verify(token)).isPresent();
+        assertThat(serviceAt(FIXED_INSTANT.plus(TTL), SECRET).verify(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("verify()はJWTの形式でない文字列を拒否する")
+    void verify_WhenMalformed_ReturnsEmpty() {
+        assertThat(accessTokenService.verify("")).isEmpty();
+        assertThat(accessTokenService.verify("not-a-token")).isEmpty();
+        assertThat(accessTokenService.verify("a.b.c.d")).isEmpty();
+        String token = accessTokenService.issue("testuser", List.of("ROLE_USER"));
+        assertThat(accessTokenService.verify(token + "!")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("コンストラクタは32バイト未満の署名鍵を拒否する")
+    void constructor_WhenSecretTooShort_Throws() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThatThrownBy(() -> serviceAt(FIXED_INSTANT, shortSecret))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("secret must be at least 32 bytes, but was: 16");
+    }
+
+    @Test
+    @DisplayName("署名鍵が未指定の場合は生成した鍵で発行・検証できる")
+    void constructor_WhenSecretBlank_GeneratesKey() {
+        AccessTokenService generated = serviceAt(FIXED_INSTANT, "");
+
+        String token = generated.issue("testuser", List.of());
+
+        assertThat(generated.verify(token)).isPresent();
+        assertThat(accessTokenService.verify(token)).isEmpty();
+    }
+}
@@ -0,0 +1,163 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.application.dto.IssuedTokens;
+import com.yusay.user.api.domain.entity.RefreshToken;
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.exception.InvalidRefreshTokenException;
+import com.yusay.user.api.domain.repository.RefreshTokenRepository;
+import com.yusay.user.api.domain.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthTokenServiceTest {
+
+    private static final LocalDateTime FIXED_DATE_TIME = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+    private static final Duration REFRESH_TOKEN_TTL = Duration.ofDays(14);
+
+    private AuthenticationManager authenticationManager;
+    private UserDetailsService userDetailsService;
+    private UserRepository userRepository;
+    private RefreshTokenRepository refreshTokenRepository;
+    private AccessTokenService accessTokenService;
+    private AuthTokenService authTokenService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(FIXED_DATE_TIME.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        authenticationManager = mock(AuthenticationManager.class);
+        userDetailsService = mock(UserDetailsService.class);
+        userRepository = mock(UserRepository.class);
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        accessTokenService = new AccessTokenService(JsonMapper.builder().build(), clock,
+                Base64.getEncoder().encodeToString(new byte[32]), Duration.ofMinutes(5));
+        authTokenService = new AuthTokenService(authenticationManager, userDetailsService, userRepository,
+                refreshTokenRepository, accessTokenService, clock, REFRESH_TOKEN_TTL);
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user()));
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user()));
+        when(refreshTokenRepository.insert(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static User user() {
+        return new User("user-1", "testuser", "test@example.com", "$2a$10$hash", true, true, true, true,
+                FIXED_DATE_TIME, FIXED_DATE_TIME, 0L);
+    }
+
+    @Test
+    @DisplayName("login()は認証した権限を含むアクセストークンを発行し、リフレッシュトークンはハッシュのみを保存する")
+    void login_IssuesTokensAndStoresRefreshTokenHash() {
+        // Arrange
+        when(authenticationManager.authenticate(any())).thenReturn(UsernamePasswordAuthenticationToken.authenticated(
+                "testuser", null, AuthorityUtils.createAuthorityList("ROLE_USER", "USER_READ")));
+
+        // Act
+        IssuedTokens tokens = authTokenService.login("testuser", "password");
+
+        // Assert
+        assertThat(accessTokenService.verify(tokens.accessToken())).hasValueSatisfying(claims -> {
+            assertThat(claims.subject()).isEqualTo("testuser");
+            assertThat(claims.authorities()).containsExactly("ROLE_USER", "USER_READ");
+        });
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).insert(stored.capture());
+        assertThat(stored.getValue().userId()).isEqualTo("user-1");
+        assertThat(stored.getValue().tokenHash())
+                .isEqualTo(AuthTokenService.hash(tokens.refreshToken()))
+                .isNotEqualTo(tokens.refreshToken());
+        assertThat(stored.getValue().expiryDate()).isEqualTo(FIXED_DATE_TIME.plus(REFRESH_TOKEN_TTL));
+    }
+
+    @Test
+    @DisplayName("login()は認証に失敗した場合トークンを発行しない")
+    void login_WhenAuthenticationFails_Throws() {
+        // Arrange
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> authTokenService.login("testuser", "wrong"))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(refreshTokenRepository, never()).insert(any());
+    }
+
+    @Test
+    @DisplayName("refresh()は使用したリフレッシュトークンを新しいトークンに置き換え、最新の権限でアクセストークンを発行する")
+    void refresh_RotatesRefreshToken() {
+        // Arrange
+        when(refreshTokenRepository.rotate(eq(AuthTokenService.hash("old-refresh-token")), any(),
+                eq(FIXED_DATE_TIME), eq(FIXED_DATE_TIME.plus(REFRESH_TOKEN_TTL))))
+                .thenAnswer(invocation -> Optional.of(new RefreshToken("token-2", "user-1",
+                        invocation.getArgument(1), invocation.getArgument(3), FIXED_DATE_TIME)));
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(
+                org.springframework.security.core.userdetails.User.withUsername("testuser")
+                        .password("$2a$10$hash")
+                        .authorities("ROLE_ADMIN")
+                        .build());
+
+        // Act
+        IssuedTokens tokens = authTokenService.refresh("old-refresh-token");
+
+        // Assert
+        assertThat(tokens.refreshToken()).isNotEqualTo("old-refresh-token");
+        assertThat(accessTokenService.verify(tokens.accessToken()))
+                .hasValueSatisfying(claims -> assertThat(claims.authorities()).containsExactly("ROLE_ADMIN"));
+        verify(refreshTokenRepository).rotate(AuthTokenService.hash("old-refresh-token"),
+                AuthTokenService.hash(tokens.refreshToken()), FIXED_DATE_TIME, FIXED_DATE_TIME.plus(REFRESH_TOKEN_TTL));
+        verify(refreshTokenRepository, never()).deleteByTokenHash(any());
+    }
+
+    @Test
+    @DisplayName("refresh()は存在しない（使用済み・有効期限切れの）リフレッシュトークンの場合InvalidRefreshTokenExceptionをスローする")
+    void refresh_WhenTokenUnknownOrExpired_Throws() {
+        // Arrange
+        when(refreshTokenRepository.rotate(any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> authTokenService.refresh("used-refresh-token"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    @DisplayName("refresh()は無効化されたアカウントの場合トークンを発行せず、登録した新しいトークンを削除する")
+    void refresh_WhenAccountDisabled_Throws() {
+        // Arrange
+        when(refreshTokenRepository.rotate(any(), any(), any(), any())).thenReturn(Optional.of(
+                new RefreshToken("token-2", "user-1", "new-hash", FIXED_DATE_TIME.plusDays(14), FIXED_DATE_TIME)));
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(
+                org.springframework.security.core.userdetails.User.withUsername("testuser")
+                        .password("$2a$10$hash")
+                        .authorities("ROLE_USER")
+                        .disabled(true)
+                        .build());
+
+        // Act & Assert
+        assertThatThrownBy(() -> authTokenService.refresh("refresh-token"))
+                .isInstanceOf(DisabledException.class);
+        verify(refreshTokenRepository).deleteByTokenHash("new-hash");
+    }
+}
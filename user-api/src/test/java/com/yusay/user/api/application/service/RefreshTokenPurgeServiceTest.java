@@ -0,0 +1,95 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.domain.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenPurgeServiceTest {
+
+    private static final LocalDateTime FIXED_DATE_TIME = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private RefreshTokenPurgeService refreshTokenPurgeService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        refreshTokenPurgeService = newService(2);
+    }
+
+    private RefreshTokenPurgeService newService(int batchSize) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        Clock clock = Clock.fixed(FIXED_DATE_TIME.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        return new RefreshTokenPurgeService(refreshTokenRepository, transactionTemplate, clock, batchSize);
+    }
+
+    @Test
+    @DisplayName("purgeExpired()は削除件数がバッチサイズ未満になるまでバッチごとに削除する")
+    void purgeExpired_DeletesInBatches() {
+        // Arrange
+        when(refreshTokenRepository.tryLockExpiredPurge()).thenReturn(true);
+        when(refreshTokenRepository.deleteExpired(FIXED_DATE_TIME, 2)).thenReturn(2, 2, 1);
+
+        // Act
+        long deleted = refreshTokenPurgeService.purgeExpired();
+
+        // Assert
+        assertThat(deleted).isEqualTo(5);
+        verify(refreshTokenRepository, times(3)).tryLockExpiredPurge();
+        verify(refreshTokenRepository, times(3)).deleteExpired(FIXED_DATE_TIME, 2);
+    }
+
+    @Test
+    @DisplayName("purgeExpired()は他のノードがロックを保持している場合は削除しない")
+    void purgeExpired_WhenLockedByAnotherNode_DoesNothing() {
+        // Arrange
+        when(refreshTokenRepository.tryLockExpiredPurge()).thenReturn(false);
+
+        // Act
+        long deleted = refreshTokenPurgeService.purgeExpired();
+
+        // Assert
+        assertThat(deleted).isZero();
+        verify(refreshTokenRepository, never()).deleteExpired(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("purgeExpired()は途中で他のノードにロックを取得された場合、それまでの削除件数で終了する")
+    void purgeExpired_WhenLockLostBetweenBatches_Stops() {
+        // Arrange
+        when(refreshTokenRepository.tryLockExpiredPurge()).thenReturn(true, false);
+        when(refreshTokenRepository.deleteExpired(FIXED_DATE_TIME, 2)).thenReturn(2);
+
+        // Act
+        long deleted = refreshTokenPurgeService.purgeExpired();
+
+        // Assert
+        assertThat(deleted).isEqualTo(2);
+        verify(refreshTokenRepository, times(1)).deleteExpired(FIXED_DATE_TIME, 2);
+    }
+
+    @Test
+    @DisplayName("コンストラクタはバッチサイズが0以下の場合IllegalArgumentExceptionをスローする")
+    void constructor_WhenBatchSizeNotPositive_Throws() {
+        assertThatThrownBy(() -> newService(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("batchSize must be positive, but was: 0");
+    }
+}
@@ -0,0 +1,272 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.application.dto.DeleteAllJobStatus;
+import com.yusay.user.api.domain.exception.DeleteAllJobNotFoundException;
+import com.yusay.user.api.domain.exception.DeleteAllNotAllowedException;
+import com.yusay.user.api.domain.repository.UserDeleteChunkResult;
+import com.yusay.user.api.domain.repository.UserRepository;
+import com.yusay.user.api.domain.service.UserDomainService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDeleteAllJobServiceTest {
+
+    private static final LocalDateTime FIXED_DATE_TIME = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    private static UserDeleteAllJobService newService(
+            UserRepository userRepository, UserDomainService userDomainService,
+            TaskExecutor taskExecutor, String activeProfile, int maxAllowedDeletions, int chunkSize) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new UserDeleteAllJobService(userRepository, userDomainService, transactionTemplate,
+                taskExecutor, activeProfile, maxAllowedDeletions, chunkSize);
+    }
+
+    private static UserDeleteAllJobService newService(
+            UserRepository userRepository, UserDomainService userDomainService, String activeProfile) {
+        return newService(userRepository, userDomainService, new SyncTaskExecutor(), activeProfile, 1000, 2);
+    }
+
+    @Test
+    @DisplayName("start()は開発環境で全ユーザーをID範囲のチャンクごとに削除する")
+    void start_DeletesAllUsersInChunks_InDevelopmentEnvironment() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserDeleteAllJobService service = newService(userRepository, userDomainService, "dev");
+        
+        when(userRepository.count()).thenReturn(5L);
+        when(userDomainService.getCurrentTime()).thenReturn(FIXED_DATE_TIME);
+        when(userRepository.deleteChunk(isNull(), eq(2)))
+                .thenReturn(new UserDeleteChunkResult(2, "id2"), new UserDeleteChunkResult(0, null));
+        when(userRepository.deleteChunk(eq("id2"), eq(2))).thenReturn(new UserDeleteChunkResult(2, "id4"));
+        when(userRepository.deleteChunk(eq("id4"), eq(2))).thenReturn(new UserDeleteChunkResult(1, "id5"));
+        when(userRepository.deleteChunk(eq("id5"), eq(2))).thenReturn(new UserDeleteChunkResult(0, null));
+
+        // Act
+        DeleteAllJobStatus result = service.start();
+
+        // Assert
+        assertThat(result.state()).isEqualTo(DeleteAllJobStatus.State.COMPLETED);
+        assertThat(result.targetCount()).isEqualTo(5);
+        assertThat(result.deletedCount()).isEqualTo(5);
+        assertThat(result.environment()).isEqualTo("dev");
+        assertThat(result.startedAt()).isEqualTo(FIXED_DATE_TIME);
+        assertThat(result.finishedAt()).isEqualTo(FIXED_DATE_TIME);
+        verify(userDomainService).validateDeleteAll(5L, 1000);
+        verify(userRepository, never()).deleteAll();
+        assertThat(service.getStatus(result.jobId())).isEqualTo(result);
+    }
+
+    @Test
+    @DisplayName("start()は並行した削除でチャンクの削除件数が上限に満たなくても、残りのユーザーを削除してから完了する")
+    void start_ContinuesUntilNothingLeft_WhenChunkIsShortenedByConcurrentDeletes() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserDeleteAllJobService service = newService(userRepository, userDomainService, "dev");
+        
+        when(userRepository.count()).thenReturn(6L);
+        when(userDomainService.getCurrentTime()).thenReturn(FIXED_DATE_TIME);
+        // id3は並行して削除されたため、2件目のチャンクは1件のみ削除される。
+        // id0はカーソルより前に追加され、先頭から確認し直した際に削除される
+        when(userRepository.deleteChunk(isNull(), eq(2)))
+                .thenReturn(new UserDeleteChunkResult(2, "id2"), new UserDeleteChunkResult(1, "id0"),
+                        new UserDeleteChunkResult(0, null));
+        when(userRepository.deleteChunk(eq("id2"), eq(2))).thenReturn(new UserDeleteChunkResult(1, "id4"));
+        when(userRepository.deleteChunk(eq("id4"), eq(2))).thenReturn(new UserDeleteChunkResult(1, "id5"));
+        when(userRepository.deleteChunk(eq("id5"), eq(2))).thenReturn(new UserDeleteChunkResult(0, null));
+        when(userRepository.deleteChunk(eq("id0"), eq(2))).thenReturn(new UserDeleteChunkResult(0, null));
+
+        // Act
+        DeleteAllJobStatus result = service.start();
+
+        // Assert
+        assertThat(result.state()).isEqualTo(DeleteAllJobStatus.State.COMPLETED);
+        assertThat(result.deletedCount()).isEqualTo(5);
+        verify(userRepository).deleteChunk(eq("id4"), eq(2));
+        verify(userRepository).deleteChunk(eq("id0"), eq(2));
+    }
+
+    @Test
+    @DisplayName("start()はユーザーが存在しない場合に0件削除で完了する")
+    void start_CompletesWithZero_WhenNoUsersExist() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserDeleteAllJobService service = newService(userRepository, userDomainService, "test");
+        
+        when(userRepository.count()).thenReturn(0L);
+        when(userRepository.deleteChunk(isNull(), anyInt())).thenReturn(new UserDeleteChunkResult(0, null));
+
+        // Act
+        DeleteAllJobStatus result = service.start();
+
+        // Assert
+        assertThat(result.state()).isEqualTo(DeleteAllJobStatus.State.COMPLETED);
+        assertThat(result.deletedCount()).isEqualTo(0);
+        assertThat(result.environment()).isEqualTo("test");
+    }
+
+    @Test
+    @DisplayName("start()は本番環境では例外をスローする")
+    void start_ThrowsException_InProductionEnvironment() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserDeleteAllJobService service = newService(userRepository, userDomainService, "prod");
+
+        // Act & Assert
+        assertThatThrownBy(service::start)
+                .isInstanceOf(DeleteAllNotAllowedException.class)
+                .hasMessageContaining("本番環境では全件削除を実行できません");
+        
+        verify(userRepository, never()).deleteChunk(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("start()は複数プロファイルが設定されている場合でも本番環境を正しく検出する")
+    void start_ThrowsException_WithMultipleProfiles() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserDeleteAllJobService service = newService(userRepository, userDomainService, "dev,prod,debug");
+
+        // Act & Assert
+        assertThatThrownBy(service::start)
+                .isInstanceOf(DeleteAllNotAllowedException.class)
+                .hasMessageContaining("本番環境では全件削除を実行できません");
+        
+        verify(userRepository, never()).deleteChunk(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("start()は'production'プロファイルでも例外をスローする")
+    void start_ThrowsException_WithProductionProfile() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserDeleteAllJobService service = newService(userRepository, userDomainService, "production");
+
+        // Act & Assert
+        assertThatThrownBy(service::start)
+                .isInstanceOf(DeleteAllNotAllowedException.class)
+                .hasMessageContaining("本番環境では全件削除を実行できません");
+        
+        verify(userRepository, never()).deleteChunk(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("start()は削除件数が上限を超える場合に例外をスローし、件数の取得に全件読み込みを行わない")
+    void start_ThrowsException_WhenDeletionLimitExceeded() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserDeleteAllJobService service = newService(userRepository, userDomainService, "dev");
+        
+        when(userRepository.count()).thenReturn(1001L);
+        doThrow(new DeleteAllNotAllowedException("削除対象ユーザー数が上限を超えています"))
+            .when(userDomainService).validateDeleteAll(anyLong(), anyInt());
+
+        // Act & Assert
+        assertThatThrownBy(service::start)
+                .isInstanceOf(DeleteAllNotAllowedException.class)
+                .hasMessageContaining("削除対象ユーザー数が上限を超えています");
+        
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).deleteChunk(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("start()は開始後にユーザーが追加されても上限を超えて削除せず、ジョブを失敗とする（競合状態の検出）")
+    void start_StopsAtLimit_WhenUsersAddedConcurrently() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserDeleteAllJobService service = newService(
+                userRepository, userDomainService, new SyncTaskExecutor(), "dev", 3, 2);
+        
+        // 事前検証では上限以下、削除中に追加されたユーザーが残る
+        when(userRepository.count()).thenReturn(3L, 2L);
+        when(userRepository.deleteChunk(isNull(), eq(2))).thenReturn(new UserDeleteChunkResult(2, "id2"));
+        when(userRepository.deleteChunk(eq("id2"), eq(1))).thenReturn(new UserDeleteChunkResult(1, "id3"));
+
+        // Act
+        DeleteAllJobStatus result = service.start();
+
+        // Assert
+        assertThat(result.state()).isEqualTo(DeleteAllJobStatus.State.FAILED);
+        assertThat(result.deletedCount()).isEqualTo(3);
+        verify(userRepository, never()).deleteChunk(eq("id3"), anyInt());
+    }
+
+    @Test
+    @DisplayName("start()は実行中のジョブがある場合、新たなジョブを開始せず実行中のジョブを返す")
+    void start_ReturnsRunningJob_WhenJobAlreadyRunning() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        // タスクを実行しないエグゼキューターでジョブを実行中のままにする
+        UserDeleteAllJobService service = newService(
+                userRepository, userDomainService, task -> { }, "dev", 1000, 2);
+        when(userRepository.count()).thenReturn(10L);
+
+        // Act
+        DeleteAllJobStatus first = service.start();
+        DeleteAllJobStatus second = service.start();
+
+        // Assert
+        assertThat(first.state()).isEqualTo(DeleteAllJobStatus.State.RUNNING);
+        assertThat(second.jobId()).isEqualTo(first.jobId());
+        verify(userRepository).count();
+    }
+
+    @Test
+    @DisplayName("getStatus()はジョブが存在しない場合にDeleteAllJobNotFoundExceptionをスローする")
+    void getStatus_ThrowsException_WhenJobNotFound() {
+        // Arrange
+        UserDeleteAllJobService service = newService(
+                mock(UserRepository.class), mock(UserDomainService.class), "dev");
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.getStatus("unknown-job"))
+                .isInstanceOf(DeleteAllJobNotFoundException.class)
+                .hasMessage("Delete all job not found: unknown-job");
+    }
+
+    @Test
+    @DisplayName("UserDeleteAllJobService()はmaxAllowedDeletionsが0以下の場合に例外をスローする")
+    void constructor_ThrowsException_WhenMaxAllowedDeletionsIsZeroOrNegative() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+
+        // Act & Assert - 0の場合
+        assertThatThrownBy(() -> newService(userRepository, userDomainService, new SyncTaskExecutor(), "dev", 0, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxAllowedDeletions must be positive");
+
+        // Act & Assert - 負の数の場合
+        assertThatThrownBy(() -> newService(userRepository, userDomainService, new SyncTaskExecutor(), "dev", -1, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxAllowedDeletions must be positive");
+    }
+}
@@ -0,0 +1,113 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.domain.exception.DumpNotFoundException;
+import com.yusay.user.api.domain.exception.InvalidDumpRequestException;
+import com.yusay.user.api.domain.repository.UserDumpFormat;
+import com.yusay.user.api.domain.repository.UserDumpRepository;
+import com.yusay.user.api.domain.service.UserDomainService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class UserDumpServiceTest {
+
+    @TempDir
+    private Path dumpDirectory;
+
+    private UserDumpService newService(UserDumpRepository repository) {
+        return new UserDumpService(repository, mock(UserDomainService.class),
+                mock(PlatformTransactionManager.class), dumpDirectory.toString(), 4, false, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("dumpToFile()は並列数が上限を超える場合、InvalidDumpRequestExceptionをスローする")
+    void dumpToFile_ThrowsException_WhenParallelismExceedsMax() {
+        // Arrange
+        UserDumpRepository repository = mock(UserDumpRepository.class);
+        UserDumpService service = newService(repository);
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.dumpToFile(UserDumpFormat.CSV, 5))
+                .isInstanceOf(InvalidDumpRequestException.class);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("dumpToFile()はバイナリ形式で並列出力を指定した場合、InvalidDumpRequestExceptionをスローする")
+    void dumpToFile_ThrowsException_WhenBinaryInParallel() {
+        // Arrange
+        UserDumpRepository repository = mock(UserDumpRepository.class);
+        UserDumpService service = newService(repository);
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.dumpToFile(UserDumpFormat.BINARY, 2))
+                .isInstanceOf(InvalidDumpRequestException.class)
+                .hasMessageContaining("CSV");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("resolveDumpFile()は生成形式以外のファイル名を拒否する")
+    void resolveDumpFile_RejectsUnexpectedFileName() throws Exception {
+        // Arrange
+        UserDumpService service = newService(mock(UserDumpRepository.class));
+        Files.writeString(dumpDirectory.resolve("users-20240101000000-0123abcd.csv"), "id\n");
+
+        // Act & Assert
+        assertThat(service.resolveDumpFile("users-20240101000000-0123abcd.csv"))
+                .isEqualTo(dumpDirectory.resolve("users-20240101000000-0123abcd.csv"));
+        assertThatThrownBy(() -> service.resolveDumpFile("../etc/passwd"))
+                .isInstanceOf(DumpNotFoundException.class);
+        assertThatThrownBy(() -> service.resolveDumpFile("users-20240101000000-ffffffff.csv"))
+                .isInstanceOf(DumpNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("purgeExpiredDumps()は保持期間を過ぎたダンプファイルのみを削除する")
+    void purgeExpiredDumps_DeletesOnlyExpiredDumpFiles() throws Exception {
+        // Arrange
+        UserDumpService service = newService(mock(UserDumpRepository.class));
+        FileTime expired = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+        Path expiredCsv = Files.writeString(dumpDirectory.resolve("users-20240101000000-0123abcd.csv"), "id\n");
+        Path expiredBinary = Files.writeString(dumpDirectory.resolve("users-20240101000000-89abcdef.bin"), "");
+        Path recent = Files.writeString(dumpDirectory.resolve("users-20240101010000-0123abcd.csv"), "id\n");
+        Path unrelated = Files.writeString(dumpDirectory.resolve("notes.txt"), "keep");
+        Files.setLastModifiedTime(expiredCsv, expired);
+        Files.setLastModifiedTime(expiredBinary, expired);
+        Files.setLastModifiedTime(unrelated, expired);
+
+        // Act
+        int deleted = service.purgeExpiredDumps();
+
+        // Assert
+        assertThat(deleted).isEqualTo(2);
+        assertThat(expiredCsv).doesNotExist();
+        assertThat(expiredBinary).doesNotExist();
+        assertThat(recent).exists();
+        assertThat(unrelated).exists();
+    }
+
+    @Test
+    @DisplayName("purgeExpiredDumps()はダンプディレクトリが存在しない場合、何も削除しない")
+    void purgeExpiredDumps_ReturnsZero_WhenDirectoryMissing() {
+        // Arrange
+        UserDumpService service = new UserDumpService(mock(UserDumpRepository.class), mock(UserDomainService.class),
+                mock(PlatformTransactionManager.class), dumpDirectory.resolve("missing").toString(), 4, false,
+                Duration.ofHours(1));
+
+        // Act & Assert
+        assertThat(service.purgeExpiredDumps()).isZero();
+    }
+}
@@ -0,0 +1,233 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.application.dto.UserImportFormat;
+import com.yusay.user.api.application.dto.UserImportResult;
+import com.yusay.user.api.domain.repository.UserImportChunkResult;
+import com.yusay.user.api.domain.repository.UserImportRepository;
+import com.yusay.user.api.domain.service.UserDomainService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTest {
+
+    private static final LocalDateTime FIXED_DATE_TIME = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    /**
+     * 渡されたチャンクを記録し、全行を登録したものとして結果を返すリポジトリ
+     */
+    private static final class RecordingImportRepository implements UserImportRepository {
+        private final List<String> chunks = new CopyOnWriteArrayList<>();
+
+        @Override
+        public UserImportChunkResult importCsv(Reader csvRows, LocalDateTime importedAt) {
+            StringWriter chunk = new StringWriter();
+            try {
+                csvRows.transferTo(chunk);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunks.add(chunk.toString());
+            long rows = chunk.toString().lines().count();
+            return new UserImportChunkResult(rows, rows, rows);
+        }
+    }
+
+    private static UserImportService newService(UserImportRepository repository, int chunkSize) {
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        when(userDomainService.getCurrentTime()).thenReturn(FIXED_DATE_TIME);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new UserImportService(repository, userDomainService, transactionTemplate,
+                JsonMapper.builder().build(), chunkSize, 2);
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("importUsers()はCSVのヘッダー行を除いてチャンクサイズごとに分割して取り込む")
+    void importUsers_SplitsCsvIntoChunks() throws IOException {
+        // Arrange
+        RecordingImportRepository repository = new RecordingImportRepository();
+        UserImportService service = newService(repository, 2);
+        String csv = """
+                username,email,password_hash
+                user1,user1@example.com,hash1
+                user2,user2@example.com,hash2
+
+                user3,user3@example.com,hash3
+                """;
+
+        // Act
+        UserImportResult result = service.importUsers(input(csv), UserImportFormat.CSV);
+
+        // Assert
+        assertThat(result.totalRows()).isEqualTo(3);
+        assertThat(result.insertedCount()).isEqualTo(3);
+        assertThat(repository.chunks).hasSize(2);
+        assertThat(String.join("", repository.chunks))
+                .doesNotContain("username,email,password_hash")
+                .contains("user1,user1@example.com,hash1\n", "user3,user3@example.com,hash3\n");
+    }
+
+    @Test
+    @DisplayName("importUsers()はNDJSONをCSVへ変換し、不正な行は不正件数として数える")
+    void importUsers_ConvertsNdjsonToCsv() throws IOException {
+        // Arrange
+        RecordingImportRepository repository = new RecordingImportRepository();
+        UserImportService service = newService(repository, 100);
+        String ndjson = """
+                {"username": "user1", "email": "user1@example.com", "passwordHash": "hash,\\"1\\""}
+                not-json
+                {"username": "user2", "email": "user2@example.com"}
+                """;
+
+        // Act
+        UserImportResult result = service.importUsers(input(ndjson), UserImportFormat.NDJSON);
+
+        // Assert
+        assertThat(result.totalRows()).isEqualTo(3);
+        assertThat(result.rejectedCount()).isEqualTo(1);
+        assertThat(repository.chunks).containsExactly(
+                "\"user1\",\"user1@example.com\",\"hash,\"\"1\"\"\"\n"
+                        + "\"user2\",\"user2@example.com\",\n");
+    }
+
+    @Test
+    @DisplayName("importUsers()は重複・不正・失敗したチャンクの件数を集計する")
+    void importUsers_AggregatesChunkResults() throws IOException {
+        // Arrange
+        UserImportRepository repository = mock(UserImportRepository.class);
+        when(repository.importCsv(any(), eq(FIXED_DATE_TIME)))
+                .thenReturn(new UserImportChunkResult(2, 2, 1))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        UserImportService service = newService(repository, 2);
+        String csv = """
+                username,email,password_hash
+                user1,user1@example.com,hash1
+                user2,user2@example.com,hash2
+                user3,user3@example.com,hash3
+                user4,user4@example.com,hash4
+                """;
+
+        // Act
+        UserImportResult result = service.importUsers(input(csv), UserImportFormat.CSV);
+
+        // Assert
+        assertThat(result.totalRows()).isEqualTo(4);
+        assertThat(result.insertedCount()).isEqualTo(1);
+        assertThat(result.duplicateCount()).isEqualTo(1);
+        assertThat(result.failedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("importUsers()は引用符内の改行をレコードの区切りとせず、レコードの境界でチャンクを分割する")
+    void importUsers_KeepsQuotedNewlinesInOneRecord() throws IOException {
+        // Arrange
+        RecordingImportRepository repository = new RecordingImportRepository();
+        UserImportService service = newService(repository, 1);
+        String csv = """
+                username,email,password_hash
+                user1,user1@example.com,"hash
+                with ""newline""
+
+                end"
+                user2,user2@example.com,hash2
+                """;
+
+        // Act
+        service.importUsers(input(csv), UserImportFormat.CSV);
+
+        // Assert: 複数行のフィールドは1つのチャンクに収まる
+        assertThat(repository.chunks).containsExactlyInAnyOrder(
+                "user1,user1@example.com,\"hash\nwith \"\"newline\"\"\n\nend\"\n",
+                "user2,user2@example.com,hash2\n");
+    }
+
+    @Test
+    @DisplayName("importUsers()は引用符が閉じないまま終わったレコードを不正件数として数える")
+    void importUsers_RejectsUnterminatedQuotedRecord() throws IOException {
+        // Arrange
+        RecordingImportRepository repository = new RecordingImportRepository();
+        UserImportService service = newService(repository, 100);
+        String csv = """
+                username,email,password_hash
+                user1,user1@example.com,hash1
+                user2,user2@example.com,"hash2
+                """;
+
+        // Act
+        UserImportResult result = service.importUsers(input(csv), UserImportFormat.CSV);
+
+        // Assert
+        assertThat(result.totalRows()).isEqualTo(2);
+        assertThat(result.rejectedCount()).isEqualTo(1);
+        assertThat(repository.chunks).containsExactly("user1,user1@example.com,hash1\n");
+    }
+
+    @Test
+    @DisplayName("importUsers()はチャンクの取り込みが完了するごとに途中までの集計を通知する")
+    void importUsers_PublishesProgressPerChunk() throws IOException {
+        // Arrange
+        RecordingImportRepository repository = new RecordingImportRepository();
+        UserImportService service = newService(repository, 1);
+        List<UserImportResult> progress = new CopyOnWriteArrayList<>();
+        String csv = """
+                username,email,password_hash
+                user1,user1@example.com,hash1
+                user2,user2@example.com,hash2
+                user3,user3@example.com,hash3
+                """;
+
+        // Act
+        UserImportResult result = service.importUsers(input(csv), UserImportFormat.CSV, progress::add);
+
+        // Assert: チャンクごとに通知され、集計は減少せず、最後の通知は最終結果と同じ件数となる
+        assertThat(progress).hasSize(3);
+        assertThat(progress).extracting(UserImportResult::insertedCount).isSorted();
+        assertThat(progress.getLast().insertedCount()).isEqualTo(result.insertedCount());
+        assertThat(progress.getLast().totalRows()).isEqualTo(result.totalRows());
+    }
+
+    @Test
+    @DisplayName("importUsers()は進捗の通知に失敗しても取り込みを継続する")
+    void importUsers_ContinuesWhenProgressListenerFails() throws IOException {
+        // Arrange
+        RecordingImportRepository repository = new RecordingImportRepository();
+        UserImportService service = newService(repository, 1);
+        String csv = """
+                username,email,password_hash
+                user1,user1@example.com,hash1
+                user2,user2@example.com,hash2
+                """;
+
+        // Act
+        UserImportResult result = service.importUsers(input(csv), UserImportFormat.CSV, progress -> {
+            throw new UncheckedIOException(new IOException("client disconnected"));
+        });
+
+        // Assert
+        assertThat(result.insertedCount()).isEqualTo(2);
+        assertThat(result.failedCount()).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserPasswordUpgradeServiceTest {
+
+    private static final LocalDateTime FIXED_DATE_TIME = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    private UserRepository userRepository;
+    private UserPasswordUpgradeService userPasswordUpgradeService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userPasswordUpgradeService = new UserPasswordUpgradeService(userRepository);
+    }
+
+    private static UserDetails userDetails(String passwordHash) {
+        return org.springframework.security.core.userdetails.User.withUsername("testuser")
+                .password(passwordHash)
+                .roles("USER")
+                .build();
+    }
+
+    @Test
+    @DisplayName("updatePassword()は保存済みのハッシュを再ハッシュ化した値に置き換える")
+    void updatePassword_ReplacesStoredHash() {
+        // Arrange
+        User user = new User("user-1", "testuser", "test@example.com", "$2a$10$old", true, true, true, true,
+                FIXED_DATE_TIME, FIXED_DATE_TIME, 0L);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.updatePasswordHash("user-1", "$2a$10$old", "{bcrypt}$2a$12$new")).thenReturn(true);
+
+        // Act
+        UserDetails result = userPasswordUpgradeService.updatePassword(userDetails("$2a$10$old"), "{bcrypt}$2a$12$new");
+
+        // Assert
+        assertThat(result.getPassword()).isEqualTo("{bcrypt}$2a$12$new");
+        assertThat(result.getUsername()).isEqualTo("testuser");
+        assertThat(result.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("updatePassword()は認証中にパスワードが変更されていた場合、元のユーザーを返す")
+    void updatePassword_WhenHashChanged_ReturnsOriginalUser() {
+        // Arrange
+        User user = new User("user-1", "testuser", "test@example.com", "$2a$10$changed", true, true, true, true,
+                FIXED_DATE_TIME, FIXED_DATE_TIME, 1L);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.updatePasswordHash("user-1", "$2a$10$old", "{bcrypt}$2a$12$new")).thenReturn(false);
+        UserDetails original = userDetails("$2a$10$old");
+
+        // Act
+        UserDetails result = userPasswordUpgradeService.updatePassword(original, "{bcrypt}$2a$12$new");
+
+        // Assert
+        assertThat(result).isSameAs(original);
+    }
+
+    @Test
+    @DisplayName("updatePassword()はユーザーが削除されていた場合、元のユーザーを返す")
+    void updatePassword_WhenUserDeleted_ReturnsOriginalUser() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+        UserDetails original = userDetails("$2a$10$old");
+
+        // Act
+        UserDetails result = userPasswordUpgradeService.updatePassword(original, "{bcrypt}$2a$12$new");
+
+        // Assert
+        assertThat(result).isSameAs(original);
+    }
+}
@@ -0,0 +1,69 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.repository.UserAuthorities;
+import com.yusay.user.api.domain.repository.UserAuthorityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserPrincipalServiceTest {
+
+    private static final LocalDateTime FIXED_DATE_TIME = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    private UserAuthorityRepository userAuthorityRepository;
+    private UserPrincipalService userPrincipalService;
+
+    @BeforeEach
+    void setUp() {
+        userAuthorityRepository = mock(UserAuthorityRepository.class);
+        userPrincipalService = new UserPrincipalService(userAuthorityRepository);
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername()はアカウントの状態とロール・権限を持つプリンシパルを返す")
+    void loadUserByUsername_BuildsPrincipal() {
+        // Arrange
+        User user = new User("user-1", "testuser", "test@example.com", "$2a$10$hash", true, true, false, true,
+                FIXED_DATE_TIME, FIXED_DATE_TIME, 0L);
+        when(userAuthorityRepository.findByUsername("testuser")).thenReturn(Optional.of(
+                new UserAuthorities(user, Set.of("ROLE_ADMIN", "AUDITOR"), Set.of("USER_READ"))));
+
+        // Act
+        UserDetails result = userPrincipalService.loadUserByUsername("testuser");
+
+        // Assert
+        assertThat(result.getUsername()).isEqualTo("testuser");
+        assertThat(result.getPassword()).isEqualTo("$2a$10$hash");
+        assertThat(result.isEnabled()).isTrue();
+        assertThat(result.isAccountNonExpired()).isTrue();
+        assertThat(result.isAccountNonLocked()).isFalse();
+        assertThat(result.isCredentialsNonExpired()).isTrue();
+        assertThat(result.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_AUDITOR", "USER_READ");
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername()はユーザーが存在しない場合UsernameNotFoundExceptionをスローする")
+    void loadUserByUsername_WhenUserDoesNotExist_Throws() {
+        // Arrange
+        when(userAuthorityRepository.findByUsername("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userPrincipalService.loadUserByUsername("missing"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.yusay.user.api.application.service;
+
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.exception.RoleNotFoundException;
+import com.yusay.user.api.domain.exception.UserNotFoundException;
+import com.yusay.user.api.domain.repository.UserAuthorityRepository;
+import com.yusay.user.api.domain.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserRoleServiceTest {
+
+    private static final LocalDateTime FIXED_DATE_TIME = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    private UserRepository userRepository;
+    private UserAuthorityRepository userAuthorityRepository;
+    private UserRoleService userRoleService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userAuthorityRepository = mock(UserAuthorityRepository.class);
+        userRoleService = new UserRoleService(userRepository, userAuthorityRepository);
+    }
+
+    private void givenUserExists() {
+        when(userRepository.findById("0190a5e2-7c3d-7000-8000-000000000001")).thenReturn(Optional.of(new User(
+                "0190a5e2-7c3d-7000-8000-000000000001", "testuser", "test@example.com", "$2a$10$hash", true, true, true, true,
+                FIXED_DATE_TIME, FIXED_DATE_TIME, 0L)));
+    }
+
+    @Test
+    @DisplayName("assignRole()は割り当て済みのロールの場合も例外をスローしない")
+    void assignRole_WhenAlreadyAssigned_DoesNothing() {
+        // Arrange
+        givenUserExists();
+        when(userAuthorityRepository.assignRole("0190a5e2-7c3d-7000-8000-000000000001", "ROLE_ADMIN")).thenReturn(false);
+        when(userAuthorityRepository.existsRole("ROLE_ADMIN")).thenReturn(true);
+
+        // Act & Assert
+        assertThatCode(() -> userRoleService.assignRole("0190a5e2-7c3d-7000-8000-000000000001", "ROLE_ADMIN")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("assignRole()はロールが存在しない場合RoleNotFoundExceptionをスローする")
+    void assignRole_WhenRoleDoesNotExist_Throws() {
+        // Arrange
+        givenUserExists();
+        when(userAuthorityRepository.assignRole("0190a5e2-7c3d-7000-8000-000000000001", "ROLE_MISSING")).thenReturn(false);
+        when(userAuthorityRepository.existsRole("ROLE_MISSING")).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userRoleService.assignRole("0190a5e2-7c3d-7000-8000-000000000001", "ROLE_MISSING"))
+                .isInstanceOf(RoleNotFoundException.class)
+                .hasMessage("Role not found: ROLE_MISSING");
+    }
+
+    @Test
+    @DisplayName("revokeRole()はユーザーが存在しない場合UserNotFoundExceptionをスローし、割り当てを変更しない")
+    void revokeRole_WhenUserDoesNotExist_Throws() {
+        // Arrange
+        when(userRepository.findById("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userRoleService.revokeRole("missing", "ROLE_ADMIN"))
+                .isInstanceOf(UserNotFoundException.class);
+        verify(userAuthorityRepository, never()).revokeRole(anyString(), anyString());
+    }
+}
@@ -1,47 +1,57 @@
 package com.yusay.user.api.application.service;
 
-import com.yusay.user.api.application.dto.DeleteAllResult;
+import com.yusay.user.api.application.dto.BatchCreateItemResult;
+import com.yusay.user.api.application.dto.UserPage;
+import com.yusay.user.api.application.dto.UserRegistration;
 import com.yusay.user.api.domain.entity.User;
-import com.yusay.user.api.domain.exception.DeleteAllNotAllowedException;
+import com.yusay.user.api.domain.exception.ConcurrentUserUpdateException;
 import com.yusay.user.api.domain.exception.DuplicateUserException;
+import com.yusay.user.api.domain.exception.InvalidPageRequestException;
 import com.yusay.user.api.domain.exception.UserNotFoundException;
+import com.yusay.user.api.domain.exception.UserVersionMismatchException;
+import com.yusay.user.api.domain.repository.UserCursor;
+import com.yusay.user.api.domain.repository.UserPatch;
 import com.yusay.user.api.domain.repository.UserRepository;
+import com.yusay.user.api.domain.repository.UserVersion;
 import com.yusay.user.api.domain.service.UserDomainService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class UserServiceTest {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Test
     @DisplayName("create()は新規ユーザーを作成して返す")
     void create_CreatesAndReturnsNewUser_WhenNoConflicts() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "dev", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
         String username = "newuser";
         String email = "newuser@example.com";
@@ -74,11 +84,9 @@ class UserServiceTest {
                 fixedDateTime
         );
         
-        when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
-        when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
         when(userDomainService.createUser(null, username, email, passwordHash, true, true, true, true))
                 .thenReturn(domainServiceUser);
-        when(userRepository.save(domainServiceUser)).thenReturn(savedUser);
+        when(userRepository.insert(domainServiceUser)).thenReturn(savedUser);
 
         // Act
         User result = userService.create(username, email, passwordHash);
@@ -89,10 +97,10 @@ class UserServiceTest {
         assertThat(result.username()).isEqualTo(username);
         assertThat(result.email()).isEqualTo(email);
         
-        verify(userRepository).findByEmail(email);
-        verify(userRepository).findByUsername(username);
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findByUsername(anyString());
         verify(userDomainService).createUser(null, username, email, passwordHash, true, true, true, true);
-        verify(userRepository).save(domainServiceUser);
+        verify(userRepository).insert(domainServiceUser);
     }
 
     @Test
@@ -101,18 +109,18 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
         String username = "newuser";
         String email = "existing@example.com";
         String passwordHash = "hashedPassword";
         LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
         
-        User existingUser = new User(
-                "existing-id",
-                "existinguser",
+        User newUser = new User(
+                null,
+                username,
                 email,
-                "existingPasswordHash",
+                passwordHash,
                 true,
                 true,
                 true,
@@ -121,17 +129,21 @@ class UserServiceTest {
                 fixedDateTime
         );
         
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(existingUser));
+        when(userDomainService.createUser(null, username, email, passwordHash, true, true, true, true))
+                .thenReturn(newUser);
+        // リポジトリがUNIQUE制約違反を重複例外に変換する
+        when(userRepository.insert(newUser)).thenThrow(new DuplicateUserException("メールアドレス"));
 
         // Act & Assert
         assertThatThrownBy(() -> userService.create(username, email, passwordHash))
                 .isInstanceOf(DuplicateUserException.class)
-                .hasMessage("ユーザーが既に存在します");
+                .hasMessage("ユーザーが既に存在します")
+                .extracting("fieldName").isEqualTo("メールアドレス");
         
-        verify(userRepository).findByEmail(email);
+        // 事前の重複チェッククエリは発行しない
+        verify(userRepository, never()).findByEmail(anyString());
         verify(userRepository, never()).findByUsername(anyString());
-        verify(userDomainService, never()).createUser(any(), any(), any(), any(), any(), any(), any(), any());
-        verify(userRepository, never()).save(any());
+        verify(userRepository).insert(newUser);
     }
 
     @Test
@@ -140,18 +152,18 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
         String username = "existinguser";
         String email = "newuser@example.com";
         String passwordHash = "hashedPassword";
         LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
         
-        User existingUser = new User(
-                "existing-id",
+        User newUser = new User(
+                null,
                 username,
-                "existing@example.com",
-                "existingPasswordHash",
+                email,
+                passwordHash,
                 true,
                 true,
                 true,
@@ -160,27 +172,30 @@ class UserServiceTest {
                 fixedDateTime
         );
         
-        when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(existingUser));
+        when(userDomainService.createUser(null, username, email, passwordHash, true, true, true, true))
+                .thenReturn(newUser);
+        // リポジトリがUNIQUE制約違反を重複例外に変換する
+        when(userRepository.insert(newUser)).thenThrow(new DuplicateUserException("ユーザー名"));
 
         // Act & Assert
         assertThatThrownBy(() -> userService.create(username, email, passwordHash))
                 .isInstanceOf(DuplicateUserException.class)
-                .hasMessage("ユーザーが既に存在します");
+                .hasMessage("ユーザーが既に存在します")
+                .extracting("fieldName").isEqualTo("ユーザー名");
         
-        verify(userRepository).findByEmail(email);
-        verify(userRepository).findByUsername(username);
-        verify(userDomainService, never()).createUser(any(), any(), any(), any(), any(), any(), any(), any());
-        verify(userRepository, never()).save(any());
+        // 事前の重複チェッククエリは発行しない
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository).insert(newUser);
     }
 
     @Test
-    @DisplayName("create()はDB制約違反時に競合状態を適切に処理する")
-    void create_HandlesRaceCondition_WhenDataIntegrityViolationOccurs() {
+    @DisplayName("create()は重複以外のDB制約違反をそのまま再スローする")
+    void create_RethrowsDataIntegrityViolation_WhenNotDuplicate() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
         String username = "newuser";
         String email = "newuser@example.com";
@@ -200,37 +215,59 @@ class UserServiceTest {
                 fixedDateTime
         );
         
-        User existingUser = new User(
-                "existing-id",
-                username,
-                email,
-                "existingPasswordHash",
-                true,
-                true,
-                true,
-                true,
-                fixedDateTime,
-                fixedDateTime
-        );
-        
-        // 最初のチェックでは重複が見つからない
-        when(userRepository.findByEmail(email))
-                .thenReturn(Optional.empty())
-                .thenReturn(Optional.of(existingUser));
-        when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
         when(userDomainService.createUser(null, username, email, passwordHash, true, true, true, true))
                 .thenReturn(newUser);
-        
-        // saveで制約違反が発生（競合状態）
-        when(userRepository.save(newUser))
-                .thenThrow(new DataIntegrityViolationException("UNIQUE constraint violation"));
+        when(userRepository.insert(newUser))
+                .thenThrow(new DataIntegrityViolationException("NOT NULL constraint violation"));
 
         // Act & Assert
         assertThatThrownBy(() -> userService.create(username, email, passwordHash))
-                .isInstanceOf(DuplicateUserException.class)
-                .hasMessage("ユーザーが既に存在します");
+                .isInstanceOf(DataIntegrityViolationException.class);
         
-        verify(userRepository).save(newUser);
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("createAll()は要素ごとに作成結果と重複フィールドを返す")
+    void createAll_ReturnsPerItemResults_WhenSomeItemsAreDuplicated() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        List<UserRegistration> registrations = List.of(
+                new UserRegistration("user1", "user1@example.com", "hash1"),
+                new UserRegistration("user2", "taken@example.com", "hash2"),
+                new UserRegistration("takenuser", "user3@example.com", "hash3")
+        );
+        List<User> newUsers = new ArrayList<>();
+        for (UserRegistration registration : registrations) {
+            User newUser = new User(null, registration.username(), registration.email(), registration.passwordHash(),
+                    true, true, true, true, fixedDateTime, fixedDateTime);
+            when(userDomainService.createUser(null, registration.username(), registration.email(),
+                    registration.passwordHash(), true, true, true, true)).thenReturn(newUser);
+            newUsers.add(newUser);
+        }
+        User createdUser = new User("0190a5e2-7c3d-7000-8000-000000000011", "user1", "user1@example.com", "hash1",
+                true, true, true, true, fixedDateTime, fixedDateTime);
+        when(userRepository.insertAll(newUsers))
+                .thenReturn(List.of(Optional.of(createdUser), Optional.empty(), Optional.empty()));
+        when(userRepository.findExistingEmails(List.of("taken@example.com", "user3@example.com")))
+                .thenReturn(Set.of("taken@example.com"));
+
+        // Act
+        List<BatchCreateItemResult> results = userService.createAll(registrations);
+
+        // Assert
+        assertThat(results).containsExactly(
+                new BatchCreateItemResult(0, createdUser, null),
+                new BatchCreateItemResult(1, null, "メールアドレス"),
+                new BatchCreateItemResult(2, null, "ユーザー名")
+        );
+        verify(userRepository).insertAll(newUsers);
+        verify(userRepository, never()).insert(any());
     }
 
     @Test
@@ -239,9 +276,9 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "test-user-id";
+        String userId = "0190a5e2-7c3d-7000-8000-000000000001";
         LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
         User expectedUser = new User(
                 userId,
@@ -271,30 +308,69 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "non-existent-id";
+        String userId = "0190a5e2-7c3d-7000-8000-00000000dead";
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> userService.lookup(userId))
                 .isInstanceOf(UserNotFoundException.class)
-                .hasMessage("User not found: " + userId);
+                .hasMessage("User not found: " + userId)
+                // 存在しないIDへの大量アクセスに備え、スタックトレースを取得しない
+                .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
         verify(userRepository).findById(userId);
     }
 
+    @Test
+    @DisplayName("lookupVersion()はユーザーのバージョンと更新日時を返す")
+    void lookupVersion_ReturnsVersion() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        
+        String userId = "0190a5e2-7c3d-7000-8000-000000000123";
+        UserVersion version = new UserVersion(3L, LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(version));
+
+        // Act
+        UserVersion actual = userService.lookupVersion(userId);
+
+        // Assert
+        assertThat(actual).isEqualTo(version);
+        verify(userRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("lookupVersion()はユーザーが見つからない場合にUserNotFoundExceptionをスローする")
+    void lookupVersion_ThrowsUserNotFoundException_WhenUserNotFound() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        
+        String userId = "0190a5e2-7c3d-7000-8000-00000000dead";
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.lookupVersion(userId))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasMessage("User not found: " + userId);
+    }
+
     @Test
     @DisplayName("list()は全ユーザーのリストを返す")
     void list_ReturnsAllUsers() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
         LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
         List<User> expectedUsers = List.of(
                 new User(
-                        "user-id-1",
+                        "0190a5e2-7c3d-7000-8000-000000000011",
                         "user1",
                         "user1@example.com",
                         "hashedPassword1",
@@ -306,7 +382,7 @@ class UserServiceTest {
                         fixedDateTime
                 ),
                 new User(
-                        "user-id-2",
+                        "0190a5e2-7c3d-7000-8000-000000000012",
                         "user2",
                         "user2@example.com",
                         "hashedPassword2",
@@ -329,13 +405,144 @@ class UserServiceTest {
         verify(userRepository).findAll();
     }
 
+    @Test
+    @DisplayName("listPage()は次ページが存在する場合にlimit件とカーソルを返す")
+    void listPage_ReturnsLimitedUsersAndNextCursor_WhenMoreUsersExist() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        User user1 = new User("0190a5e2-7c3d-7000-8000-000000000011", "user1", "user1@example.com", "hash1",
+                true, true, true, true, fixedDateTime, fixedDateTime);
+        User user2 = new User("0190a5e2-7c3d-7000-8000-000000000012", "user2", "user2@example.com", "hash2",
+                true, true, true, true, fixedDateTime, fixedDateTime);
+        User user3 = new User("0190a5e2-7c3d-7000-8000-000000000013", "user3", "user3@example.com", "hash3",
+                true, true, true, true, fixedDateTime, fixedDateTime);
+        when(userRepository.findPage(null, 3)).thenReturn(List.of(user1, user2, user3));
+        when(userRepository.findPage(new UserCursor(fixedDateTime, "0190a5e2-7c3d-7000-8000-000000000012"), 3)).thenReturn(List.of(user3));
+
+        // Act
+        UserPage firstPage = userService.listPage(null, 2);
+        UserPage secondPage = userService.listPage(firstPage.nextCursor(), 2);
+
+        // Assert
+        assertThat(firstPage.users()).containsExactly(user1, user2);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.users()).containsExactly(user3);
+        assertThat(secondPage.hasNext()).isFalse();
+        verify(userRepository).findPage(new UserCursor(fixedDateTime, "0190a5e2-7c3d-7000-8000-000000000012"), 3);
+    }
+
+    @Test
+    @DisplayName("listPage()は件数が省略された場合はデフォルト値、上限を超える場合は上限値で取得する")
+    void listPage_ResolvesPageSize_WhenLimitIsOmittedOrExceedsMax() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        when(userRepository.findPage(any(), anyInt())).thenReturn(List.of());
+
+        // Act
+        userService.listPage(null, null);
+        userService.listPage(null, MAX_PAGE_SIZE + 1);
+
+        // Assert
+        verify(userRepository).findPage(null, DEFAULT_PAGE_SIZE + 1);
+        verify(userRepository).findPage(null, MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    @DisplayName("UserServiceはデフォルトの件数が上限を超える設定の場合、IllegalArgumentExceptionをスローする")
+    void constructor_ThrowsException_WhenDefaultPageSizeExceedsMax() {
+        // Act & Assert
+        assertThatThrownBy(() -> new UserService(mock(UserRepository.class), mock(UserDomainService.class), 10, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("listPage()は不正なカーソルの場合にInvalidPageRequestExceptionをスローする")
+    void listPage_ThrowsInvalidPageRequestException_WhenCursorIsMalformed() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.listPage("not-a-cursor", 10))
+                .isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> userService.listPage(null, 0))
+                .isInstanceOf(InvalidPageRequestException.class);
+        verify(userRepository, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("listPage()はカーソルのIDがUUIDの形式でない場合に問い合わせずにInvalidPageRequestExceptionをスローする")
+    void listPage_ThrowsInvalidPageRequestException_WhenCursorIdIsMalformed() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        String forgedCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2024-01-01T00:00|not-a-uuid".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.listPage(forgedCursor, 10))
+                .isInstanceOf(InvalidPageRequestException.class);
+        verify(userRepository, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("IDがUUIDの形式でない場合は問い合わせずにUserNotFoundExceptionをスローする")
+    void lookupPatchAndDelete_ThrowUserNotFoundException_WhenIdIsMalformed() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        when(userDomainService.patchUser(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new UserPatch(null, "new@example.com", null, null, null, null, null, LocalDateTime.now()));
+
+        // Act & Assert
+        for (String id : List.of("zz", "0190a5e2-7c3d-7000-8000-00000000000g", "0190a5e27c3d70008000000000000001xxxx")) {
+            assertThatThrownBy(() -> userService.lookup(id)).isInstanceOf(UserNotFoundException.class);
+            assertThatThrownBy(() -> userService.lookupVersion(id)).isInstanceOf(UserNotFoundException.class);
+            assertThatThrownBy(() -> userService.patch(id, null, null, "new@example.com", null, null, null, null, null))
+                    .isInstanceOf(UserNotFoundException.class);
+            assertThatThrownBy(() -> userService.update(id, null, "new@example.com", null, null, null, null, null))
+                    .isInstanceOf(UserNotFoundException.class);
+            assertThatThrownBy(() -> userService.delete(id)).isInstanceOf(UserNotFoundException.class);
+        }
+        verify(userRepository, never()).findById(anyString());
+        verify(userRepository, never()).findVersionById(anyString());
+        verify(userRepository, never()).patch(anyString(), any(), any());
+        verify(userRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    @DisplayName("IDに大文字が含まれる場合は問い合わせずにUserNotFoundExceptionをスローする（別のキーでキャッシュしない）")
+    void lookup_ThrowsUserNotFoundException_WhenIdIsNotLowercase() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.lookup("0190A5E2-7C3D-7000-8000-000000000001"))
+                .isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userService.lookupVersion("0190a5e2-7c3d-7000-8000-00000000000A"))
+                .isInstanceOf(UserNotFoundException.class);
+        verify(userRepository, never()).findById(anyString());
+        verify(userRepository, never()).findVersionById(anyString());
+    }
+
     @Test
     @DisplayName("list()はユーザーが存在しない場合に空のリストを返す")
     void list_ReturnsEmptyList_WhenNoUsersExist() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
         when(userRepository.findAll()).thenReturn(List.of());
 
@@ -353,9 +560,9 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "test-user-id";
+        String userId = "0190a5e2-7c3d-7000-8000-000000000001";
         when(userRepository.deleteById(userId)).thenReturn(1);
 
         // Act
@@ -371,9 +578,9 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "non-existent-id";
+        String userId = "0190a5e2-7c3d-7000-8000-00000000dead";
         when(userRepository.deleteById(userId)).thenReturn(0);
 
         // Act & Assert
@@ -384,179 +591,257 @@ class UserServiceTest {
     }
 
     @Test
-    @DisplayName("deleteAll()は開発環境で全ユーザーを削除して結果を返す")
-    void deleteAll_DeletesAllUsers_AndReturnsResult_InDevelopmentEnvironment() {
+    @DisplayName("update()は取得後に対象ユーザーが削除された場合にUserNotFoundExceptionをスローする")
+    void update_ThrowsUserNotFoundException_WhenUserDeletedConcurrently() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        LocalDateTime expectedTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
-        UserService userService = new UserService(userRepository, userDomainService, "dev", 1000);
-        
-        List<User> users = List.of(
-            new User("id1", "user1", "user1@example.com", "hash1", true, true, true, true, 
-                LocalDateTime.now(), LocalDateTime.now()),
-            new User("id2", "user2", "user2@example.com", "hash2", true, true, true, true, 
-                LocalDateTime.now(), LocalDateTime.now())
-        );
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        when(userRepository.findAll()).thenReturn(users);
-        doNothing().when(userDomainService).validateDeleteAll(anyList(), anyInt());
-        when(userDomainService.getCurrentTime()).thenReturn(expectedTime);
-        when(userRepository.deleteAll()).thenReturn(2);
-
-        // Act
-        DeleteAllResult result = userService.deleteAll();
+        String userId = "0190a5e2-7c3d-7000-8000-000000000002";
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        User existingUser = new User(userId, "originaluser", "original@example.com", "originalHash",
+                true, true, true, true, fixedDateTime, fixedDateTime);
+        User updatedUser = new User(userId, "originaluser", "original@example.com", "originalHash",
+                false, true, true, true, fixedDateTime, fixedDateTime);
+        
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(userDomainService.updateUser(existingUser, null, null, null, false, null, null, null))
+                .thenReturn(updatedUser);
+        when(userRepository.update(updatedUser)).thenReturn(Optional.empty());
 
-        // Assert
-        assertThat(result.deletedCount()).isEqualTo(2);
-        assertThat(result.environment()).isEqualTo("dev");
-        assertThat(result.executedAt()).isEqualTo(expectedTime);
-        verify(userRepository).findAll();
-        verify(userDomainService).validateDeleteAll(eq(users), eq(1000));
-        verify(userDomainService).getCurrentTime();
-        verify(userRepository).deleteAll();
+        // Act & Assert
+        assertThatThrownBy(() -> userService.update(userId, null, null, null, false, null, null, null))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasMessage("User not found: " + userId);
+        verify(userRepository).update(updatedUser);
     }
 
     @Test
-    @DisplayName("deleteAll()はユーザーが存在しない場合に0件削除を返す")
-    void deleteAll_ReturnsZero_WhenNoUsersExist() {
+    @DisplayName("update()は指定したバージョンと現在のバージョンが異なる場合にUserVersionMismatchExceptionをスローし、更新しない")
+    void update_ThrowsUserVersionMismatchException_WhenExpectedVersionDiffers() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "test", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        when(userRepository.findAll()).thenReturn(List.of());
-        doNothing().when(userDomainService).validateDeleteAll(anyList(), anyInt());
-        when(userRepository.deleteAll()).thenReturn(0);
-
-        // Act
-        DeleteAllResult result = userService.deleteAll();
+        String userId = "0190a5e2-7c3d-7000-8000-000000000002";
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        User existingUser = new User(userId, "originaluser", "original@example.com", "originalHash",
+                true, true, true, true, fixedDateTime, fixedDateTime, 4L);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
 
-        // Assert
-        assertThat(result.deletedCount()).isEqualTo(0);
-        assertThat(result.environment()).isEqualTo("test");
-        verify(userRepository).deleteAll();
+        // Act & Assert
+        assertThatThrownBy(() -> userService.update(userId, 3L, null, null, null, false, null, null, null))
+                .isInstanceOf(UserVersionMismatchException.class);
+        verify(userDomainService, never()).updateUser(any(), any(), any(), any(), any(), any(), any(), any());
+        verify(userRepository, never()).update(any());
     }
 
     @Test
-    @DisplayName("deleteAll()は本番環境では例外をスローする")
-    void deleteAll_ThrowsException_InProductionEnvironment() {
+    @DisplayName("update()はバージョン指定時に取得後の更新で条件付き更新が失敗した場合、再試行せずにUserVersionMismatchExceptionをスローする")
+    void update_ThrowsUserVersionMismatchException_WhenConditionalUpdateFails() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "prod", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        
+        String userId = "0190a5e2-7c3d-7000-8000-000000000002";
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        User existingUser = new User(userId, "originaluser", "original@example.com", "originalHash",
+                true, true, true, true, fixedDateTime, fixedDateTime, 3L);
+        User updatedUser = new User(userId, "originaluser", "original@example.com", "originalHash",
+                false, true, true, true, fixedDateTime, fixedDateTime, 3L);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(userDomainService.updateUser(existingUser, null, null, null, false, null, null, null))
+                .thenReturn(updatedUser);
+        when(userRepository.update(updatedUser)).thenReturn(Optional.empty());
+        when(userRepository.findVersionById(userId))
+                .thenReturn(Optional.of(new UserVersion(4L, fixedDateTime)));
 
         // Act & Assert
-        assertThatThrownBy(() -> userService.deleteAll())
-                .isInstanceOf(DeleteAllNotAllowedException.class)
-                .hasMessageContaining("本番環境では全件削除を実行できません");
-        
-        verify(userRepository, never()).deleteAll();
+        assertThatThrownBy(() -> userService.update(userId, 3L, null, null, null, false, null, null, null))
+                .isInstanceOf(UserVersionMismatchException.class);
+        verify(userRepository, times(1)).update(any());
     }
 
     @Test
-    @DisplayName("deleteAll()は削除件数が上限を超える場合に例外をスローする")
-    void deleteAll_ThrowsException_WhenDeletionLimitExceeded() {
+    @DisplayName("update()はバージョン未指定時に他の更新と競合した場合、最新の状態を取得し直して再試行する")
+    void update_RetriesWithLatestUser_WhenConcurrentlyUpdated() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "dev", 1000);
-        
-        List<User> users = new ArrayList<>();
-        for (int i = 0; i < 100; i++) {
-            users.add(new User("id" + i, "user" + i, "user" + i + "@example.com", 
-                "hash", true, true, true, true, LocalDateTime.now(), LocalDateTime.now()));
-        }
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        when(userRepository.findAll()).thenReturn(users);
-        doThrow(new DeleteAllNotAllowedException("削除対象ユーザー数が上限を超えています"))
-            .when(userDomainService).validateDeleteAll(anyList(), anyInt());
+        String userId = "0190a5e2-7c3d-7000-8000-000000000002";
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        User staleUser = new User(userId, "originaluser", "original@example.com", "originalHash",
+                true, true, true, true, fixedDateTime, fixedDateTime, 3L);
+        User latestUser = new User(userId, "originaluser", "changed@example.com", "originalHash",
+                true, true, true, true, fixedDateTime, fixedDateTime, 4L);
+        User staleUpdate = new User(userId, "originaluser", "original@example.com", "originalHash",
+                false, true, true, true, fixedDateTime, fixedDateTime, 3L);
+        User latestUpdate = new User(userId, "originaluser", "changed@example.com", "originalHash",
+                false, true, true, true, fixedDateTime, fixedDateTime, 4L);
+        User savedUser = new User(userId, "originaluser", "changed@example.com", "originalHash",
+                false, true, true, true, fixedDateTime, fixedDateTime, 5L);
+        
+        when(userRepository.findById(userId))
+                .thenReturn(Optional.of(staleUser))
+                .thenReturn(Optional.of(latestUser));
+        when(userDomainService.updateUser(staleUser, null, null, null, false, null, null, null))
+                .thenReturn(staleUpdate);
+        when(userDomainService.updateUser(latestUser, null, null, null, false, null, null, null))
+                .thenReturn(latestUpdate);
+        when(userRepository.update(staleUpdate)).thenReturn(Optional.empty());
+        when(userRepository.update(latestUpdate)).thenReturn(Optional.of(savedUser));
+        when(userRepository.findVersionById(userId))
+                .thenReturn(Optional.of(new UserVersion(4L, fixedDateTime)));
 
-        // Act & Assert
-        assertThatThrownBy(() -> userService.deleteAll())
-                .isInstanceOf(DeleteAllNotAllowedException.class)
-                .hasMessageContaining("削除対象ユーザー数が上限を超えています");
-        
-        verify(userRepository, never()).deleteAll();
+        // Act
+        User result = userService.update(userId, null, null, null, false, null, null, null);
+
+        // Assert: 他の更新で変更されたメールアドレスが失われていないこと
+        assertThat(result).isEqualTo(savedUser);
+        verify(userRepository, times(2)).findById(userId);
     }
 
     @Test
-    @DisplayName("deleteAll()は削除後に削除件数が上限を超えた場合に例外をスローする（競合状態の検出）")
-    void deleteAll_ThrowsException_WhenPostDeletionCountExceedsLimit() {
+    @DisplayName("update()はバージョン未指定時に再試行しても競合が解消しない場合にConcurrentUserUpdateExceptionをスローする")
+    void update_ThrowsConcurrentUserUpdateException_WhenRetriesExhausted() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        int maxLimit = 100;
-        UserService userService = new UserService(userRepository, userDomainService, "dev", maxLimit);
-        
-        // 事前検証では上限以下のユーザーが存在
-        List<User> users = new ArrayList<>();
-        for (int i = 0; i < 50; i++) {
-            users.add(new User("id" + i, "user" + i, "user" + i + "@example.com", 
-                "hash", true, true, true, true, LocalDateTime.now(), LocalDateTime.now()));
-        }
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        when(userRepository.findAll()).thenReturn(users);
-        doNothing().when(userDomainService).validateDeleteAll(anyList(), anyInt());
-        // しかし実際には上限を超える数が削除された（競合状態）
-        when(userRepository.deleteAll()).thenReturn(150);
+        String userId = "0190a5e2-7c3d-7000-8000-000000000002";
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        User existingUser = new User(userId, "originaluser", "original@example.com", "originalHash",
+                true, true, true, true, fixedDateTime, fixedDateTime, 3L);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(userDomainService.updateUser(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(existingUser);
+        when(userRepository.update(any())).thenReturn(Optional.empty());
+        when(userRepository.findVersionById(userId))
+                .thenReturn(Optional.of(new UserVersion(4L, fixedDateTime)));
 
         // Act & Assert
-        assertThatThrownBy(() -> userService.deleteAll())
-                .isInstanceOf(DeleteAllNotAllowedException.class)
-                .hasMessageContaining("削除件数（150件）が上限（100件）を超えているため");
+        assertThatThrownBy(() -> userService.update(userId, null, null, null, false, null, null, null))
+                .isInstanceOf(ConcurrentUserUpdateException.class);
+        verify(userRepository, times(3)).update(any());
+    }
+
+    @Test
+    @DisplayName("patch()は指定されたフィールドのみの部分更新を行い、更新後のユーザーを返す")
+    void patch_ReturnsPatchedUser() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        verify(userRepository).deleteAll();
+        String userId = "0190a5e2-7c3d-7000-8000-000000000002";
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        UserPatch patch = new UserPatch(null, null, null, false, null, null, null, fixedDateTime);
+        User patchedUser = new User(userId, "testuser", "test@example.com", "hash",
+                false, true, true, true, fixedDateTime, fixedDateTime, 2L);
+        when(userDomainService.patchUser(null, null, null, false, null, null, null)).thenReturn(patch);
+        when(userRepository.patch(userId, 1L, patch)).thenReturn(Optional.of(patchedUser));
+
+        // Act
+        User result = userService.patch(userId, 1L, null, null, null, false, null, null, null);
+
+        // Assert: 事前の取得を行わずに1文で更新する
+        assertThat(result).isEqualTo(patchedUser);
+        verify(userRepository, never()).findById(anyString());
     }
 
     @Test
-    @DisplayName("deleteAll()は複数プロファイルが設定されている場合でも本番環境を正しく検出する")
-    void deleteAll_ThrowsException_WithMultipleProfiles() {
+    @DisplayName("patch()は値が変わらず書き込まれなかった場合、現在のユーザーを返す")
+    void patch_ReturnsCurrentUser_WhenNothingChanged() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "dev,prod,debug", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        
+        String userId = "0190a5e2-7c3d-7000-8000-000000000002";
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        UserPatch patch = new UserPatch(null, null, null, true, null, null, null, fixedDateTime);
+        User currentUser = new User(userId, "testuser", "test@example.com", "hash",
+                true, true, true, true, fixedDateTime, fixedDateTime, 1L);
+        when(userDomainService.patchUser(null, null, null, true, null, null, null)).thenReturn(patch);
+        when(userRepository.patch(userId, 1L, patch)).thenReturn(Optional.empty());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(currentUser));
 
-        // Act & Assert
-        assertThatThrownBy(() -> userService.deleteAll())
-                .isInstanceOf(DeleteAllNotAllowedException.class)
-                .hasMessageContaining("本番環境では全件削除を実行できません");
+        // Act
+        User result = userService.patch(userId, 1L, null, null, null, true, null, null, null);
+
+        // Assert
+        assertThat(result).isEqualTo(currentUser);
+    }
+
+    @Test
+    @DisplayName("patch()は変更するフィールドが無い場合、書き込みを行わずに現在のユーザーを返す")
+    void patch_DoesNotWrite_WhenPatchIsEmpty() {
+        // Arrange
+        UserRepository userRepository = mock(UserRepository.class);
+        UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        verify(userRepository, never()).deleteAll();
+        String userId = "0190a5e2-7c3d-7000-8000-000000000002";
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        User currentUser = new User(userId, "testuser", "test@example.com", "hash",
+                true, true, true, true, fixedDateTime, fixedDateTime, 1L);
+        when(userDomainService.patchUser(null, null, null, null, null, null, null))
+                .thenReturn(new UserPatch(null, null, null, null, null, null, null, fixedDateTime));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(currentUser));
+
+        // Act
+        User result = userService.patch(userId, null, null, null, null, null, null, null, null);
+
+        // Assert
+        assertThat(result).isEqualTo(currentUser);
+        verify(userRepository, never()).patch(anyString(), any(), any());
     }
 
     @Test
-    @DisplayName("deleteAll()は'production'プロファイルでも例外をスローする")
-    void deleteAll_ThrowsException_WithProductionProfile() {
+    @DisplayName("patch()は書き込まれず、現在のバージョンが指定したバージョンと異なる場合にUserVersionMismatchExceptionをスローする")
+    void patch_ThrowsUserVersionMismatchException_WhenVersionDiffers() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "production", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        
+        String userId = "0190a5e2-7c3d-7000-8000-000000000002";
+        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        UserPatch patch = new UserPatch(null, null, null, false, null, null, null, fixedDateTime);
+        User currentUser = new User(userId, "testuser", "test@example.com", "hash",
+                true, true, true, true, fixedDateTime, fixedDateTime, 2L);
+        when(userDomainService.patchUser(null, null, null, false, null, null, null)).thenReturn(patch);
+        when(userRepository.patch(userId, 1L, patch)).thenReturn(Optional.empty());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(currentUser));
 
         // Act & Assert
-        assertThatThrownBy(() -> userService.deleteAll())
-                .isInstanceOf(DeleteAllNotAllowedException.class)
-                .hasMessageContaining("本番環境では全件削除を実行できません");
-        
-        verify(userRepository, never()).deleteAll();
+        assertThatThrownBy(() -> userService.patch(userId, 1L, null, null, null, false, null, null, null))
+                .isInstanceOf(UserVersionMismatchException.class);
     }
 
     @Test
-    @DisplayName("UserService()はmaxAllowedDeletionsが0以下の場合に例外をスローする")
-    void constructor_ThrowsException_WhenMaxAllowedDeletionsIsZeroOrNegative() {
+    @DisplayName("patch()はユーザーが見つからない場合にUserNotFoundExceptionをスローする")
+    void patch_ThrowsUserNotFoundException_WhenUserNotFound() {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        
+        String userId = "0190a5e2-7c3d-7000-8000-00000000dead";
+        UserPatch patch = new UserPatch(null, null, null, false, null, null, null, LocalDateTime.now());
+        when(userDomainService.patchUser(null, null, null, false, null, null, null)).thenReturn(patch);
+        when(userRepository.patch(userId, null, patch)).thenReturn(Optional.empty());
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
-        // Act & Assert - 0の場合
-        assertThatThrownBy(() -> new UserService(userRepository, userDomainService, "dev", 0))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("maxAllowedDeletions must be positive");
-
-        // Act & Assert - 負の数の場合
-        assertThatThrownBy(() -> new UserService(userRepository, userDomainService, "dev", -1))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("maxAllowedDeletions must be positive");
+        // Act & Assert
+        assertThatThrownBy(() -> userService.patch(userId, null, null, null, null, false, null, null, null))
+                .isInstanceOf(UserNotFoundException.class);
     }
 
     @Test
@@ -565,9 +850,9 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "dev", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "user-id-1";
+        String userId = "0190a5e2-7c3d-7000-8000-000000000011";
         String newUsername = "updateduser";
         String newEmail = "updated@example.com";
         String newPasswordHash = "newHashedPassword";
@@ -614,11 +899,9 @@ class UserServiceTest {
         );
         
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.findByEmail(newEmail)).thenReturn(Optional.empty());
-        when(userRepository.findByUsername(newUsername)).thenReturn(Optional.empty());
         when(userDomainService.updateUser(existingUser, newUsername, newEmail, newPasswordHash, true, true, true, true))
                 .thenReturn(domainServiceUser);
-        when(userRepository.save(domainServiceUser)).thenReturn(savedUser);
+        when(userRepository.update(domainServiceUser)).thenReturn(Optional.of(savedUser));
 
         // Act
         User result = userService.update(userId, newUsername, newEmail, newPasswordHash, true, true, true, true);
@@ -631,10 +914,10 @@ class UserServiceTest {
         assertThat(result.updatedAt()).isEqualTo(updatedDateTime);
         
         verify(userRepository).findById(userId);
-        verify(userRepository).findByEmail(newEmail);
-        verify(userRepository).findByUsername(newUsername);
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findByUsername(anyString());
         verify(userDomainService).updateUser(existingUser, newUsername, newEmail, newPasswordHash, true, true, true, true);
-        verify(userRepository).save(domainServiceUser);
+        verify(userRepository).update(domainServiceUser);
     }
 
     @Test
@@ -643,9 +926,9 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "dev", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "user-id-1";
+        String userId = "0190a5e2-7c3d-7000-8000-000000000011";
         String newEmail = "newemail@example.com";
         LocalDateTime createdDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
         LocalDateTime updatedDateTime = LocalDateTime.of(2024, 1, 2, 11, 0, 0);
@@ -690,10 +973,9 @@ class UserServiceTest {
         );
         
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.findByEmail(newEmail)).thenReturn(Optional.empty());
         when(userDomainService.updateUser(existingUser, null, newEmail, null, null, null, null, null))
                 .thenReturn(domainServiceUser);
-        when(userRepository.save(domainServiceUser)).thenReturn(savedUser);
+        when(userRepository.update(domainServiceUser)).thenReturn(Optional.of(savedUser));
 
         // Act - usernameとpasswordHashはnullで渡す
         User result = userService.update(userId, null, newEmail, null, null, null, null, null);
@@ -705,10 +987,10 @@ class UserServiceTest {
         assertThat(result.passwordHash()).isEqualTo("originalHash");  // 変更されていない
         
         verify(userRepository).findById(userId);
-        verify(userRepository).findByEmail(newEmail);
-        verify(userRepository, never()).findByUsername(anyString());  // usernameがnullなのでチェックしない
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findByUsername(anyString());
         verify(userDomainService).updateUser(existingUser, null, newEmail, null, null, null, null, null);
-        verify(userRepository).save(domainServiceUser);
+        verify(userRepository).update(domainServiceUser);
     }
 
     @Test
@@ -717,9 +999,9 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "non-existent-id";
+        String userId = "0190a5e2-7c3d-7000-8000-00000000dead";
         String newEmail = "newemail@example.com";
         
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
@@ -733,7 +1015,7 @@ class UserServiceTest {
         verify(userRepository, never()).findByEmail(anyString());
         verify(userRepository, never()).findByUsername(anyString());
         verify(userDomainService, never()).updateUser(any(), any(), any(), any(), any(), any(), any(), any());
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).update(any());
     }
 
     @Test
@@ -742,9 +1024,9 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "user-id-1";
+        String userId = "0190a5e2-7c3d-7000-8000-000000000011";
         String conflictingEmail = "existing@example.com";
         LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
         
@@ -761,11 +1043,11 @@ class UserServiceTest {
                 fixedDateTime
         );
         
-        User anotherUser = new User(
-                "user-id-2",
-                "user2",
+        User updatedUser = new User(
+                userId,
+                "user1",
                 conflictingEmail,
-                "hash2",
+                "hash1",
                 true,
                 true,
                 true,
@@ -775,17 +1057,21 @@ class UserServiceTest {
         );
         
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.findByEmail(conflictingEmail)).thenReturn(Optional.of(anotherUser));
+        when(userDomainService.updateUser(existingUser, null, conflictingEmail, null, null, null, null, null))
+                .thenReturn(updatedUser);
+        // リポジトリがUNIQUE制約違反を重複例外に変換する
+        when(userRepository.update(updatedUser)).thenThrow(new DuplicateUserException("メールアドレス"));
 
         // Act & Assert
         assertThatThrownBy(() -> userService.update(userId, null, conflictingEmail, null, null, null, null, null))
                 .isInstanceOf(DuplicateUserException.class)
-                .hasMessage("ユーザーが既に存在します");
+                .hasMessage("ユーザーが既に存在します")
+                .extracting("fieldName").isEqualTo("メールアドレス");
         
-        verify(userRepository).findById(userId);
-        verify(userRepository).findByEmail(conflictingEmail);
-        verify(userDomainService, never()).updateUser(any(), any(), any(), any(), any(), any(), any(), any());
-        verify(userRepository, never()).save(any());
+        // 事前の重複チェッククエリは発行しない
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository).update(updatedUser);
     }
 
     @Test
@@ -794,9 +1080,9 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "user-id-1";
+        String userId = "0190a5e2-7c3d-7000-8000-000000000011";
         String conflictingUsername = "existinguser";
         LocalDateTime fixedDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
         
@@ -813,11 +1099,11 @@ class UserServiceTest {
                 fixedDateTime
         );
         
-        User anotherUser = new User(
-                "user-id-2",
+        User updatedUser = new User(
+                userId,
                 conflictingUsername,
-                "user2@example.com",
-                "hash2",
+                "user1@example.com",
+                "hash1",
                 true,
                 true,
                 true,
@@ -827,17 +1113,21 @@ class UserServiceTest {
         );
         
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.findByUsername(conflictingUsername)).thenReturn(Optional.of(anotherUser));
+        when(userDomainService.updateUser(existingUser, conflictingUsername, null, null, null, null, null, null))
+                .thenReturn(updatedUser);
+        // リポジトリがUNIQUE制約違反を重複例外に変換する
+        when(userRepository.update(updatedUser)).thenThrow(new DuplicateUserException("ユーザー名"));
 
         // Act & Assert
         assertThatThrownBy(() -> userService.update(userId, conflictingUsername, null, null, null, null, null, null))
                 .isInstanceOf(DuplicateUserException.class)
-                .hasMessage("ユーザーが既に存在します");
+                .hasMessage("ユーザーが既に存在します")
+                .extracting("fieldName").isEqualTo("ユーザー名");
         
-        verify(userRepository).findById(userId);
-        verify(userRepository).findByUsername(conflictingUsername);
-        verify(userDomainService, never()).updateUser(any(), any(), any(), any(), any(), any(), any(), any());
-        verify(userRepository, never()).save(any());
+        // 事前の重複チェッククエリは発行しない
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository).update(updatedUser);
     }
 
     @Test
@@ -846,9 +1136,9 @@ class UserServiceTest {
         // Arrange
         UserRepository userRepository = mock(UserRepository.class);
         UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "dev", 1000);
+        UserService userService = new UserService(userRepository, userDomainService, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
         
-        String userId = "user-id-1";
+        String userId = "0190a5e2-7c3d-7000-8000-000000000011";
         String sameEmail = "user@example.com";
         LocalDateTime createdDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
         LocalDateTime updatedDateTime = LocalDateTime.of(2024, 1, 2, 11, 0, 0);
@@ -895,7 +1185,7 @@ class UserServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
         when(userDomainService.updateUser(existingUser, null, null, null, false, null, null, null))
                 .thenReturn(domainServiceUser);
-        when(userRepository.save(domainServiceUser)).thenReturn(savedUser);
+        when(userRepository.update(domainServiceUser)).thenReturn(Optional.of(savedUser));
 
         // Act - メールアドレスは変更しない（nullを渡す）、enabledだけを変更
         User result = userService.update(userId, null, null, null, false, null, null, null);
@@ -906,153 +1196,9 @@ class UserServiceTest {
         assertThat(result.enabled()).isFalse();
         
         verify(userRepository).findById(userId);
-        verify(userRepository, never()).findByEmail(anyString());  // メールアドレスが変更されていないのでチェックしない
+        verify(userRepository, never()).findByEmail(anyString());
         verify(userRepository, never()).findByUsername(anyString());
         verify(userDomainService).updateUser(existingUser, null, null, null, false, null, null, null);
-        verify(userRepository).save(domainServiceUser);
-    }
-
-    @Test
-    @DisplayName("update()はDB制約違反時に競合状態を適切に処理する（メールアドレスの競合）")
-    void update_HandlesRaceConditionForEmail_WhenDataIntegrityViolationOccurs() {
-        // Arrange
-        UserRepository userRepository = mock(UserRepository.class);
-        UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
-        
-        String userId = "user-id-1";
-        String newEmail = "newemail@example.com";
-        LocalDateTime createdDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
-        LocalDateTime updatedDateTime = LocalDateTime.of(2024, 1, 2, 11, 0, 0);
-        
-        User existingUser = new User(
-                userId,
-                "username",
-                "old@example.com",
-                "hash",
-                true,
-                true,
-                true,
-                true,
-                createdDateTime,
-                createdDateTime
-        );
-        
-        User updatedUser = new User(
-                userId,
-                "username",
-                newEmail,
-                "hash",
-                true,
-                true,
-                true,
-                true,
-                createdDateTime,
-                updatedDateTime
-        );
-        
-        User conflictingUser = new User(
-                "user-id-2",
-                "otheruser",
-                newEmail,
-                "hash2",
-                true,
-                true,
-                true,
-                true,
-                createdDateTime,
-                createdDateTime
-        );
-        
-        // 最初のチェックでは重複が見つからない
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.findByEmail(newEmail))
-                .thenReturn(Optional.empty())
-                .thenReturn(Optional.of(conflictingUser));  // 2回目の呼び出しで競合が見つかる
-        when(userDomainService.updateUser(existingUser, null, newEmail, null, null, null, null, null))
-                .thenReturn(updatedUser);
-        
-        // saveで制約違反が発生（競合状態）
-        when(userRepository.save(updatedUser))
-                .thenThrow(new DataIntegrityViolationException("UNIQUE constraint violation"));
-
-        // Act & Assert
-        assertThatThrownBy(() -> userService.update(userId, null, newEmail, null, null, null, null, null))
-                .isInstanceOf(DuplicateUserException.class)
-                .hasMessage("ユーザーが既に存在します");
-        
-        verify(userRepository).save(updatedUser);
-    }
-
-    @Test
-    @DisplayName("update()はDB制約違反時に競合状態を適切に処理する（ユーザー名の競合）")
-    void update_HandlesRaceConditionForUsername_WhenDataIntegrityViolationOccurs() {
-        // Arrange
-        UserRepository userRepository = mock(UserRepository.class);
-        UserDomainService userDomainService = mock(UserDomainService.class);
-        UserService userService = new UserService(userRepository, userDomainService, "default", 1000);
-        
-        String userId = "user-id-1";
-        String newUsername = "newusername";
-        LocalDateTime createdDateTime = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
-        LocalDateTime updatedDateTime = LocalDateTime.of(2024, 1, 2, 11, 0, 0);
-        
-        User existingUser = new User(
-                userId,
-                "oldusername",
-                "email@example.com",
-                "hash",
-                true,
-                true,
-                true,
-                true,
-                createdDateTime,
-                createdDateTime
-        );
-        
-        User updatedUser = new User(
-                userId,
-                newUsername,
-                "email@example.com",
-                "hash",
-                true,
-                true,
-                true,
-                true,
-                createdDateTime,
-                updatedDateTime
-        );
-        
-        User conflictingUser = new User(
-                "user-id-2",
-                newUsername,
-                "other@example.com",
-                "hash2",
-                true,
-                true,
-                true,
-                true,
-                createdDateTime,
-                createdDateTime
-        );
-        
-        // 最初のチェックでは重複が見つからない
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.findByUsername(newUsername))
-                .thenReturn(Optional.empty())
-                .thenReturn(Optional.of(conflictingUser));  // 2回目の呼び出しで競合が見つかる
-        when(userDomainService.updateUser(existingUser, newUsername, null, null, null, null, null, null))
-                .thenReturn(updatedUser);
-        
-        // saveで制約違反が発生（競合状態）
-        when(userRepository.save(updatedUser))
-                .thenThrow(new DataIntegrityViolationException("UNIQUE constraint violation"));
-
-        // Act & Assert
-        assertThatThrownBy(() -> userService.update(userId, newUsername, null, null, null, null, null, null))
-                .isInstanceOf(DuplicateUserException.class)
-                .hasMessage("ユーザーが既に存在します");
-        
-        verify(userRepository).save(updatedUser);
+        verify(userRepository).update(domainServiceUser);
     }
 }
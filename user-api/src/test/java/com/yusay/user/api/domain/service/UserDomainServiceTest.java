@@ -2,6 +2,7 @@ package com.yusay.user.api.domain.service;
 
 import com.yusay.user.api.domain.entity.User;
 import com.yusay.user.api.domain.exception.DeleteAllNotAllowedException;
+import com.yusay.user.api.domain.repository.UserPatch;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -9,8 +10,6 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -230,6 +229,36 @@ class UserDomainServiceTest {
         assertThat(updatedUser.updatedAt()).isAfter(originalUpdatedAt);
     }
 
+    @Test
+    @DisplayName("patchUser()は指定されたフィールドと現在時刻の更新日時を持つ部分更新を作成する")
+    void patchUser_CreatesPatchWithUpdatedAt() {
+        // Arrange
+        Instant patchInstant = Instant.parse("2024-01-02T15:00:00Z");
+        Clock patchClock = Clock.fixed(patchInstant, ZoneId.systemDefault());
+        UserDomainService service = new UserDomainService(patchClock);
+        
+        // Act
+        UserPatch patch = service.patchUser(null, null, null, false, null, null, null);
+        
+        // Assert
+        assertThat(patch).isEqualTo(new UserPatch(null, null, null, false, null, null, null,
+                LocalDateTime.ofInstant(patchInstant, ZoneId.systemDefault())));
+        assertThat(patch.isEmpty()).isFalse();
+    }
+
+    @Test
+    @DisplayName("patchUser()は全てnullの場合に空の部分更新を作成する")
+    void patchUser_CreatesEmptyPatchWhenAllFieldsAreNull() {
+        // Arrange
+        UserDomainService service = new UserDomainService(Clock.systemDefaultZone());
+        
+        // Act
+        UserPatch patch = service.patchUser(null, null, null, null, null, null, null);
+        
+        // Assert
+        assertThat(patch.isEmpty()).isTrue();
+    }
+
     @Test
     @DisplayName("validateDeleteAll()は削除対象が上限以下の場合は正常に完了する")
     void validateDeleteAll_Succeeds_WhenWithinLimit() {
@@ -237,14 +266,10 @@ class UserDomainServiceTest {
         Clock clock = Clock.systemUTC();
         UserDomainService service = new UserDomainService(clock);
         
-        List<User> users = new ArrayList<>();
-        for (int i = 0; i < 10; i++) {
-            users.add(new User("id" + i, "user" + i, "user" + i + "@example.com",
-                "hash", true, true, true, true, LocalDateTime.now(), LocalDateTime.now()));
-        }
+        long userCount = 10;
         
         // Act & Assert - 例外がスローされないことを確認
-        service.validateDeleteAll(users, 100);
+        service.validateDeleteAll(userCount, 100);
     }
 
     @Test
@@ -254,14 +279,10 @@ class UserDomainServiceTest {
         Clock clock = Clock.systemUTC();
         UserDomainService service = new UserDomainService(clock);
         
-        List<User> users = new ArrayList<>();
-        for (int i = 0; i < 100; i++) {
-            users.add(new User("id" + i, "user" + i, "user" + i + "@example.com",
-                "hash", true, true, true, true, LocalDateTime.now(), LocalDateTime.now()));
-        }
+        long userCount = 100;
         
         // Act & Assert - 例外がスローされないことを確認
-        service.validateDeleteAll(users, 100);
+        service.validateDeleteAll(userCount, 100);
     }
 
     @Test
@@ -271,27 +292,23 @@ class UserDomainServiceTest {
         Clock clock = Clock.systemUTC();
         UserDomainService service = new UserDomainService(clock);
         
-        List<User> users = new ArrayList<>();
-        for (int i = 0; i < 101; i++) {
-            users.add(new User("id" + i, "user" + i, "user" + i + "@example.com",
-                "hash", true, true, true, true, LocalDateTime.now(), LocalDateTime.now()));
-        }
+        long userCount = 101;
         
         // Act & Assert
-        assertThatThrownBy(() -> service.validateDeleteAll(users, 100))
+        assertThatThrownBy(() -> service.validateDeleteAll(userCount, 100))
             .isInstanceOf(DeleteAllNotAllowedException.class)
             .hasMessageContaining("削除対象ユーザー数（101件）が上限（100件）を超えています");
     }
 
     @Test
-    @DisplayName("validateDeleteAll()は空のリストの場合は正常に完了する")
-    void validateDeleteAll_Succeeds_WhenEmptyList() {
+    @DisplayName("validateDeleteAll()は削除対象が0件の場合は正常に完了する")
+    void validateDeleteAll_Succeeds_WhenNoUsers() {
         // Arrange
         Clock clock = Clock.systemUTC();
         UserDomainService service = new UserDomainService(clock);
         
         // Act & Assert - 例外がスローされないことを確認
-        service.validateDeleteAll(List.of(), 100);
+        service.validateDeleteAll(0, 100);
     }
 
     @Test
@@ -300,18 +317,14 @@ class UserDomainServiceTest {
         // Arrange
         Clock clock = Clock.systemUTC();
         UserDomainService service = new UserDomainService(clock);
-        List<User> users = List.of(
-            new User("id1", "user1", "user1@example.com", "hash", true, true, true, true, 
-                LocalDateTime.now(), LocalDateTime.now())
-        );
         
         // Act & Assert - 0の場合
-        assertThatThrownBy(() -> service.validateDeleteAll(users, 0))
+        assertThatThrownBy(() -> service.validateDeleteAll(1, 0))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("maxAllowedDeletions must be positive");
         
         // Act & Assert - 負の数の場合
-        assertThatThrownBy(() -> service.validateDeleteAll(users, -1))
+        assertThatThrownBy(() -> service.validateDeleteAll(1, -1))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("maxAllowedDeletions must be positive");
     }
@@ -0,0 +1,49 @@
+package com.yusay.user.api.infrastructure;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BCryptStrengthCalibrator のテスト")
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    @DisplayName("strengthFor: 所要時間が目標時間に収まる最大のコストを返す")
+    void strengthFor_returnsLargestStrengthWithinTarget() {
+        // Given: コスト10で60ms（コスト11で120ms、コスト12で240ms、コスト13で480ms）
+        Duration measured = Duration.ofMillis(60);
+
+        // When & Then
+        assertThat(BCryptStrengthCalibrator.strengthFor(Duration.ofMillis(250), 10, measured)).isEqualTo(12);
+        assertThat(BCryptStrengthCalibrator.strengthFor(Duration.ofMillis(480), 10, measured)).isEqualTo(13);
+    }
+
+    @Test
+    @DisplayName("strengthFor: 基準のコストで目標時間を超える場合も基準のコストを下回らない")
+    void strengthFor_whenBaseExceedsTarget_returnsBaseStrength() {
+        assertThat(BCryptStrengthCalibrator.strengthFor(Duration.ofMillis(50), 10, Duration.ofMillis(60)))
+                .isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("strengthFor: コストは上限の31を超えない")
+    void strengthFor_doesNotExceedMaxStrength() {
+        assertThat(BCryptStrengthCalibrator.strengthFor(Duration.ofDays(365), 4, Duration.ofNanos(1)))
+                .isEqualTo(BCryptStrengthCalibrator.MAX_STRENGTH);
+    }
+
+    @Test
+    @DisplayName("calibrate: 目標時間または下限のコストが不正な場合は例外")
+    void calibrate_withInvalidArguments_throws() {
+        assertThatThrownBy(() -> BCryptStrengthCalibrator.calibrate(Duration.ZERO, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("targetDuration must be positive, but was: PT0S");
+        assertThatThrownBy(() -> BCryptStrengthCalibrator.calibrate(Duration.ofMillis(250), 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("minStrength must be between 4 and 31, but was: 3");
+    }
+}
@@ -0,0 +1,145 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("BoundedPasswordEncoder のテスト")
+class BoundedPasswordEncoderTest {
+
+    private PasswordEncoder delegate;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PasswordEncoder.class);
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    @DisplayName("encode: 専用のスレッドでハッシュ化し、結果を返す")
+    void encode_runsOnHashingThread() {
+        // Given: ハッシュ化を実行したスレッドの名前を返す
+        when(delegate.encode("password")).thenAnswer(invocation -> Thread.currentThread().getName());
+
+        // When
+        String result = encoder.encode("password");
+
+        // Then
+        assertThat(result).startsWith("password-hashing-");
+    }
+
+    @Test
+    @DisplayName("encode: 実行中と待ち行列が上限に達している場合、待たずに失敗する")
+    void encode_whenQueueIsFull_failsFast() throws Exception {
+        // Given: 1件目のハッシュ化が終わらず、2件目が待ち行列にある
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode("slow")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("slow"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("slow"));
+        while (encoder.getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // When & Then: 3件目は受け付けられない
+        assertThatThrownBy(() -> encoder.encode("slow"))
+                .isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(encoder.getRejectedCount()).isEqualTo(1);
+
+        // Then: 受け付け済みのハッシュ化は完了する
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+
+    @Test
+    @DisplayName("encodeAll: 受け付けられなかった要素のみnullとし、受け付けた要素のハッシュ化は完了させる")
+    void encodeAll_whenQueueIsFull_returnsNullForRejectedItems() throws Exception {
+        // Given: 1件目のハッシュ化が終わらず、2件目が待ち行列にある間に3件目を投入する
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode("first")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash-first";
+        });
+        when(delegate.encode("second")).thenReturn("hash-second");
+
+        // When
+        CompletableFuture<List<String>> hashes = CompletableFuture.supplyAsync(
+                () -> encoder.encodeAll(List.of("first", "second", "third")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        while (encoder.getRejectedCount() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Then
+        assertThat(hashes.get(5, TimeUnit.SECONDS)).containsExactly("hash-first", "hash-second", null);
+        assertThat(encoder.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("matches: ハッシュ化で発生した例外をそのまま伝播する")
+    void matches_propagatesDelegateException() {
+        // Given
+        when(delegate.matches("password", "invalid")).thenThrow(new IllegalArgumentException("invalid hash"));
+
+        // When & Then
+        assertThatThrownBy(() -> encoder.matches("password", "invalid"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("invalid hash");
+    }
+
+    @Test
+    @DisplayName("bindTo: 待ち行列の長さとハッシュ化の所要時間をメトリクスとして公開する")
+    void bindTo_registersMetrics() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encoder.bindTo(registry);
+        when(delegate.encode("password")).thenReturn("hash");
+
+        // When
+        encoder.encode("password");
+
+        // Then
+        assertThat(registry.get("user.password.hashing.queue").gauge().value()).isZero();
+        assertThat(registry.get("user.password.hashing.duration").functionTimer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("コンストラクタ: スレッド数または待ち行列の上限が0以下の場合は例外")
+    void constructor_withNonPositiveLimits_throws() {
+        assertThatThrownBy(() -> new BoundedPasswordEncoder(delegate, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("threads must be positive, but was: 0");
+        assertThatThrownBy(() -> new BoundedPasswordEncoder(delegate, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("queueCapacity must be positive, but was: 0");
+    }
+}
@@ -0,0 +1,103 @@
+package com.yusay.user.api.infrastructure;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@DisplayName("CachingPasswordEncoder のテスト")
+class CachingPasswordEncoderTest {
+
+    private PasswordEncoder delegate;
+    private CachingPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PasswordEncoder.class, withSettings().extraInterfaces(MeterBinder.class));
+        encoder = new CachingPasswordEncoder(delegate, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("matches: 照合に成功した組み合わせは2回目以降の照合を省略する")
+    void matches_whenVerified_skipsDelegate() {
+        // Given
+        when(delegate.matches("password", "{bcrypt}hash")).thenReturn(true);
+
+        // When
+        boolean first = encoder.matches("password", "{bcrypt}hash");
+        boolean second = encoder.matches("password", "{bcrypt}hash");
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(delegate, times(1)).matches("password", "{bcrypt}hash");
+    }
+
+    @Test
+    @DisplayName("matches: 照合に失敗した組み合わせは記録せず、毎回照合する")
+    void matches_whenRejected_alwaysDelegates() {
+        // Given
+        when(delegate.matches("wrong", "{bcrypt}hash")).thenReturn(false);
+
+        // When
+        encoder.matches("wrong", "{bcrypt}hash");
+        boolean result = encoder.matches("wrong", "{bcrypt}hash");
+
+        // Then
+        assertThat(result).isFalse();
+        verify(delegate, times(2)).matches("wrong", "{bcrypt}hash");
+    }
+
+    @Test
+    @DisplayName("matches: 保存済みのハッシュが変わった場合は照合し直す")
+    void matches_whenStoredHashChanged_delegatesAgain() {
+        // Given: パスワードの変更によりハッシュが置き換わり、旧パスワードは一致しない
+        when(delegate.matches("password", "{bcrypt}old")).thenReturn(true);
+        when(delegate.matches("password", "{bcrypt}new")).thenReturn(false);
+        encoder.matches("password", "{bcrypt}old");
+
+        // When
+        boolean result = encoder.matches("password", "{bcrypt}new");
+
+        // Then
+        assertThat(result).isFalse();
+        verify(delegate).matches("password", "{bcrypt}new");
+    }
+
+    @Test
+    @DisplayName("bindTo: キャッシュのメトリクスを登録し、委譲先のメトリクスも登録させる")
+    void bindTo_registersCacheAndDelegateMetrics() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // When
+        encoder.bindTo(registry);
+
+        // Then
+        assertThat(registry.find("cache.gets").tag("cache", "verified-credentials").meters()).isNotEmpty();
+        verify((MeterBinder) delegate).bindTo(registry);
+    }
+
+    @Test
+    @DisplayName("コンストラクタ: 最大数または有効期限が不正な場合は例外")
+    void constructor_withInvalidLimits_throws() {
+        assertThatThrownBy(() -> new CachingPasswordEncoder(delegate, 0, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("maximumSize must be positive, but was: 0");
+        assertThatThrownBy(() -> new CachingPasswordEncoder(delegate, 100, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ttl must be positive, but was: PT0S");
+    }
+}
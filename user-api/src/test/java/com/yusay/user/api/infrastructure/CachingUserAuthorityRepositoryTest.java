@@ -0,0 +1,204 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.repository.UserAuthorities;
+import com.yusay.user.api.domain.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("CachingUserAuthorityRepository のテスト")
+class CachingUserAuthorityRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+
+    private JdbcUserAuthorityRepository delegate;
+    private UserRepository userRepository;
+    private UserCacheInvalidationPublisher invalidationPublisher;
+    private ReplicaReadFence readFence;
+    private CachingUserAuthorityRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(JdbcUserAuthorityRepository.class);
+        userRepository = mock(UserRepository.class);
+        invalidationPublisher = mock(UserCacheInvalidationPublisher.class);
+        readFence = mock(ReplicaReadFence.class);
+        when(readFence.allowsCaching(anyString())).thenReturn(true);
+        repository = new CachingUserAuthorityRepository(
+                delegate, userRepository, invalidationPublisher, readFence, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private static User user(String passwordHash) {
+        return new User("user-1", "testuser", "test@example.com", passwordHash, true, true, true, true, NOW, NOW, 0L);
+    }
+
+    @Test
+    @DisplayName("findByUsername: 2回目以降はロール・権限をキャッシュから返し、結合クエリを発行しない")
+    void findByUsername_returnsCachedAuthorities() {
+        // Arrange
+        User user = user("$2a$10$hash");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(delegate.findByUsername("testuser"))
+                .thenReturn(Optional.of(new UserAuthorities(user, Set.of("ROLE_ADMIN"), Set.of("USER_READ"))));
+
+        // Act
+        repository.findByUsername("testuser");
+        Optional<UserAuthorities> result = repository.findByUsername("testuser");
+
+        // Assert
+        assertThat(result).hasValueSatisfying(authorities -> {
+            assertThat(authorities.user()).isEqualTo(user);
+            assertThat(authorities.roles()).containsExactly("ROLE_ADMIN");
+            assertThat(authorities.permissions()).containsExactly("USER_READ");
+        });
+        verify(delegate, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("findByUsername: 変更を再生していないレプリカから読み込んだロール・権限はキャッシュしない")
+    void findByUsername_whenReplicaBehindFence_doesNotCache() {
+        // Arrange
+        User user = user("$2a$10$hash");
+        when(readFence.allowsCaching(anyString())).thenReturn(false);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(delegate.findByUsername("testuser"))
+                .thenReturn(Optional.of(new UserAuthorities(user, Set.of("ROLE_ADMIN"), Set.of("USER_READ"))));
+
+        // Act
+        repository.findByUsername("testuser");
+        repository.findByUsername("testuser");
+
+        // Assert
+        verify(delegate, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("findByUsername: キャッシュ済みのロール・権限には最新のユーザーを組み合わせる")
+    void findByUsername_combinesCachedAuthoritiesWithCurrentUser() {
+        // Arrange: 1回目の読み込み後にパスワードが変更された
+        User before = user("$2a$10$old");
+        User after = user("{bcrypt}$2a$12$new");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(before), Optional.of(after));
+        when(delegate.findByUsername("testuser"))
+                .thenReturn(Optional.of(new UserAuthorities(before, Set.of("ROLE_USER"), Set.of())));
+        repository.findByUsername("testuser");
+
+        // Act
+        Optional<UserAuthorities> result = repository.findByUsername("testuser");
+
+        // Assert
+        assertThat(result).map(UserAuthorities::user).contains(after);
+        verify(delegate, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("findByUsername: ユーザーが存在しない場合は結合クエリを発行しない")
+    void findByUsername_whenUserDoesNotExist_skipsJoin() {
+        // Arrange
+        when(userRepository.findByUsername("missing")).thenReturn(Optional.empty());
+
+        // Act
+        Optional<UserAuthorities> result = repository.findByUsername("missing");
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(delegate, never()).findByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("assignRole: 割り当てたユーザーのキャッシュを破棄し、他ノードへ通知する")
+    void assignRole_invalidatesCachedAuthorities() {
+        // Arrange
+        User user = user("$2a$10$hash");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(delegate.findByUsername("testuser")).thenReturn(
+                Optional.of(new UserAuthorities(user, Set.of("ROLE_USER"), Set.of())),
+                Optional.of(new UserAuthorities(user, Set.of("ROLE_USER", "ROLE_ADMIN"), Set.of())));
+        when(delegate.assignRole("user-1", "ROLE_ADMIN")).thenReturn(true);
+        repository.findByUsername("testuser");
+
+        // Act
+        repository.assignRole("user-1", "ROLE_ADMIN");
+        Optional<UserAuthorities> result = repository.findByUsername("testuser");
+
+        // Assert
+        assertThat(result).map(UserAuthorities::roles).contains(Set.of("ROLE_USER", "ROLE_ADMIN"));
+        verify(invalidationPublisher).publish("user-1");
+    }
+
+    @Test
+    @DisplayName("revokeRole: 割り当てられていなかった場合は他ノードへ通知しない")
+    void revokeRole_whenNotAssigned_doesNotPublish() {
+        // Arrange
+        when(delegate.revokeRole("user-1", "ROLE_ADMIN")).thenReturn(false);
+
+        // Act
+        boolean revoked = repository.revokeRole("user-1", "ROLE_ADMIN");
+
+        // Assert
+        assertThat(revoked).isFalse();
+        verify(invalidationPublisher, never()).publish(anyString());
+    }
+
+    @Test
+    @DisplayName("findByUsername: 書き込みトランザクション内ではキャッシュを使用しない")
+    void findByUsername_inReadWriteTransaction_bypassesCache() {
+        // Arrange
+        User user = user("$2a$10$hash");
+        when(delegate.findByUsername("testuser"))
+                .thenReturn(Optional.of(new UserAuthorities(user, Set.of("ROLE_USER"), Set.of())));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act
+        repository.findByUsername("testuser");
+        repository.findByUsername("testuser");
+
+        // Assert
+        verify(delegate, times(2)).findByUsername("testuser");
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("onRolePermissionsChanged: ロールと権限の対応が変わった場合、キャッシュ済みの権限を破棄する")
+    void onRolePermissionsChanged_invalidatesCachedAuthorities() {
+        // Arrange
+        User user = user("$2a$10$hash");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(delegate.findByUsername("testuser"))
+                .thenReturn(Optional.of(new UserAuthorities(user, Set.of("ROLE_USER"), Set.of("USER_READ"))));
+        repository.findByUsername("testuser");
+
+        // Act
+        repository.onRolePermissionsChanged(new RolePermissionsChangedEvent(
+                RolePermissionMatrix.of(Set.of(), Map.of("ROLE_USER", Set.of()))));
+        repository.findByUsername("testuser");
+
+        // Assert
+        verify(delegate, times(2)).findByUsername("testuser");
+    }
+}
@@ -0,0 +1,575 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.repository.UserPatch;
+import com.yusay.user.api.domain.repository.UserVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("CachingUserRepository のテスト")
+class CachingUserRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+
+    private JdbcUserRepository delegate;
+    private UserCacheInvalidationPublisher invalidationPublisher;
+    private ReplicaReadFence readFence;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(JdbcUserRepository.class);
+        invalidationPublisher = mock(UserCacheInvalidationPublisher.class);
+        readFence = mock(ReplicaReadFence.class);
+        when(readFence.allowsCaching(anyString())).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new CachingUserRepository(
+                delegate, invalidationPublisher, readFence, meterRegistry, 100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private static User user(String id, String username, String email) {
+        return new User(id, username, email, "$2a$10$hash", true, true, true, true, NOW, NOW, 0L);
+    }
+
+    @Test
+    @DisplayName("findById: 2回目以降はキャッシュから返しデータベースを参照しない")
+    void findById_returnsCachedUser() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.of(user));
+
+        // Act
+        Optional<User> first = repository.findById("user-1");
+        Optional<User> second = repository.findById("user-1");
+
+        // Assert
+        assertThat(first).contains(user);
+        assertThat(second).contains(user);
+        verify(delegate, times(1)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("findById: 見つからなかった結果を「存在しない」としてキャッシュする")
+    void findById_cachesMiss() {
+        // Arrange
+        when(delegate.findById("missing")).thenReturn(Optional.empty());
+
+        // Act
+        repository.findById("missing");
+        Optional<User> result = repository.findById("missing");
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(delegate, times(1)).findById("missing");
+    }
+
+    @Test
+    @DisplayName("findByEmail: 見つからなかったメールアドレスを「存在しない」としてキャッシュする")
+    void findByEmail_cachesMiss() {
+        // Arrange
+        when(delegate.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        // Act
+        repository.findByEmail("missing@example.com");
+        Optional<User> result = repository.findByEmail("missing@example.com");
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(delegate, times(1)).findByEmail("missing@example.com");
+    }
+
+    @Test
+    @DisplayName("findById: 変更を再生していないレプリカから読み込んだ値はキャッシュしない")
+    void findById_whenReplicaBehindFence_doesNotCache() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(readFence.allowsCaching(anyString())).thenReturn(false);
+        when(delegate.findById("user-1")).thenReturn(Optional.of(user));
+        when(delegate.findById("missing")).thenReturn(Optional.empty());
+
+        // Act
+        repository.findById("user-1");
+        repository.findById("user-1");
+        repository.findById("missing");
+        repository.findById("missing");
+
+        // Assert: 存在しないキーも記録しない
+        verify(delegate, times(2)).findById("user-1");
+        verify(delegate, times(2)).findById("missing");
+    }
+
+    @Test
+    @DisplayName("findById: キャッシュ済みの値はフェンスを確認せずに返す")
+    void findById_whenCached_doesNotCheckFence() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.of(user));
+        repository.findById("user-1");
+
+        // Act
+        Optional<User> result = repository.findById("user-1");
+
+        // Assert
+        assertThat(result).contains(user);
+        verify(readFence, times(1)).allowsCaching(anyString());
+    }
+
+    @Test
+    @DisplayName("findByEmail: 変更を再生していないレプリカから読み込んだ値はキャッシュしない")
+    void findByEmail_whenReplicaBehindFence_doesNotCache() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(readFence.allowsCaching(anyString())).thenReturn(false);
+        when(delegate.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        // Act
+        repository.findByEmail("test@example.com");
+        Optional<User> result = repository.findByEmail("test@example.com");
+
+        // Assert
+        assertThat(result).contains(user);
+        verify(delegate, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    @DisplayName("findByEmail: 読み込んだユーザーのIDにフェンスがある場合はキャッシュしない")
+    void findByEmail_whenLoadedUserIdIsFenced_doesNotCache() {
+        // Arrange: 変更前のメールアドレスで、変更を再生していないレプリカから読み込んだ状態
+        User user = user("user-1", "testuser", "old@example.com");
+        when(readFence.isFenced(ReplicaReadFence.idKey("user-1"))).thenReturn(true);
+        when(delegate.findByEmail("old@example.com")).thenReturn(Optional.of(user));
+        when(delegate.findById("user-1")).thenReturn(Optional.of(user));
+
+        // Act
+        Optional<User> first = repository.findByEmail("old@example.com");
+        repository.findByEmail("old@example.com");
+        repository.findById("user-1");
+
+        // Assert: 索引とユーザーのどちらにも記録しない
+        assertThat(first).contains(user);
+        verify(delegate, times(2)).findByEmail("old@example.com");
+        verify(delegate, times(1)).findById("user-1");
+        verify(readFence, times(2)).allowsCaching(ReplicaReadFence.emailKey("old@example.com"));
+    }
+
+    @Test
+    @DisplayName("insert: 登録したユーザーのID・メールアドレス・ユーザー名の「存在しない」キャッシュを破棄する")
+    void insert_invalidatesMissingKeys() {
+        // Arrange: 登録前に各キーで検索して見つからなかった状態
+        User user = user("user-1", "newuser", "new@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.empty(), Optional.of(user));
+        when(delegate.findByEmail("new@example.com")).thenReturn(Optional.empty(), Optional.of(user));
+        when(delegate.findByUsername("newuser")).thenReturn(Optional.empty(), Optional.of(user));
+        when(delegate.insert(user)).thenReturn(user);
+        repository.findById("user-1");
+        repository.findByEmail("new@example.com");
+        repository.findByUsername("newuser");
+
+        // Act
+        repository.insert(user);
+
+        // Assert: 各キーで見つかるようになり、他のノードへも通知される
+        assertThat(repository.findById("user-1")).contains(user);
+        assertThat(repository.findByEmail("new@example.com")).contains(user);
+        assertThat(repository.findByUsername("newuser")).contains(user);
+        verify(invalidationPublisher).publishNewKeys(List.of(user));
+        verify(invalidationPublisher, never()).publishNewKeys();
+    }
+
+    @Test
+    @DisplayName("insertAll: 登録できたユーザーの「存在しない」キャッシュのみを破棄する")
+    void insertAll_invalidatesMissingKeysOfInsertedUsers() {
+        // Arrange
+        User inserted = user("user-1", "newuser", "new@example.com");
+        User skipped = user("user-2", "skipped", "skipped@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.empty(), Optional.of(inserted));
+        when(delegate.findById("user-2")).thenReturn(Optional.empty());
+        when(delegate.insertAll(List.of(inserted, skipped)))
+                .thenReturn(List.of(Optional.of(inserted), Optional.empty()));
+        repository.findById("user-1");
+        repository.findById("user-2");
+
+        // Act
+        repository.insertAll(List.of(inserted, skipped));
+
+        // Assert
+        assertThat(repository.findById("user-1")).contains(inserted);
+        assertThat(repository.findById("user-2")).isEmpty();
+        verify(delegate, times(2)).findById("user-1");
+        verify(delegate, times(1)).findById("user-2");
+        verify(invalidationPublisher).publishNewKeys(List.of(inserted));
+        verify(invalidationPublisher, never()).publishNewKeys();
+    }
+
+    @Test
+    @DisplayName("update: 変更後のメールアドレスの「存在しない」キャッシュを破棄する")
+    void update_invalidatesMissingKeysOfNewValues() {
+        // Arrange
+        User updated = user("user-1", "testuser", "changed@example.com");
+        when(delegate.findByEmail("changed@example.com")).thenReturn(Optional.empty(), Optional.of(updated));
+        when(delegate.update(updated)).thenReturn(Optional.of(updated));
+        repository.findByEmail("changed@example.com");
+
+        // Act
+        repository.update(updated);
+
+        // Assert
+        assertThat(repository.findByEmail("changed@example.com")).contains(updated);
+        verify(invalidationPublisher).publish("user-1", "changed@example.com", "testuser");
+        verify(invalidationPublisher, never()).publishNewKeys();
+    }
+
+    @Test
+    @DisplayName("update: 変更前の値がキャッシュにある場合は、変わったキーのみを新しいキーとして通知する")
+    void update_publishesOnlyChangedKeys() {
+        // Arrange
+        User original = user("user-1", "testuser", "test@example.com");
+        User updated = user("user-1", "testuser", "changed@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.of(original));
+        when(delegate.update(updated)).thenReturn(Optional.of(updated));
+        repository.findById("user-1");
+
+        // Act
+        repository.update(updated);
+
+        // Assert: ユーザー名は変わっていないため通知しない
+        verify(invalidationPublisher).publish("user-1", "changed@example.com", null);
+    }
+
+    @Test
+    @DisplayName("update: メールアドレス・ユーザー名が変わらない場合は新しいキーを通知しない")
+    void update_whenKeysUnchanged_publishesOnlyId() {
+        // Arrange
+        User original = user("user-1", "testuser", "test@example.com");
+        User updated = new User("user-1", "testuser", "test@example.com", "$2a$10$hash",
+                false, true, true, true, NOW, NOW, 1L);
+        when(delegate.findById("user-1")).thenReturn(Optional.of(original));
+        when(delegate.update(updated)).thenReturn(Optional.of(updated));
+        repository.findById("user-1");
+
+        // Act
+        repository.update(updated);
+
+        // Assert
+        verify(invalidationPublisher).publish("user-1", null, null);
+    }
+
+    @Test
+    @DisplayName("invalidateMissing: 「存在しない」キャッシュのみを破棄する")
+    void invalidateMissing_clearsOnlyNegativeEntries() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.of(user));
+        when(delegate.findById("missing")).thenReturn(Optional.empty());
+        repository.findById("user-1");
+        repository.findById("missing");
+
+        // Act
+        repository.invalidateMissing();
+        repository.findById("user-1");
+        repository.findById("missing");
+
+        // Assert
+        verify(delegate, times(1)).findById("user-1");
+        verify(delegate, times(2)).findById("missing");
+    }
+
+    @Test
+    @DisplayName("findVersionById: キャッシュ済みのユーザーはデータベースを参照せずにバージョンを返す")
+    void findVersionById_returnsCachedVersion() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.of(user));
+        repository.findById("user-1");
+
+        // Act
+        Optional<UserVersion> result = repository.findVersionById("user-1");
+
+        // Assert
+        assertThat(result).contains(new UserVersion(0L, NOW));
+        verify(delegate, never()).findVersionById(anyString());
+    }
+
+    @Test
+    @DisplayName("findVersionById: キャッシュに無いユーザーはデータベースからバージョンのみを取得する")
+    void findVersionById_delegatesWhenNotCached() {
+        // Arrange
+        when(delegate.findVersionById("user-1")).thenReturn(Optional.of(new UserVersion(3L, NOW)));
+
+        // Act
+        Optional<UserVersion> result = repository.findVersionById("user-1");
+
+        // Assert
+        assertThat(result).contains(new UserVersion(3L, NOW));
+        verify(delegate, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("findByEmail: 取得したユーザーをIDのキャッシュにも格納する")
+    void findByEmail_populatesIdCache() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(delegate.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        // Act
+        Optional<User> byEmail = repository.findByEmail("test@example.com");
+        Optional<User> byEmailAgain = repository.findByEmail("test@example.com");
+        Optional<User> byId = repository.findById("user-1");
+
+        // Assert
+        assertThat(byEmail).contains(user);
+        assertThat(byEmailAgain).contains(user);
+        assertThat(byId).contains(user);
+        verify(delegate, times(1)).findByEmail("test@example.com");
+        verify(delegate, times(0)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("findByUsername: 索引が指すユーザーのユーザー名が変わっている場合は読み込み直す")
+    void findByUsername_reloadsWhenIndexIsStale() {
+        // Arrange: ユーザー名で取得後、IDのキャッシュだけが別のユーザー名の値に置き換わった状態
+        User original = user("user-1", "olduser", "test@example.com");
+        User renamed = user("user-1", "newuser", "test@example.com");
+        when(delegate.findByUsername("olduser")).thenReturn(Optional.of(original), Optional.empty());
+        when(delegate.findById("user-1")).thenReturn(Optional.of(renamed));
+        repository.findByUsername("olduser");
+        repository.invalidate("user-1");
+        repository.findById("user-1");
+
+        // Act
+        Optional<User> result = repository.findByUsername("olduser");
+
+        // Assert: 古いユーザー名では見つからない
+        assertThat(result).isEmpty();
+        verify(delegate, times(2)).findByUsername("olduser");
+    }
+
+    @Test
+    @DisplayName("update: 更新したユーザーのキャッシュを破棄する")
+    void update_invalidatesCachedUser() {
+        // Arrange
+        User original = user("user-1", "testuser", "test@example.com");
+        User updated = user("user-1", "testuser", "updated@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.of(original), Optional.of(updated));
+        when(delegate.update(updated)).thenReturn(Optional.of(updated));
+        repository.findById("user-1");
+
+        // Act
+        repository.update(updated);
+        Optional<User> result = repository.findById("user-1");
+
+        // Assert
+        assertThat(result).contains(updated);
+        verify(delegate, times(2)).findById("user-1");
+        verify(invalidationPublisher).publish("user-1", "updated@example.com", null);
+    }
+
+    @Test
+    @DisplayName("update: 対象が存在しない場合は変更を通知しない")
+    void update_whenUserNotFound_doesNotPublish() {
+        // Arrange
+        User user = user("missing", "testuser", "test@example.com");
+        when(delegate.update(user)).thenReturn(Optional.empty());
+
+        // Act
+        repository.update(user);
+
+        // Assert
+        verify(invalidationPublisher, never()).publish(anyString());
+        verify(invalidationPublisher, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("patch: 部分更新したユーザーのキャッシュを破棄し、変更を通知する")
+    void patch_invalidatesCachedUser() {
+        // Arrange
+        User original = user("user-1", "testuser", "test@example.com");
+        User patched = new User("user-1", "testuser", "test@example.com", "$2a$10$hash",
+                false, true, true, true, NOW, NOW, 1L);
+        UserPatch patch = new UserPatch(null, null, null, false, null, null, null, NOW);
+        when(delegate.findById("user-1")).thenReturn(Optional.of(original), Optional.of(patched));
+        when(delegate.patch("user-1", null, patch)).thenReturn(Optional.of(patched));
+        repository.findById("user-1");
+
+        // Act
+        repository.patch("user-1", null, patch);
+        Optional<User> result = repository.findById("user-1");
+
+        // Assert: キーとなる列を変更していないため、新しいキーの通知は行わない
+        assertThat(result).contains(patched);
+        verify(invalidationPublisher).publish("user-1", null, null);
+        verify(invalidationPublisher, never()).publishNewKeys();
+    }
+
+    @Test
+    @DisplayName("patch: 値が変わらず書き込まれなかった場合は変更を通知しない")
+    void patch_whenNothingChanged_doesNotPublish() {
+        // Arrange
+        UserPatch patch = new UserPatch(null, null, null, true, null, null, null, NOW);
+        when(delegate.patch("user-1", null, patch)).thenReturn(Optional.empty());
+
+        // Act
+        repository.patch("user-1", null, patch);
+
+        // Assert
+        verify(invalidationPublisher, never()).publish(anyString());
+        verify(invalidationPublisher, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("deleteById: 削除したユーザーのキャッシュと索引を破棄する")
+    void deleteById_invalidatesCachedUser() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(delegate.findByEmail("test@example.com")).thenReturn(Optional.of(user), Optional.empty());
+        when(delegate.deleteById("user-1")).thenReturn(1);
+        repository.findByEmail("test@example.com");
+
+        // Act
+        repository.deleteById("user-1");
+        Optional<User> result = repository.findByEmail("test@example.com");
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(delegate, times(2)).findByEmail("test@example.com");
+        verify(invalidationPublisher).publish("user-1");
+    }
+
+    @Test
+    @DisplayName("updatePasswordHash: 置き換えたユーザーのキャッシュを破棄し、他ノードへ通知する")
+    void updatePasswordHash_invalidatesCachedUser() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        User rehashed = new User("user-1", "testuser", "test@example.com", "{bcrypt}new", true, true, true, true,
+                user.createdAt(), user.updatedAt(), user.version());
+        when(delegate.findById("user-1")).thenReturn(Optional.of(user), Optional.of(rehashed));
+        when(delegate.updatePasswordHash("user-1", user.passwordHash(), "{bcrypt}new")).thenReturn(true);
+        repository.findById("user-1");
+
+        // Act
+        boolean updated = repository.updatePasswordHash("user-1", user.passwordHash(), "{bcrypt}new");
+        Optional<User> result = repository.findById("user-1");
+
+        // Assert
+        assertThat(updated).isTrue();
+        assertThat(result).hasValue(rehashed);
+        verify(delegate, times(2)).findById("user-1");
+        verify(invalidationPublisher).publish("user-1");
+    }
+
+    @Test
+    @DisplayName("deleteAll: 全てのキャッシュを破棄する")
+    void deleteAll_invalidatesAllCachedUsers() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.of(user), Optional.empty());
+        when(delegate.deleteAll()).thenReturn(1);
+        repository.findById("user-1");
+
+        // Act
+        repository.deleteAll();
+        Optional<User> result = repository.findById("user-1");
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(delegate, times(2)).findById("user-1");
+        verify(invalidationPublisher).publishAll();
+    }
+
+    @Test
+    @DisplayName("findById: 書き込み中のトランザクション内ではキャッシュを使用しない")
+    void findById_bypassesCacheInReadWriteTransaction() {
+        // Arrange
+        User user = user("user-1", "testuser", "test@example.com");
+        when(delegate.findById("user-1")).thenReturn(Optional.of(user));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act
+        repository.findById("user-1");
+        repository.findById("user-1");
+
+        // Assert
+        verify(delegate, times(2)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("findById: 同一キーの同時ミスはデータベースへの1回の問い合わせにまとめる")
+    void findById_coalescesConcurrentMisses() throws Exception {
+        // Arrange: 読み込みに時間がかかるユーザー
+        User user = user("user-1", "testuser", "test@example.com");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.findById("user-1")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(user);
+        });
+        int callers = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // Act
+            List<Future<Optional<User>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> repository.findById("user-1")));
+            }
+            loading.await(5, TimeUnit.SECONDS);
+            release.countDown();
+
+            // Assert
+            for (Future<Optional<User>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).contains(user);
+            }
+            verify(delegate, times(1)).findById("user-1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("コンストラクタ: キャッシュのメトリクスを登録する")
+    void constructor_registersCacheMetrics() {
+        // Arrange
+        when(delegate.findById("user-1")).thenReturn(Optional.empty());
+
+        // Act
+        repository.findById("user-1");
+
+        // Assert
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("cache.size").tag("cache", "users-by-email").gauge()).isNotNull();
+        assertThat(meterRegistry.find("cache.size").tag("cache", "users-missing").gauge()).isNotNull();
+    }
+}
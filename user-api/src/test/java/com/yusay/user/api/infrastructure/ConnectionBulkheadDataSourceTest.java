@@ -0,0 +1,121 @@
+package com.yusay.user.api.infrastructure;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ConnectionBulkheadDataSource のテスト")
+class ConnectionBulkheadDataSourceTest {
+
+    private DataSource target;
+    private Connection targetConnection;
+    private ConnectionBulkheadDataSource bulkhead;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        targetConnection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(targetConnection);
+        bulkhead = new ConnectionBulkheadDataSource(target, 2, Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("getConnection: 接続の取得中は許可を保持し、クローズ時に返却する")
+    void getConnection_holdsPermitUntilClosed() throws SQLException {
+        // When: 接続を取得する
+        Connection connection = bulkhead.getConnection();
+
+        // Then: 許可が1つ使用されている
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+
+        // When: 接続を2回クローズする
+        connection.close();
+        connection.close();
+
+        // Then: 許可は1度だけ返却され、接続プールへのクローズは委譲される
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(2);
+        verify(targetConnection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("getConnection: 許可を待機時間内に取得できない場合、接続プールへ到達させずに失敗する")
+    void getConnection_whenBulkheadIsFull_failsWithoutReachingPool() throws SQLException {
+        // Given: 全ての許可が使用中
+        bulkhead.getConnection();
+        bulkhead.getConnection();
+
+        // When & Then: 3つ目の接続の取得は失敗する
+        assertThatThrownBy(() -> bulkhead.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("getConnection: 接続プールからの取得に失敗した場合、許可を返却する")
+    void getConnection_whenPoolFails_releasesPermit() throws SQLException {
+        // Given: 接続プールが接続を返せない
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+
+        // When & Then: 例外はそのまま伝播し、許可は返却される
+        assertThatThrownBy(() -> bulkhead.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage("pool timeout");
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("getConnection: クローズ以外の操作は元の接続へ委譲する")
+    void getConnection_delegatesOtherMethods() throws SQLException {
+        // Given: 元の接続の状態
+        when(targetConnection.isValid(1)).thenReturn(true);
+        when(targetConnection.getAutoCommit()).thenReturn(false);
+
+        // When
+        Connection connection = bulkhead.getConnection();
+
+        // Then
+        assertThat(connection.isValid(1)).isTrue();
+        assertThat(connection.getAutoCommit()).isFalse();
+        assertThat(connection).isEqualTo(connection);
+    }
+
+    @Test
+    @DisplayName("getConnection: unwrapは元の接続へ委譲し、ドライバー固有のインターフェースを取得できる")
+    void getConnection_unwrapDelegatesToTarget() throws SQLException {
+        // Given: 元の接続がドライバー固有のインターフェースを提供する
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(targetConnection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(targetConnection.isWrapperFor(PGConnection.class)).thenReturn(true);
+
+        // When
+        Connection connection = bulkhead.getConnection();
+
+        // Then
+        assertThat(connection.unwrap(PGConnection.class)).isSameAs(pgConnection);
+        assertThat(connection.isWrapperFor(PGConnection.class)).isTrue();
+        assertThat(connection.unwrap(Connection.class)).isSameAs(connection);
+    }
+
+    @Test
+    @DisplayName("コンストラクタ: 最大同時実行数が0以下の場合、IllegalArgumentExceptionをスローする")
+    void constructor_whenMaxConcurrencyIsNotPositive_throwsException() {
+        assertThatThrownBy(() -> new ConnectionBulkheadDataSource(target, 0, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("maxConcurrency must be positive, but was: 0");
+    }
+}
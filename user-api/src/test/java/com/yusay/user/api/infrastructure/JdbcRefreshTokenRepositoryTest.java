@@ -0,0 +1,126 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.TestcontainersConfiguration;
+import com.yusay.user.api.domain.entity.RefreshToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@Import({TestcontainersConfiguration.class, JdbcRefreshTokenRepository.class})
+@Sql(statements = {
+        """
+        INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+        VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$test-password-hash',
+                true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+        """
+})
+@DisplayName("JdbcRefreshTokenRepository のテスト")
+class JdbcRefreshTokenRepositoryTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    @Autowired
+    private JdbcRefreshTokenRepository jdbcRefreshTokenRepository;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.sql.init.mode", () -> "always");
+    }
+
+    @Test
+    @DisplayName("insert: IDを生成してトークンのハッシュを保存する")
+    void insert_generatesIdAndStoresHash() {
+        // When: IDを指定せずにinsertを実行
+        RefreshToken inserted = jdbcRefreshTokenRepository.insert(
+                new RefreshToken(null, "test-user-id-001", "hash-001", CREATED_AT.plusDays(14), CREATED_AT));
+
+        // Then: IDが生成され、指定した値が保存されていることを確認
+        assertThat(inserted.id()).isNotBlank();
+        assertThat(inserted.userId()).isEqualTo("test-user-id-001");
+        assertThat(inserted.tokenHash()).isEqualTo("hash-001");
+        assertThat(inserted.expiryDate()).isEqualTo(CREATED_AT.plusDays(14));
+        assertThat(inserted.createdAt()).isEqualTo(CREATED_AT);
+    }
+
+    @Test
+    @DisplayName("rotate: 使用したトークンを削除し、同じユーザーの新しいトークンを登録する。2回目以降は空を返す")
+    void rotate_replacesTokenOnlyOnce() {
+        // Given: トークンを登録
+        jdbcRefreshTokenRepository.insert(
+                new RefreshToken(null, "test-user-id-001", "hash-001", CREATED_AT.plusDays(14), CREATED_AT));
+        LocalDateTime now = CREATED_AT.plusDays(1);
+
+        // When: 同じハッシュで2回rotateを実行
+        Optional<RefreshToken> first = jdbcRefreshTokenRepository.rotate("hash-001", "hash-002", now, now.plusDays(14));
+        Optional<RefreshToken> second = jdbcRefreshTokenRepository.rotate("hash-001", "hash-003", now, now.plusDays(14));
+
+        // Then: 1回目のみ新しいトークンが登録され、使用したトークンは削除されていることを確認
+        assertThat(first).hasValueSatisfying(token -> {
+            assertThat(token.userId()).isEqualTo("test-user-id-001");
+            assertThat(token.tokenHash()).isEqualTo("hash-002");
+            assertThat(token.expiryDate()).isEqualTo(now.plusDays(14));
+            assertThat(token.createdAt()).isEqualTo(now);
+        });
+        assertThat(second).isEmpty();
+        assertThat(jdbcRefreshTokenRepository.deleteByTokenHash("hash-001")).isFalse();
+        assertThat(jdbcRefreshTokenRepository.deleteByTokenHash("hash-003")).isFalse();
+    }
+
+    @Test
+    @DisplayName("rotate: 有効期限切れのトークンはローテーションせず、削除もしない")
+    void rotate_whenExpired_returnsEmpty() {
+        // Given: 有効期限切れのトークンを登録
+        jdbcRefreshTokenRepository.insert(
+                new RefreshToken(null, "test-user-id-001", "hash-expired", CREATED_AT, CREATED_AT.minusDays(14)));
+
+        // When: rotateを実行
+        Optional<RefreshToken> result = jdbcRefreshTokenRepository.rotate(
+                "hash-expired", "hash-new", CREATED_AT, CREATED_AT.plusDays(14));
+
+        // Then: 空が返され、有効期限切れのトークンは定期削除まで残ることを確認
+        assertThat(result).isEmpty();
+        assertThat(jdbcRefreshTokenRepository.deleteByTokenHash("hash-expired")).isTrue();
+    }
+
+    @Test
+    @DisplayName("deleteExpired: 有効期限切れのトークンのみを最大limit件削除する")
+    void deleteExpired_deletesExpiredTokensUpToLimit() {
+        // Given: 有効期限切れのトークン3件と有効期限内のトークン1件を登録
+        for (int i = 1; i <= 3; i++) {
+            jdbcRefreshTokenRepository.insert(new RefreshToken(
+                    null, "test-user-id-001", "hash-expired-" + i, CREATED_AT.minusMinutes(i), CREATED_AT.minusDays(14)));
+        }
+        jdbcRefreshTokenRepository.insert(
+                new RefreshToken(null, "test-user-id-001", "hash-active", CREATED_AT.plusDays(14), CREATED_AT));
+
+        // When: 上限2件でdeleteExpiredを繰り返し実行
+        int first = jdbcRefreshTokenRepository.deleteExpired(CREATED_AT, 2);
+        int second = jdbcRefreshTokenRepository.deleteExpired(CREATED_AT, 2);
+        int third = jdbcRefreshTokenRepository.deleteExpired(CREATED_AT, 2);
+
+        // Then: 有効期限切れのトークンのみが削除され、有効期限内のトークンは残ることを確認
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isEqualTo(1);
+        assertThat(third).isZero();
+        assertThat(jdbcRefreshTokenRepository.deleteByTokenHash("hash-active")).isTrue();
+    }
+
+    @Test
+    @DisplayName("tryLockExpiredPurge: 同じトランザクション内では繰り返し取得できる")
+    void tryLockExpiredPurge_isReentrantWithinTransaction() {
+        // When & Then: @JdbcTestのトランザクション内で2回取得
+        assertThat(jdbcRefreshTokenRepository.tryLockExpiredPurge()).isTrue();
+        assertThat(jdbcRefreshTokenRepository.tryLockExpiredPurge()).isTrue();
+    }
+}
@@ -0,0 +1,58 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.TestcontainersConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@Import({TestcontainersConfiguration.class, JdbcRolePermissionRepository.class})
+@DisplayName("JdbcRolePermissionRepository のテスト")
+class JdbcRolePermissionRepositoryTest {
+
+    @Autowired
+    private JdbcRolePermissionRepository jdbcRolePermissionRepository;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.sql.init.mode", () -> "always");
+    }
+
+    @Test
+    @DisplayName("findAllPermissionNames: 全ての権限名を返す（初期データを使用）")
+    void findAllPermissionNames_returnsAllNames() {
+        // When & Then
+        assertThat(jdbcRolePermissionRepository.findAllPermissionNames())
+                .contains("AUDIT_READ", "USER_READ", "USER_WRITE", "ROLE_WRITE")
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO roles (id, name, description)
+            VALUES ('test-role-id-001', 'ROLE_GUEST', 'Guest');
+            """
+    })
+    @DisplayName("findPermissionNamesByRole: ロールごとの権限名を返し、権限の無いロールは空のセットを返す")
+    void findPermissionNamesByRole_returnsPermissionsPerRole() {
+        // When
+        Map<String, Set<String>> result = jdbcRolePermissionRepository.findPermissionNamesByRole();
+
+        // Then
+        assertThat(result.get("ROLE_USER")).containsExactly("USER_READ");
+        assertThat(result.get("ROLE_MODERATOR")).containsExactlyInAnyOrder("USER_READ", "USER_WRITE", "AUDIT_READ");
+        assertThat(result.get("ROLE_ADMIN")).contains("ROLE_WRITE", "USER_DELETE");
+        assertThat(result).containsEntry("ROLE_GUEST", Set.of());
+    }
+}
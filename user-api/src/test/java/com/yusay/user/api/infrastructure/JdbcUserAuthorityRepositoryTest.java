@@ -0,0 +1,108 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.TestcontainersConfiguration;
+import com.yusay.user.api.domain.repository.UserAuthorities;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlMergeMode;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@Import({TestcontainersConfiguration.class, JdbcUserAuthorityRepository.class,
+        RolePermissionRegistry.class, JdbcRolePermissionRepository.class})
+@Sql(statements = {
+        """
+        INSERT INTO users (id, username, email, password_hash, enabled,
+                           account_non_expired, account_non_locked, credentials_non_expired,
+                           created_at, updated_at)
+        VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$test-password-hash',
+                true, true, false, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+        """
+})
+@SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+@DisplayName("JdbcUserAuthorityRepository のテスト")
+class JdbcUserAuthorityRepositoryTest {
+
+    @Autowired
+    private JdbcUserAuthorityRepository jdbcUserAuthorityRepository;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.sql.init.mode", () -> "always");
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO user_roles (user_id, role_id)
+            SELECT 'test-user-id-001', id FROM roles WHERE name IN ('ROLE_USER', 'ROLE_MODERATOR');
+            """
+    })
+    @DisplayName("findByUsername: ユーザーとロール、ロールが持つ権限（重複なし）を返す（ロール・権限は初期データを使用）")
+    void findByUsername_returnsUserWithRolesAndPermissions() {
+        // When: findByUsernameを実行
+        Optional<UserAuthorities> result = jdbcUserAuthorityRepository.findByUsername("testuser");
+
+        // Then: アカウントの状態を含むユーザーと、ロール・権限が取得できることを確認
+        assertThat(result).hasValueSatisfying(authorities -> {
+            assertThat(authorities.user().id()).isEqualTo("test-user-id-001");
+            assertThat(authorities.user().passwordHash()).isEqualTo("$2a$10$test-password-hash");
+            assertThat(authorities.user().accountNonLocked()).isFalse();
+            assertThat(authorities.roles()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_MODERATOR");
+            assertThat(authorities.permissions()).containsExactlyInAnyOrder("USER_READ", "USER_WRITE", "AUDIT_READ");
+        });
+    }
+
+    @Test
+    @DisplayName("findByUsername: ロールが割り当てられていない場合、空のロール・権限を返す")
+    void findByUsername_whenNoRoles_returnsEmptyAuthorities() {
+        // When: findByUsernameを実行
+        Optional<UserAuthorities> result = jdbcUserAuthorityRepository.findByUsername("testuser");
+
+        // Then: ロール・権限が空であることを確認
+        assertThat(result).hasValueSatisfying(authorities -> {
+            assertThat(authorities.roles()).isEmpty();
+            assertThat(authorities.permissions()).isEmpty();
+        });
+    }
+
+    @Test
+    @DisplayName("findByUsername: ユーザーが存在しない場合、空のOptionalを返す")
+    void findByUsername_whenUserDoesNotExist_returnsEmptyOptional() {
+        // When & Then
+        assertThat(jdbcUserAuthorityRepository.findByUsername("missing")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("assignRole / revokeRole: 割り当ての有無に応じて変更した場合のみtrueを返す")
+    void assignAndRevokeRole() {
+        // When & Then: 初回の割り当てのみtrue
+        assertThat(jdbcUserAuthorityRepository.assignRole("test-user-id-001", "ROLE_USER")).isTrue();
+        assertThat(jdbcUserAuthorityRepository.assignRole("test-user-id-001", "ROLE_USER")).isFalse();
+        assertThat(jdbcUserAuthorityRepository.assignRole("test-user-id-001", "ROLE_MISSING")).isFalse();
+        assertThat(jdbcUserAuthorityRepository.findByUsername("testuser"))
+                .map(UserAuthorities::roles)
+                .contains(Set.of("ROLE_USER"));
+
+        // When & Then: 割り当て済みのロールの解除のみtrue
+        assertThat(jdbcUserAuthorityRepository.revokeRole("test-user-id-001", "ROLE_USER")).isTrue();
+        assertThat(jdbcUserAuthorityRepository.revokeRole("test-user-id-001", "ROLE_USER")).isFalse();
+    }
+
+    @Test
+    @DisplayName("existsRole: ロールの有無を返す")
+    void existsRole() {
+        assertThat(jdbcUserAuthorityRepository.existsRole("ROLE_ADMIN")).isTrue();
+        assertThat(jdbcUserAuthorityRepository.existsRole("ROLE_MISSING")).isFalse();
+    }
+}
@@ -2,6 +2,11 @@ package com.yusay.user.api.infrastructure;
 
 import com.yusay.user.api.TestcontainersConfiguration;
 import com.yusay.user.api.domain.entity.User;
+import com.yusay.user.api.domain.exception.DuplicateUserException;
+import com.yusay.user.api.domain.repository.UserCursor;
+import com.yusay.user.api.domain.repository.UserDeleteChunkResult;
+import com.yusay.user.api.domain.repository.UserPatch;
+import com.yusay.user.api.domain.repository.UserVersion;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,10 +18,13 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @JdbcTest
 @Import({TestcontainersConfiguration.class, JdbcUserRepository.class})
@@ -66,6 +74,35 @@ class JdbcUserRepositoryTest {
         assertThat(result.get().updatedAt()).isNotNull();
     }
 
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$test-password-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-02 03:04:05.123456');
+            """
+    })
+    @DisplayName("findVersionById: ユーザーが存在する場合、バージョンと更新日時のみを返す")
+    void findVersionById_whenUserExists_returnsVersion() {
+        // When: findVersionByIdを実行
+        Optional<UserVersion> result = jdbcUserRepository.findVersionById("test-user-id-001");
+
+        // Then: 初期バージョンとマイクロ秒まで一致する更新日時が取得できることを確認
+        assertThat(result).contains(new UserVersion(0L, LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_000)));
+    }
+
+    @Test
+    @DisplayName("findVersionById: ユーザーが存在しない場合、空のOptionalを返す")
+    void findVersionById_whenUserDoesNotExist_returnsEmptyOptional() {
+        // When: 存在しないユーザーIDでfindVersionByIdを実行
+        Optional<UserVersion> result = jdbcUserRepository.findVersionById("non-existent-user-id");
+
+        // Then: 空のOptionalが返されることを確認
+        assertThat(result).isEmpty();
+    }
+
     @Test
     @DisplayName("findById: ユーザーが存在しない場合、空のOptionalを返す")
     void findById_whenUserDoesNotExist_returnsEmptyOptional() {
@@ -162,8 +199,8 @@ class JdbcUserRepositoryTest {
     }
 
     @Test
-    @DisplayName("save: 新規ユーザーを保存できる")
-    void save_whenNewUser_insertsUser() {
+    @DisplayName("insert: 新規ユーザーを保存できる")
+    void insert_whenNewUser_insertsUser() {
         // Given: 新規ユーザー
         String userId = "new-user-id-001";
         LocalDateTime now = LocalDateTime.of(2024, 6, 15, 10, 30, 0);
@@ -180,8 +217,8 @@ class JdbcUserRepositoryTest {
                 now   // updated_atを設定
         );
 
-        // When: saveを実行
-        User savedUser = jdbcUserRepository.save(newUser);
+        // When: insertを実行
+        User savedUser = jdbcUserRepository.insert(newUser);
 
         // Then: ユーザーが保存されることを確認
         assertThat(savedUser).isNotNull();
@@ -224,8 +261,8 @@ class JdbcUserRepositoryTest {
                     true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
             """
     })
-    @DisplayName("save: 既存ユーザーを更新できる")
-    void save_whenExistingUser_updatesUser() {
+    @DisplayName("update: 既存ユーザーを更新できる")
+    void update_whenExistingUser_updatesUser() {
         // Given: 既存のユーザーIDで更新内容を作成
         String userId = "existing-user-id";
         LocalDateTime updatedTime = LocalDateTime.of(2024, 6, 15, 10, 30, 0);
@@ -242,8 +279,8 @@ class JdbcUserRepositoryTest {
                 updatedTime   // updated_atを固定値で設定
         );
 
-        // When: saveを実行
-        User savedUser = jdbcUserRepository.save(updatedUser);
+        // When: updateを実行
+        User savedUser = jdbcUserRepository.update(updatedUser).orElseThrow();
 
         // Then: ユーザーが更新されることを確認
         assertThat(savedUser).isNotNull();
@@ -274,8 +311,8 @@ class JdbcUserRepositoryTest {
     }
 
     @Test
-    @DisplayName("save: enabledがfalseの新規ユーザーを保存できる")
-    void save_whenNewDisabledUser_insertsUser() {
+    @DisplayName("insert: enabledがfalseの新規ユーザーを保存できる")
+    void insert_whenNewDisabledUser_insertsUser() {
         // Given: enabledがfalseの新規ユーザー
         String userId = "disabled-new-user-id";
         LocalDateTime now = LocalDateTime.of(2024, 6, 15, 10, 30, 0);
@@ -292,8 +329,8 @@ class JdbcUserRepositoryTest {
                 now
         );
 
-        // When: saveを実行
-        User savedUser = jdbcUserRepository.save(newUser);
+        // When: insertを実行
+        User savedUser = jdbcUserRepository.insert(newUser);
 
         // Then: enabledがfalseで保存されることを確認
         assertThat(savedUser.enabled()).isFalse();
@@ -305,8 +342,8 @@ class JdbcUserRepositoryTest {
     }
 
     @Test
-    @DisplayName("save: IDが未指定の場合、UUIDを自動生成して保存できる")
-    void save_whenIdIsNull_generatesUuidAndInsertsUser() {
+    @DisplayName("insert: IDが未指定の場合、UUIDを自動生成して保存できる")
+    void insert_whenIdIsNull_generatesUuidAndInsertsUser() {
         // Given: IDが未指定の新規ユーザー
         LocalDateTime now = LocalDateTime.of(2024, 6, 15, 10, 30, 0);
         User newUser = new User(
@@ -322,8 +359,8 @@ class JdbcUserRepositoryTest {
                 now
         );
 
-        // When: saveを実行
-        User savedUser = jdbcUserRepository.save(newUser);
+        // When: insertを実行
+        User savedUser = jdbcUserRepository.insert(newUser);
 
         // Then: UUIDが生成されて保存されることを確認
         assertThat(savedUser).isNotNull();
@@ -451,8 +488,8 @@ class JdbcUserRepositoryTest {
                     true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
             """
     })
-    @DisplayName("save: 既存ユーザー更新時に username/email のみ変更され、他のフィールドは保持される")
-    void save_whenExistingUser_updatesSpecifiedFields() {
+    @DisplayName("update: 既存ユーザー更新時に username/email のみ変更され、他のフィールドは保持される")
+    void update_whenExistingUser_updatesSpecifiedFields() {
         // Given: 既存のユーザーを取得
         String userId = "update-test-user-id";
         Optional<User> existingUser = jdbcUserRepository.findById(userId);
@@ -473,8 +510,8 @@ class JdbcUserRepositoryTest {
                 updatedTime  // updated_atを固定値で設定
         );
 
-        // When: saveを実行
-        User savedUser = jdbcUserRepository.save(updatedUser);
+        // When: updateを実行
+        User savedUser = jdbcUserRepository.update(updatedUser).orElseThrow();
 
         // Then: usernameとemailが更新され、他のフィールドも保持されることを確認
         assertThat(savedUser.username()).isEqualTo("changedusername");
@@ -558,6 +595,37 @@ class JdbcUserRepositoryTest {
         assertThat(result).anyMatch(user -> !user.enabled());
     }
 
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('test-chunk-user-001', 'user1', 'user1@example.com', '$2a$10$hash1',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                   ('test-chunk-user-002', 'user2', 'user2@example.com', '$2a$10$hash2',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                   ('test-chunk-user-003', 'user3', 'user3@example.com', '$2a$10$hash3',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+            """
+    })
+    @DisplayName("deleteChunk: ID順に指定件数ずつ削除し、最後に削除したIDを返す")
+    void deleteChunk_deletesUsersInIdOrder() {
+        // Given: テストユーザーを3件挿入
+        assertThat(jdbcUserRepository.count()).isEqualTo(3);
+
+        // When: 2件ずつdeleteChunkを実行
+        UserDeleteChunkResult first = jdbcUserRepository.deleteChunk(null, 2);
+        UserDeleteChunkResult second = jdbcUserRepository.deleteChunk(first.lastId(), 2);
+        UserDeleteChunkResult third = jdbcUserRepository.deleteChunk(second.lastId(), 2);
+
+        // Then: ID順に削除され、削除対象がなくなると0件が返ることを確認
+        assertThat(first).isEqualTo(new UserDeleteChunkResult(2, "test-chunk-user-002"));
+        assertThat(second).isEqualTo(new UserDeleteChunkResult(1, "test-chunk-user-003"));
+        assertThat(third).isEqualTo(new UserDeleteChunkResult(0, null));
+        assertThat(jdbcUserRepository.count()).isZero();
+    }
+
     @Test
     @DisplayName("deleteAll: ユーザーが存在しない場合、削除されたレコード数0を返す")
     void deleteAll_whenNoUsersExist_returnsZero() {
@@ -717,4 +785,414 @@ class JdbcUserRepositoryTest {
         // Then: 空のOptionalが返されることを確認
         assertThat(result).isEmpty();
     }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('page-user-002', 'pageuser2', 'page2@example.com', '$2a$10$hash2',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                   ('page-user-001', 'pageuser1', 'page1@example.com', '$2a$10$hash1',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                   ('page-user-003', 'pageuser3', 'page3@example.com', '$2a$10$hash3',
+                    true, true, true, true, '2024-01-02 00:00:00', '2024-01-02 00:00:00');
+            """
+    })
+    @DisplayName("findPage: カーソル未指定の場合、(created_at, id) 昇順で先頭からlimit件を返す")
+    void findPage_whenCursorIsNull_returnsFirstPageOrderedByCreatedAtAndId() {
+        // Given: 作成日時が同じユーザーを含む3件を挿入
+
+        // When: カーソルなしでfindPageを実行
+        List<User> result = jdbcUserRepository.findPage(null, 2);
+
+        // Then: 作成日時、IDの順で先頭2件が取得できることを確認
+        assertThat(result).extracting(User::id)
+                .containsExactly("page-user-001", "page-user-002");
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('page-user-001', 'pageuser1', 'page1@example.com', '$2a$10$hash1',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                   ('page-user-002', 'pageuser2', 'page2@example.com', '$2a$10$hash2',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                   ('page-user-003', 'pageuser3', 'page3@example.com', '$2a$10$hash3',
+                    true, true, true, true, '2024-01-02 00:00:00', '2024-01-02 00:00:00');
+            """
+    })
+    @DisplayName("findPage: カーソル指定の場合、カーソル位置より後ろのユーザーのみを返す")
+    void findPage_whenCursorIsSpecified_returnsUsersAfterCursor() {
+        // Given: 1件目を指すカーソル
+        UserCursor cursor = new UserCursor(LocalDateTime.of(2024, 1, 1, 0, 0, 0), "page-user-001");
+
+        // When: カーソル指定でfindPageを実行
+        List<User> result = jdbcUserRepository.findPage(cursor, 10);
+
+        // Then: 同一作成日時でIDが大きいユーザーと、作成日時が後のユーザーが取得できることを確認
+        assertThat(result).extracting(User::id)
+                .containsExactly("page-user-002", "page-user-003");
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('stream-user-001', 'streamuser1', 'stream1@example.com', '$2a$10$hash1',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                   ('stream-user-002', 'streamuser2', 'stream2@example.com', '$2a$10$hash2',
+                    false, true, true, true, '2024-01-02 00:00:00', '2024-01-02 00:00:00');
+            """
+    })
+    @DisplayName("forEach: 全てのユーザーを (created_at, id) 昇順で1件ずつ渡す")
+    void forEach_whenUsersExist_passesAllUsersInOrder() {
+        // Given: テストユーザーを2件挿入
+        List<User> received = new ArrayList<>();
+
+        // When: forEachを実行
+        jdbcUserRepository.forEach(received::add);
+
+        // Then: 全ユーザーが作成日時順に渡されることを確認
+        assertThat(received).extracting(User::id)
+                .containsExactly("stream-user-001", "stream-user-002");
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at, version)
+            VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$test-password-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00', 5);
+            """
+    })
+    @DisplayName("update: バージョンが一致する場合、更新してバージョンを1増やす")
+    void update_whenVersionMatches_incrementsVersion() {
+        // Given: 現在のバージョン（5）を前提とした更新内容
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 2, 0, 0, 0);
+        User updatedUser = new User(
+                "test-user-id-001", "updateduser", "test@example.com", "$2a$10$test-password-hash",
+                true, true, true, true, LocalDateTime.of(2024, 1, 1, 0, 0, 0), updatedAt, 5L);
+
+        // When: updateを実行
+        Optional<User> result = jdbcUserRepository.update(updatedUser);
+
+        // Then: 更新後のユーザーのバージョンが6となることを確認
+        assertThat(result).isPresent();
+        assertThat(result.get().username()).isEqualTo("updateduser");
+        assertThat(result.get().version()).isEqualTo(6L);
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at, version)
+            VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$test-password-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00', 6);
+            """
+    })
+    @DisplayName("update: バージョンが一致しない場合、更新せずに空のOptionalを返す")
+    void update_whenVersionDoesNotMatch_returnsEmptyOptionalWithoutWriting() {
+        // Given: 取得後に他の更新でバージョンが進んだユーザー（取得時のバージョンは5）
+        User staleUser = new User(
+                "test-user-id-001", "updateduser", "test@example.com", "$2a$10$test-password-hash",
+                true, true, true, true, LocalDateTime.of(2024, 1, 1, 0, 0, 0),
+                LocalDateTime.of(2024, 1, 2, 0, 0, 0), 5L);
+
+        // When: updateを実行
+        Optional<User> result = jdbcUserRepository.update(staleUser);
+
+        // Then: 空のOptionalが返され、データベースの値が変わっていないことを確認
+        assertThat(result).isEmpty();
+        User current = jdbcUserRepository.findById("test-user-id-001").orElseThrow();
+        assertThat(current.username()).isEqualTo("testuser");
+        assertThat(current.version()).isEqualTo(6L);
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$test-password-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+            """
+    })
+    @DisplayName("patch: 指定した列のみを更新し、他の列は保持してバージョンを1増やす")
+    void patch_updatesOnlySpecifiedColumns() {
+        // Given: 有効フラグのみを変更する部分更新
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 2, 0, 0, 0);
+        UserPatch patch = new UserPatch(null, null, null, false, null, null, null, updatedAt);
+
+        // When: patchを実行
+        Optional<User> result = jdbcUserRepository.patch("test-user-id-001", 0L, patch);
+
+        // Then: 有効フラグと更新日時、バージョンのみが変わることを確認
+        assertThat(result).isPresent();
+        User patched = result.get();
+        assertThat(patched.enabled()).isFalse();
+        assertThat(patched.username()).isEqualTo("testuser");
+        assertThat(patched.passwordHash()).isEqualTo("$2a$10$test-password-hash");
+        assertThat(patched.updatedAt()).isEqualTo(updatedAt);
+        assertThat(patched.version()).isEqualTo(1L);
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$test-password-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+            """
+    })
+    @DisplayName("patch: 値が現在の値と同じ場合、書き込まずに空のOptionalを返す")
+    void patch_whenNothingChanges_doesNotWrite() {
+        // Given: 現在と同じ値への部分更新
+        UserPatch patch = new UserPatch("testuser", null, null, true, null, null, null,
+                LocalDateTime.of(2024, 1, 2, 0, 0, 0));
+
+        // When: patchを実行
+        Optional<User> result = jdbcUserRepository.patch("test-user-id-001", null, patch);
+
+        // Then: 空のOptionalが返され、更新日時とバージョンが変わっていないことを確認
+        assertThat(result).isEmpty();
+        assertThat(jdbcUserRepository.findVersionById("test-user-id-001"))
+                .contains(new UserVersion(0L, LocalDateTime.of(2024, 1, 1, 0, 0, 0)));
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$test-password-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+            """
+    })
+    @DisplayName("updatePasswordHash: 現在のハッシュが一致する場合、バージョンと更新日時を変えずにハッシュのみ置き換える")
+    void updatePasswordHash_whenHashMatches_replacesHashOnly() {
+        // When: 保存済みのハッシュを指定してupdatePasswordHashを実行
+        boolean updated = jdbcUserRepository.updatePasswordHash(
+                "test-user-id-001", "$2a$10$test-password-hash", "{bcrypt}$2a$12$new-password-hash");
+
+        // Then: ハッシュが置き換わり、バージョンと更新日時は変わっていないことを確認
+        assertThat(updated).isTrue();
+        assertThat(jdbcUserRepository.findById("test-user-id-001"))
+                .map(User::passwordHash)
+                .contains("{bcrypt}$2a$12$new-password-hash");
+        assertThat(jdbcUserRepository.findVersionById("test-user-id-001"))
+                .contains(new UserVersion(0L, LocalDateTime.of(2024, 1, 1, 0, 0, 0)));
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$changed-password-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+            """
+    })
+    @DisplayName("updatePasswordHash: 読み込み後にパスワードが変更されていた場合、上書きせずにfalseを返す")
+    void updatePasswordHash_whenHashChanged_doesNotOverwrite() {
+        // When: 変更前のハッシュを指定してupdatePasswordHashを実行
+        boolean updated = jdbcUserRepository.updatePasswordHash(
+                "test-user-id-001", "$2a$10$test-password-hash", "{bcrypt}$2a$12$new-password-hash");
+
+        // Then: 変更後のハッシュが維持されていることを確認
+        assertThat(updated).isFalse();
+        assertThat(jdbcUserRepository.findById("test-user-id-001"))
+                .map(User::passwordHash)
+                .contains("$2a$10$changed-password-hash");
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at, version)
+            VALUES ('test-user-id-001', 'testuser', 'test@example.com', '$2a$10$test-password-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00', 2);
+            """
+    })
+    @DisplayName("patch: バージョンが一致しない場合、更新せずに空のOptionalを返す")
+    void patch_whenVersionDoesNotMatch_returnsEmptyOptional() {
+        // Given: 古いバージョンを前提とした部分更新
+        UserPatch patch = new UserPatch(null, null, null, false, null, null, null,
+                LocalDateTime.of(2024, 1, 2, 0, 0, 0));
+
+        // When: patchを実行
+        Optional<User> result = jdbcUserRepository.patch("test-user-id-001", 1L, patch);
+
+        // Then: 空のOptionalが返され、有効フラグが変わっていないことを確認
+        assertThat(result).isEmpty();
+        assertThat(jdbcUserRepository.findById("test-user-id-001").orElseThrow().enabled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("update: ユーザーが存在しない場合、空のOptionalを返す")
+    void update_whenUserDoesNotExist_returnsEmptyOptional() {
+        // Given: 存在しないIDのユーザー
+        LocalDateTime now = LocalDateTime.of(2024, 6, 15, 10, 30, 0);
+        User user = new User(
+                "non-existent-user-id",
+                "nouser",
+                "nouser@example.com",
+                "$2a$10$hash",
+                true,
+                true,
+                true,
+                true,
+                now,
+                now
+        );
+
+        // When: updateを実行
+        Optional<User> result = jdbcUserRepository.update(user);
+
+        // Then: 空のOptionalが返され、行が作成されないことを確認
+        assertThat(result).isEmpty();
+        assertThat(jdbcUserRepository.findById("non-existent-user-id")).isEmpty();
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('existing-user-id', 'existinguser', 'existing@example.com', '$2a$10$existing-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+            """
+    })
+    @DisplayName("insert: メールアドレスが重複する場合、フィールド名付きのDuplicateUserExceptionをスローする")
+    void insert_whenEmailIsDuplicated_throwsDuplicateUserException() {
+        // Given: 既存ユーザーと同じメールアドレスの新規ユーザー
+        LocalDateTime now = LocalDateTime.of(2024, 6, 15, 10, 30, 0);
+        User newUser = new User(
+                null,
+                "anotheruser",
+                "existing@example.com",
+                "$2a$10$new-hash",
+                true,
+                true,
+                true,
+                true,
+                now,
+                now
+        );
+
+        // When & Then: UNIQUE制約名からメールアドレスの重複と判定されることを確認
+        assertThatThrownBy(() -> jdbcUserRepository.insert(newUser))
+                .isInstanceOf(DuplicateUserException.class)
+                .extracting("fieldName").isEqualTo("メールアドレス");
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('existing-user-id', 'existinguser', 'existing@example.com', '$2a$10$existing-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                   ('target-user-id', 'targetuser', 'target@example.com', '$2a$10$target-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+            """
+    })
+    @DisplayName("update: ユーザー名が他のユーザーと重複する場合、フィールド名付きのDuplicateUserExceptionをスローする")
+    void update_whenUsernameIsDuplicated_throwsDuplicateUserException() {
+        // Given: 他のユーザーと同じユーザー名に変更したユーザー
+        LocalDateTime now = LocalDateTime.of(2024, 6, 15, 10, 30, 0);
+        User updatedUser = new User(
+                "target-user-id",
+                "existinguser",
+                "target@example.com",
+                "$2a$10$target-hash",
+                true,
+                true,
+                true,
+                true,
+                LocalDateTime.of(2024, 1, 1, 0, 0, 0),
+                now
+        );
+
+        // When & Then: UNIQUE制約名からユーザー名の重複と判定されることを確認
+        assertThatThrownBy(() -> jdbcUserRepository.update(updatedUser))
+                .isInstanceOf(DuplicateUserException.class)
+                .extracting("fieldName").isEqualTo("ユーザー名");
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('existing-user-id', 'existinguser', 'existing@example.com', '$2a$10$existing-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+            """
+    })
+    @DisplayName("insertAll: 重複しない要素のみ登録し、入力と同じ順序で結果を返す")
+    void insertAll_whenSomeUsersAreDuplicated_insertsOnlyUniqueUsers() {
+        // Given: 新規、既存と重複、リスト内で重複する要素を含むユーザー
+        LocalDateTime now = LocalDateTime.of(2024, 6, 15, 10, 30, 0);
+        List<User> users = List.of(
+                new User(null, "batchuser1", "batch1@example.com", "$2a$10$hash1",
+                        true, true, true, true, now, now),
+                new User(null, "batchuser2", "existing@example.com", "$2a$10$hash2",
+                        true, true, true, true, now, now),
+                new User(null, "batchuser1", "batch3@example.com", "$2a$10$hash3",
+                        false, true, true, true, now, now)
+        );
+
+        // When: insertAllを実行
+        List<Optional<User>> results = jdbcUserRepository.insertAll(users);
+
+        // Then: 先頭の要素のみ登録されることを確認
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0)).isPresent();
+        assertThat(results.get(0).get().id()).isNotBlank();
+        assertThat(results.get(0).get().username()).isEqualTo("batchuser1");
+        assertThat(results.get(0).get().createdAt().withNano(0)).isEqualTo(now);
+        assertThat(results.get(1)).isEmpty();
+        assertThat(results.get(2)).isEmpty();
+        assertThat(jdbcUserRepository.findByEmail("batch3@example.com")).isEmpty();
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            VALUES ('existing-user-id', 'existinguser', 'existing@example.com', '$2a$10$existing-hash',
+                    true, true, true, true, '2024-01-01 00:00:00', '2024-01-01 00:00:00');
+            """
+    })
+    @DisplayName("findExistingEmails: 登録済みのメールアドレスのみを返す")
+    void findExistingEmails_returnsOnlyRegisteredEmails() {
+        // When: 登録済みと未登録のメールアドレスで実行
+        Set<String> result = jdbcUserRepository.findExistingEmails(
+                List.of("existing@example.com", "unknown@example.com"));
+
+        // Then: 登録済みのメールアドレスのみが返されることを確認
+        assertThat(result).containsExactly("existing@example.com");
+    }
 }
@@ -0,0 +1,76 @@
+package com.yusay.user.api.infrastructure;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PermissionAuthorizationManager のテスト")
+class PermissionAuthorizationManagerTest {
+
+    private RolePermissionRegistry registry;
+    private PermissionAuthorizationManager<Object> manager;
+
+    @BeforeEach
+    void setUp() {
+        registry = mock(RolePermissionRegistry.class);
+        when(registry.current()).thenReturn(RolePermissionMatrix.of(
+                Set.of("ROLE_WRITE", "USER_READ"),
+                Map.of("ROLE_ADMIN", Set.of("ROLE_WRITE", "USER_READ"), "ROLE_USER", Set.of("USER_READ"))));
+        manager = new PermissionAuthorizationManager<>(registry, "ROLE_WRITE");
+    }
+
+    @Test
+    @DisplayName("authorize: ロールが権限を持つ場合は許可する")
+    void authorize_whenRoleHasPermission_grants() {
+        // Arrange
+        var authentication = UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+
+        // Act & Assert
+        assertThat(manager.authorize(() -> authentication, new Object()).isGranted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("authorize: ロールが権限を持たない場合は拒否する")
+    void authorize_whenRoleLacksPermission_denies() {
+        // Arrange
+        var authentication = UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        // Act & Assert
+        assertThat(manager.authorize(() -> authentication, new Object()).isGranted()).isFalse();
+    }
+
+    @Test
+    @DisplayName("authorize: 未認証・匿名ユーザーは拒否する")
+    void authorize_whenNotAuthenticated_denies() {
+        // Arrange
+        var unauthenticated = UsernamePasswordAuthenticationToken.unauthenticated("admin", "password");
+        var anonymous = new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        // Act & Assert
+        assertThat(manager.authorize(() -> null, new Object()).isGranted()).isFalse();
+        assertThat(manager.authorize(() -> unauthenticated, new Object()).isGranted()).isFalse();
+        assertThat(manager.authorize(() -> anonymous, new Object()).isGranted()).isFalse();
+    }
+
+    @Test
+    @DisplayName("コンストラクタ: 権限名が空の場合は例外をスローする")
+    void constructor_withBlankPermission_throwsException() {
+        // Act & Assert
+        assertThatThrownBy(() -> new PermissionAuthorizationManager<>(registry, " "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,212 @@
+package com.yusay.user.api.infrastructure;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.replication.LogSequenceNumber;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReplicaReadFence のテスト")
+class ReplicaReadFenceTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+
+    private JdbcClient jdbcClient;
+    private AtomicLong nanos;
+    private ReplicaReadFence fence;
+
+    @BeforeEach
+    void setUp() {
+        jdbcClient = mock(JdbcClient.class, RETURNS_DEEP_STUBS);
+        nanos = new AtomicLong();
+        fence = new ReplicaReadFence(jdbcClient, true, WINDOW, 100, nanos::get);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWritesContext.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replayLsnIs(String lsn) {
+        when(jdbcClient.sql(anyString()).query(any(RowMapper.class)).list())
+                .thenReturn(Arrays.asList(new String[] {lsn}));
+    }
+
+    private void written(String payload, String lsn) {
+        fence.advance(List.of(payload), LogSequenceNumber.valueOf(lsn));
+    }
+
+    @Test
+    @DisplayName("読み書き分離が無効の場合は常にキャッシュを許可する")
+    void allowsCaching_whenRoutingDisabled_returnsTrue() {
+        // Arrange
+        ReplicaReadFence disabled = new ReplicaReadFence(jdbcClient, false, WINDOW, 100, nanos::get);
+        disabled.advanceAll(LogSequenceNumber.valueOf("0/2000000"));
+
+        // Act & Assert
+        assertThat(disabled.allowsCaching(ReplicaReadFence.idKey("user-1"))).isTrue();
+        verify(jdbcClient, never()).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("変更通知を受信していない場合は問い合わせずにキャッシュを許可する")
+    void allowsCaching_withoutFence_returnsTrue() {
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isTrue();
+        verify(jdbcClient, never()).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("他のユーザーへの書き込みが続いていても、書き込まれていないキーは問い合わせずにキャッシュを許可する")
+    void allowsCaching_whenOtherKeysWritten_returnsTrueWithoutQuery() {
+        // Arrange: 他のユーザーの変更・登録を受信し続けている状態
+        written("user-2", "0/2000000");
+        written(UserCacheInvalidationPublisher.NEW_EMAIL_PREFIX + "other@example.com", "0/2000100");
+        written("user-3", "0/2000200");
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isTrue();
+        assertThat(fence.allowsCaching(ReplicaReadFence.emailKey("user1@example.com"))).isTrue();
+        assertThat(fence.allowsCaching(ReplicaReadFence.usernameKey("user1"))).isTrue();
+        verify(jdbcClient, never()).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("読み取り専用でない（プライマリで実行する）場合はキャッシュを許可する")
+    void allowsCaching_whenNotReadOnly_returnsTrue() {
+        // Arrange
+        written("user-1", "0/2000000");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isTrue();
+        verify(jdbcClient, never()).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("レプリカが書き込まれたキーのフェンスまで再生済みでない場合はキャッシュを許可しない")
+    void allowsCaching_whenReplicaBehind_returnsFalse() {
+        // Arrange
+        written("user-1", "0/2000000");
+        replayLsnIs("0/1000000");
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("新しいメールアドレス・ユーザー名の通知は、そのキーのフェンスとなる")
+    void allowsCaching_whenNewEmailWritten_fencesEmailKey() {
+        // Arrange
+        written(UserCacheInvalidationPublisher.NEW_EMAIL_PREFIX + "new@example.com", "0/2000000");
+        written(UserCacheInvalidationPublisher.NEW_USERNAME_PREFIX + "newuser", "0/2000000");
+        replayLsnIs("0/1000000");
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.emailKey("new@example.com"))).isFalse();
+        assertThat(fence.allowsCaching(ReplicaReadFence.usernameKey("newuser"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("レプリカがフェンスまで再生済みの場合はキャッシュを許可する")
+    void allowsCaching_whenReplicaCaughtUp_returnsTrue() {
+        // Arrange
+        written("user-1", "0/2000000");
+        replayLsnIs("0/2000000");
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("プライマリへフォールバックした場合（再生済みLSNがnull）はキャッシュを許可する")
+    void allowsCaching_whenFallbackToPrimary_returnsTrue() {
+        // Arrange
+        written("user-1", "0/2000000");
+        replayLsnIs(null);
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("クライアントが要求するLSNがフェンス以上の場合は問い合わせずにキャッシュを許可する")
+    void allowsCaching_whenRequiredLsnCoversFence_skipsQuery() {
+        // Arrange
+        written("user-1", "0/2000000");
+        ReadYourWritesContext.bind(LogSequenceNumber.valueOf("0/3000000"), lsn -> { });
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isTrue();
+        verify(jdbcClient, never()).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("フェンスは期間を過ぎると破棄され、問い合わせずにキャッシュを許可する")
+    void allowsCaching_afterWindow_returnsTrueWithoutQuery() {
+        // Arrange
+        written("user-1", "0/2000000");
+        nanos.addAndGet(WINDOW.plusMillis(1).toNanos());
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isTrue();
+        verify(jdbcClient, never()).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("全件の破棄・一括取り込みの通知は全てのキーのフェンスとなる")
+    void allowsCaching_whenAllInvalidated_fencesEveryKey() {
+        // Arrange
+        written(UserCacheInvalidationPublisher.NEW_KEYS, "0/2000000");
+        replayLsnIs("0/1000000");
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isFalse();
+        assertThat(fence.allowsCaching(ReplicaReadFence.emailKey("user1@example.com"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("advance: キーのフェンスは後退しない")
+    void advance_doesNotMoveBackwards() {
+        // Arrange
+        written("user-1", "0/2000000");
+        written("user-1", "0/1000000");
+        replayLsnIs("0/1800000");
+
+        // Act & Assert
+        assertThat(fence.allowsCaching(ReplicaReadFence.idKey("user-1"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("isFenced: 期間内に書き込まれたキーのみtrueを返す")
+    void isFenced_returnsTrueOnlyForRecentlyWrittenKeys() {
+        // Arrange
+        written("user-1", "0/2000000");
+
+        // Act & Assert
+        assertThat(fence.isFenced(ReplicaReadFence.idKey("user-1"))).isTrue();
+        assertThat(fence.isFenced(ReplicaReadFence.idKey("user-2"))).isFalse();
+        nanos.addAndGet(WINDOW.plusMillis(1).toNanos());
+        assertThat(fence.isFenced(ReplicaReadFence.idKey("user-1"))).isFalse();
+    }
+}
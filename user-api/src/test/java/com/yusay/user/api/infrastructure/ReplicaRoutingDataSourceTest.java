@@ -0,0 +1,161 @@
+package com.yusay.user.api.infrastructure;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.replication.LogSequenceNumber;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReplicaRoutingDataSource のテスト")
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(1);
+
+    private DataSource primary;
+    private Connection primaryConnection;
+    private DataSource replicaDataSource1;
+    private Connection replicaConnection1;
+    private DataSource replicaDataSource2;
+    private Connection replicaConnection2;
+    private ReplicaRoutingDataSource.Replica replica1;
+    private ReplicaRoutingDataSource.Replica replica2;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        replicaDataSource1 = mock(DataSource.class);
+        replicaConnection1 = mock(Connection.class);
+        when(replicaDataSource1.getConnection()).thenReturn(replicaConnection1);
+
+        replicaDataSource2 = mock(DataSource.class);
+        replicaConnection2 = mock(Connection.class);
+        when(replicaDataSource2.getConnection()).thenReturn(replicaConnection2);
+
+        replica1 = new ReplicaRoutingDataSource.Replica("replica-0", replicaDataSource1);
+        replica2 = new ReplicaRoutingDataSource.Replica("replica-1", replicaDataSource2);
+        routingDataSource = new ReplicaRoutingDataSource(
+                primary, List.of(replica1, replica2), MAX_LAG, Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+    }
+
+    @Test
+    @DisplayName("getConnection: 遅延の無いレプリカへラウンドロビンで振り分ける")
+    void getConnection_roundRobinAcrossHealthyReplicas() throws SQLException {
+        // Given: 両方のレプリカが同じ位置まで再生済み
+        replica1.update(LogSequenceNumber.valueOf("0/3000000"), Duration.ZERO);
+        replica2.update(LogSequenceNumber.valueOf("0/3000000"), Duration.ZERO);
+
+        // When: 接続を2回取得
+        Connection first = routingDataSource.getConnection();
+        Connection second = routingDataSource.getConnection();
+
+        // Then: 各レプリカへ1回ずつ振り分けられることを確認
+        assertThat(List.of(first, second))
+                .containsExactlyInAnyOrder(replicaConnection1, replicaConnection2);
+    }
+
+    @Test
+    @DisplayName("getConnection: 要求LSNまで再生済みのレプリカのみを選択する")
+    void getConnection_selectsReplicaCaughtUpToRequiredLsn() throws SQLException {
+        // Given: replica1のみが要求LSNまで再生済み
+        replica1.update(LogSequenceNumber.valueOf("0/3000000"), Duration.ZERO);
+        replica2.update(LogSequenceNumber.valueOf("0/1000000"), Duration.ZERO);
+        ReadYourWritesContext.bind(LogSequenceNumber.valueOf("0/2000000"), lsn -> { });
+
+        // When & Then: 何度取得してもreplica1が選択されることを確認
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection1);
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection1);
+    }
+
+    @Test
+    @DisplayName("getConnection: 全レプリカが要求LSNに追いついていない場合はプライマリへフォールバックする")
+    void getConnection_fallsBackToPrimaryWhenReplicasAreBehind() throws SQLException {
+        // Given: 全レプリカが要求LSNより前の位置
+        replica1.update(LogSequenceNumber.valueOf("0/1000000"), Duration.ZERO);
+        replica2.update(LogSequenceNumber.valueOf("0/1000000"), Duration.ZERO);
+        ReadYourWritesContext.bind(LogSequenceNumber.valueOf("0/2000000"), lsn -> { });
+
+        // When: 接続を取得
+        Connection connection = routingDataSource.getConnection();
+
+        // Then: プライマリの接続が返されることを確認
+        assertThat(connection).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection: 遅延が許容値を超えるレプリカは選択しない")
+    void getConnection_skipsLaggingReplica() throws SQLException {
+        // Given: replica1の遅延が許容値を超えている
+        replica1.update(LogSequenceNumber.valueOf("0/3000000"), Duration.ofSeconds(5));
+        replica2.update(LogSequenceNumber.valueOf("0/3000000"), Duration.ofMillis(100));
+
+        // When & Then: replica2のみが選択されることを確認
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection2);
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection2);
+    }
+
+    @Test
+    @DisplayName("getConnection: 状態を取得できていないレプリカは選択しない")
+    void getConnection_skipsReplicaWithoutStatus() throws SQLException {
+        // Given: 監視前で状態が不明なレプリカのみ
+
+        // When: 接続を取得
+        Connection connection = routingDataSource.getConnection();
+
+        // Then: プライマリの接続が返されることを確認
+        assertThat(connection).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection: 接続に失敗したレプリカを除外して次の候補へ振り分ける")
+    void getConnection_excludesUnavailableReplica() throws SQLException {
+        // Given: replica1への接続が失敗する
+        replica1.update(LogSequenceNumber.valueOf("0/3000000"), Duration.ZERO);
+        replica2.update(LogSequenceNumber.valueOf("0/3000000"), Duration.ZERO);
+        when(replicaDataSource1.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        // When: 接続を2回取得
+        Connection first = routingDataSource.getConnection();
+        Connection second = routingDataSource.getConnection();
+
+        // Then: 両方ともreplica2の接続が返されることを確認
+        assertThat(first).isSameAs(replicaConnection2);
+        assertThat(second).isSameAs(replicaConnection2);
+    }
+
+    @Test
+    @DisplayName("recordWrite: コミット後のLSNを以降の読み取りに要求しリスナーへ通知する")
+    void recordWrite_raisesRequiredLsnAndNotifiesListener() throws SQLException {
+        // Given: replica1のみが書き込み位置まで再生済み
+        replica1.update(LogSequenceNumber.valueOf("0/3000000"), Duration.ZERO);
+        replica2.update(LogSequenceNumber.valueOf("0/1000000"), Duration.ZERO);
+        LogSequenceNumber[] notified = new LogSequenceNumber[1];
+        ReadYourWritesContext.bind(null, lsn -> notified[0] = lsn);
+
+        // When: 書き込みのコミットを記録
+        ReadYourWritesContext.recordWrite(LogSequenceNumber.valueOf("0/2000000"));
+
+        // Then: リスナーへ通知され、以降の読み取りは追いついたレプリカへ振り分けられることを確認
+        assertThat(notified[0]).isEqualTo(LogSequenceNumber.valueOf("0/2000000"));
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection1);
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.yusay.user.api.infrastructure;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RolePermissionMatrix のテスト")
+class RolePermissionMatrixTest {
+
+    private static final RolePermissionMatrix MATRIX = RolePermissionMatrix.of(
+            List.of("USER_READ", "USER_WRITE", "USER_DELETE", "AUDIT_READ"),
+            Map.of(
+                    "ROLE_ADMIN", Set.of("USER_READ", "USER_WRITE", "USER_DELETE", "AUDIT_READ"),
+                    "ROLE_MODERATOR", Set.of("USER_READ", "USER_WRITE", "AUDIT_READ"),
+                    "ROLE_USER", Set.of("USER_READ"),
+                    "ROLE_GUEST", Set.of()));
+
+    @Test
+    @DisplayName("hasPermission: ロールに割り当てられた権限のビットのみ立っている")
+    void hasPermission_returnsTrueOnlyForAssignedPermissions() {
+        // Arrange
+        int read = MATRIX.bitOf("USER_READ");
+        int delete = MATRIX.bitOf("USER_DELETE");
+
+        // Act & Assert
+        assertThat(MATRIX.hasPermission("ROLE_ADMIN", delete)).isTrue();
+        assertThat(MATRIX.hasPermission("ROLE_MODERATOR", delete)).isFalse();
+        assertThat(MATRIX.hasPermission("ROLE_USER", read)).isTrue();
+        assertThat(MATRIX.hasPermission("ROLE_GUEST", read)).isFalse();
+    }
+
+    @Test
+    @DisplayName("hasPermission: 存在しないロール・権限はfalseを返す")
+    void hasPermission_whenUnknown_returnsFalse() {
+        // Act & Assert
+        assertThat(MATRIX.bitOf("ROLE_WRITE")).isEqualTo(-1);
+        assertThat(MATRIX.hasPermission("ROLE_ADMIN", MATRIX.bitOf("ROLE_WRITE"))).isFalse();
+        assertThat(MATRIX.hasPermission("ROLE_MISSING", MATRIX.bitOf("USER_READ"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("hasPermission: いずれかのロールが権限を持つ場合にtrueを返す")
+    void hasPermission_withAuthorities_returnsTrueIfAnyRoleHasPermission() {
+        // Act & Assert
+        assertThat(MATRIX.hasPermission(
+                AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_MODERATOR"), "AUDIT_READ")).isTrue();
+        assertThat(MATRIX.hasPermission(
+                AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ANONYMOUS"), "AUDIT_READ")).isFalse();
+        assertThat(MATRIX.hasPermission(AuthorityUtils.createAuthorityList(), "USER_READ")).isFalse();
+    }
+
+    @Test
+    @DisplayName("permissionsOf: ロールが持つ権限名の和集合を返す（存在しないロールは無視する）")
+    void permissionsOf_returnsUnionOfPermissions() {
+        // Act & Assert
+        assertThat(MATRIX.permissionsOf(List.of("ROLE_USER", "ROLE_MODERATOR", "ROLE_MISSING")))
+                .containsExactlyInAnyOrder("USER_READ", "USER_WRITE", "AUDIT_READ");
+        assertThat(MATRIX.permissionsOf(List.of("ROLE_GUEST"))).isEmpty();
+        assertThat(MATRIX.permissionsOf(List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("of: 64を超える権限を複数のlongに割り当てる")
+    void of_withMoreThan64Permissions_spansMultipleWords() {
+        // Arrange
+        List<String> permissions = IntStream.range(0, 130)
+                .mapToObj(i -> String.format("PERMISSION_%03d", i))
+                .toList();
+        Set<String> odd = IntStream.range(0, 130)
+                .filter(i -> i % 2 == 1)
+                .mapToObj(permissions::get)
+                .collect(Collectors.toSet());
+
+        // Act
+        RolePermissionMatrix matrix = RolePermissionMatrix.of(permissions, Map.of("ROLE_ODD", odd));
+
+        // Assert
+        assertThat(matrix.permissionCount()).isEqualTo(130);
+        assertThat(matrix.hasPermission("ROLE_ODD", matrix.bitOf("PERMISSION_127"))).isTrue();
+        assertThat(matrix.hasPermission("ROLE_ODD", matrix.bitOf("PERMISSION_128"))).isFalse();
+        assertThat(matrix.permissionsOf(List.of("ROLE_ODD"))).isEqualTo(odd);
+    }
+
+    @Test
+    @DisplayName("of: 権限名の一覧に無い権限がロールに割り当てられている場合もビットを割り当てる")
+    void of_withPermissionMissingFromNames_assignsBit() {
+        // Act
+        RolePermissionMatrix matrix = RolePermissionMatrix.of(
+                List.of("USER_READ"), Map.of("ROLE_USER", Set.of("USER_READ", "USER_EXPORT")));
+
+        // Assert
+        assertThat(matrix.permissionCount()).isEqualTo(2);
+        assertThat(matrix.permissionsOf(List.of("ROLE_USER"))).containsExactlyInAnyOrder("USER_READ", "USER_EXPORT");
+    }
+
+    @Test
+    @DisplayName("equals: 同じ対応から構築したスナップショットは等しく、割り当てが変わると等しくない")
+    void equals_comparesContents() {
+        // Arrange
+        RolePermissionMatrix same = RolePermissionMatrix.of(
+                List.of("AUDIT_READ", "USER_DELETE", "USER_WRITE", "USER_READ"),
+                Map.of(
+                        "ROLE_ADMIN", Set.of("USER_READ", "USER_WRITE", "USER_DELETE", "AUDIT_READ"),
+                        "ROLE_MODERATOR", Set.of("USER_READ", "USER_WRITE", "AUDIT_READ"),
+                        "ROLE_USER", Set.of("USER_READ"),
+                        "ROLE_GUEST", Set.of()));
+        RolePermissionMatrix changed = RolePermissionMatrix.of(
+                List.of("USER_READ", "USER_WRITE", "USER_DELETE", "AUDIT_READ"),
+                Map.of(
+                        "ROLE_ADMIN", Set.of("USER_READ", "USER_WRITE", "USER_DELETE", "AUDIT_READ"),
+                        "ROLE_MODERATOR", Set.of("USER_READ", "USER_WRITE", "AUDIT_READ"),
+                        "ROLE_USER", Set.of("USER_READ", "AUDIT_READ"),
+                        "ROLE_GUEST", Set.of()));
+
+        // Act & Assert
+        assertThat(same).isEqualTo(MATRIX).hasSameHashCodeAs(MATRIX);
+        assertThat(changed).isNotEqualTo(MATRIX);
+    }
+}
@@ -0,0 +1,100 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.repository.RolePermissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("RolePermissionRegistry のテスト")
+class RolePermissionRegistryTest {
+
+    private RolePermissionRepository rolePermissionRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private RolePermissionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        rolePermissionRepository = mock(RolePermissionRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        registry = new RolePermissionRegistry(rolePermissionRepository, eventPublisher);
+        when(rolePermissionRepository.findAllPermissionNames()).thenReturn(List.of("USER_READ", "USER_WRITE"));
+        when(rolePermissionRepository.findPermissionNamesByRole())
+                .thenReturn(Map.of("ROLE_USER", Set.of("USER_READ")));
+    }
+
+    @Test
+    @DisplayName("current: 初回のみ読み込み、以降は同じスナップショットを返す")
+    void current_loadsOnce() {
+        // Act
+        RolePermissionMatrix first = registry.current();
+        RolePermissionMatrix second = registry.current();
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(first.permissionsOf(List.of("ROLE_USER"))).containsExactly("USER_READ");
+        verify(rolePermissionRepository, times(1)).findPermissionNamesByRole();
+    }
+
+    @Test
+    @DisplayName("reload: 対応が変わっていない場合はスナップショットを差し替えず、イベントを発行しない")
+    void reload_whenUnchanged_keepsSnapshot() {
+        // Arrange
+        RolePermissionMatrix before = registry.current();
+
+        // Act
+        boolean replaced = registry.reload();
+
+        // Assert
+        assertThat(replaced).isFalse();
+        assertThat(registry.current()).isSameAs(before);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("reload: 対応が変わった場合はスナップショットを差し替え、イベントを発行する")
+    void reload_whenChanged_replacesSnapshotAndPublishesEvent() {
+        // Arrange
+        registry.current();
+        when(rolePermissionRepository.findPermissionNamesByRole())
+                .thenReturn(Map.of("ROLE_USER", Set.of("USER_READ", "USER_WRITE")));
+
+        // Act
+        boolean replaced = registry.reload();
+
+        // Assert
+        assertThat(replaced).isTrue();
+        assertThat(registry.current().permissionsOf(List.of("ROLE_USER"))).containsExactly("USER_READ", "USER_WRITE");
+        verify(eventPublisher).publishEvent(new RolePermissionsChangedEvent(registry.current()));
+    }
+
+    @Test
+    @DisplayName("reload: 読み込みに失敗した場合は差し替え前のスナップショットを使い続ける")
+    void reload_whenLoadFails_keepsSnapshot() {
+        // Arrange
+        RolePermissionMatrix before = registry.current();
+        when(rolePermissionRepository.findPermissionNamesByRole())
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // Act
+        boolean replaced = registry.reload();
+
+        // Assert
+        assertThat(replaced).isFalse();
+        assertThat(registry.current()).isSameAs(before);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
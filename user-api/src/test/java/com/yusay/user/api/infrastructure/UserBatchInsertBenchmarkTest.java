@@ -0,0 +1,109 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.TestcontainersConfiguration;
+import com.yusay.user.api.domain.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ユーザーの一括登録（unnestによる1文・1往復の insertAll）と、同じ件数の insert の繰り返しの
+ * 1件あたりの登録時間を比較するベンチマーク
+ *
+ * どちらも同じトランザクション内で実行し、文の数と往復回数の違いのみを比較する
+ *
+ * 通常のテスト実行には含めず、{@code -Dbenchmark=true} を指定した場合のみ実行する
+ * （例: {@code mvn test -Dtest=UserBatchInsertBenchmarkTest -Dbenchmark=true}）
+ */
+@JdbcTest
+@Import({TestcontainersConfiguration.class, JdbcUserRepository.class})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("ユーザーの一括登録のベンチマーク")
+class UserBatchInsertBenchmarkTest {
+
+    private static final int[] BATCH_SIZES = {10, 100, 1_000};
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+
+    @Autowired
+    private JdbcUserRepository jdbcUserRepository;
+
+    private int sequence;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.sql.init.mode", () -> "always");
+    }
+
+    @Test
+    @DisplayName("insertの繰り返しとinsertAll（unnest）の1件あたりの登録時間をバッチサイズごとに比較する")
+    void compareSingleInsertsWithBatchInsert() {
+        System.out.printf("%8s %16s %16s %8s%n", "batch", "single us/row", "unnest us/row", "ratio");
+        for (int batchSize : BATCH_SIZES) {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                insertSingly(users(batchSize));
+                insertAll(users(batchSize));
+            }
+
+            long singleNanos = 0;
+            long batchNanos = 0;
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                singleNanos += insertSingly(users(batchSize));
+                batchNanos += insertAll(users(batchSize));
+            }
+
+            double rows = (double) batchSize * MEASURED_ITERATIONS;
+            double singleMicrosPerRow = singleNanos / rows / 1_000.0;
+            double batchMicrosPerRow = batchNanos / rows / 1_000.0;
+            System.out.printf("%8d %16.1f %16.1f %7.1fx%n",
+                    batchSize, singleMicrosPerRow, batchMicrosPerRow, singleMicrosPerRow / batchMicrosPerRow);
+
+            // 1往復で登録するため、件数が多いほど繰り返しより速くなる
+            if (batchSize >= 100) {
+                assertThat(batchNanos).isLessThan(singleNanos);
+            }
+        }
+    }
+
+    private long insertSingly(List<User> users) {
+        long startedAt = System.nanoTime();
+        for (User user : users) {
+            jdbcUserRepository.insert(user);
+        }
+        return System.nanoTime() - startedAt;
+    }
+
+    private long insertAll(List<User> users) {
+        long startedAt = System.nanoTime();
+        List<Optional<User>> results = jdbcUserRepository.insertAll(users);
+        long elapsed = System.nanoTime() - startedAt;
+        assertThat(results).allSatisfy(result -> assertThat(result).isPresent());
+        return elapsed;
+    }
+
+    /**
+     * 重複しないユーザー名・メールアドレスのユーザーを生成する（IDは登録時に採番する）
+     */
+    private List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int n = sequence++;
+            users.add(new User(null, "benchuser" + n, "benchuser" + n + "@example.com", "$2a$10$hash",
+                    true, true, true, true, NOW, NOW));
+        }
+        return users;
+    }
+}
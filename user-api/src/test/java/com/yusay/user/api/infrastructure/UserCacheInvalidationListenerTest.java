@@ -0,0 +1,109 @@
+package com.yusay.user.api.infrastructure;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("UserCacheInvalidationListener のテスト")
+class UserCacheInvalidationListenerTest {
+
+    private CachingUserRepository cachingUserRepository;
+    private CachingUserAuthorityRepository cachingUserAuthorityRepository;
+    private UserCacheInvalidationListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cachingUserRepository = mock(CachingUserRepository.class);
+        cachingUserAuthorityRepository = mock(CachingUserAuthorityRepository.class);
+        ObjectProvider<JdbcConnectionDetails> connectionDetails = mock(ObjectProvider.class);
+        JdbcConnectionDetails details = mock(JdbcConnectionDetails.class);
+        when(details.getJdbcUrl()).thenReturn("jdbc:postgresql://localhost:5432/users");
+        when(connectionDetails.getIfAvailable()).thenReturn(details);
+        listener = new UserCacheInvalidationListener(
+                cachingUserRepository, cachingUserAuthorityRepository, mock(ReplicaReadFence.class), connectionDetails, new DataSourceProperties(),
+                Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    private static PGNotification notification(String payload) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getName()).thenReturn(UserCacheInvalidationPublisher.CHANNEL);
+        when(notification.getParameter()).thenReturn(payload);
+        return notification;
+    }
+
+    @Test
+    @DisplayName("handle: ユーザーIDの通知を受信した場合は該当ユーザーのキャッシュを破棄する")
+    void handle_invalidatesNotifiedUser() {
+        // Act
+        listener.handle(new PGNotification[] {notification("user-1"), notification("user-2")});
+
+        // Assert
+        verify(cachingUserRepository).invalidate("user-1");
+        verify(cachingUserRepository).invalidate("user-2");
+        verify(cachingUserRepository, never()).invalidateAll();
+        verify(cachingUserAuthorityRepository).invalidate("user-1");
+        verify(cachingUserAuthorityRepository).invalidate("user-2");
+    }
+
+    @Test
+    @DisplayName("handle: 全件の通知を受信した場合はキャッシュ全体を破棄する")
+    void handle_invalidatesAllOnWildcard() {
+        // Act
+        listener.handle(new PGNotification[] {notification(UserCacheInvalidationPublisher.ALL)});
+
+        // Assert
+        verify(cachingUserRepository).invalidateAll();
+        verify(cachingUserAuthorityRepository).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("handle: 新しいキーの通知を受信した場合は「存在しない」キャッシュのみを破棄する")
+    void handle_invalidatesMissingOnNewKeys() {
+        // Act
+        listener.handle(new PGNotification[] {notification(UserCacheInvalidationPublisher.NEW_KEYS)});
+
+        // Assert
+        verify(cachingUserRepository).invalidateMissing();
+        verify(cachingUserRepository, never()).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("handle: 新しいメールアドレス・ユーザー名の通知を受信した場合は、そのキーの「存在しない」キャッシュのみを破棄する")
+    void handle_invalidatesMissingKeyOnNewEmailAndUsername() {
+        // Act
+        listener.handle(new PGNotification[] {
+                notification(UserCacheInvalidationPublisher.NEW_EMAIL_PREFIX + "new@example.com"),
+                notification(UserCacheInvalidationPublisher.NEW_USERNAME_PREFIX + "newuser")});
+
+        // Assert
+        verify(cachingUserRepository).invalidateMissingEmail("new@example.com");
+        verify(cachingUserRepository).invalidateMissingUsername("newuser");
+        verify(cachingUserRepository, never()).invalidateMissing();
+        verify(cachingUserRepository, never()).invalidate(anyString());
+    }
+
+    @Test
+    @DisplayName("handle: 通知が無い場合は何もしない")
+    void handle_ignoresNoNotifications() {
+        // Act
+        listener.handle(null);
+
+        // Assert
+        verifyNoInteractions(cachingUserRepository);
+        verifyNoInteractions(cachingUserAuthorityRepository);
+    }
+}
@@ -0,0 +1,105 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.TestcontainersConfiguration;
+import com.yusay.user.api.domain.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserRowMapper と Spring のリフレクションベースの RowMapper（{@code .query(User.class)} が使用する
+ * DataClassRowMapper）の1行あたりの変換時間を比較するベンチマーク
+ * 
+ * 通常のテスト実行には含めず、{@code -Dbenchmark=true} を指定した場合のみ実行する
+ * （例: {@code mvn test -Dtest=UserRowMapperBenchmarkTest -Dbenchmark=true}）
+ */
+@JdbcTest
+@Import(TestcontainersConfiguration.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("UserRowMapper のベンチマーク")
+class UserRowMapperBenchmarkTest {
+
+    private static final int ROWS = 10_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+    private static final String SELECT_ALL = """
+            SELECT id, username, email, password_hash, enabled,
+                   account_non_expired, account_non_locked, credentials_non_expired,
+                   created_at, updated_at
+            FROM users
+            """;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.sql.init.mode", () -> "always");
+    }
+
+    @Test
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled,
+                               account_non_expired, account_non_locked, credentials_non_expired,
+                               created_at, updated_at)
+            SELECT 'bench-user-' || i, 'benchuser' || i, 'benchuser' || i || '@example.com',
+                   '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy',
+                   true, true, true, true, now(), now()
+            FROM generate_series(1, 10000) AS i;
+            """
+    })
+    @DisplayName("UserRowMapperとDataClassRowMapperの1行あたりの変換時間を比較する")
+    void compareRowMappers() {
+        RowMapper<User> reflective = new DataClassRowMapper<>(User.class);
+        RowMapper<User> indexed = UserRowMapper.INSTANCE;
+
+        // JITの最適化が安定するまで両方を交互に実行する
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            selectAll(reflective);
+            selectAll(indexed);
+        }
+
+        long reflectiveNanos = 0;
+        long indexedNanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            reflectiveNanos += measure(reflective);
+            indexedNanos += measure(indexed);
+        }
+
+        double reflectiveNanosPerRow = (double) reflectiveNanos / ((long) MEASURED_ITERATIONS * ROWS);
+        double indexedNanosPerRow = (double) indexedNanos / ((long) MEASURED_ITERATIONS * ROWS);
+        System.out.printf("DataClassRowMapper: %.1f ns/row, UserRowMapper: %.1f ns/row (%.2fx)%n",
+                reflectiveNanosPerRow, indexedNanosPerRow, reflectiveNanosPerRow / indexedNanosPerRow);
+
+        // 両者が同じ結果を返すことを確認
+        assertThat(selectAll(indexed)).isEqualTo(selectAll(reflective));
+    }
+
+    private long measure(RowMapper<User> rowMapper) {
+        long startedAt = System.nanoTime();
+        List<User> users = selectAll(rowMapper);
+        long elapsed = System.nanoTime() - startedAt;
+        assertThat(users).hasSize(ROWS);
+        return elapsed;
+    }
+
+    private List<User> selectAll(RowMapper<User> rowMapper) {
+        return jdbcClient.sql(SELECT_ALL + "ORDER BY id")
+                .query(rowMapper)
+                .list();
+    }
+}
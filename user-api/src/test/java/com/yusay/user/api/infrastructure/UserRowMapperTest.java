@@ -0,0 +1,62 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.domain.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("UserRowMapper のテスト")
+class UserRowMapperTest {
+
+    @Test
+    @DisplayName("mapRow: 列の位置に対応するUserのフィールドへ値を設定する")
+    void mapRow_mapsColumnsByIndex() throws SQLException {
+        // Given: 全列に値を持つ行
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 2, 0, 0, 0);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("test-user-id-001");
+        when(rs.getString(2)).thenReturn("testuser");
+        when(rs.getString(3)).thenReturn("test@example.com");
+        when(rs.getString(4)).thenReturn("$2a$10$test-password-hash");
+        when(rs.getBoolean(5)).thenReturn(true);
+        when(rs.getBoolean(6)).thenReturn(false);
+        when(rs.getBoolean(7)).thenReturn(true);
+        when(rs.getBoolean(8)).thenReturn(false);
+        when(rs.getObject(9, LocalDateTime.class)).thenReturn(createdAt);
+        when(rs.getObject(10, LocalDateTime.class)).thenReturn(updatedAt);
+        when(rs.getLong(11)).thenReturn(3L);
+
+        // When: mapRowを実行
+        User user = UserRowMapper.INSTANCE.mapRow(rs, 0);
+
+        // Then: 各フィールドに対応する列の値が設定されていることを確認
+        assertThat(user).isEqualTo(new User(
+                "test-user-id-001", "testuser", "test@example.com", "$2a$10$test-password-hash",
+                true, false, true, false, createdAt, updatedAt, 3L));
+    }
+
+    @Test
+    @DisplayName("mapRow: NULLの真偽値列はnullとして設定する")
+    void mapRow_mapsNullBooleanToNull() throws SQLException {
+        // Given: 真偽値列がNULLの行（ドライバはfalseを返し、wasNullがtrueとなる）
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("test-user-id-001");
+        when(rs.getBoolean(5)).thenReturn(false);
+        when(rs.wasNull()).thenReturn(true);
+
+        // When: mapRowを実行
+        User user = UserRowMapper.INSTANCE.mapRow(rs, 0);
+
+        // Then: falseではなくnullとなることを確認
+        assertThat(user.enabled()).isNull();
+        assertThat(user.accountNonExpired()).isNull();
+    }
+}
@@ -0,0 +1,86 @@
+package com.yusay.user.api.infrastructure;
+
+import com.yusay.user.api.TestcontainersConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.SqlArrayValue;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 主キーの型と採番方式ごとの挿入スループットと主キーインデックスサイズを比較するベンチマーク
+ * 
+ * 現在の構成（VARCHAR(36) + UUIDv4）、移行中の構成（VARCHAR(36) + UUIDv7）、
+ * 移行後の構成（uuid + UUIDv7）の3通りを同じ件数・同じバッチサイズで比較する
+ * 
+ * 通常のテスト実行には含めず、{@code -Dbenchmark=true} を指定した場合のみ実行する
+ * （例: {@code mvn test -Dtest=UuidKeyBenchmarkTest -Dbenchmark=true}）
+ */
+@JdbcTest
+@Import(TestcontainersConfiguration.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("主キーの型と採番方式のベンチマーク")
+class UuidKeyBenchmarkTest {
+
+    private static final int ROWS = 500_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Test
+    @DisplayName("VARCHAR(36) + UUIDv4 と uuid + UUIDv7 の挿入時間と主キーインデックスサイズを比較する")
+    void compareKeyLayouts() {
+        Result varcharV4 = measure("bench_varchar_v4", "VARCHAR(36)", () -> UUID.randomUUID().toString());
+        Result varcharV7 = measure("bench_varchar_v7", "VARCHAR(36)", UuidV7Generator.INSTANCE::generateString);
+        Result uuidV7 = measure("bench_uuid_v7", "uuid", UuidV7Generator.INSTANCE::generateString);
+
+        System.out.printf("%-22s %12s %14s%n", "layout", "rows/s", "pkey size");
+        for (Result result : new Result[] {varcharV4, varcharV7, uuidV7}) {
+            System.out.printf("%-22s %12.0f %11d KB%n",
+                    result.table, ROWS / (result.elapsedNanos / 1_000_000_000.0), result.indexBytes / 1024);
+        }
+
+        // 時刻順のIDは右端への追加となりページ分割が減るため、同じ型ならv7の方が小さくなる
+        assertThat(varcharV7.indexBytes).isLessThan(varcharV4.indexBytes);
+        assertThat(uuidV7.indexBytes).isLessThan(varcharV7.indexBytes);
+    }
+
+    private Result measure(String table, String idType, Supplier<String> idGenerator) {
+        jdbcClient.sql("CREATE TABLE " + table + " (id " + idType + " PRIMARY KEY, username VARCHAR(50) NOT NULL)")
+                .update();
+
+        long elapsedNanos = 0;
+        for (int offset = 0; offset < ROWS; offset += BATCH_SIZE) {
+            String[] ids = new String[BATCH_SIZE];
+            String[] usernames = new String[BATCH_SIZE];
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                ids[i] = idGenerator.get();
+                usernames[i] = "benchuser" + (offset + i);
+            }
+            long startedAt = System.nanoTime();
+            jdbcClient.sql("INSERT INTO " + table + " (id, username) SELECT * FROM unnest(:ids, :usernames)")
+                    .param("ids", new SqlArrayValue("uuid", (Object[]) ids))
+                    .param("usernames", new SqlArrayValue("varchar", (Object[]) usernames))
+                    .update();
+            elapsedNanos += System.nanoTime() - startedAt;
+        }
+
+        long indexBytes = jdbcClient.sql("SELECT pg_relation_size(:index::regclass)")
+                .param("index", table + "_pkey")
+                .query(Long.class)
+                .single();
+        return new Result(table, elapsedNanos, indexBytes);
+    }
+
+    private record Result(String table, long elapsedNanos, long indexBytes) {
+    }
+}
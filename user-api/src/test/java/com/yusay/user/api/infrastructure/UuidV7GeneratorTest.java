@@ -0,0 +1,117 @@
+package com.yusay.user.api.infrastructure;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UuidV7Generator のテスト")
+class UuidV7GeneratorTest {
+
+    private static final long BASE_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    @Test
+    @DisplayName("generate: バージョン7・RFC 9562 バリアントで、先頭48ビットに現在時刻を持つUUIDを生成する")
+    void generate_encodesVersionVariantAndTimestamp() {
+        // Given: 固定時刻のクロック
+        UuidV7Generator generator = new UuidV7Generator(new MutableClock(BASE_MILLIS), new Random(1));
+
+        // When: UUIDを生成
+        UUID uuid = generator.generate();
+
+        // Then: バージョン・バリアント・タイムスタンプを確認
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(BASE_MILLIS);
+    }
+
+    @Test
+    @DisplayName("generate: 同一ミリ秒内で生成したIDは文字列として単調増加する")
+    void generate_isMonotonicWithinSameMillisecond() {
+        // Given: 時刻が進まないクロック
+        UuidV7Generator generator = new UuidV7Generator(new MutableClock(BASE_MILLIS), new Random(1));
+
+        // When: カウンターの上限を超える件数を生成
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.generateString());
+        }
+
+        // Then: 生成順と辞書順が一致し、重複が無いことを確認
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("generate: 時計が巻き戻っても直前のIDより大きいIDを生成する")
+    void generate_isMonotonicWhenClockMovesBackwards() {
+        // Given: 1件生成後に時計を巻き戻す
+        MutableClock clock = new MutableClock(BASE_MILLIS);
+        UuidV7Generator generator = new UuidV7Generator(clock, new Random(1));
+        String first = generator.generateString();
+        clock.millis = BASE_MILLIS - 1_000;
+
+        // When: 再度生成
+        String second = generator.generateString();
+
+        // Then: 直前のIDより大きいことを確認
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    @DisplayName("generate: 時刻が進んだ場合は新しいタイムスタンプのIDを生成する")
+    void generate_usesNewTimestampWhenClockAdvances() {
+        // Given: 1件生成後に時計を進める
+        MutableClock clock = new MutableClock(BASE_MILLIS);
+        UuidV7Generator generator = new UuidV7Generator(clock, new Random(1));
+        UUID first = generator.generate();
+        clock.millis = BASE_MILLIS + 1;
+
+        // When: 再度生成
+        UUID second = generator.generate();
+
+        // Then: 進めた時刻がタイムスタンプに反映されていることを確認
+        assertThat(first.getMostSignificantBits() >>> 16).isEqualTo(BASE_MILLIS);
+        assertThat(second.getMostSignificantBits() >>> 16).isEqualTo(BASE_MILLIS + 1);
+        assertThat(second.toString()).isGreaterThan(first.toString());
+    }
+
+    /**
+     * テストから時刻を変更できるクロック
+     */
+    private static final class MutableClock extends Clock {
+        private long millis;
+
+        private MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.yusay.user.api.infrastructure;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.replication.LogSequenceNumber;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("WalPositionTransactionListener のテスト")
+class WalPositionTransactionListenerTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private Statement statement;
+    private TransactionExecution transaction;
+    private AtomicReference<LogSequenceNumber> recorded;
+    private WalPositionTransactionListener listener;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn("0/16B3748");
+
+        transaction = mock(TransactionExecution.class);
+        when(transaction.isNewTransaction()).thenReturn(true);
+        when(transaction.isReadOnly()).thenReturn(false);
+
+        recorded = new AtomicReference<>();
+        ReadYourWritesContext.bind(null, recorded::set);
+        listener = new WalPositionTransactionListener(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+        if (TransactionSynchronizationManager.hasResource(dataSource)) {
+            TransactionSynchronizationManager.unbindResource(dataSource);
+        }
+    }
+
+    @Test
+    @DisplayName("afterCommit: コミットしたトランザクションの接続でWAL位置を取得し、接続プールから取得しない")
+    void afterCommit_usesTransactionConnection() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.bindResource(dataSource, new ConnectionHolder(connection));
+
+        // Act
+        listener.afterCommit(transaction, null);
+
+        // Assert
+        assertThat(recorded.get()).isEqualTo(LogSequenceNumber.valueOf("0/16B3748"));
+        assertThat(ReadYourWritesContext.requiredLsn()).isEqualTo(LogSequenceNumber.valueOf("0/16B3748"));
+        verify(dataSource, never()).getConnection();
+        verify(connection, never()).close();
+    }
+
+    @Test
+    @DisplayName("afterCommit: トランザクションの接続が無い場合は記録しない")
+    void afterCommit_withoutTransactionConnection_doesNothing() throws SQLException {
+        // Act
+        listener.afterCommit(transaction, null);
+
+        // Assert
+        assertThat(recorded.get()).isNull();
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("afterCommit: 読み取り専用・コミット失敗の場合は記録しない")
+    void afterCommit_whenReadOnlyOrFailed_doesNothing() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.bindResource(dataSource, new ConnectionHolder(connection));
+
+        // Act
+        listener.afterCommit(transaction, new SQLException("commit failed"));
+        when(transaction.isReadOnly()).thenReturn(true);
+        listener.afterCommit(transaction, null);
+
+        // Assert
+        assertThat(recorded.get()).isNull();
+        verify(connection, never()).createStatement();
+    }
+
+    @Test
+    @DisplayName("afterCommit: 取得に失敗してもコミット済みの書き込みを失敗させない")
+    void afterCommit_whenQueryFails_doesNotThrow() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.bindResource(dataSource, new ConnectionHolder(connection));
+        when(statement.executeQuery(anyString())).thenThrow(new SQLException("connection reset"));
+
+        // Act
+        listener.afterCommit(transaction, null);
+
+        // Assert
+        assertThat(recorded.get()).isNull();
+    }
+}
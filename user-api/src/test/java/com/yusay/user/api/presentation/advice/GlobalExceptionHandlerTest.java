@@ -0,0 +1,93 @@
+package com.yusay.user.api.presentation.advice;
+
+import com.yusay.user.api.domain.exception.UserNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("GlobalExceptionHandler のテスト")
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @RestController
+    static class ThrowingController {
+        @GetMapping("/users/{id}")
+        String getUser(@PathVariable String id) {
+            throw new UserNotFoundException(id);
+        }
+    }
+
+    @Test
+    @DisplayName("handleUserNotFound: ProblemDetailと同じ形式の本文を返す")
+    void handleUserNotFound_returnsProblemDetailBody() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/missing");
+
+        // Act
+        ResponseEntity<String> response = handler.handleUserNotFound(new UserNotFoundException("missing"), request);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON);
+        JsonNode body = jsonMapper.readTree(response.getBody());
+        assertThat(body.get("type").asString()).isEqualTo("about:blank");
+        assertThat(body.get("title").asString()).isEqualTo("User not found");
+        assertThat(body.get("status").asInt()).isEqualTo(404);
+        assertThat(body.get("detail").asString()).isEqualTo("User not found: missing");
+        assertThat(body.get("path").asString()).isEqualTo("/users/missing");
+        assertThat(OffsetDateTime.parse(body.get("timestamp").asString())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("handleUserNotFound: 引用符や制御文字を含む値はエスケープする")
+    void handleUserNotFound_escapesVariableValues() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/a\"b");
+
+        // Act
+        ResponseEntity<String> response = handler.handleUserNotFound(
+                new UserNotFoundException("a\"b\\c\nd"), request);
+
+        // Assert
+        JsonNode body = jsonMapper.readTree(response.getBody());
+        assertThat(body.get("detail").asString()).isEqualTo("User not found: a\"b\\c\nd");
+        assertThat(body.get("path").asString()).isEqualTo("/users/a\"b");
+    }
+
+    @Test
+    @DisplayName("handleUserNotFound: 本文は変換されずにproblem+jsonとして書き込まれる")
+    void handleUserNotFound_writesBodyAsProblemJson() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ThrowingController())
+                .setControllerAdvice(handler)
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(get("/users/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.title").value("User not found"))
+                .andExpect(jsonPath("$.detail").value("User not found: missing"))
+                .andExpect(jsonPath("$.path").value("/users/missing"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.yusay.user.api.presentation.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.yusay.user.api.TestcontainersConfiguration;
+import com.yusay.user.api.infrastructure.CachingUserAuthorityRepository;
+import com.yusay.user.api.infrastructure.CachingUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql(statements = {
+        """
+        DELETE FROM users WHERE username = 'tokenuser';
+        INSERT INTO users (id, username, email, password_hash, enabled)
+        VALUES ('750e8400-e29b-41d4-a716-446655440031', 'tokenuser', 'token@example.com',
+                '$2a$04$nAKYcZc6yjeKHRj3.KxCoOCOzfaptPba.o./wLq4N0mjJln.s0k.q', true);
+        INSERT INTO user_roles (user_id, role_id)
+        SELECT '750e8400-e29b-41d4-a716-446655440031', id FROM roles WHERE name = 'ROLE_ADMIN';
+        """
+})
+@DisplayName("AuthRestController のテスト")
+class AuthRestControllerTest {
+
+    private static final String LOGIN_REQUEST = """
+            {"username": "tokenuser", "password": "admin-password"}
+            """;
+
+    @DynamicPropertySource
+    static void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.sql.init.mode", () -> "always");
+    }
+
+    @Autowired
+    private MockMvcTester mockMvcTester;
+
+    @Autowired
+    private CachingUserRepository cachingUserRepository;
+
+    @Autowired
+    private CachingUserAuthorityRepository cachingUserAuthorityRepository;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @BeforeEach
+    void clearUserCache() {
+        // @Sqlはキャッシュを経由せずにデータを投入・削除するため、テスト間でキャッシュを持ち越さない
+        cachingUserRepository.invalidateAll();
+        cachingUserAuthorityRepository.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("ログインで発行したアクセストークンで、管理者用のエンドポイントにアクセスできること")
+    void testIssueToken_AccessTokenAuthorizesRequests() throws Exception {
+        MvcTestResult result = mockMvcTester.post()
+                .uri("/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(LOGIN_REQUEST)
+                .exchange();
+        var assertResult = assertThat(result)
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON)
+                .hasHeader("Cache-Control", "no-store");
+        assertResult.bodyJson().extractingPath("$.tokenType").asString().isEqualTo("Bearer");
+        assertResult.bodyJson().extractingPath("$.expiresIn").asNumber().isEqualTo(300);
+        String accessToken = readField(result, "accessToken");
+        
+        assertThat(mockMvcTester.get().uri("/users/export")
+                .header("Authorization", "Bearer " + accessToken)
+                .accept(MediaType.APPLICATION_NDJSON))
+                .hasStatusOk();
+        
+        // 改ざん・期限切れ等で検証できないトークンは匿名として扱わず401を返す
+        assertThat(mockMvcTester.get().uri("/users/export")
+                .header("Authorization", "Bearer " + accessToken + "x")
+                .accept(MediaType.APPLICATION_NDJSON))
+                .hasStatus(HttpStatus.UNAUTHORIZED)
+                .hasHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+    }
+
+    @Test
+    @DisplayName("リフレッシュトークンはハッシュのみが保存され、1度使用すると無効になること")
+    void testRefreshToken_RotatesAndRejectsReuse() throws Exception {
+        MvcTestResult login = mockMvcTester.post()
+                .uri("/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(LOGIN_REQUEST)
+                .exchange();
+        String refreshToken = readField(login, "refreshToken");
+        
+        // 平文のトークンは保存されない
+        long stored = jdbcClient.sql("SELECT COUNT(*) FROM refresh_tokens WHERE token = :token")
+                .param("token", refreshToken)
+                .query(Long.class)
+                .single();
+        assertThat(stored).isZero();
+        
+        var assertResult = assertThat(mockMvcTester.post()
+                .uri("/auth/token/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\": \"" + refreshToken + "\"}"))
+                .hasStatusOk();
+        assertResult.bodyJson().extractingPath("$.refreshToken").asString().isNotEqualTo(refreshToken);
+        
+        // 使用済みのリフレッシュトークンは再使用できない
+        var reuseResult = assertThat(mockMvcTester.post()
+                .uri("/auth/token/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\": \"" + refreshToken + "\"}"))
+                .hasStatus(HttpStatus.UNAUTHORIZED)
+                .hasContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        reuseResult.bodyJson().extractingPath("$.title").asString().isEqualTo("Unauthorized");
+    }
+
+    @Test
+    @DisplayName("パスワードが誤っている場合は401エラーが返されること")
+    void testIssueToken_BadCredentials() throws Exception {
+        var assertResult = assertThat(mockMvcTester.post()
+                .uri("/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"tokenuser\", \"password\": \"wrong-password\"}"))
+                .hasStatus(HttpStatus.UNAUTHORIZED)
+                .hasContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        
+        assertResult.bodyJson().extractingPath("$.title").asString().isEqualTo("Unauthorized");
+    }
+
+    private static String readField(MvcTestResult result, String field) throws Exception {
+        String body = result.getResponse().getContentAsString();
+        return JsonPath.read(body, "$." + field);
+    }
+}
@@ -1,22 +1,30 @@
 package com.yusay.user.api.presentation.controller;
 
 import com.yusay.user.api.TestcontainersConfiguration;
+import com.yusay.user.api.infrastructure.CachingUserAuthorityRepository;
+import com.yusay.user.api.infrastructure.CachingUserRepository;
 import com.yusay.user.api.presentation.constant.ErrorMessages;
 import com.yusay.user.api.presentation.constant.HttpHeaders;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 
 @Import(TestcontainersConfiguration.class)
 @SpringBootTest
@@ -32,6 +40,22 @@ class UserRestControllerTest {
     @Autowired
     private MockMvcTester mockMvcTester;
 
+    @Autowired
+    private CachingUserRepository cachingUserRepository;
+
+    @Autowired
+    private CachingUserAuthorityRepository cachingUserAuthorityRepository;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @BeforeEach
+    void clearUserCache() {
+        // @Sqlはキャッシュを経由せずにデータを投入・削除するため、テスト間でキャッシュを持ち越さない
+        cachingUserRepository.invalidateAll();
+        cachingUserAuthorityRepository.invalidateAll();
+    }
+
     @Test
     @WithMockUser
     @DisplayName("存在するユーザーIDでユーザー情報を取得できること")
@@ -58,6 +82,212 @@ class UserRestControllerTest {
         assertResult.bodyText().doesNotContain("passwordHash");
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("ユーザー取得時にETagとLast-Modifiedが返され、If-None-Matchが一致する場合は304が返されること")
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+            VALUES ('750e8400-e29b-41d4-a716-446655440011', 'etaguser', 'etag@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true,
+                    '2024-01-01 00:00:00', '2024-01-02 03:04:05.123456')
+            ON CONFLICT DO NOTHING;
+            """
+    })
+    void testGetUser_NotModifiedWhenETagMatches() throws Exception {
+        String userId = "750e8400-e29b-41d4-a716-446655440011";
+        
+        MvcTestResult firstResult = mockMvcTester.get().uri("/users/{id}", userId).exchange();
+        assertThat(firstResult).hasStatusOk();
+        String eTag = firstResult.getResponse().getHeader("ETag");
+        assertThat(eTag).isNotBlank().startsWith("\"").endsWith("\"");
+        assertThat(firstResult.getResponse().getHeader("Last-Modified")).isNotBlank();
+        
+        MvcTestResult conditionalResult = mockMvcTester.get().uri("/users/{id}", userId)
+                .header("If-None-Match", eTag)
+                .exchange();
+        assertThat(conditionalResult).hasStatus(304);
+        assertThat(conditionalResult.getResponse().getContentAsString()).isEmpty();
+        assertThat(conditionalResult.getResponse().getHeader("ETag")).isEqualTo(eTag);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("If-Modified-Sinceが更新日時以降の場合は304が返されること")
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+            VALUES ('750e8400-e29b-41d4-a716-446655440012', 'lastmoduser', 'lastmod@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true,
+                    '2024-01-01 00:00:00', '2024-01-02 03:04:05')
+            ON CONFLICT DO NOTHING;
+            """
+    })
+    void testGetUser_NotModifiedWhenNotModifiedSince() throws Exception {
+        String userId = "750e8400-e29b-41d4-a716-446655440012";
+        
+        MvcTestResult firstResult = mockMvcTester.get().uri("/users/{id}", userId).exchange();
+        String lastModified = firstResult.getResponse().getHeader("Last-Modified");
+        
+        assertThat(mockMvcTester.get().uri("/users/{id}", userId).header("If-Modified-Since", lastModified))
+                .hasStatus(304);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("更新後は以前のETagでも200と新しいETagが返されること")
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+            VALUES ('750e8400-e29b-41d4-a716-446655440013', 'staleetaguser', 'staleetag@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true,
+                    '2024-01-01 00:00:00', '2024-01-02 03:04:05')
+            ON CONFLICT DO NOTHING;
+            """
+    })
+    void testGetUser_ReturnsBodyWhenETagIsStale() throws Exception {
+        String userId = "750e8400-e29b-41d4-a716-446655440013";
+        
+        String staleETag = mockMvcTester.get().uri("/users/{id}", userId).exchange()
+                .getResponse().getHeader("ETag");
+        assertThat(mockMvcTester.put().uri("/users/{id}", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"username": "renameduser"}
+                        """))
+                .hasStatusOk();
+        
+        MvcTestResult result = mockMvcTester.get().uri("/users/{id}", userId)
+                .header("If-None-Match", staleETag)
+                .exchange();
+        assertThat(result).hasStatusOk();
+        assertThat(result.getResponse().getHeader("ETag")).isNotEqualTo(staleETag);
+        assertThat(result).bodyJson().extractingPath("$.username").asString().isEqualTo("renameduser");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("If-Matchが現在のETagと一致する場合は更新され、新しいETagが返されること")
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+            VALUES ('750e8400-e29b-41d4-a716-446655440014', 'ifmatchuser', 'ifmatch@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true,
+                    '2024-01-01 00:00:00', '2024-01-02 03:04:05')
+            ON CONFLICT DO NOTHING;
+            """
+    })
+    void testUpdateUser_SucceedsWhenIfMatchMatches() throws Exception {
+        String userId = "750e8400-e29b-41d4-a716-446655440014";
+        
+        String eTag = mockMvcTester.get().uri("/users/{id}", userId).exchange()
+                .getResponse().getHeader("ETag");
+        
+        MvcTestResult result = mockMvcTester.put().uri("/users/{id}", userId)
+                .header("If-Match", eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"enabled": false}
+                        """)
+                .exchange();
+        assertThat(result).hasStatusOk();
+        assertThat(result).bodyJson().extractingPath("$.enabled").asBoolean().isFalse();
+        assertThat(result.getResponse().getHeader("ETag")).isNotBlank().isNotEqualTo(eTag);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("PATCHで指定したフィールドのみが更新され、値が変わらない場合はETagが変わらないこと")
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+            VALUES ('750e8400-e29b-41d4-a716-446655440017', 'patchuser', 'patch@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true,
+                    '2024-01-01 00:00:00', '2024-01-02 03:04:05')
+            ON CONFLICT DO NOTHING;
+            """
+    })
+    void testPatchUser_UpdatesOnlySuppliedFields() throws Exception {
+        String userId = "750e8400-e29b-41d4-a716-446655440017";
+        
+        MvcTestResult patched = mockMvcTester.patch().uri("/users/{id}", userId)
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"enabled": false}
+                        """)
+                .exchange();
+        assertThat(patched).hasStatusOk();
+        assertThat(patched).bodyJson().extractingPath("$.enabled").asBoolean().isFalse();
+        assertThat(patched).bodyJson().extractingPath("$.username").asString().isEqualTo("patchuser");
+        String eTag = patched.getResponse().getHeader("ETag");
+        
+        MvcTestResult unchanged = mockMvcTester.patch().uri("/users/{id}", userId)
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"enabled": false}
+                        """)
+                .exchange();
+        assertThat(unchanged).hasStatusOk();
+        assertThat(unchanged.getResponse().getHeader("ETag")).isEqualTo(eTag);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("If-Matchが以前のETagの場合は412が返され、更新されないこと")
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+            VALUES ('750e8400-e29b-41d4-a716-446655440015', 'staleifmatchuser', 'staleifmatch@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true,
+                    '2024-01-01 00:00:00', '2024-01-02 03:04:05')
+            ON CONFLICT DO NOTHING;
+            """
+    })
+    void testUpdateUser_ReturnsPreconditionFailedWhenIfMatchIsStale() throws Exception {
+        String userId = "750e8400-e29b-41d4-a716-446655440015";
+        
+        String staleETag = mockMvcTester.get().uri("/users/{id}", userId).exchange()
+                .getResponse().getHeader("ETag");
+        assertThat(mockMvcTester.put().uri("/users/{id}", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"username": "firstwriter"}
+                        """))
+                .hasStatusOk();
+        
+        assertThat(mockMvcTester.put().uri("/users/{id}", userId)
+                .header("If-Match", staleETag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"username": "secondwriter"}
+                        """))
+                .hasStatus(HttpStatus.PRECONDITION_FAILED)
+                .hasContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        
+        assertThat(mockMvcTester.get().uri("/users/{id}", userId))
+                .bodyJson().extractingPath("$.username").asString().isEqualTo("firstwriter");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("If-Matchが弱いETagの場合は一致しないものとして412が返されること")
+    @Sql(statements = {
+            """
+            INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+            VALUES ('750e8400-e29b-41d4-a716-446655440016', 'weakifmatchuser', 'weakifmatch@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true,
+                    '2024-01-01 00:00:00', '2024-01-02 03:04:05')
+            ON CONFLICT DO NOTHING;
+            """
+    })
+    void testUpdateUser_ReturnsPreconditionFailedWhenIfMatchIsWeak() throws Exception {
+        String userId = "750e8400-e29b-41d4-a716-446655440016";
+        
+        String eTag = mockMvcTester.get().uri("/users/{id}", userId).exchange()
+                .getResponse().getHeader("ETag");
+        
+        assertThat(mockMvcTester.put().uri("/users/{id}", userId)
+                .header("If-Match", "W/" + eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"enabled": false}
+                        """))
+                .hasStatus(HttpStatus.PRECONDITION_FAILED);
+    }
+
     @Test
     @WithMockUser
     @DisplayName("存在しないユーザーIDで404エラーが返されること")
@@ -134,6 +364,398 @@ class UserRestControllerTest {
         assertResult.bodyJson().extractingPath("$").asList().isEmpty();
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("limitを超えるユーザーが存在する場合はLinkヘッダーで次ページを辿れること")
+    @Sql(statements = {
+            """
+            DELETE FROM users;
+            INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+            VALUES 
+                ('850e8400-e29b-41d4-a716-446655440021', 'pageuser1', 'pageuser1@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                ('850e8400-e29b-41d4-a716-446655440022', 'pageuser2', 'pageuser2@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true, '2024-01-02 00:00:00', '2024-01-02 00:00:00'),
+                ('850e8400-e29b-41d4-a716-446655440023', 'pageuser3', 'pageuser3@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true, '2024-01-03 00:00:00', '2024-01-03 00:00:00');
+            """
+    })
+    void testGetAllUsers_Pagination() throws Exception {
+        MvcTestResult firstPage = mockMvcTester.get().uri("/users?limit=2").exchange();
+
+        assertThat(firstPage)
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON)
+                .containsHeader("Link")
+                .bodyJson().extractingPath("$[*].username").asList()
+                .containsExactly("pageuser1", "pageuser2");
+        
+        String link = firstPage.getResponse().getHeader("Link");
+        assertThat(link).endsWith("; rel=\"next\"");
+        String nextUri = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        assertThat(mockMvcTester.get().uri(nextUri))
+                .hasStatusOk()
+                .doesNotContainHeader("Link")
+                .bodyJson().extractingPath("$[*].username").asList()
+                .containsExactly("pageuser3");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("不正なカーソルを指定すると400エラーが返されること")
+    void testGetAllUsers_InvalidCursor() throws Exception {
+        var assertResult = assertThat(mockMvcTester.get().uri("/users?cursor=invalid"))
+                .hasStatus(400)
+                .hasContentType(MediaType.APPLICATION_PROBLEM_JSON);
+
+        assertResult.bodyJson().extractingPath("$.title").asString().isEqualTo("Invalid page request");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("管理者は全ユーザーをNDJSON形式でエクスポートできること")
+    @Sql(statements = {
+            """
+            DELETE FROM users;
+            INSERT INTO users (id, username, email, password_hash, enabled, created_at, updated_at)
+            VALUES 
+                ('850e8400-e29b-41d4-a716-446655440031', 'exportuser1', 'exportuser1@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true, '2024-01-01 00:00:00', '2024-01-01 00:00:00'),
+                ('850e8400-e29b-41d4-a716-446655440032', 'exportuser2', 'exportuser2@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', false, '2024-01-02 00:00:00', '2024-01-02 00:00:00');
+            """
+    })
+    void testExportUsers_Success() throws Exception {
+        MvcTestResult result = mockMvcTester.get()
+                .uri("/users/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        assertThat(result)
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_NDJSON);
+        
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"username\":\"exportuser1\"");
+        assertThat(lines[1]).contains("\"username\":\"exportuser2\"");
+        // パスワードハッシュは出力されないことを確認
+        assertThat(result.getResponse().getContentAsString()).doesNotContain("passwordHash");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("管理者以外はエクスポートできないこと")
+    void testExportUsers_WithoutAdminRole() throws Exception {
+        assertThat(mockMvcTester.get().uri("/users/export").accept(MediaType.APPLICATION_NDJSON))
+                .hasStatus(403);
+    }
+
+    @Test
+    @DisplayName("HTTP Basic認証でusersテーブルのユーザーを認証し、ロールの割り当て後は新しい権限で認可されること")
+    @Sql(statements = {
+            """
+            DELETE FROM users WHERE username = 'basicuser';
+            INSERT INTO users (id, username, email, password_hash, enabled)
+            VALUES ('750e8400-e29b-41d4-a716-446655440021', 'basicuser', 'basic@example.com',
+                    '$2a$04$nAKYcZc6yjeKHRj3.KxCoOCOzfaptPba.o./wLq4N0mjJln.s0k.q', true);
+            """
+    })
+    void testHttpBasic_AuthorizesWithAssignedRoles() throws Exception {
+        // ロールの割り当て前は管理者用のエンドポイントにアクセスできない（権限はキャッシュされる）
+        assertThat(mockMvcTester.get().uri("/users/export")
+                .with(httpBasic("basicuser", "admin-password"))
+                .accept(MediaType.APPLICATION_NDJSON))
+                .hasStatus(403);
+        
+        assertThat(mockMvcTester.put()
+                .uri("/users/750e8400-e29b-41d4-a716-446655440021/roles/ROLE_ADMIN")
+                .with(user("admin").roles("ADMIN")))
+                .hasStatus(HttpStatus.NO_CONTENT);
+        
+        // 割り当てによりキャッシュが破棄され、次のリクエストから管理者として認可される
+        assertThat(mockMvcTester.get().uri("/users/export")
+                .with(httpBasic("basicuser", "admin-password"))
+                .accept(MediaType.APPLICATION_NDJSON))
+                .hasStatusOk();
+        
+        // 認証時に低いコストのハッシュが現在の設定で再ハッシュ化されていること
+        String passwordHash = jdbcClient.sql("SELECT password_hash FROM users WHERE username = 'basicuser'")
+                .query(String.class)
+                .single();
+        assertThat(passwordHash).startsWith("{bcrypt}");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("存在しないロールを割り当てると404エラーが返されること")
+    @Sql(statements = {
+            """
+            DELETE FROM users WHERE username = 'roleuser';
+            INSERT INTO users (id, username, email, password_hash, enabled)
+            VALUES ('750e8400-e29b-41d4-a716-446655440022', 'roleuser', 'role@example.com',
+                    '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true);
+            """
+    })
+    void testAssignRole_RoleNotFound() throws Exception {
+        var assertResult = assertThat(mockMvcTester.put()
+                .uri("/users/750e8400-e29b-41d4-a716-446655440022/roles/ROLE_MISSING"))
+                .hasStatus(HttpStatus.NOT_FOUND)
+                .hasContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        
+        assertResult.bodyJson().extractingPath("$.title").asString().isEqualTo("Role not found");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("一括作成で重複以外のユーザーが作成され、重複した要素はフィールド名付きで返されること")
+    @Sql(statements = {
+            """
+            DELETE FROM users;
+            INSERT INTO users (id, username, email, password_hash, enabled)
+            VALUES ('850e8400-e29b-41d4-a716-446655440041', 'existinguser', 'existing@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true);
+            """
+    })
+    void testCreateUsersBatch_Success() throws Exception {
+        String requestBody = """
+                {
+                    "users": [
+                        {"username": "batchuser1", "email": "batchuser1@example.com", "password": "password123"},
+                        {"username": "batchuser2", "email": "existing@example.com", "password": "password123"},
+                        {"username": "existinguser", "email": "batchuser3@example.com", "password": "password123"}
+                    ]
+                }
+                """;
+        
+        var assertResult = assertThat(mockMvcTester.post()
+                .uri("/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON);
+
+        assertResult.bodyJson().extractingPath("$.createdCount").asNumber().isEqualTo(1);
+        assertResult.bodyJson().extractingPath("$.duplicateCount").asNumber().isEqualTo(2);
+        assertResult.bodyJson().extractingPath("$.busyCount").asNumber().isEqualTo(0);
+        assertResult.bodyJson().extractingPath("$.results[0].status").asString().isEqualTo("CREATED");
+        assertResult.bodyJson().extractingPath("$.results[0].user.username").asString().isEqualTo("batchuser1");
+        assertResult.bodyJson().extractingPath("$.results[1].status").asString().isEqualTo("DUPLICATE");
+        assertResult.bodyJson().extractingPath("$.results[1].field").asString().isEqualTo("メールアドレス");
+        assertResult.bodyJson().extractingPath("$.results[2].status").asString().isEqualTo("DUPLICATE");
+        assertResult.bodyJson().extractingPath("$.results[2].field").asString().isEqualTo("ユーザー名");
+        assertResult.bodyText().doesNotContain("passwordHash");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("一括作成で不正な要素が含まれる場合は400エラーが返されること")
+    void testCreateUsersBatch_InvalidItem() throws Exception {
+        String requestBody = """
+                {
+                    "users": [
+                        {"username": "batchuser1", "email": "invalid-email", "password": "password123"}
+                    ]
+                }
+                """;
+        
+        var assertResult = assertThat(mockMvcTester.post()
+                .uri("/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .hasStatus(400)
+                .hasContentType(MediaType.APPLICATION_PROBLEM_JSON);
+
+        assertResult.bodyJson().extractingPath("$.title").asString().isEqualTo("Validation error");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("管理者以外は一括作成できないこと")
+    void testCreateUsersBatch_WithoutAdminRole() throws Exception {
+        assertThat(mockMvcTester.post()
+                .uri("/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"users\": []}"))
+                .hasStatus(403);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("CSVの一括取り込みで重複と不正な行をスキップしてユーザーが登録されること")
+    @Sql(statements = {
+            """
+            DELETE FROM users;
+            INSERT INTO users (id, username, email, password_hash, enabled)
+            VALUES ('850e8400-e29b-41d4-a716-446655440051', 'existinguser', 'existing@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true);
+            """
+    })
+    void testImportUsers_Csv() throws Exception {
+        String csv = """
+                username,email,password_hash
+                importuser1,importuser1@example.com,$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy
+                importuser2,existing@example.com,$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy
+                importuser3,importuser3@example.com,
+                """;
+        
+        var assertResult = assertThat(mockMvcTester.post()
+                .uri("/users/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .content(csv))
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON);
+
+        assertResult.bodyJson().extractingPath("$.totalRows").asNumber().isEqualTo(3);
+        assertResult.bodyJson().extractingPath("$.insertedCount").asNumber().isEqualTo(1);
+        assertResult.bodyJson().extractingPath("$.duplicateCount").asNumber().isEqualTo(1);
+        assertResult.bodyJson().extractingPath("$.rejectedCount").asNumber().isEqualTo(1);
+        assertResult.bodyJson().extractingPath("$.failedCount").asNumber().isEqualTo(0);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("一括取り込みでハッシュ化されていないパスワードの行は登録されずに不正な行として数えられること")
+    @Sql(statements = "DELETE FROM users;")
+    void testImportUsers_PlaintextPasswordRejected() throws Exception {
+        String csv = """
+                username,email,password_hash
+                hasheduser1,hasheduser1@example.com,$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy
+                hasheduser2,hasheduser2@example.com,{bcrypt}$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy
+                plainuser1,plainuser1@example.com,password123
+                plainuser2,plainuser2@example.com,{noop}password123
+                """;
+        
+        var assertResult = assertThat(mockMvcTester.post()
+                .uri("/users/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .content(csv))
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON);
+
+        assertResult.bodyJson().extractingPath("$.totalRows").asNumber().isEqualTo(4);
+        assertResult.bodyJson().extractingPath("$.insertedCount").asNumber().isEqualTo(2);
+        assertResult.bodyJson().extractingPath("$.duplicateCount").asNumber().isEqualTo(0);
+        assertResult.bodyJson().extractingPath("$.rejectedCount").asNumber().isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("NDJSONの一括取り込みでユーザーが登録されること")
+    @Sql(statements = "DELETE FROM users;")
+    void testImportUsers_Ndjson() throws Exception {
+        String ndjson = """
+                {"username": "ndjsonuser1", "email": "ndjsonuser1@example.com", "passwordHash": "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"}
+                {"username": "ndjsonuser2", "email": "ndjsonuser2@example.com", "passwordHash": "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"}
+                """;
+        
+        var assertResult = assertThat(mockMvcTester.post()
+                .uri("/users/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+                .hasStatusOk();
+
+        assertResult.bodyJson().extractingPath("$.insertedCount").asNumber().isEqualTo(2);
+        
+        assertThat(mockMvcTester.get().uri("/users"))
+                .hasStatusOk()
+                .bodyJson().extractingPath("$[?(@.username == 'ndjsonuser2')].email")
+                .asArray().containsExactly("ndjsonuser2@example.com");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("管理者以外は一括取り込みできないこと")
+    void testImportUsers_WithoutAdminRole() throws Exception {
+        assertThat(mockMvcTester.post()
+                .uri("/users/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .content("username,email,password_hash\n"))
+                .hasStatus(403);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("全ユーザーをCSVでダンプでき、パスワードハッシュが含まれないこと")
+    @Sql(statements = {
+            """
+            DELETE FROM users;
+            INSERT INTO users (id, username, email, password_hash, enabled)
+            VALUES ('850e8400-e29b-41d4-a716-446655440061', 'dumpuser1', 'dumpuser1@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true),
+                   ('850e8400-e29b-41d4-a716-446655440062', 'dumpuser2', 'dumpuser2@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true);
+            """
+    })
+    void testDumpUsers_Csv() throws Exception {
+        assertThat(mockMvcTester.get().uri("/users/dump"))
+                .hasStatusOk()
+                .hasContentType("text/csv")
+                .bodyText()
+                .startsWith("id,username,email,")
+                .contains("850e8400-e29b-41d4-a716-446655440061,dumpuser1,dumpuser1@example.com")
+                .contains("850e8400-e29b-41d4-a716-446655440062,dumpuser2,dumpuser2@example.com")
+                .doesNotContain("$2a$10$");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("並列ダンプで全ユーザーが1つのファイルに出力され、ダウンロードできること")
+    @Sql(statements = {
+            """
+            DELETE FROM users;
+            INSERT INTO users (id, username, email, password_hash, enabled)
+            SELECT 'dump-user-' || lpad(i::text, 3, '0'), 'dumpuser' || i, 'dumpuser' || i || '@example.com',
+                   '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', true
+            FROM generate_series(1, 20) AS i;
+            """
+    })
+    void testCreateDumpFile_Parallel() throws Exception {
+        MvcTestResult created = mockMvcTester.post()
+                .uri("/users/dump")
+                .param("parallelism", "3")
+                .exchange();
+        
+        var assertResult = assertThat(created)
+                .hasStatus(201)
+                .containsHeader("Location");
+        assertResult.bodyJson().extractingPath("$.rowCount").asNumber().isEqualTo(20);
+        assertResult.bodyJson().extractingPath("$.parallelism").asNumber().isEqualTo(3);
+        
+        String location = created.getResponse().getHeader("Location");
+        String body = mockMvcTester.get().uri(location).exchange().getResponse().getContentAsString();
+        
+        // ヘッダー行1行 + ユーザー20行がID順に連結されていること
+        assertThat(body.lines().toList())
+                .hasSize(21)
+                .first().asString().startsWith("id,");
+        assertThat(body.lines().skip(1).map(line -> line.substring(0, line.indexOf(','))).toList())
+                .isSorted()
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("バイナリ形式で並列ダンプを指定すると400エラーが返されること")
+    void testCreateDumpFile_BinaryParallel() throws Exception {
+        var assertResult = assertThat(mockMvcTester.post()
+                .uri("/users/dump")
+                .param("format", "binary")
+                .param("parallelism", "2"))
+                .hasStatus(400)
+                .hasContentType(MediaType.APPLICATION_PROBLEM_JSON);
+
+        assertResult.bodyJson().extractingPath("$.title").asString().isEqualTo("Invalid dump request");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("存在しないダンプファイルを指定すると404エラーが返されること")
+    void testDownloadDumpFile_NotFound() throws Exception {
+        assertThat(mockMvcTester.get().uri("/users/dump/{fileName}", "users-20240101000000-00000000.csv"))
+                .hasStatus(404);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("管理者以外はダンプできないこと")
+    void testDumpUsers_WithoutAdminRole() throws Exception {
+        assertThat(mockMvcTester.get().uri("/users/dump"))
+                .hasStatus(403);
+    }
+
     @Test
     @WithMockUser
     @DisplayName("存在するユーザーを削除できること")
@@ -443,15 +1065,25 @@ class UserRestControllerTest {
             """
     })
     void testDeleteAllUsers_Success() throws Exception {
-        var assertResult = assertThat(mockMvcTester.delete()
+        MvcTestResult accepted = mockMvcTester.delete()
                 .uri("/users")
-                .header(HttpHeaders.CONFIRM_DELETE_ALL, "true"))
-                .hasStatusOk()
-                .hasContentType(MediaType.APPLICATION_JSON);
-
-        assertResult.bodyJson().extractingPath("$.deletedCount").asNumber().isEqualTo(3);
+                .header(HttpHeaders.CONFIRM_DELETE_ALL, "true")
+                .exchange();
+        
+        var assertResult = assertThat(accepted)
+                .hasStatus(202)
+                .hasContentType(MediaType.APPLICATION_JSON)
+                .containsHeader("Location");
+        assertResult.bodyJson().extractingPath("$.jobId").asString().isNotBlank();
+        assertResult.bodyJson().extractingPath("$.targetCount").asNumber().isEqualTo(3);
         assertResult.bodyJson().extractingPath("$.environment").asString().isNotBlank();
-        assertResult.bodyJson().extractingPath("$.executedAt").asString().isNotBlank();
+        
+        // ジョブの完了後に削除件数が反映されていることを確認
+        var jobResult = assertThat(awaitDeleteAllJob(accepted.getResponse().getHeader("Location")))
+                .hasStatusOk();
+        jobResult.bodyJson().extractingPath("$.state").asString().isEqualTo("COMPLETED");
+        jobResult.bodyJson().extractingPath("$.deletedCount").asNumber().isEqualTo(3);
+        jobResult.bodyJson().extractingPath("$.finishedAt").asString().isNotBlank();
         
         // 削除後に全ユーザーを取得すると空のリストが返されることを確認
         var usersResult = assertThat(mockMvcTester.get().uri("/users"))
@@ -466,14 +1098,21 @@ class UserRestControllerTest {
     @DisplayName("ユーザーが存在しない場合でも全件削除が成功すること")
     @Sql(statements = "DELETE FROM users;")
     void testDeleteAllUsers_EmptyDatabase() throws Exception {
-        var assertResult = assertThat(mockMvcTester.delete()
+        MvcTestResult accepted = mockMvcTester.delete()
                 .uri("/users")
-                .header(HttpHeaders.CONFIRM_DELETE_ALL, "true"))
-                .hasStatusOk()
+                .header(HttpHeaders.CONFIRM_DELETE_ALL, "true")
+                .exchange();
+        
+        var assertResult = assertThat(accepted)
+                .hasStatus(202)
                 .hasContentType(MediaType.APPLICATION_JSON);
-
-        assertResult.bodyJson().extractingPath("$.deletedCount").asNumber().isEqualTo(0);
+        assertResult.bodyJson().extractingPath("$.targetCount").asNumber().isEqualTo(0);
         assertResult.bodyJson().extractingPath("$.environment").asString().isNotBlank();
+        
+        var jobResult = assertThat(awaitDeleteAllJob(accepted.getResponse().getHeader("Location")))
+                .hasStatusOk();
+        jobResult.bodyJson().extractingPath("$.state").asString().isEqualTo("COMPLETED");
+        jobResult.bodyJson().extractingPath("$.deletedCount").asNumber().isEqualTo(0);
     }
 
     @Test
@@ -529,13 +1168,17 @@ class UserRestControllerTest {
             """
     })
     void testDeleteAllUsers_WithUppercaseConfirmationHeader() throws Exception {
-        var assertResult = assertThat(mockMvcTester.delete()
+        MvcTestResult accepted = mockMvcTester.delete()
                 .uri("/users")
-                .header(HttpHeaders.CONFIRM_DELETE_ALL, "TRUE"))
-                .hasStatusOk()
+                .header(HttpHeaders.CONFIRM_DELETE_ALL, "TRUE")
+                .exchange();
+        
+        assertThat(accepted)
+                .hasStatus(202)
                 .hasContentType(MediaType.APPLICATION_JSON);
-
-        assertResult.bodyJson().extractingPath("$.deletedCount").asNumber().isEqualTo(1);
+        
+        assertThat(awaitDeleteAllJob(accepted.getResponse().getHeader("Location")))
+                .bodyJson().extractingPath("$.deletedCount").asNumber().isEqualTo(1);
     }
 
     @Test
@@ -555,6 +1198,17 @@ class UserRestControllerTest {
                 .hasStatus(403);
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("存在しない全件削除ジョブを指定すると404エラーが返されること")
+    void testGetDeleteAllJob_NotFound() throws Exception {
+        var assertResult = assertThat(mockMvcTester.get().uri("/users/delete-all-jobs/{jobId}", "unknown-job"))
+                .hasStatus(404)
+                .hasContentType(MediaType.APPLICATION_PROBLEM_JSON);
+
+        assertResult.bodyJson().extractingPath("$.title").asString().isEqualTo("Delete all job not found");
+    }
+
     @Test
     @DisplayName("未認証で全件削除を試行すると401エラーが返されること")
     void testDeleteAllUsers_Unauthenticated() throws Exception {
@@ -933,9 +1587,23 @@ class UserRestControllerTest {
 
     // 注意: 内部詳細マスキングの検証について
     // GlobalExceptionHandlerは常にErrorMessages.DELETE_ALL_NOT_ALLOWEDを返すため、
-    // UserServiceがどのような詳細メッセージを例外に含めても、
+    // UserDeleteAllJobServiceがどのような詳細メッセージを例外に含めても、
     // クライアントには安全なメッセージのみが返される。
     // この動作は既存のテスト（確認ヘッダーなし、不正値）で検証済み。
     // サービス層の内部メッセージ（削除上限値など）は
-    // UserServiceTestで検証されている。
+    // UserDeleteAllJobServiceTestで検証されている。
+
+    /**
+     * 全件削除ジョブが終了するまで状態を取得する
+     */
+    private MvcTestResult awaitDeleteAllJob(String location) throws Exception {
+        for (int i = 0; i < 50; i++) {
+            MvcTestResult result = mockMvcTester.get().uri(location).exchange();
+            if (!result.getResponse().getContentAsString().contains("\"RUNNING\"")) {
+                return result;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("全件削除ジョブが終了しませんでした: " + location);
+    }
 }
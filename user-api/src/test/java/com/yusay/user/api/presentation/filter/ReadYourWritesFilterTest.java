@@ -0,0 +1,106 @@
+package com.yusay.user.api.presentation.filter;
+
+import com.yusay.user.api.infrastructure.ReadYourWritesContext;
+import com.yusay.user.api.presentation.constant.HttpHeaders;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.replication.LogSequenceNumber;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReadYourWritesFilter のテスト")
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(5));
+
+    /**
+     * フィルターを通したリクエストの処理中に参照できる最小LSNを返す
+     */
+    private LogSequenceNumber requiredLsnOf(MockHttpServletRequest request) throws Exception {
+        AtomicReference<LogSequenceNumber> required = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> required.set(ReadYourWritesContext.requiredLsn()));
+        return required.get();
+    }
+
+    @Test
+    @DisplayName("ヘッダーのLSNを最小LSNとし、Cookieより優先する")
+    void doFilter_withHeader_usesHeaderLsn() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.addHeader(HttpHeaders.MIN_LSN, "0/16B3748");
+        request.setCookies(new Cookie(ReadYourWritesFilter.MIN_LSN_COOKIE, "0/1000000"));
+
+        // Act & Assert
+        assertThat(requiredLsnOf(request)).isEqualTo(LogSequenceNumber.valueOf("0/16B3748"));
+        assertThat(ReadYourWritesContext.isBound()).isFalse();
+    }
+
+    @Test
+    @DisplayName("ヘッダーが無い場合はCookieのLSNを最小LSNとする")
+    void doFilter_withCookie_usesCookieLsn() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.setCookies(new Cookie(ReadYourWritesFilter.MIN_LSN_COOKIE, "0/1000000"));
+
+        // Act & Assert
+        assertThat(requiredLsnOf(request)).isEqualTo(LogSequenceNumber.valueOf("0/1000000"));
+    }
+
+    @Test
+    @DisplayName("16進数でないヘッダーは指定が無いものとして扱い、リクエストを失敗させない")
+    void doFilter_withMalformedHeader_ignoresLsn() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.addHeader(HttpHeaders.MIN_LSN, "zz/1");
+
+        // Act & Assert
+        assertThat(requiredLsnOf(request)).isNull();
+    }
+
+    @Test
+    @DisplayName("16進数でないCookieは指定が無いものとして扱い、リクエストを失敗させない")
+    void doFilter_withMalformedCookie_ignoresLsn() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.setCookies(new Cookie(ReadYourWritesFilter.MIN_LSN_COOKIE, "0/xyz"));
+
+        // Act & Assert
+        assertThat(requiredLsnOf(request)).isNull();
+    }
+
+    @Test
+    @DisplayName("区切りの無い値（INVALID_LSN）は指定が無いものとして扱う")
+    void doFilter_withInvalidLsn_ignoresLsn() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.addHeader(HttpHeaders.MIN_LSN, "16B3748");
+
+        // Act & Assert
+        assertThat(requiredLsnOf(request)).isNull();
+    }
+
+    @Test
+    @DisplayName("書き込みが記録された場合、LSNをレスポンスヘッダーとCookieで返す")
+    void doFilter_whenWriteRecorded_returnsLsn() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response,
+                (req, res) -> ReadYourWritesContext.recordWrite(LogSequenceNumber.valueOf("0/2000000")));
+
+        // Assert
+        assertThat(response.getHeader(HttpHeaders.MIN_LSN)).isEqualTo("0/2000000");
+        assertThat(response.getCookie(ReadYourWritesFilter.MIN_LSN_COOKIE))
+                .extracting(Cookie::getValue)
+                .isEqualTo("0/2000000");
+    }
+}
@@ -0,0 +1,120 @@
+package com.yusay.user.api.presentation.filter;
+
+import com.yusay.user.api.domain.exception.PasswordHashingBusyException;
+import com.yusay.user.api.presentation.advice.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Basic認証での過負荷による失敗の応答のテスト")
+class ServiceUnavailableAuthenticationFilterTest {
+
+    private static final String BASIC_CREDENTIALS = "Basic " + Base64.getEncoder()
+            .encodeToString("testuser:password".getBytes(StandardCharsets.UTF_8));
+
+    private AuthenticationManager authenticationManager;
+    private MockMvc mockMvc;
+
+    @RestController
+    static class UsersController {
+        @GetMapping("/users")
+        String list() {
+            return "[]";
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // アプリケーションと同じく、@RestControllerAdvice の例外ハンドラーで応答を組み立てる
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.registerSingleton("globalExceptionHandler", GlobalExceptionHandler.class);
+        context.refresh();
+        ExceptionHandlerExceptionResolver resolver = new ExceptionHandlerExceptionResolver();
+        resolver.setApplicationContext(context);
+        resolver.setMessageConverters(List.of(new JacksonJsonHttpMessageConverter()));
+        resolver.afterPropertiesSet();
+
+        BasicAuthenticationEntryPoint basicChallenge = new BasicAuthenticationEntryPoint();
+        basicChallenge.setRealmName("Realm");
+        authenticationManager = mock(AuthenticationManager.class);
+        BasicAuthenticationFilter basicAuthenticationFilter = new BasicAuthenticationFilter(
+                authenticationManager, new ServiceUnavailableAuthenticationEntryPoint(basicChallenge, resolver));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new UsersController())
+                .addFilters(new ServiceUnavailableAuthenticationFilter(resolver), basicAuthenticationFilter)
+                .build();
+    }
+
+    @Test
+    @DisplayName("パスワードのハッシュ化を受け付けられない場合は503とRetry-Afterを返す")
+    void basicAuthentication_whenHashingBusy_returns503() throws Exception {
+        // Arrange
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new PasswordHashingBusyException("Password hashing queue is full"));
+
+        // Act & Assert
+        mockMvc.perform(get("/users").header("Authorization", BASIC_CREDENTIALS))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(header().doesNotExist("WWW-Authenticate"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.title").value("Service unavailable"))
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.path").value("/users"));
+    }
+
+    @Test
+    @DisplayName("ユーザーの読み込みで接続を取得できない場合は401ではなく503とRetry-Afterを返す")
+    void basicAuthentication_whenConnectionUnavailable_returns503() throws Exception {
+        // Arrange
+        when(authenticationManager.authenticate(any())).thenThrow(new InternalAuthenticationServiceException(
+                "Failed to load user", new CannotGetJdbcConnectionException("Connection is not available")));
+
+        // Act & Assert
+        mockMvc.perform(get("/users").header("Authorization", BASIC_CREDENTIALS))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(header().doesNotExist("WWW-Authenticate"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.title").value("Service unavailable"));
+    }
+
+    @Test
+    @DisplayName("パスワードが誤っている場合は従来どおり401とBasic認証のチャレンジを返す")
+    void basicAuthentication_whenBadCredentials_returns401() throws Exception {
+        // Arrange
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        // Act & Assert
+        mockMvc.perform(get("/users").header("Authorization", BASIC_CREDENTIALS))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Basic realm=\"Realm\""));
+    }
+}